@@ -0,0 +1,125 @@
+package at.uibk.dps.ee.control.agents;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import at.uibk.dps.ee.control.enactment.PostEnactmentQueueing;
+import at.uibk.dps.ee.control.graph.GraphAccess;
+import at.uibk.dps.ee.control.graph.GraphAccessConcurrent;
+import at.uibk.dps.ee.control.graph.InstanceState;
+import at.uibk.dps.ee.control.graph.InstanceStateGraph;
+import at.uibk.dps.ee.control.graph.NoopEnactable;
+import at.uibk.dps.ee.control.management.EnactmentQueues;
+import at.uibk.dps.ee.control.transmission.ReadinessTracker;
+import at.uibk.dps.ee.control.transmission.SchedulabilityCheck;
+import at.uibk.dps.ee.control.transmission.SchedulabilityCheckCounter;
+import at.uibk.dps.ee.control.transmission.SchedulabilityCheckMuxer;
+import at.uibk.dps.ee.core.enactable.Enactable.State;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunction;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunction.UsageType;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlow;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlow.DataFlowType;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionUser;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+
+/**
+ * Measures the post-enactment treatment and the choice of the schedulability
+ * check, which read the static annotations of the function node on each visit.
+ * The benchmarks ending with PropertyServices read the annotations via the
+ * property services (the way it was done before the introduction of the
+ * {@link at.uibk.dps.ee.control.graph.NodeProperties} sidecar) and serve as the
+ * baseline.
+ *
+ * @author Fedor Smirnov
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@org.openjdk.jmh.annotations.State(Scope.Benchmark)
+public class NodePropertiesBenchmark {
+
+  protected Task functionNode;
+  protected Dependency edge;
+  protected PostEnactmentQueueing postEnactment;
+  protected AgentFactoryTransmission transmissionFactory;
+  protected InstanceState instanceState;
+  protected EnactmentQueues queues;
+  protected ReadinessTracker readinessTracker;
+
+  /**
+   * Creates the function node and the tested objects. The queues are drained
+   * by the benchmarks, so that they do not grow.
+   */
+  @Setup
+  public void setUp() {
+    functionNode = PropertyServiceFunctionUser.createUserTask("function", "addition");
+    PropertyServiceFunction.setEnactable(functionNode, new NoopEnactable(functionNode));
+    edge = new Dependency("edge");
+    instanceState = new InstanceStateGraph();
+    queues = new EnactmentQueues();
+    postEnactment = new PostEnactmentQueueing(queues, instanceState);
+    final GraphAccess graphAccess = new GraphAccessConcurrent(new EnactmentGraph());
+    readinessTracker = new ReadinessTracker(instanceState, graphAccess);
+    transmissionFactory =
+        new AgentFactoryTransmission(queues, graphAccess, readinessTracker, instanceState);
+  }
+
+  /**
+   * Post-enactment treatment of a finished user function.
+   *
+   * @return the finished task
+   */
+  @Benchmark
+  public Task postEnactmentTreatment() {
+    postEnactment.postEnactmentTreatment(functionNode);
+    return queues.pollFinishedTask();
+  }
+
+  /**
+   * Baseline for {@link #postEnactmentTreatment()}.
+   *
+   * @return the finished task
+   */
+  @Benchmark
+  public Task postEnactmentTreatmentPropertyServices() {
+    if (PropertyServiceFunction.getUsageType(functionNode).equals(UsageType.DataFlow)
+        && PropertyServiceFunctionDataFlow.getDataFlowType(functionNode)
+            .equals(DataFlowType.Collections)) {
+      queues.putTransformTask(functionNode);
+    } else if (instanceState.getEnactable(functionNode).getState() == State.STOPPED) {
+      queues.putSchedulableTask(functionNode);
+    } else {
+      queues.putFinishedTask(functionNode);
+    }
+    return queues.pollFinishedTask();
+  }
+
+  /**
+   * Choice of the schedulability check for a user function.
+   *
+   * @return the schedulability check
+   */
+  @Benchmark
+  public SchedulabilityCheck getCheckForTarget() {
+    return transmissionFactory.getCheckForTarget(functionNode, edge);
+  }
+
+  /**
+   * Baseline for {@link #getCheckForTarget()}.
+   *
+   * @return the schedulability check
+   */
+  @Benchmark
+  public SchedulabilityCheck getCheckForTargetPropertyServices() {
+    if (PropertyServiceFunctionDataFlow.isMultiplexerNode(functionNode)) {
+      return new SchedulabilityCheckMuxer(instanceState);
+    } else {
+      return new SchedulabilityCheckCounter(readinessTracker, edge);
+    }
+  }
+}
@@ -0,0 +1,95 @@
+package at.uibk.dps.ee.control.graph;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.model.properties.TaskPropertyService;
+
+/**
+ * Compares the graph access implementations under contention: Multiple threads
+ * concurrently apply transmission-like write operations (annotate an in edge
+ * and scan the in edges of the function node) to the function nodes of a wide
+ * fan-out graph (modeling a parallel for loop).
+ *
+ * @author Fedor Smirnov
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class GraphAccessContentionBenchmark {
+
+  /**
+   * The compared graph access implementations.
+   */
+  public enum AccessType {
+    /**
+     * {@link GraphAccessConcurrent}
+     */
+    Global,
+    /**
+     * {@link GraphAccessStriped}
+     */
+    Striped
+  }
+
+  @Param({"Global", "Striped"})
+  public AccessType accessType;
+
+  @Param({"2000"})
+  public int width;
+
+  @Param({"64"})
+  public int stripeNumber;
+
+  protected GraphAccess graphAccess;
+  protected List<Task> functionNodes;
+
+  /**
+   * Creates the graph and the access.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    final EnactmentGraph graph = SyntheticGraphs.wideFanOut(width);
+    graphAccess = accessType.equals(AccessType.Global) ? new GraphAccessConcurrent(graph)
+        : new GraphAccessStriped(graph, stripeNumber);
+    functionNodes = new ArrayList<>();
+    graph.getVertices().stream().filter(task -> TaskPropertyService.isProcess(task))
+        .forEach(functionNodes::add);
+  }
+
+  /**
+   * Annotates an in edge of a random function node.
+   *
+   * @return the result of the in-edge scan
+   */
+  @Benchmark
+  @Threads(8)
+  public boolean annotateTransmission() {
+    final Task target =
+        functionNodes.get(ThreadLocalRandom.current().nextInt(functionNodes.size()));
+    final boolean[] result = new boolean[1];
+    graphAccess.writeOperationTask((graph, task) -> {
+      for (final Dependency inEdge : graph.getInEdges(task)) {
+        PropertyServiceDependency.annotateFinishedTransmission(inEdge);
+      }
+      result[0] = graph.getInEdges(task).stream()
+          .allMatch(edge -> PropertyServiceDependency.isTransmissionDone(edge));
+    }, target);
+    return result[0];
+  }
+}
@@ -0,0 +1,70 @@
+package at.uibk.dps.ee.control.graph;
+
+import java.util.HashSet;
+import java.util.concurrent.atomic.AtomicLong;
+import com.google.gson.JsonObject;
+import at.uibk.dps.ee.enactables.EnactableAtomic;
+import net.sf.opendse.model.Task;
+
+/**
+ * Enactable used by the benchmarks: Each play blocks the thread for the
+ * configured latency (modeling the wait for a remote function), counts the
+ * play, and leaves the precomputed result. The enactable is always reported as
+ * finished and is stateless otherwise, so that it can be shared by the offspring
+ * of a reproduced node.
+ *
+ * @author Fedor Smirnov
+ */
+public class NoopEnactable extends EnactableAtomic {
+
+  protected final JsonObject result;
+  protected final long latency;
+  protected final AtomicLong playCounter;
+
+  /**
+   * Creates an enactable with an empty result which returns immediately.
+   *
+   * @param functionNode the function node
+   */
+  public NoopEnactable(final Task functionNode) {
+    this(functionNode, new JsonObject(), 0, new AtomicLong());
+  }
+
+  /**
+   * Default constructor.
+   *
+   * @param functionNode the function node
+   * @param result the result returned after each play
+   * @param latency the time (in ms) each play blocks its thread
+   * @param playCounter the counter incremented with each play
+   */
+  public NoopEnactable(final Task functionNode, final JsonObject result, final long latency,
+      final AtomicLong playCounter) {
+    super(new HashSet<>(), functionNode);
+    this.result = result;
+    this.latency = latency;
+    this.playCounter = playCounter;
+  }
+
+  @Override
+  public void play() {
+    if (latency > 0) {
+      try {
+        Thread.sleep(latency);
+      } catch (InterruptedException exc) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    playCounter.incrementAndGet();
+  }
+
+  @Override
+  public JsonObject getResult() {
+    return result;
+  }
+
+  @Override
+  public State getState() {
+    return State.FINISHED;
+  }
+}
@@ -0,0 +1,28 @@
+package at.uibk.dps.ee.control.graph;
+
+import java.util.HashSet;
+import at.uibk.dps.ee.enactables.EnactableAtomic;
+import at.uibk.dps.ee.enactables.EnactableFactory;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunction;
+import net.sf.opendse.model.Task;
+
+/**
+ * Enactable factory used by the benchmarks: The offspring nodes share the
+ * (stateless, see {@link NoopEnactable}) enactable of their parent.
+ *
+ * @author Fedor Smirnov
+ */
+public class NoopEnactableFactory extends EnactableFactory {
+
+  /**
+   * Default constructor.
+   */
+  public NoopEnactableFactory() {
+    super(new HashSet<>());
+  }
+
+  @Override
+  public void reproduceEnactable(final Task offspringTask, final EnactableAtomic parent) {
+    PropertyServiceFunction.setEnactable(offspringTask, parent);
+  }
+}
@@ -0,0 +1,87 @@
+package at.uibk.dps.ee.control.graph;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunction;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.model.properties.TaskPropertyService;
+
+/**
+ * Measures the sweeps of the distribution and the aggregation transforms over
+ * loop bodies consisting of a chain of diamonds (see
+ * {@link SyntheticGraphs#diamondChainDistribution(int, int)}). Each diamond
+ * doubles the number of paths through the body, so the time of a sweep which
+ * does not track the visited nodes grows exponentially with the number of
+ * diamonds; the sweeps are expected to scale linearly.
+ *
+ * @author Fedor Smirnov
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ReproductionSweepBenchmark {
+
+  @Param({"4", "16", "64", "256"})
+  public int diamonds;
+
+  protected EnactmentGraph originalGraph;
+  protected Task originalDistribution;
+  protected EnactmentGraph reproducedGraph;
+  protected Task reproducedDistribution;
+  protected GraphTransformDistribution distributionTransform;
+  protected GraphTransformAggregation aggregationTransform;
+
+  /**
+   * Creates the original graph (for the distribution sweep) and a graph where
+   * the loop is already unrolled (for the aggregation sweep).
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    distributionTransform = new GraphTransformDistribution(new NoopEnactableFactory());
+    aggregationTransform = new GraphTransformAggregation();
+    originalGraph = SyntheticGraphs.diamondChainDistribution(2, diamonds);
+    originalDistribution = originalGraph.getVertex("distribution");
+    reproducedGraph = SyntheticGraphs.diamondChainDistribution(2, diamonds);
+    reproducedDistribution = reproducedGraph.getVertex("distribution");
+    reproducedGraph.getVertices().stream().filter(task -> TaskPropertyService.isProcess(task))
+        .forEach(task -> PropertyServiceFunction.setEnactable(task, new NoopEnactable(task)));
+    distributionTransform.modifyEnactmentGraph(new GraphAccessConcurrent(reproducedGraph),
+        reproducedDistribution);
+  }
+
+  /**
+   * Sweep of the distribution transform (finding the edges to reproduce).
+   *
+   * @return the edges to reproduce
+   */
+  @Benchmark
+  public Set<Dependency> distributionSweep() {
+    return distributionTransform.findEdgesToReproduce(originalGraph, originalDistribution);
+  }
+
+  /**
+   * Sweep of the aggregation transform (finding the reproduced elements).
+   *
+   * @return the reproduced edges
+   */
+  @Benchmark
+  public Set<Dependency> aggregationSweep() {
+    final Set<Task> offspringTasks = new HashSet<>();
+    final Set<Dependency> offspringDependencies = new HashSet<>();
+    aggregationTransform.sweepReproducedGraphSection(reproducedGraph, reproducedDistribution,
+        offspringTasks, offspringDependencies, "scope");
+    return offspringDependencies;
+  }
+}
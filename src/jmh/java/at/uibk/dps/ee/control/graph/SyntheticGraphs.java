@@ -0,0 +1,212 @@
+package at.uibk.dps.ee.control.graph;
+
+import at.uibk.dps.ee.model.constants.ConstantsEEModel;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.properties.PropertyServiceData;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections.OperationType;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionUser;
+import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.Task;
+
+/**
+ * Static methods creating the synthetic {@link EnactmentGraph}s used by the
+ * benchmarks. Each graph has a single root node (json key
+ * {@link #jsonKeyInput}).
+ *
+ * @author Fedor Smirnov
+ */
+public final class SyntheticGraphs {
+
+  public static final String jsonKeyInput = "input";
+  public static final String jsonKeyFunctionIn = "funcIn";
+  public static final String jsonKeyFunctionOut = "funcOut";
+  public static final String jsonKeyCollection = "collection";
+  public static final String functionTypeId = "noop";
+
+  /**
+   * No constructor.
+   */
+  private SyntheticGraphs() {}
+
+  /**
+   * Creates a graph where the root node is processed by the given number of
+   * independent functions, each producing one leaf node.
+   *
+   * @param width the number of parallel functions
+   * @return a graph with the given fan-out
+   */
+  public static EnactmentGraph wideFanOut(final int width) {
+    final EnactmentGraph result = new EnactmentGraph();
+    final Communication root = createRoot();
+    for (int idx = 0; idx < width; idx++) {
+      final Task function = createFunction("function" + idx);
+      final Communication leaf = createLeaf("output" + idx);
+      PropertyServiceDependency.addDataDependency(root, function, jsonKeyFunctionIn, result);
+      PropertyServiceDependency.addDataDependency(function, leaf, jsonKeyFunctionOut, result);
+    }
+    return result;
+  }
+
+  /**
+   * Creates a graph with a chain of functions (each function processes the
+   * result of its predecessor).
+   *
+   * @param depth the number of functions in the chain
+   * @return a graph with a function chain of the given depth
+   */
+  public static EnactmentGraph chain(final int depth) {
+    final EnactmentGraph result = new EnactmentGraph();
+    Communication current = createRoot();
+    for (int idx = 0; idx < depth; idx++) {
+      final Task function = createFunction("function" + idx);
+      final Communication next =
+          idx == depth - 1 ? createLeaf("output") : new Communication("data" + idx);
+      PropertyServiceDependency.addDataDependency(current, function, jsonKeyFunctionIn, result);
+      PropertyServiceDependency.addDataDependency(function, next, jsonKeyFunctionOut, result);
+      current = next;
+    }
+    return result;
+  }
+
+  /**
+   * Creates a graph with two nested parallel for loops (the structure used in
+   * the DistAggrNestedTest).
+   *
+   * @param outerIterations the iteration number of the outer loop
+   * @param innerIterations the iteration number of the inner loop
+   * @return a graph with two nested parallel for loops
+   */
+  public static EnactmentGraph nestedDistribution(final int outerIterations,
+      final int innerIterations) {
+    final EnactmentGraph result = new EnactmentGraph();
+    final String outerScope = "outerScope";
+    final String innerScope = "innerScope";
+    final Communication root = createRoot();
+    final Communication leaf = createLeaf("output");
+    final Task outerDistribution = PropertyServiceFunctionDataFlowCollections
+        .createCollectionDataFlowTask("distribution", OperationType.Distribution, outerScope);
+    PropertyServiceFunctionDataFlowCollections.setIterationNumber(outerDistribution,
+        outerIterations);
+    final Task innerDistribution = PropertyServiceFunctionDataFlowCollections
+        .createCollectionDataFlowTask("distribution2", OperationType.Distribution, innerScope);
+    PropertyServiceFunctionDataFlowCollections.setIterationNumber(innerDistribution,
+        innerIterations);
+    final Task function = createFunction("function");
+    final Task innerAggregation = PropertyServiceFunctionDataFlowCollections
+        .createCollectionDataFlowTask("aggregation2", OperationType.Aggregation, innerScope);
+    final Task outerAggregation = PropertyServiceFunctionDataFlowCollections
+        .createCollectionDataFlowTask("aggregation", OperationType.Aggregation, outerScope);
+
+    final Communication outerElement = new Communication("distributedData");
+    final Communication innerElement = new Communication("distributedData2");
+    final Communication functionResult = new Communication("funcResult");
+    final Communication innerAggregated = new Communication("funcResult2");
+
+    PropertyServiceDependency.addDataDependency(root, outerDistribution, jsonKeyCollection,
+        result);
+    PropertyServiceDependency.addDataDependency(outerDistribution, outerElement,
+        jsonKeyCollection, result);
+    PropertyServiceDependency.addDataDependency(outerElement, innerDistribution,
+        jsonKeyCollection, result);
+    PropertyServiceDependency.addDataDependency(innerDistribution, innerElement,
+        jsonKeyCollection, result);
+    PropertyServiceDependency.addDataDependency(innerElement, function, jsonKeyFunctionIn,
+        result);
+    PropertyServiceDependency.addDataDependency(function, functionResult, jsonKeyFunctionOut,
+        result);
+    PropertyServiceDependency.addDataDependency(functionResult, innerAggregation,
+        ConstantsEEModel.JsonKeyAggregation, result);
+    PropertyServiceDependency.addDataDependency(innerAggregation, innerAggregated,
+        ConstantsEEModel.JsonKeyAggregation, result);
+    PropertyServiceDependency.addDataDependency(innerAggregated, outerAggregation,
+        ConstantsEEModel.JsonKeyAggregation, result);
+    PropertyServiceDependency.addDataDependency(outerAggregation, leaf,
+        ConstantsEEModel.JsonKeyAggregation, result);
+    return result;
+  }
+
+  /**
+   * Creates a graph with a parallel for loop whose body is a chain of diamonds:
+   * Each diamond processes its input with two functions whose results are
+   * joined by a third function (the input of the next diamond).
+   *
+   * @param iterations the iteration number of the loop
+   * @param diamonds the number of diamonds in the loop body
+   * @return a graph with a parallel for loop over a diamond chain
+   */
+  public static EnactmentGraph diamondChainDistribution(final int iterations,
+      final int diamonds) {
+    final EnactmentGraph result = new EnactmentGraph();
+    final String scope = "scope";
+    final Communication root = createRoot();
+    final Communication leaf = createLeaf("output");
+    final Task distribution = PropertyServiceFunctionDataFlowCollections
+        .createCollectionDataFlowTask("distribution", OperationType.Distribution, scope);
+    PropertyServiceFunctionDataFlowCollections.setIterationNumber(distribution, iterations);
+    final Task aggregation = PropertyServiceFunctionDataFlowCollections
+        .createCollectionDataFlowTask("aggregation", OperationType.Aggregation, scope);
+    Communication current = new Communication("distributedData");
+    PropertyServiceDependency.addDataDependency(root, distribution, jsonKeyCollection, result);
+    PropertyServiceDependency.addDataDependency(distribution, current, jsonKeyCollection,
+        result);
+    for (int idx = 0; idx < diamonds; idx++) {
+      final Task left = createFunction("left" + idx);
+      final Task right = createFunction("right" + idx);
+      final Task join = createFunction("join" + idx);
+      final Communication leftResult = new Communication("leftResult" + idx);
+      final Communication rightResult = new Communication("rightResult" + idx);
+      final Communication joined = new Communication("joined" + idx);
+      PropertyServiceDependency.addDataDependency(current, left, jsonKeyFunctionIn, result);
+      PropertyServiceDependency.addDataDependency(current, right, jsonKeyFunctionIn, result);
+      PropertyServiceDependency.addDataDependency(left, leftResult, jsonKeyFunctionOut, result);
+      PropertyServiceDependency.addDataDependency(right, rightResult, jsonKeyFunctionOut,
+          result);
+      PropertyServiceDependency.addDataDependency(leftResult, join, "left", result);
+      PropertyServiceDependency.addDataDependency(rightResult, join, "right", result);
+      PropertyServiceDependency.addDataDependency(join, joined, jsonKeyFunctionOut, result);
+      current = joined;
+    }
+    PropertyServiceDependency.addDataDependency(current, aggregation,
+        ConstantsEEModel.JsonKeyAggregation, result);
+    PropertyServiceDependency.addDataDependency(aggregation, leaf,
+        ConstantsEEModel.JsonKeyAggregation, result);
+    return result;
+  }
+
+  /**
+   * Creates the root node of the graph.
+   *
+   * @return the root node of the graph
+   */
+  private static Communication createRoot() {
+    final Communication root = new Communication("input");
+    PropertyServiceData.makeRoot(root);
+    PropertyServiceData.setJsonKey(root, jsonKeyInput);
+    return root;
+  }
+
+  /**
+   * Creates a leaf node with the given id (also used as json key).
+   *
+   * @param id the node id
+   * @return a leaf node with the given id
+   */
+  private static Communication createLeaf(final String id) {
+    final Communication leaf = new Communication(id);
+    PropertyServiceData.makeLeaf(leaf);
+    PropertyServiceData.setJsonKey(leaf, id);
+    return leaf;
+  }
+
+  /**
+   * Creates a user function node with the given id.
+   *
+   * @param id the node id
+   * @return a user function node with the given id
+   */
+  private static Task createFunction(final String id) {
+    return PropertyServiceFunctionUser.createUserTask(id, functionTypeId);
+  }
+}
@@ -0,0 +1,227 @@
+package at.uibk.dps.ee.control.management;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import at.uibk.dps.ee.control.agents.AgentFactoryActivation;
+import at.uibk.dps.ee.control.agents.AgentFactoryEnactment;
+import at.uibk.dps.ee.control.agents.AgentFactoryExtraction;
+import at.uibk.dps.ee.control.agents.AgentFactoryScheduling;
+import at.uibk.dps.ee.control.agents.AgentFactoryTransform;
+import at.uibk.dps.ee.control.agents.AgentFactoryTransmission;
+import at.uibk.dps.ee.control.command.Control;
+import at.uibk.dps.ee.control.enactment.EnactmentCoalescer;
+import at.uibk.dps.ee.control.enactment.ResultCache;
+import at.uibk.dps.ee.control.graph.GraphAccess;
+import at.uibk.dps.ee.control.graph.GraphAccessConcurrent;
+import at.uibk.dps.ee.control.graph.InstanceState;
+import at.uibk.dps.ee.control.graph.InstanceStateGraph;
+import at.uibk.dps.ee.control.graph.NoopEnactable;
+import at.uibk.dps.ee.control.graph.NoopEnactableFactory;
+import at.uibk.dps.ee.control.transmission.ReadinessTracker;
+import at.uibk.dps.ee.core.enactable.EnactmentFunction;
+import at.uibk.dps.ee.enactables.EnactableAtomic;
+import at.uibk.dps.ee.model.constants.ConstantsEEModel;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunction;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections;
+import at.uibk.dps.sc.core.ScheduleModel;
+import at.uibk.dps.sc.core.interpreter.ScheduleInterpreter;
+import at.uibk.dps.sc.core.scheduler.Scheduler;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Mapping;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.model.properties.TaskPropertyService;
+
+/**
+ * Wires up an {@link EnactmentAgent} or an {@link EnactmentReactor} (the way
+ * Guice would do it) for the enactment of a given graph. The function nodes
+ * are annotated with no-op enactables (see {@link NoopEnactable}) and the
+ * scheduling components are trivial local stubs, so that the measurements
+ * capture the overhead of the control layer (and not the allocations of a
+ * mocking framework).
+ *
+ * @author Fedor Smirnov
+ */
+public final class BenchmarkPipeline {
+
+  /**
+   * The configuration of the pipeline (the defaults correspond to the default
+   * configuration of the EE).
+   *
+   * @author Fedor Smirnov
+   */
+  public static final class Options {
+    /**
+     * The time (in ms) each enactable blocks its thread (modeling the wait for a
+     * remote function).
+     */
+    public long enactmentLatency;
+    /**
+     * Whether the extraction and transmission agents are run by their
+     * activation agents.
+     */
+    public boolean inlineBookkeeping;
+    /**
+     * The maximal number of elements taken from a queue at once.
+     */
+    public int queueBatchSize = 1;
+    /**
+     * Whether the enactment is driven by an {@link EnactmentReactor} (instead of
+     * the activation agents).
+     */
+    public boolean reactor;
+  }
+
+  protected final MainAgent enactmentAgent;
+  protected final AtomicLong enactmentCounter = new AtomicLong();
+  protected final long enactmentLatency;
+
+  /**
+   * Wires up the enactment agent for the given graph (with the default options).
+   *
+   * @param graph the graph to enact (modified during the enactment)
+   * @param executorProvider the provider for the executor service of the agents
+   */
+  public BenchmarkPipeline(final EnactmentGraph graph, final ExecutorProvider executorProvider) {
+    this(graph, executorProvider, new Options());
+  }
+
+  /**
+   * Wires up the enactment agent for the given graph.
+   *
+   * @param graph the graph to enact (modified during the enactment)
+   * @param executorProvider the provider for the executor service of the agents
+   * @param options the configuration of the pipeline
+   */
+  public BenchmarkPipeline(final EnactmentGraph graph, final ExecutorProvider executorProvider,
+      final Options options) {
+    this.enactmentLatency = options.enactmentLatency;
+    final NoopEnactableFactory enactableFactory = new NoopEnactableFactory();
+    graph.getVertices().stream().filter(task -> TaskPropertyService.isProcess(task))
+        .forEach(task -> PropertyServiceFunction.setEnactable(task,
+            createNoopEnactable(graph, task)));
+
+    final GraphAccess graphAccess = new GraphAccessConcurrent(graph);
+    final EnactmentQueues queues = new EnactmentQueues(options.queueBatchSize);
+    final InstanceState instanceState = new InstanceStateGraph();
+
+    final ScheduleModel schedule = createNoopScheduleModel();
+    final EnactmentFunction noopFunction = input -> input;
+    final ScheduleInterpreter interpreter = (task, taskSchedule) -> noopFunction;
+    final Scheduler scheduler = task -> Collections.emptySet();
+    final ExecutionMonitor executionMonitor = new ExecutionMonitor(null, null);
+    final ResultCache resultCache = new ResultCache(0, 0, "");
+    final EnactmentCoalescer coalescer = new EnactmentCoalescer(false, resultCache);
+
+    final AgentFactoryScheduling schedulingFactory =
+        new AgentFactoryScheduling(schedule, interpreter, scheduler, queues, instanceState,
+            resultCache, graphAccess);
+    final AgentFactoryTransmission transmissionFactory =
+        new AgentFactoryTransmission(queues, graphAccess,
+            new ReadinessTracker(instanceState, graphAccess), instanceState);
+    final AgentFactoryTransform transformFactory = new AgentFactoryTransform(graphAccess,
+        enactableFactory, queues, new HashSet<>(), executionMonitor, 0, 0);
+    final DataHandler dataHandler = new DataHandlerDefault(graphAccess, queues, instanceState,
+        new PartialResultPublisher());
+    if (options.reactor) {
+      this.enactmentAgent = new EnactmentReactor(queues, graphAccess, executorProvider,
+          new AgentFactoryEnactment(queues, instanceState, resultCache, graphAccess,
+              coalescer, executorProvider),
+          new AgentFactoryExtraction(queues, instanceState),
+          transmissionFactory, schedulingFactory, transformFactory, dataHandler,
+          new EmergencyManagerHardStop(), new Control(false));
+    } else {
+      final AgentFactoryActivation activationFactory = new AgentFactoryActivation(queues,
+          executorProvider, schedulingFactory, transmissionFactory,
+          new AgentFactoryEnactment(queues, instanceState, resultCache, graphAccess,
+              coalescer, executorProvider),
+          new AgentFactoryExtraction(queues, instanceState),
+          transformFactory, graphAccess, options.inlineBookkeeping);
+      this.enactmentAgent = new EnactmentAgent(activationFactory, queues, executorProvider,
+          dataHandler, new EmergencyManagerHardStop(), new Control(false));
+    }
+  }
+
+  /**
+   * Creates a no-op enactable for the given function node. The result of the
+   * enactable contains an entry for each out edge of the node.
+   *
+   * @param graph the enactment graph
+   * @param functionNode the function node
+   * @return a no-op enactable for the given function node
+   */
+  protected EnactableAtomic createNoopEnactable(final EnactmentGraph graph,
+      final Task functionNode) {
+    final JsonObject result = new JsonObject();
+    final boolean distribution =
+        PropertyServiceFunctionDataFlowCollections.isDistributionNode(functionNode);
+    for (final Dependency outEdge : graph.getOutEdges(functionNode)) {
+      final String key = PropertyServiceDependency.getJsonKey(outEdge);
+      if (distribution) {
+        final int iterations =
+            PropertyServiceFunctionDataFlowCollections.getIterationNumber(functionNode);
+        for (int idx = 0; idx < iterations; idx++) {
+          result.add(ConstantsEEModel.getCollectionElementKey(key, idx), new JsonPrimitive(idx));
+        }
+      } else {
+        result.add(key, new JsonPrimitive(0));
+      }
+    }
+    return new NoopEnactable(functionNode, result, enactmentLatency, enactmentCounter);
+  }
+
+  /**
+   * Creates a schedule model which does not record the schedules, so that the
+   * nodes are scheduled anew in each enactment of the graph.
+   *
+   * @return a schedule model which does not record the schedules
+   */
+  protected static ScheduleModel createNoopScheduleModel() {
+    return new ScheduleModel() {
+      @Override
+      public boolean isScheduled(final Task task) {
+        return false;
+      }
+
+      @Override
+      public Set<Mapping<Task, Resource>> getTaskSchedule(final Task task) {
+        return Collections.emptySet();
+      }
+
+      @Override
+      public void setTaskSchedule(final Task task,
+          final Set<Mapping<Task, Resource>> taskSchedule) {
+        // the schedule is not recorded
+      }
+    };
+  }
+
+  /**
+   * Enacts the graph with the given input.
+   *
+   * @param input the wf input
+   * @return the wf output
+   */
+  public JsonObject enact(final JsonObject input) {
+    try {
+      return enactmentAgent.processInput(input);
+    } catch (Exception exc) {
+      throw new IllegalStateException("Exception during the benchmark enactment.", exc);
+    }
+  }
+
+  /**
+   * Returns the number of enactables which were played so far.
+   *
+   * @return the number of enactables which were played so far
+   */
+  public long getEnactmentCount() {
+    return enactmentCounter.get();
+  }
+}
@@ -0,0 +1,169 @@
+package at.uibk.dps.ee.control.management;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import at.uibk.dps.ee.control.graph.SyntheticGraphs;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+
+/**
+ * End-to-end benchmark of {@link EnactmentAgent#processInput(JsonObject)} on
+ * synthetic graphs with no-op enactables. Measures the per-workflow latency,
+ * the number of enacted tasks per second (aux counter), and (with the gc
+ * profiler configured in the build file) the allocation rate of the control
+ * layer.
+ *
+ * @author Fedor Smirnov
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class EnactmentAgentBenchmark {
+
+  /**
+   * The shape of the enacted graph.
+   */
+  public enum GraphShape {
+    /**
+     * One root processed by many independent functions.
+     */
+    WideFanOut,
+    /**
+     * A chain of dependent functions.
+     */
+    Chain,
+    /**
+     * Two nested parallel for loops.
+     */
+    NestedDistribution
+  }
+
+  /**
+   * Counts the tasks enacted during the measurement (reported as rate).
+   *
+   * @author Fedor Smirnov
+   */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  public static class TaskCounter {
+    public long tasks;
+  }
+
+  @Param({"WideFanOut", "Chain", "NestedDistribution"})
+  public GraphShape shape;
+
+  /**
+   * Width of the fan-out, depth of the chain, or the iteration number of the
+   * outer loop (the inner loop has {@link #innerIterations} iterations).
+   */
+  @Param({"16", "256"})
+  public int size;
+
+  /**
+   * Whether the extraction and transmission agents run on the threads of their
+   * activation agents (instead of being submitted to the executor).
+   */
+  @Param({"false", "true"})
+  public boolean inlineBookkeeping;
+
+  /**
+   * The maximal number of elements the activation agents take from their
+   * queues at once.
+   */
+  @Param({"1", "64"})
+  public int queueBatchSize;
+
+  /**
+   * Whether the enactment is driven by a single event loop (instead of the
+   * activation agents; ignores the two parameters above).
+   */
+  @Param({"false", "true"})
+  public boolean reactor;
+
+  protected static final int innerIterations = 4;
+
+  protected ExecutorProvider executorProvider;
+  protected BenchmarkPipeline pipeline;
+  protected JsonObject input;
+
+  /**
+   * Creates the executor (shared by all invocations of a trial).
+   */
+  @Setup(Level.Trial)
+  public void setUpTrial() {
+    executorProvider = new ExecutorProviderCachedThreads();
+    input = new JsonObject();
+    if (shape.equals(GraphShape.NestedDistribution)) {
+      final JsonArray collection = new JsonArray();
+      for (int idx = 0; idx < size; idx++) {
+        collection.add(idx);
+      }
+      input.add(SyntheticGraphs.jsonKeyInput, collection);
+    } else {
+      input.addProperty(SyntheticGraphs.jsonKeyInput, 42);
+    }
+  }
+
+  /**
+   * The graph is modified during the enactment, so that each invocation works
+   * on a fresh graph and a fresh agent.
+   */
+  @Setup(Level.Invocation)
+  public void setUpInvocation() {
+    final BenchmarkPipeline.Options options = new BenchmarkPipeline.Options();
+    options.inlineBookkeeping = inlineBookkeeping;
+    options.queueBatchSize = queueBatchSize;
+    options.reactor = reactor;
+    pipeline = new BenchmarkPipeline(createGraph(), executorProvider, options);
+  }
+
+  /**
+   * Shuts down the executor.
+   */
+  @TearDown(Level.Trial)
+  public void tearDownTrial() {
+    executorProvider.getExecutorService().shutdownNow();
+  }
+
+  /**
+   * Creates the graph of the configured shape.
+   *
+   * @return the graph of the configured shape
+   */
+  protected EnactmentGraph createGraph() {
+    switch (shape) {
+      case WideFanOut:
+        return SyntheticGraphs.wideFanOut(size);
+      case Chain:
+        return SyntheticGraphs.chain(size);
+      case NestedDistribution:
+        return SyntheticGraphs.nestedDistribution(size, innerIterations);
+      default:
+        throw new IllegalArgumentException("Unknown graph shape " + shape);
+    }
+  }
+
+  /**
+   * Enacts one workflow.
+   *
+   * @param counter the counter for the enacted tasks
+   * @return the wf result
+   */
+  @Benchmark
+  public JsonObject processInput(final TaskCounter counter) {
+    final JsonObject result = pipeline.enact(input);
+    counter.tasks += pipeline.getEnactmentCount();
+    return result;
+  }
+}
@@ -0,0 +1,117 @@
+package at.uibk.dps.ee.control.management;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import com.google.gson.JsonObject;
+import at.uibk.dps.ee.control.graph.SyntheticGraphs;
+
+/**
+ * Compares the executor providers for I/O-bound enactments: A wide fan-out of
+ * functions, each blocking its thread for a fixed latency (modeling a remote
+ * serverless call). Reports the workflow latency, the peak number of live
+ * (platform) threads (aux counter), and (with the gc profiler) the allocation
+ * rate.
+ *
+ * @author Fedor Smirnov
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class ExecutorProviderBenchmark {
+
+  /**
+   * The compared executor providers.
+   */
+  public enum ExecutorType {
+    /**
+     * {@link ExecutorProviderCachedThreads}
+     */
+    CachedThreads,
+    /**
+     * {@link ExecutorProviderVirtualThreads}
+     */
+    VirtualThreads
+  }
+
+  /**
+   * Records the peak number of live threads during the enactment.
+   *
+   * @author Fedor Smirnov
+   */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class ThreadCounter {
+    public long peakThreads;
+  }
+
+  @Param({"CachedThreads", "VirtualThreads"})
+  public ExecutorType executorType;
+
+  @Param({"1000", "5000"})
+  public int concurrentFunctions;
+
+  @Param({"50"})
+  public long functionLatency;
+
+  protected ExecutorProvider executorProvider;
+  protected BenchmarkPipeline pipeline;
+  protected JsonObject input;
+  protected final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+
+  /**
+   * Creates the executor (shared by all invocations of a trial).
+   */
+  @Setup(Level.Trial)
+  public void setUpTrial() {
+    executorProvider = executorType.equals(ExecutorType.VirtualThreads)
+        ? new ExecutorProviderVirtualThreads()
+        : new ExecutorProviderCachedThreads();
+    input = new JsonObject();
+    input.addProperty(SyntheticGraphs.jsonKeyInput, 42);
+  }
+
+  /**
+   * Creates a fresh pipeline and resets the thread peak.
+   */
+  @Setup(Level.Invocation)
+  public void setUpInvocation() {
+    final BenchmarkPipeline.Options options = new BenchmarkPipeline.Options();
+    options.enactmentLatency = functionLatency;
+    pipeline = new BenchmarkPipeline(SyntheticGraphs.wideFanOut(concurrentFunctions),
+        executorProvider, options);
+    threadBean.resetPeakThreadCount();
+  }
+
+  /**
+   * Shuts down the executor.
+   */
+  @TearDown(Level.Trial)
+  public void tearDownTrial() {
+    executorProvider.getExecutorService().shutdownNow();
+  }
+
+  /**
+   * Enacts one workflow.
+   *
+   * @param counter the counter for the thread peak
+   * @return the wf result
+   */
+  @Benchmark
+  public JsonObject processInput(final ThreadCounter counter) {
+    final JsonObject result = pipeline.enact(input);
+    counter.peakThreads = Math.max(counter.peakThreads, threadBean.getPeakThreadCount());
+    return result;
+  }
+}
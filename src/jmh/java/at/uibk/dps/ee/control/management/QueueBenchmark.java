@@ -0,0 +1,111 @@
+package at.uibk.dps.ee.control.management;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import net.sf.opendse.model.Task;
+
+/**
+ * Compares the queues connecting the agents: A number of producer threads put
+ * tasks into the queue while the benchmark thread (the single consumer, like
+ * an activation agent) takes them. Reports the throughput per element; run
+ * with the gc profiler (-prof gc) to see the allocation per element
+ * (gc.alloc.rate.norm).
+ *
+ * @author Fedor Smirnov
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class QueueBenchmark {
+
+  protected static final int elementsPerInvocation = 10_000;
+
+  /**
+   * The compared queues.
+   */
+  public enum QueueType {
+    /**
+     * {@link LinkedBlockingQueue} (used by {@link EnactmentQueues})
+     */
+    LinkedBlocking,
+    /**
+     * {@link MpscBlockingQueue} (used by {@link EnactmentQueuesMpsc})
+     */
+    Mpsc
+  }
+
+  @Param({"LinkedBlocking", "Mpsc"})
+  public QueueType queueType;
+
+  @Param({"1", "4"})
+  public int producers;
+
+  protected BlockingQueue<Task> queue;
+  protected ExecutorService producerExecutor;
+  protected Task[] elements;
+
+  /**
+   * Creates the queue, the producer threads, and the elements.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    queue = queueType.equals(QueueType.Mpsc) ? new MpscBlockingQueue<>()
+        : new LinkedBlockingQueue<>();
+    producerExecutor = Executors.newFixedThreadPool(producers);
+    elements = new Task[elementsPerInvocation];
+    for (int idx = 0; idx < elementsPerInvocation; idx++) {
+      elements[idx] = new Task("task" + idx);
+    }
+  }
+
+  /**
+   * Stops the producer threads.
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    producerExecutor.shutdownNow();
+  }
+
+  /**
+   * Puts the elements from the producer threads and takes them from the
+   * benchmark thread.
+   *
+   * @return the number of taken elements
+   * @throws InterruptedException if interrupted while waiting for an element
+   */
+  @Benchmark
+  @OperationsPerInvocation(elementsPerInvocation)
+  public int putTake() throws InterruptedException {
+    final int perProducer = elementsPerInvocation / producers;
+    for (int producer = 0; producer < producers; producer++) {
+      final int start = producer * perProducer;
+      final int end = producer == producers - 1 ? elementsPerInvocation : start + perProducer;
+      producerExecutor.execute(() -> {
+        for (int idx = start; idx < end; idx++) {
+          queue.offer(elements[idx]);
+        }
+      });
+    }
+    int taken = 0;
+    while (taken < elementsPerInvocation) {
+      if (queue.take() != null) {
+        taken++;
+      }
+    }
+    return taken;
+  }
+}
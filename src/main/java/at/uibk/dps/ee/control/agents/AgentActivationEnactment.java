@@ -1,11 +1,13 @@
 package at.uibk.dps.ee.control.agents;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
 
 import at.uibk.dps.ee.control.management.EnactmentQueues;
 import at.uibk.dps.ee.control.management.ExecutorProvider;
+import at.uibk.dps.ee.control.management.ExecutorProvider.Stage;
 import net.sf.opendse.model.Task;
 
 /**
@@ -31,7 +33,7 @@ public class AgentActivationEnactment extends AgentContinuous implements AgentTa
   public AgentActivationEnactment(final EnactmentQueues enactmentState,
       final ExecutorProvider executorProvider, final AgentFactoryEnactment agentFactory) {
     this.enactmentState = enactmentState;
-    this.executor = executorProvider.getExecutorService();
+    this.executor = executorProvider.getExecutorService(Stage.Enactment);
     this.agentFactory = agentFactory;
   }
 
@@ -60,6 +62,15 @@ public class AgentActivationEnactment extends AgentContinuous implements AgentTa
     }
   }
 
+  @Override
+  protected List<Task> getTaskBatch() {
+    try {
+      return enactmentState.takeLaunchableTaskBatch();
+    } catch (InterruptedException e) {
+      throw new IllegalStateException("Enactment Activation agent interrupted.", e);
+    }
+  }
+
   @Override
   public Set<AgentTaskListener> getAgentTaskListeners() {
     return listeners;
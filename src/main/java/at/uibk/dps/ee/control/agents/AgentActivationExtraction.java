@@ -1,12 +1,14 @@
 package at.uibk.dps.ee.control.agents;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
 
 import at.uibk.dps.ee.control.graph.GraphAccess;
 import at.uibk.dps.ee.control.management.EnactmentQueues;
 import at.uibk.dps.ee.control.management.ExecutorProvider;
+import at.uibk.dps.ee.control.management.ExecutorProvider.Stage;
 import net.sf.opendse.model.Task;
 
 /**
@@ -37,7 +39,7 @@ public class AgentActivationExtraction extends AgentContinuous implements AgentT
       final ExecutorProvider executorProvider, final GraphAccess graphAccess,
       final AgentFactoryExtraction agentFactory) {
     this.enactmentState = enactmentState;
-    this.executor = executorProvider.getExecutorService();
+    this.executor = executorProvider.getExecutorService(Stage.Extraction);
     this.graphAccess = graphAccess;
     this.agentFactory = agentFactory;
   }
@@ -58,6 +60,15 @@ public class AgentActivationExtraction extends AgentContinuous implements AgentT
     }
   }
 
+  @Override
+  protected List<Task> getTaskBatch() {
+    try {
+      return enactmentState.takeFinishedTaskBatch();
+    } catch (InterruptedException e) {
+      throw new IllegalStateException("Extraction activation agent interrupted.", e);
+    }
+  }
+
   @Override
   public Set<AgentTaskListener> getAgentTaskListeners() {
     return listeners;
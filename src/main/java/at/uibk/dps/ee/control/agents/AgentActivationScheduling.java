@@ -1,11 +1,13 @@
 package at.uibk.dps.ee.control.agents;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
 
 import at.uibk.dps.ee.control.management.EnactmentQueues;
 import at.uibk.dps.ee.control.management.ExecutorProvider;
+import at.uibk.dps.ee.control.management.ExecutorProvider.Stage;
 import net.sf.opendse.model.Task;
 
 /**
@@ -32,7 +34,7 @@ public class AgentActivationScheduling extends AgentContinuous implements AgentT
       final AgentFactoryScheduling agentFactory, final ExecutorProvider executorProvider) {
     this.enactmentState = enactmentState;
     this.agentFactory = agentFactory;
-    this.executor = executorProvider.getExecutorService();
+    this.executor = executorProvider.getExecutorService(Stage.Scheduling);
   }
 
   @Override
@@ -49,6 +51,15 @@ public class AgentActivationScheduling extends AgentContinuous implements AgentT
     }
   }
 
+  @Override
+  protected List<Task> getTaskBatch() {
+    try {
+      return enactmentState.takeSchedulableTaskBatch();
+    } catch (InterruptedException e) {
+      throw new IllegalStateException("Scheduling Activation agent interrupted.", e);
+    }
+  }
+
   @Override
   public Set<AgentTaskListener> getAgentTaskListeners() {
     return listeners;
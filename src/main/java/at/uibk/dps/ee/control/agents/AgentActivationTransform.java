@@ -1,10 +1,12 @@
 package at.uibk.dps.ee.control.agents;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import at.uibk.dps.ee.control.management.EnactmentQueues;
 import at.uibk.dps.ee.control.management.ExecutorProvider;
+import at.uibk.dps.ee.control.management.ExecutorProvider.Stage;
 import at.uibk.dps.ee.core.exception.StopException;
 import net.sf.opendse.model.Task;
 
@@ -33,7 +35,7 @@ public class AgentActivationTransform extends AgentContinuous implements AgentTa
       final AgentFactoryTransform agentFactory, final ExecutorProvider execProvider) {
     this.enactmentState = enactmentState;
     this.agentFactory = agentFactory;
-    this.executor = execProvider.getExecutorService();
+    this.executor = execProvider.getExecutorService(Stage.Transform);
   }
 
   @Override
@@ -59,4 +61,13 @@ public class AgentActivationTransform extends AgentContinuous implements AgentTa
       throw new IllegalStateException("Transform Activation agent interrupted.", e);
     }
   }
+
+  @Override
+  protected List<Task> getTaskBatch() {
+    try {
+      return enactmentState.takeTransformTaskBatch();
+    } catch (InterruptedException e) {
+      throw new IllegalStateException("Transform Activation agent interrupted.", e);
+    }
+  }
 }
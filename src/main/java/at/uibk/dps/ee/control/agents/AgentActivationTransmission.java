@@ -1,6 +1,7 @@
 package at.uibk.dps.ee.control.agents;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
 
@@ -8,6 +9,7 @@ import at.uibk.dps.ee.control.graph.GraphAccess;
 import at.uibk.dps.ee.control.management.EnactmentAgent;
 import at.uibk.dps.ee.control.management.EnactmentQueues;
 import at.uibk.dps.ee.control.management.ExecutorProvider;
+import at.uibk.dps.ee.control.management.ExecutorProvider.Stage;
 import net.sf.opendse.model.Task;
 
 /**
@@ -44,7 +46,7 @@ public class AgentActivationTransmission extends AgentContinuous implements Agen
     this.enactmentState = enactmentState;
     this.agentFactory = agentFactory;
     this.graphAccess = graphAccess;
-    this.executor = executorProvider.getExecutorService();
+    this.executor = executorProvider.getExecutorService(Stage.Transmission);
     this.leafNodes = graphAccess.getLeafDataNodes();
     this.mainAgent = mainAgent;
   }
@@ -52,6 +54,7 @@ public class AgentActivationTransmission extends AgentContinuous implements Agen
   @Override
   protected void operationOnTask(final Task availableData) {
     if (leafNodes.contains(availableData)) {
+      mainAgent.publishResult(availableData);
       availableWfResults.add(availableData);
       if (availableWfResults.containsAll(leafNodes)) {
         mainAgent.wakeUp();
@@ -71,6 +74,15 @@ public class AgentActivationTransmission extends AgentContinuous implements Agen
     }
   }
 
+  @Override
+  protected List<Task> getTaskBatch() {
+    try {
+      return enactmentState.takeAvailableDataBatch();
+    } catch (InterruptedException e) {
+      throw new IllegalStateException("Transmission Activation agent interrupted.", e);
+    }
+  }
+
   @Override
   public Set<AgentTaskListener> getAgentTaskListeners() {
     return listeners;
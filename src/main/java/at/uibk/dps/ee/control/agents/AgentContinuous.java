@@ -1,5 +1,7 @@
 package at.uibk.dps.ee.control.agents;
 
+import java.util.Collections;
+import java.util.List;
 import at.uibk.dps.ee.core.ControlStateListener;
 import at.uibk.dps.ee.core.EnactmentState;
 import at.uibk.dps.ee.core.exception.StopException;
@@ -7,7 +9,10 @@ import net.sf.opendse.model.Task;
 
 /**
  * A continuous agent is an agent which continuously monitors a queue until it
- * receives a {@link PoisonPill}.
+ * receives a {@link PoisonPill}. The tasks are taken from the queue in batches
+ * (by default, batches of single tasks). The agent stops as soon as it reaches
+ * the pill; the batches taken from the enactment queues end with the pill, so
+ * that the tasks behind it stay in the queue.
  * 
  * @author Fedor Smirnov
  */
@@ -29,18 +34,29 @@ public abstract class AgentContinuous implements Agent, ControlStateListener {
           }
         }
       }
-      final Task task = getTaskFromBlockingQueue();
-      if (task instanceof PoisonPill) {
-        // stopping
-        stopped = true;
-        continue;
-      } else {
+      for (final Task task : getTaskBatch()) {
+        if (task instanceof PoisonPill) {
+          // stopping
+          stopped = true;
+          break;
+        }
         operationOnTask(task);
       }
     }
     return true;
   }
 
+  /**
+   * Retrieves a non-empty batch of tasks from the blocking queue monitored by
+   * this agent. Blocks until at least one task is available.
+   * 
+   * @return a non-empty batch of tasks from the blocking queue monitored by this
+   *         agent
+   */
+  protected List<Task> getTaskBatch() {
+    return Collections.singletonList(getTaskFromBlockingQueue());
+  }
+
   /**
    * The task of the continuous agent which is performed on the task retrieved
    * from the blocking queue.
@@ -1,16 +1,28 @@
 package at.uibk.dps.ee.control.agents;
 
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import com.google.gson.JsonObject;
+import at.uibk.dps.ee.control.enactment.EnactmentCoalescer;
 import at.uibk.dps.ee.control.enactment.PostEnactment;
+import at.uibk.dps.ee.control.graph.GraphAccess;
+import at.uibk.dps.ee.control.graph.InstanceState;
 import at.uibk.dps.ee.core.enactable.Enactable;
 import at.uibk.dps.ee.core.enactable.Enactable.State;
 import at.uibk.dps.ee.core.exception.StopException;
-import at.uibk.dps.ee.model.properties.PropertyServiceFunction;
 import net.sf.opendse.model.Task;
 
 /**
  * The {@link AgentEnactment} is responsible for the execution of a single
- * enactable.
+ * enactable. If an identical enactment is already in flight (see
+ * {@link EnactmentCoalescer}), the agent is done right away; the result of the
+ * identical enactment is served to the task (and the post enactment operation
+ * is performed) once it is available. The waiting enactments are finished on
+ * the executor of the enactment stage, so that they neither run on the thread
+ * of the leader nor one after another if the leader was stopped.
  * 
  * @author Fedor Smirnov
  *
@@ -19,6 +31,10 @@ public class AgentEnactment extends AgentTask {
 
   protected final Task taskNode;
   protected final PostEnactment postEnactment;
+  protected final InstanceState instanceState;
+  protected final EnactmentCoalescer coalescer;
+  protected final GraphAccess graphAccess;
+  protected final ExecutorService enactmentExecutor;
 
   /**
    * Default constructor
@@ -26,24 +42,112 @@ public class AgentEnactment extends AgentTask {
    * @param taskNode the task node modeling the function which is enacted
    * @param postEnactment an operation describing what is done after the enactment
    * @param listeners the {@link AgentTaskListener}s
+   * @param instanceState the state of the enacted instance
+   * @param coalescer the coalescer of identical concurrent enactments
+   * @param graphAccess the access to the graph (to read the inputs of the task)
+   * @param enactmentExecutor the executor of the enactment stage (finishes the
+   *        enactments served by an identical enactment)
    */
   public AgentEnactment(final Task taskNode, final PostEnactment postEnactment,
-      final Set<AgentTaskListener> listeners) {
+      final Set<AgentTaskListener> listeners, final InstanceState instanceState,
+      final EnactmentCoalescer coalescer, final GraphAccess graphAccess,
+      final ExecutorService enactmentExecutor) {
     super(listeners);
     this.taskNode = taskNode;
     this.postEnactment = postEnactment;
+    this.instanceState = instanceState;
+    this.coalescer = coalescer;
+    this.graphAccess = graphAccess;
+    this.enactmentExecutor = enactmentExecutor;
   }
 
   @Override
   protected boolean actualCall() throws Exception {
-    final Enactable enactable = PropertyServiceFunction.getEnactable(taskNode);
+    final Enactable enactable = instanceState.getEnactable(taskNode);
+    if (coalescer.isApplicable(taskNode)) {
+      final String key = coalescer.getKey(taskNode, graphAccess, instanceState);
+      final CompletableFuture<JsonObject> invocation = new CompletableFuture<>();
+      final CompletableFuture<JsonObject> running = coalescer.join(key, invocation);
+      if (running != null) {
+        coalescer.serve(running).whenCompleteAsync(
+            (result, failure) -> finishServed(enactable, result, failure), enactmentExecutor);
+        return true;
+      }
+      lead(enactable, key, invocation);
+    } else {
+      play(enactable);
+    }
+    postEnactment.postEnactmentTreatment(taskNode);
+    return true;
+  }
+
+  /**
+   * Executes the given enactable as the leader of the identical enactments and
+   * shares the outcome of the invocation with them.
+   * 
+   * @param enactable the enactable of the task node
+   * @param key the key of the enactment
+   * @param invocation the invocation of the leader
+   * @throws Exception the exception thrown by the enactable
+   */
+  protected void lead(final Enactable enactable, final String key,
+      final CompletableFuture<JsonObject> invocation) throws Exception {
+    try {
+      play(enactable);
+      coalescer.complete(key, invocation,
+          enactable.getState() == State.STOPPED ? null : enactable.getResult());
+    } catch (Throwable failure) {
+      coalescer.fail(key, invocation, failure);
+      throw failure;
+    } finally {
+      coalescer.release(key, invocation);
+    }
+  }
+
+  /**
+   * Finishes the enactment of the task once the identical enactment in flight
+   * is done: Serves its result, or executes the enactable if it was stopped.
+   * 
+   * @param enactable the enactable of the task node
+   * @param result the served result, or null if the identical enactment was
+   *        stopped
+   * @param failure the throwable thrown by the identical enactment, or null
+   */
+  protected void finishServed(final Enactable enactable, final JsonObject result,
+      final Throwable failure) {
+    try {
+      if (failure != null) {
+        final Throwable cause =
+            failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause()
+                : failure;
+        throw cause instanceof Exception ? (Exception) cause : new ExecutionException(cause);
+      }
+      if (result == null) {
+        // the shared invocation was stopped
+        play(enactable);
+      } else {
+        instanceState.setServedResult(taskNode, result);
+        enactable.setState(State.FINISHED);
+      }
+      postEnactment.postEnactmentTreatment(taskNode);
+    } catch (Exception exc) {
+      notifyListeners(exc, formulateExceptionMessage());
+    }
+  }
+
+  /**
+   * Executes the given enactable.
+   * 
+   * @param enactable the given enactable
+   * @throws Exception the exception thrown by the enactable
+   */
+  protected void play(final Enactable enactable) throws Exception {
     try {
       enactable.play();
     } catch(StopException stopExc) {
       enactable.setState(State.STOPPED);
     }
-    postEnactment.postEnactmentTreatment(taskNode);
-    return true;
   }
 
   @Override
@@ -4,12 +4,12 @@ import java.util.Set;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonPrimitive;
+import at.uibk.dps.ee.control.graph.InstanceState;
+import at.uibk.dps.ee.control.graph.IterationChunk;
+import at.uibk.dps.ee.control.graph.NodeProperties;
 import at.uibk.dps.ee.control.management.EnactmentQueues;
-import at.uibk.dps.ee.core.enactable.Enactable;
-import at.uibk.dps.ee.model.properties.PropertyServiceData;
 import at.uibk.dps.ee.model.properties.PropertyServiceData.NodeType;
 import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
-import at.uibk.dps.ee.model.properties.PropertyServiceFunction;
 import net.sf.opendse.model.Dependency;
 import net.sf.opendse.model.Task;
 
@@ -26,6 +26,7 @@ public class AgentExtraction extends AgentTask {
   protected final Dependency edge;
   protected final Task dataNode;
   protected final EnactmentQueues enactmentState;
+  protected final InstanceState instanceState;
 
   /**
    * Default constructor
@@ -35,23 +36,31 @@ public class AgentExtraction extends AgentTask {
    * @param dataNode the data node to fill with content
    * @param enactmentState the enactment state (to access the queues)
    * @param listeners the {@link AgentTaskListener}s
+   * @param instanceState the state of the enacted instance
    */
   public AgentExtraction(final Task finishedFunction, final Dependency edge, final Task dataNode,
-      final EnactmentQueues enactmentState, final Set<AgentTaskListener> listeners) {
+      final EnactmentQueues enactmentState, final Set<AgentTaskListener> listeners,
+      final InstanceState instanceState) {
     super(listeners);
     this.finishedFunction = finishedFunction;
     this.edge = edge;
     this.dataNode = dataNode;
     this.enactmentState = enactmentState;
-
+    this.instanceState = instanceState;
   }
 
   @Override
   public boolean actualCall() throws Exception {
     final boolean dataNodeModelsSequentiality =
-        PropertyServiceData.getNodeType(dataNode).equals(NodeType.Sequentiality);
-    final Enactable finishedEnactable = PropertyServiceFunction.getEnactable(finishedFunction);
-    final JsonObject enactmentResult = finishedEnactable.getResult();
+        NodeProperties.of(dataNode).getNodeType().equals(NodeType.Sequentiality);
+    final JsonObject enactmentResult = instanceState.getResult(finishedFunction);
+    final IterationChunk chunk = IterationChunk.find(edge);
+    if (chunk != null) {
+      // the data node is processed by a chunk of loop iterations
+      instanceState.setContent(dataNode, chunk.collect(enactmentResult));
+      enactmentState.putAvailableData(dataNode);
+      return true;
+    }
     final String key = PropertyServiceDependency.getJsonKey(edge);
     if (!enactmentResult.has(key) && !dataNodeModelsSequentiality) {
       throw new IllegalStateException("The execution of the task " + finishedFunction.getId()
@@ -59,7 +68,7 @@ public class AgentExtraction extends AgentTask {
     }
     final JsonElement data =
         dataNodeModelsSequentiality ? new JsonPrimitive(true) : enactmentResult.get(key);
-    PropertyServiceData.setContent(dataNode, data);
+    instanceState.setContent(dataNode, data);
     enactmentState.putAvailableData(dataNode);
     return true;
   }
@@ -0,0 +1,72 @@
+package at.uibk.dps.ee.control.agents;
+
+import java.util.Set;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import at.uibk.dps.ee.control.graph.ExecutionPlan;
+import at.uibk.dps.ee.control.graph.InstanceStatePlan;
+import at.uibk.dps.ee.control.management.EnactmentQueues;
+
+/**
+ * The {@link AgentExtractionPlan} is the counterpart of the
+ * {@link AgentExtraction} for the instances walking an {@link ExecutionPlan}:
+ * It extracts the data produced by a finished function over an edge of the
+ * plan, reading the json key and the type of the data node from the plan and
+ * writing the content into the index-based instance state.
+ * 
+ * @author Fedor Smirnov
+ */
+public class AgentExtractionPlan extends AgentTask {
+
+  protected final int edgeIdx;
+  protected final ExecutionPlan plan;
+  protected final EnactmentQueues enactmentState;
+  protected final InstanceStatePlan instanceState;
+
+  /**
+   * Default constructor.
+   * 
+   * @param edgeIdx the index of the edge from the finished function to the data
+   *        node
+   * @param plan the plan of the enacted graph
+   * @param enactmentState the enactment state (to access the queues)
+   * @param listeners the {@link AgentTaskListener}s
+   * @param instanceState the state of the enacted instance
+   */
+  public AgentExtractionPlan(final int edgeIdx, final ExecutionPlan plan,
+      final EnactmentQueues enactmentState, final Set<AgentTaskListener> listeners,
+      final InstanceStatePlan instanceState) {
+    super(listeners);
+    this.edgeIdx = edgeIdx;
+    this.plan = plan;
+    this.enactmentState = enactmentState;
+    this.instanceState = instanceState;
+  }
+
+  @Override
+  public boolean actualCall() throws Exception {
+    final int finishedFunction = plan.getSource(edgeIdx);
+    final int dataNode = plan.getTarget(edgeIdx);
+    final boolean dataNodeModelsSequentiality = plan.isSequentiality(dataNode);
+    final JsonObject enactmentResult = instanceState.getResult(finishedFunction);
+    final String key = plan.getJsonKey(edgeIdx);
+    if (!enactmentResult.has(key) && !dataNodeModelsSequentiality) {
+      throw new IllegalStateException("The execution of the task "
+          + plan.getNode(finishedFunction).getId() + " did not produce an entry named " + key);
+    }
+    final JsonElement data =
+        dataNodeModelsSequentiality ? new JsonPrimitive(true) : enactmentResult.get(key);
+    instanceState.setContent(dataNode, data);
+    enactmentState.putAvailableData(plan.getNode(dataNode));
+    return true;
+  }
+
+  @Override
+  protected String formulateExceptionMessage() {
+    return ConstantsAgents.ExcMessageExtractionPrefix
+        + plan.getNode(plan.getSource(edgeIdx)).getId()
+        + ConstantsAgents.ExcMessageExtractionSuffix
+        + plan.getNode(plan.getTarget(edgeIdx)).getId();
+  }
+}
@@ -1,11 +1,13 @@
 package at.uibk.dps.ee.control.agents;
 
+import org.opt4j.core.start.Constant;
 import com.google.inject.Inject;
 
 import at.uibk.dps.ee.control.graph.GraphAccess;
 import at.uibk.dps.ee.control.management.EnactmentAgent;
 import at.uibk.dps.ee.control.management.EnactmentQueues;
 import at.uibk.dps.ee.control.management.ExecutorProvider;
+import at.uibk.dps.ee.control.management.ExecutorProviderInline;
 import at.uibk.dps.ee.model.graph.EnactmentGraph;
 
 /**
@@ -23,6 +25,7 @@ public class AgentFactoryActivation {
   protected final AgentFactoryExtraction extractionFactory;
   protected final AgentFactoryTransform transformFactory;
   protected final GraphAccess graphAccess;
+  protected final ExecutorProvider bookkeepingExecutorProvider;
 
   /**
    * The injection constructor.
@@ -35,13 +38,17 @@ public class AgentFactoryActivation {
    * @param extractionFactory the factory for the {@link AgentExtraction}s
    * @param transformFactory the factory for the {@link AgentTransform}s
    * @param graphAccess the access to the {@link EnactmentGraph}
+   * @param inlineBookkeeping if true, the extraction and transmission agents are
+   *        run directly by the threads of their activation agents
    */
   @Inject
   public AgentFactoryActivation(final EnactmentQueues enactmentState,
       final ExecutorProvider executorProvider, final AgentFactoryScheduling schedulingFactory,
       final AgentFactoryTransmission transmissionFactory,
       final AgentFactoryEnactment enactmentFactory, final AgentFactoryExtraction extractionFactory,
-      final AgentFactoryTransform transformFactory, final GraphAccess graphAccess) {
+      final AgentFactoryTransform transformFactory, final GraphAccess graphAccess,
+      @Constant(namespace = AgentFactoryActivation.class,
+          value = "inlineBookkeeping") final boolean inlineBookkeeping) {
     this.enactmentState = enactmentState;
     this.executorProvider = executorProvider;
     this.schedulingFactory = schedulingFactory;
@@ -50,6 +57,8 @@ public class AgentFactoryActivation {
     this.extractionFactory = extractionFactory;
     this.transformFactory = transformFactory;
     this.graphAccess = graphAccess;
+    this.bookkeepingExecutorProvider =
+        inlineBookkeeping ? new ExecutorProviderInline() : executorProvider;
   }
 
   /**
@@ -70,7 +79,7 @@ public class AgentFactoryActivation {
   public AgentActivationTransmission createTransmissionActivationAgent(
       final EnactmentAgent mainAgent) {
     return new AgentActivationTransmission(enactmentState, transmissionFactory, graphAccess,
-        executorProvider, mainAgent);
+        bookkeepingExecutorProvider, mainAgent);
   }
 
   /**
@@ -88,7 +97,7 @@ public class AgentFactoryActivation {
    * @return the agent monitoring the finished queue.
    */
   public AgentActivationExtraction createExtractionActivationAgent() {
-    return new AgentActivationExtraction(enactmentState, executorProvider, graphAccess,
+    return new AgentActivationExtraction(enactmentState, bookkeepingExecutorProvider, graphAccess,
         extractionFactory);
   }
 
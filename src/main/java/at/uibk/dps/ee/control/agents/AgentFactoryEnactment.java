@@ -1,10 +1,19 @@
 package at.uibk.dps.ee.control.agents;
 
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
+import at.uibk.dps.ee.control.enactment.EnactmentCoalescer;
+import at.uibk.dps.ee.control.enactment.PostEnactment;
+import at.uibk.dps.ee.control.enactment.PostEnactmentMemoization;
 import at.uibk.dps.ee.control.enactment.PostEnactmentQueueing;
+import at.uibk.dps.ee.control.enactment.ResultCache;
+import at.uibk.dps.ee.control.graph.GraphAccess;
+import at.uibk.dps.ee.control.graph.InstanceState;
 import at.uibk.dps.ee.control.management.EnactmentQueues;
+import at.uibk.dps.ee.control.management.ExecutorProvider;
+import at.uibk.dps.ee.control.management.ExecutorProvider.Stage;
 import net.sf.opendse.model.Task;
 
 /**
@@ -16,15 +25,33 @@ import net.sf.opendse.model.Task;
 public class AgentFactoryEnactment {
 
   protected final EnactmentQueues enactmentState;
+  protected final InstanceState instanceState;
+  protected final ResultCache resultCache;
+  protected final GraphAccess graphAccess;
+  protected final EnactmentCoalescer coalescer;
+  protected final ExecutorService enactmentExecutor;
 
   /**
    * The injection constructor
    * 
    * @param enactmentState the state of the enactment (to access the queues)
+   * @param instanceState the state of the enacted instance
+   * @param resultCache the cache for the function results
+   * @param graphAccess the access to the graph
+   * @param coalescer the coalescer of identical concurrent enactments
+   * @param executorProvider the provider of the executor of the enactment stage
    */
   @Inject
-  public AgentFactoryEnactment(final EnactmentQueues enactmentState) {
+  public AgentFactoryEnactment(final EnactmentQueues enactmentState,
+      final InstanceState instanceState, final ResultCache resultCache,
+      final GraphAccess graphAccess, final EnactmentCoalescer coalescer,
+      final ExecutorProvider executorProvider) {
     this.enactmentState = enactmentState;
+    this.instanceState = instanceState;
+    this.resultCache = resultCache;
+    this.graphAccess = graphAccess;
+    this.coalescer = coalescer;
+    this.enactmentExecutor = executorProvider.getExecutorService(Stage.Enactment);
   }
 
   /**
@@ -36,6 +63,11 @@ public class AgentFactoryEnactment {
    */
   public AgentEnactment createEnactmentAgent(final Task task,
       final Set<AgentTaskListener> listeners) {
-    return new AgentEnactment(task, new PostEnactmentQueueing(enactmentState), listeners);
+    final PostEnactment queueing = new PostEnactmentQueueing(enactmentState, instanceState);
+    final PostEnactment postEnactment = resultCache.isEnabled()
+        ? new PostEnactmentMemoization(queueing, resultCache, graphAccess, instanceState)
+        : queueing;
+    return new AgentEnactment(task, postEnactment, listeners, instanceState, coalescer,
+        graphAccess, enactmentExecutor);
   }
 }
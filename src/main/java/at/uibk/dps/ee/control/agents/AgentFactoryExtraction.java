@@ -5,6 +5,7 @@ import com.google.inject.Inject;
 import com.google.inject.Singleton;
 
 import at.uibk.dps.ee.control.graph.GraphAccess.EdgeTupleAppl;
+import at.uibk.dps.ee.control.graph.InstanceState;
 import at.uibk.dps.ee.control.management.EnactmentQueues;
 
 /**
@@ -16,16 +17,20 @@ import at.uibk.dps.ee.control.management.EnactmentQueues;
 public class AgentFactoryExtraction {
 
   protected final EnactmentQueues enactmentState;
+  protected final InstanceState instanceState;
 
   /**
    * The injection constructor.
    * 
    * @param enactmentState the state of the enactment (for the access to the
    *        queues)
+   * @param instanceState the state of the enacted instance
    */
   @Inject
-  public AgentFactoryExtraction(final EnactmentQueues enactmentState) {
+  public AgentFactoryExtraction(final EnactmentQueues enactmentState,
+      final InstanceState instanceState) {
     this.enactmentState = enactmentState;
+    this.instanceState = instanceState;
   }
 
   /**
@@ -40,6 +45,6 @@ public class AgentFactoryExtraction {
   public AgentExtraction createExtractionAgent(final EdgeTupleAppl edgeTuple,
       final Set<AgentTaskListener> listeners) {
     return new AgentExtraction(edgeTuple.getSrc(), edgeTuple.getEdge(), edgeTuple.getDst(),
-        enactmentState, listeners);
+        enactmentState, listeners, instanceState);
   }
 }
@@ -0,0 +1,74 @@
+package at.uibk.dps.ee.control.agents;
+
+import java.util.Set;
+import at.uibk.dps.ee.control.graph.ExecutionPlan;
+import at.uibk.dps.ee.control.graph.InstanceStatePlan;
+import at.uibk.dps.ee.control.management.EnactmentQueues;
+import at.uibk.dps.ee.control.transmission.ReadinessTrackerPlan;
+
+/**
+ * The {@link AgentFactoryPlan} creates the extraction and transmission agents
+ * of an instance walking an {@link ExecutionPlan}. Each instance has its own
+ * factory (with its own state and readiness tracker).
+ * 
+ * @author Fedor Smirnov
+ */
+public class AgentFactoryPlan {
+
+  protected final ExecutionPlan plan;
+  protected final EnactmentQueues enactmentState;
+  protected final InstanceStatePlan instanceState;
+  protected final ReadinessTrackerPlan readinessTracker;
+
+  /**
+   * Default constructor.
+   * 
+   * @param enactmentState the state of the enactment (for the access to the
+   *        queues)
+   * @param instanceState the state of the enacted instance (indexed by the
+   *        plan)
+   */
+  public AgentFactoryPlan(final EnactmentQueues enactmentState,
+      final InstanceStatePlan instanceState) {
+    this.plan = instanceState.getPlan();
+    this.enactmentState = enactmentState;
+    this.instanceState = instanceState;
+    this.readinessTracker = new ReadinessTrackerPlan(plan, instanceState);
+  }
+
+  /**
+   * Creates an {@link AgentExtractionPlan} extracting the data over the edge
+   * with the given index.
+   * 
+   * @param edgeIdx the index of the edge (from a function node to a data node)
+   * @param listeners the {@link AgentTaskListener}s
+   * @return the agent extracting the data over the given edge
+   */
+  public AgentExtractionPlan createExtractionAgent(final int edgeIdx,
+      final Set<AgentTaskListener> listeners) {
+    return new AgentExtractionPlan(edgeIdx, plan, enactmentState, listeners, instanceState);
+  }
+
+  /**
+   * Creates an {@link AgentTransmissionPlan} transmitting the data over the edge
+   * with the given index.
+   * 
+   * @param edgeIdx the index of the edge (from a data node to a function node)
+   * @param listeners the {@link AgentTaskListener}s
+   * @return the agent transmitting the data over the given edge
+   */
+  public AgentTransmissionPlan createTransmissionAgent(final int edgeIdx,
+      final Set<AgentTaskListener> listeners) {
+    return new AgentTransmissionPlan(edgeIdx, plan, enactmentState, listeners,
+        readinessTracker, instanceState);
+  }
+
+  /**
+   * Returns the plan walked by the created agents.
+   * 
+   * @return the plan walked by the created agents
+   */
+  public ExecutionPlan getPlan() {
+    return plan;
+  }
+}
@@ -4,6 +4,10 @@ import java.util.Set;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 
+import at.uibk.dps.ee.control.enactment.PostEnactmentQueueing;
+import at.uibk.dps.ee.control.enactment.ResultCache;
+import at.uibk.dps.ee.control.graph.GraphAccess;
+import at.uibk.dps.ee.control.graph.InstanceState;
 import at.uibk.dps.ee.control.management.EnactmentQueues;
 import at.uibk.dps.sc.core.ScheduleModel;
 import at.uibk.dps.sc.core.interpreter.ScheduleInterpreter;
@@ -23,6 +27,9 @@ public class AgentFactoryScheduling {
   protected final Scheduler scheduler;
   protected final EnactmentQueues enactmentState;
   protected final ScheduleInterpreter scheduleInterpreter;
+  protected final InstanceState instanceState;
+  protected final ResultCache resultCache;
+  protected final GraphAccess graphAccess;
 
   /**
    * The injection constructor.
@@ -31,15 +38,22 @@ public class AgentFactoryScheduling {
    * @param scheduleInterpreter the interpreter of the mapping edges
    * @param scheduler the scheduler
    * @param enactmentState the enactment state (for the access to the queues)
+   * @param instanceState the state of the enacted instance
+   * @param resultCache the cache for the function results
+   * @param graphAccess the access to the graph
    */
   @Inject
   public AgentFactoryScheduling(final ScheduleModel schedule,
       final ScheduleInterpreter scheduleInterpreter, final Scheduler scheduler,
-      final EnactmentQueues enactmentState) {
+      final EnactmentQueues enactmentState, final InstanceState instanceState,
+      final ResultCache resultCache, final GraphAccess graphAccess) {
     this.schedule = schedule;
     this.scheduler = scheduler;
     this.enactmentState = enactmentState;
     this.scheduleInterpreter = scheduleInterpreter;
+    this.instanceState = instanceState;
+    this.resultCache = resultCache;
+    this.graphAccess = graphAccess;
   }
 
   /**
@@ -51,6 +65,7 @@ public class AgentFactoryScheduling {
   public AgentScheduling createSchedulingAgent(final Task functionNode,
       final Set<AgentTaskListener> listeners) {
     return new AgentScheduling(schedule, scheduler, functionNode, enactmentState,
-        scheduleInterpreter, listeners);
+        scheduleInterpreter, listeners, instanceState, resultCache, graphAccess,
+        new PostEnactmentQueueing(enactmentState, instanceState));
   }
 }
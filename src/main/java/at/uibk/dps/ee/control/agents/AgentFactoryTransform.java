@@ -1,13 +1,20 @@
 package at.uibk.dps.ee.control.agents;
 
 import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import org.opt4j.core.start.Constant;
 import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import at.uibk.dps.ee.control.graph.DistributionWindow;
 import at.uibk.dps.ee.control.graph.GraphAccess;
+import at.uibk.dps.ee.control.graph.GraphChangeCoalescer;
 import at.uibk.dps.ee.control.graph.GraphTransformAggregation;
 import at.uibk.dps.ee.control.graph.GraphTransformDistribution;
+import at.uibk.dps.ee.control.graph.GraphTransformWindowSlide;
 import at.uibk.dps.ee.control.management.EnactmentQueues;
 import at.uibk.dps.ee.control.management.ExecutionMonitor;
 import at.uibk.dps.ee.core.ModelModificationListener;
+import at.uibk.dps.ee.core.enactable.EnactmentStateListener;
 import at.uibk.dps.ee.enactables.wrapper.FactoryInterface;
 import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections;
 import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections.OperationType;
@@ -15,16 +22,24 @@ import net.sf.opendse.model.Task;
 
 /**
  * The {@link AgentFactoryTransform} is used for the creation of
- * {@link AgentTransform}s.
+ * {@link AgentTransform}s. The factory is a singleton, so that the listeners
+ * are decorated with a single {@link GraphChangeCoalescer} (and a single
+ * delivery thread) per application. The factory listens to the enactment
+ * state: Once the enactment terminates, the pending changes are delivered and
+ * the delivery thread is shut down. The changes of the graph are only
+ * recorded if there are listeners for them.
  * 
  * @author Fedor Smirnov
  */
-public class AgentFactoryTransform {
+@Singleton
+public class AgentFactoryTransform implements EnactmentStateListener {
 
   protected final GraphAccess graphAccess;
   protected final FactoryInterface enactableFactory;
   protected final EnactmentQueues enactmentState;
   protected final Set<ModelModificationListener> modificationListeners;
+  protected final ScheduledExecutorService coalescingScheduler;
+  protected final int windowSize;
 
   /**
    * The injection constructor.
@@ -34,16 +49,82 @@ public class AgentFactoryTransform {
    *        reproduction)
    * @param enactmentState the state of the enactment (for the access to the
    *        queues)
+   * @param windowSize the maximal number of loop iterations which are unrolled
+   *        at the same time (0 to unroll all iterations at once)
+   * @param coalescingDelay the time (in milliseconds) for which the changes of
+   *        the graph are gathered before the listeners are notified (0 to
+   *        notify the listeners after each transformation)
    */
   @Inject
   public AgentFactoryTransform(final GraphAccess graphAccess,
       final FactoryInterface enactableFactory, final EnactmentQueues enactmentState,
-      final Set<ModelModificationListener> modificationListeners, final ExecutionMonitor executionMonitor) {
+      final Set<ModelModificationListener> modificationListeners,
+      final ExecutionMonitor executionMonitor,
+      @Constant(namespace = GraphTransformDistribution.class,
+          value = "windowSize") final int windowSize,
+      @Constant(namespace = GraphChangeCoalescer.class,
+          value = "delayMillis") final int coalescingDelay) {
     this.graphAccess = graphAccess;
     this.enactableFactory = enactableFactory;
     this.enactmentState = enactmentState;
-    this.modificationListeners = modificationListeners;
+    this.coalescingScheduler =
+        coalescingDelay > 0 ? GraphChangeCoalescer.createScheduler() : null;
+    this.modificationListeners = coalescingDelay > 0
+        ? GraphChangeCoalescer.wrap(modificationListeners, coalescingDelay, coalescingScheduler)
+        : modificationListeners;
+    this.windowSize = windowSize;
     enactableFactory.addEnactableStateListener(executionMonitor);
+    if (!modificationListeners.isEmpty()) {
+      graphAccess.trackGraphChanges();
+    }
+  }
+
+  /**
+   * Constructs a factory for the transformations of a single workflow instance,
+   * sharing the configuration and the (decorated) listeners of the given
+   * factory.
+   * 
+   * @param parent the factory whose configuration is shared
+   * @param graphAccess the access to the graph of the instance
+   * @param enactmentState the queues of the instance
+   */
+  protected AgentFactoryTransform(final AgentFactoryTransform parent,
+      final GraphAccess graphAccess, final EnactmentQueues enactmentState) {
+    this.graphAccess = graphAccess;
+    this.enactableFactory = parent.enactableFactory;
+    this.enactmentState = enactmentState;
+    this.modificationListeners = parent.modificationListeners;
+    this.coalescingScheduler = parent.coalescingScheduler;
+    this.windowSize = parent.windowSize;
+    if (!modificationListeners.isEmpty()) {
+      graphAccess.trackGraphChanges();
+    }
+  }
+
+  /**
+   * Returns a factory for the transform agents of a workflow instance enacted on
+   * its own graph, with its own queues.
+   * 
+   * @param instanceGraphAccess the access to the graph of the instance
+   * @param instanceQueues the queues of the instance
+   * @return a factory for the transform agents of the instance
+   */
+  public AgentFactoryTransform forInstance(final GraphAccess instanceGraphAccess,
+      final EnactmentQueues instanceQueues) {
+    return new AgentFactoryTransform(this, instanceGraphAccess, instanceQueues);
+  }
+
+  @Override
+  public void enactmentStarted() {
+    // Nothing to do here
+  }
+
+  @Override
+  public void enactmentTerminated() {
+    if (coalescingScheduler != null) {
+      coalescingScheduler.shutdownNow();
+      modificationListeners.forEach(listener -> ((GraphChangeCoalescer) listener).flush());
+    }
   }
 
   /**
@@ -57,11 +138,17 @@ public class AgentFactoryTransform {
    */
   public AgentTransform createTransformAgent(final Task taskNode,
       final Set<AgentTaskListener> listeners) {
-    if (PropertyServiceFunctionDataFlowCollections.getOperationType(taskNode)
+    if (DistributionWindow.isSlideTrigger(taskNode)) {
+      return new AgentTransform(listeners, graphAccess,
+          new GraphTransformWindowSlide(
+              new GraphTransformDistribution(enactableFactory, windowSize),
+              enactmentState),
+          taskNode, enactmentState, modificationListeners);
+    } else if (PropertyServiceFunctionDataFlowCollections.getOperationType(taskNode)
         .equals(OperationType.Distribution)) {
       return new AgentTransform(listeners, graphAccess,
-          new GraphTransformDistribution(enactableFactory), taskNode, enactmentState,
-          modificationListeners);
+          new GraphTransformDistribution(enactableFactory, windowSize), taskNode,
+          enactmentState, modificationListeners);
     } else if (PropertyServiceFunctionDataFlowCollections.getOperationType(taskNode)
         .equals(OperationType.Aggregation)) {
       return new AgentTransform(listeners, graphAccess, new GraphTransformAggregation(), taskNode,
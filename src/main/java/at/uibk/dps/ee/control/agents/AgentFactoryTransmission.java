@@ -4,13 +4,18 @@ import java.util.Set;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 
+import at.uibk.dps.ee.control.graph.DistributionWindow;
 import at.uibk.dps.ee.control.graph.GraphAccess;
 import at.uibk.dps.ee.control.graph.GraphAccess.EdgeTupleAppl;
+import at.uibk.dps.ee.control.graph.InstanceState;
+import at.uibk.dps.ee.control.graph.NodeProperties;
 import at.uibk.dps.ee.control.management.EnactmentQueues;
+import at.uibk.dps.ee.control.transmission.ReadinessTracker;
 import at.uibk.dps.ee.control.transmission.SchedulabilityCheck;
-import at.uibk.dps.ee.control.transmission.SchedulabilityCheckDefault;
+import at.uibk.dps.ee.control.transmission.SchedulabilityCheckCounter;
 import at.uibk.dps.ee.control.transmission.SchedulabilityCheckMuxer;
-import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlow;
+import at.uibk.dps.ee.control.transmission.SchedulabilityCheckWindow;
+import net.sf.opendse.model.Dependency;
 import net.sf.opendse.model.Task;
 
 /**
@@ -23,6 +28,8 @@ public class AgentFactoryTransmission {
 
   protected final EnactmentQueues enactmentState;
   protected final GraphAccess graphAccess;
+  protected final ReadinessTracker readinessTracker;
+  protected final InstanceState instanceState;
 
   /**
    * The injection constructor
@@ -30,12 +37,18 @@ public class AgentFactoryTransmission {
    * @param enactmentState the state of the enactment (for the access to the
    *        queues)
    * @param graphAccess the access to the enactment graph
+   * @param readinessTracker the tracker of the pending dependencies of the
+   *        function nodes
+   * @param instanceState the state of the enacted instance
    */
   @Inject
   public AgentFactoryTransmission(final EnactmentQueues enactmentState,
-      final GraphAccess graphAccess) {
+      final GraphAccess graphAccess, final ReadinessTracker readinessTracker,
+      final InstanceState instanceState) {
     this.enactmentState = enactmentState;
     this.graphAccess = graphAccess;
+    this.readinessTracker = readinessTracker;
+    this.instanceState = instanceState;
   }
 
   /**
@@ -50,22 +63,28 @@ public class AgentFactoryTransmission {
    */
   public AgentTransmission createTransmissionAgent(final EdgeTupleAppl edgeTuple,
       final Set<AgentTaskListener> listeners) {
-    final SchedulabilityCheck schedulabilityCheck = getCheckForTarget(edgeTuple.getDst());
+    final SchedulabilityCheck schedulabilityCheck =
+        getCheckForTarget(edgeTuple.getDst(), edgeTuple.getEdge());
     return new AgentTransmission(enactmentState, edgeTuple.getSrc(), edgeTuple.getEdge(),
-        edgeTuple.getDst(), graphAccess, listeners, schedulabilityCheck);
+        edgeTuple.getDst(), graphAccess, listeners, schedulabilityCheck, instanceState);
   }
 
   /**
    * Gets the appropriate schedulability check for the provided function node.
    * 
    * @param target the provided function node
+   * @param edge the edge of the transmission preceding the check
    * @return the appropriate schedulability check for the provided function node
    */
-  protected SchedulabilityCheck getCheckForTarget(final Task target) {
-    if (PropertyServiceFunctionDataFlow.isMultiplexerNode(target)) {
-      return new SchedulabilityCheckMuxer();
+  protected SchedulabilityCheck getCheckForTarget(final Task target, final Dependency edge) {
+    if (NodeProperties.of(target).isMultiplexer()) {
+      return new SchedulabilityCheckMuxer(instanceState);
+    }
+    final DistributionWindow window = DistributionWindow.find(target);
+    if (window != null) {
+      return new SchedulabilityCheckWindow(window, edge, enactmentState);
     } else {
-      return new SchedulabilityCheckDefault();
+      return new SchedulabilityCheckCounter(readinessTracker, edge);
     }
   }
 }
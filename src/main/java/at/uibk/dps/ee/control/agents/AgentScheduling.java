@@ -2,10 +2,16 @@ package at.uibk.dps.ee.control.agents;
 
 import java.util.Set;
 
+import com.google.gson.JsonObject;
+
+import at.uibk.dps.ee.control.enactment.PostEnactment;
+import at.uibk.dps.ee.control.enactment.ResultCache;
+import at.uibk.dps.ee.control.graph.GraphAccess;
+import at.uibk.dps.ee.control.graph.InstanceState;
 import at.uibk.dps.ee.control.management.EnactmentQueues;
 import at.uibk.dps.ee.core.enactable.Enactable;
+import at.uibk.dps.ee.core.enactable.Enactable.State;
 import at.uibk.dps.ee.core.enactable.EnactmentFunction;
-import at.uibk.dps.ee.model.properties.PropertyServiceFunction;
 import at.uibk.dps.ee.model.properties.PropertyServiceMapping;
 import at.uibk.dps.sc.core.ScheduleModel;
 import at.uibk.dps.sc.core.interpreter.ScheduleInterpreter;
@@ -18,7 +24,10 @@ import net.sf.opendse.model.Task;
 
 /**
  * The {@link AgentScheduling} is used to check whether a launchable task has
- * already been scheduled and to schedule it, if it is not yet scheduled.
+ * already been scheduled and to schedule it, if it is not yet scheduled. If the
+ * result of the task is found in the {@link ResultCache}, the task is neither
+ * scheduled nor enacted: The cached result is served and the post enactment
+ * operation is performed directly.
  * 
  * @author Fedor Smirnov
  */
@@ -29,6 +38,10 @@ public class AgentScheduling extends AgentTask {
   protected final Task functionNode;
   protected final EnactmentQueues enactmentState;
   protected final ScheduleInterpreter interpreter;
+  protected final InstanceState instanceState;
+  protected final ResultCache resultCache;
+  protected final GraphAccess graphAccess;
+  protected final PostEnactment postEnactment;
 
   /**
    * The default constructor.
@@ -40,20 +53,37 @@ public class AgentScheduling extends AgentTask {
    *        queues)
    * @param interpreter the interpreter
    * @param listeners the {@link AgentTaskListener}s
+   * @param instanceState the state of the enacted instance
+   * @param resultCache the cache for the function results
+   * @param graphAccess the access to the graph (to read the inputs of the task)
+   * @param postEnactment the operation performed for tasks served from the cache
    */
   public AgentScheduling(final ScheduleModel schedule, final Scheduler scheduler,
       final Task functionNode, final EnactmentQueues enactmentState,
-      final ScheduleInterpreter interpreter, final Set<AgentTaskListener> listeners) {
+      final ScheduleInterpreter interpreter, final Set<AgentTaskListener> listeners,
+      final InstanceState instanceState, final ResultCache resultCache,
+      final GraphAccess graphAccess, final PostEnactment postEnactment) {
     super(listeners);
     this.schedule = schedule;
     this.scheduler = scheduler;
     this.functionNode = functionNode;
     this.enactmentState = enactmentState;
     this.interpreter = interpreter;
+    this.instanceState = instanceState;
+    this.resultCache = resultCache;
+    this.graphAccess = graphAccess;
+    this.postEnactment = postEnactment;
   }
 
   @Override
   public boolean actualCall() throws Exception {
+    final JsonObject cachedResult = lookUpResult();
+    instanceState.setServedResult(functionNode, cachedResult);
+    if (cachedResult != null) {
+      instanceState.getEnactable(functionNode).setState(State.FINISHED);
+      postEnactment.postEnactmentTreatment(functionNode);
+      return true;
+    }
     if (schedule.isScheduled(functionNode)) {
       if (Scheduling.schedulingOption.equals(SchedulingOption.Static)) {
         throw new Exception("don't schedule again");
@@ -67,7 +97,7 @@ public class AgentScheduling extends AgentTask {
     }
     final Set<Mapping<Task, Resource>> taskSchedule = scheduler.scheduleTask(functionNode);
     schedule.setTaskSchedule(functionNode, taskSchedule);
-    final Enactable taskEnactable = PropertyServiceFunction.getEnactable(functionNode);
+    final Enactable taskEnactable = instanceState.getEnactable(functionNode);
     final EnactmentFunction enactmentFunction =
         interpreter.interpretSchedule(functionNode, taskSchedule);
     taskEnactable.schedule(enactmentFunction);
@@ -75,6 +105,19 @@ public class AgentScheduling extends AgentTask {
     return true;
   }
 
+  /**
+   * Returns the cached result of the function node with its current inputs.
+   * 
+   * @return the cached result of the function node, or null if the result is
+   *         not cached (or the node is not cacheable)
+   */
+  protected JsonObject lookUpResult() {
+    if (!resultCache.isEnabled() || !ResultCache.isCacheable(functionNode)) {
+      return null;
+    }
+    return resultCache.get(resultCache.getKey(functionNode, graphAccess, instanceState));
+  }
+
   @Override
   protected String formulateExceptionMessage() {
     return ConstantsAgents.ExcMessageScheduling + functionNode.getId();
@@ -2,6 +2,8 @@ package at.uibk.dps.ee.control.agents;
 
 import java.util.Set;
 import at.uibk.dps.ee.control.graph.GraphAccess;
+import at.uibk.dps.ee.control.graph.GraphChangeListener;
+import at.uibk.dps.ee.control.graph.GraphChangeSet;
 import at.uibk.dps.ee.control.graph.GraphTransform;
 import at.uibk.dps.ee.control.management.EnactmentQueues;
 import at.uibk.dps.ee.core.ModelModificationListener;
@@ -46,7 +48,9 @@ public class AgentTransform extends AgentTask {
   @Override
   protected boolean actualCall() throws Exception {
     modification.modifyEnactmentGraph(graphAccess, taskNode);
-    modificationListeners.forEach(listener -> listener.reactToModelModification());
+    final GraphChangeSet changes = graphAccess.takeGraphChanges(taskNode);
+    modificationListeners
+        .forEach(listener -> GraphChangeListener.notifyListener(listener, changes));
     enactmentState.putFinishedTask(taskNode);
     return true;
   }
@@ -5,14 +5,14 @@ import java.util.Set;
 import com.google.gson.JsonElement;
 
 import at.uibk.dps.ee.control.graph.GraphAccess;
+import at.uibk.dps.ee.control.graph.InstanceState;
+import at.uibk.dps.ee.control.graph.IterationChunk;
 import at.uibk.dps.ee.control.management.EnactmentQueues;
 import at.uibk.dps.ee.control.transmission.SchedulabilityCheck;
 import at.uibk.dps.ee.core.enactable.Enactable;
 import at.uibk.dps.ee.core.enactable.Enactable.State;
 import at.uibk.dps.ee.model.graph.EnactmentGraph;
-import at.uibk.dps.ee.model.properties.PropertyServiceData;
 import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
-import at.uibk.dps.ee.model.properties.PropertyServiceFunction;
 import net.sf.opendse.model.Dependency;
 import net.sf.opendse.model.Task;
 
@@ -32,6 +32,7 @@ public class AgentTransmission extends AgentTask {
   protected final Task functionNode;
   protected final GraphAccess graphAccess;
   protected final SchedulabilityCheck schedulabilityCheck;
+  protected final InstanceState instanceState;
 
   /**
    * The default constructor.
@@ -43,10 +44,13 @@ public class AgentTransmission extends AgentTask {
    * @param functionNode the function node
    * @param graphAccess the access to the graph
    * @param listeners the {@link AgentTaskListener}s
+   * @param schedulabilityCheck the check whether the function node is ready
+   * @param instanceState the state of the enacted instance
    */
   public AgentTransmission(final EnactmentQueues enactmentState, final Task dataNode,
       final Dependency edge, final Task functionNode, final GraphAccess graphAccess,
-      final Set<AgentTaskListener> listeners, final SchedulabilityCheck schedulabilityCheck) {
+      final Set<AgentTaskListener> listeners, final SchedulabilityCheck schedulabilityCheck,
+      final InstanceState instanceState) {
     super(listeners);
     this.enactmentState = enactmentState;
     this.dataNode = dataNode;
@@ -54,16 +58,24 @@ public class AgentTransmission extends AgentTask {
     this.functionNode = functionNode;
     this.graphAccess = graphAccess;
     this.schedulabilityCheck = schedulabilityCheck;
+    this.instanceState = instanceState;
   }
 
   @Override
   public boolean actualCall() throws Exception {
     // set the enactable data
-    final JsonElement content = PropertyServiceData.getContent(dataNode);
+    final JsonElement content = instanceState.getContent(dataNode);
     final String key = PropertyServiceDependency.getJsonKey(edge);
-    final Enactable enactable = PropertyServiceFunction.getEnactable(functionNode);
+    final Enactable enactable = instanceState.getEnactable(functionNode);
+    final IterationChunk chunk = IterationChunk.find(edge);
     synchronized (enactable) {
-      enactable.setInputValue(key, content);
+      if (chunk == null) {
+        enactable.setInputValue(key, content);
+      } else {
+        // the result of a chunk of loop iterations is split into its entries
+        chunk.split(content).entrySet()
+            .forEach(entry -> enactable.setInputValue(entry.getKey(), entry.getValue()));
+      }
     }
     // annotate the edges
     graphAccess.writeOperationTask(this::annotateTransmission, functionNode);
@@ -80,9 +92,9 @@ public class AgentTransmission extends AgentTask {
    */
   protected void annotateTransmission(final EnactmentGraph graph, final Task functionNode) {
     // annotate the dependency
-    PropertyServiceDependency.annotateFinishedTransmission(edge);
+    instanceState.annotateFinishedTransmission(edge);
     if (schedulabilityCheck.isTargetSchedulable(functionNode, graph)) {
-      PropertyServiceFunction.getEnactable(functionNode).setState(State.SCHEDULABLE);
+      instanceState.getEnactable(functionNode).setState(State.SCHEDULABLE);
       enactmentState.putSchedulableTask(functionNode);
     }
   }
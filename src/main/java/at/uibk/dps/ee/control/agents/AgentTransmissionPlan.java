@@ -0,0 +1,73 @@
+package at.uibk.dps.ee.control.agents;
+
+import java.util.Set;
+import com.google.gson.JsonElement;
+import at.uibk.dps.ee.control.graph.ExecutionPlan;
+import at.uibk.dps.ee.control.graph.InstanceStatePlan;
+import at.uibk.dps.ee.control.management.EnactmentQueues;
+import at.uibk.dps.ee.control.transmission.ReadinessTrackerPlan;
+import at.uibk.dps.ee.core.enactable.Enactable;
+import at.uibk.dps.ee.core.enactable.Enactable.State;
+
+/**
+ * The {@link AgentTransmissionPlan} is the counterpart of the
+ * {@link AgentTransmission} for the instances walking an {@link ExecutionPlan}:
+ * It transmits the content of a data node over an edge of the plan and
+ * registers the transmission with the {@link ReadinessTrackerPlan}. Since the
+ * pending dependencies are counted atomically, the graph is not locked.
+ * 
+ * @author Fedor Smirnov
+ */
+public class AgentTransmissionPlan extends AgentTask {
+
+  protected final int edgeIdx;
+  protected final ExecutionPlan plan;
+  protected final EnactmentQueues enactmentState;
+  protected final ReadinessTrackerPlan readinessTracker;
+  protected final InstanceStatePlan instanceState;
+
+  /**
+   * Default constructor.
+   * 
+   * @param edgeIdx the index of the edge from the data node to the function node
+   * @param plan the plan of the enacted graph
+   * @param enactmentState the state of the enactment (for the access to the
+   *        queues)
+   * @param listeners the {@link AgentTaskListener}s
+   * @param readinessTracker the tracker of the pending dependencies
+   * @param instanceState the state of the enacted instance
+   */
+  public AgentTransmissionPlan(final int edgeIdx, final ExecutionPlan plan,
+      final EnactmentQueues enactmentState, final Set<AgentTaskListener> listeners,
+      final ReadinessTrackerPlan readinessTracker, final InstanceStatePlan instanceState) {
+    super(listeners);
+    this.edgeIdx = edgeIdx;
+    this.plan = plan;
+    this.enactmentState = enactmentState;
+    this.readinessTracker = readinessTracker;
+    this.instanceState = instanceState;
+  }
+
+  @Override
+  public boolean actualCall() throws Exception {
+    final int functionNode = plan.getTarget(edgeIdx);
+    final JsonElement content = instanceState.getContent(plan.getSource(edgeIdx));
+    final Enactable enactable = instanceState.getEnactable(functionNode);
+    synchronized (enactable) {
+      enactable.setInputValue(plan.getJsonKey(edgeIdx), content);
+    }
+    if (readinessTracker.registerTransmission(edgeIdx)) {
+      enactable.setState(State.SCHEDULABLE);
+      enactmentState.putSchedulableTask(plan.getNode(functionNode));
+    }
+    return true;
+  }
+
+  @Override
+  protected String formulateExceptionMessage() {
+    return ConstantsAgents.ExcMessageTransmissionPrefix
+        + plan.getNode(plan.getSource(edgeIdx)).getId()
+        + ConstantsAgents.ExcMessageTransmissionSuffix
+        + plan.getNode(plan.getTarget(edgeIdx)).getId();
+  }
+}
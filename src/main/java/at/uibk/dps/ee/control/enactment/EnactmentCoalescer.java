@@ -0,0 +1,187 @@
+package at.uibk.dps.ee.control.enactment;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.opt4j.core.start.Constant;
+import com.google.gson.JsonObject;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import at.uibk.dps.ee.control.graph.GraphAccess;
+import at.uibk.dps.ee.control.graph.InstanceState;
+import net.sf.opendse.model.Task;
+
+/**
+ * The {@link EnactmentCoalescer} deduplicates identical enactments which are
+ * in flight at the same time (e.g., the offspring of a distribution which
+ * process duplicated elements): The first enactment of a function with given
+ * inputs (the leader) performs the invocation; the identical enactments
+ * started while the leader is running are completed with its result (without
+ * occupying a thread while the leader is running) instead of invoking the
+ * function themselves. Enactments are identical if they have the
+ * same key in the {@link ResultCache} (function type and inputs); only the
+ * cacheable functions are coalesced.
+ *
+ * The coalescer counts the invocations performed by leaders and the
+ * enactments which were served with the result of a leader.
+ *
+ * @author Fedor Smirnov
+ */
+@Singleton
+public class EnactmentCoalescer {
+
+  protected final boolean enabled;
+  protected final ResultCache resultCache;
+  protected final Map<String, CompletableFuture<JsonObject>> inFlight =
+      new ConcurrentHashMap<>();
+  protected final LongAdder leadingCalls = new LongAdder();
+  protected final LongAdder coalescedCalls = new LongAdder();
+
+  /**
+   * The injection constructor.
+   *
+   * @param enabled true if identical concurrent enactments are coalesced
+   * @param resultCache the result cache (providing the keys of the enactments)
+   */
+  @Inject
+  public EnactmentCoalescer(
+      @Constant(namespace = EnactmentCoalescer.class, value = "enabled") final boolean enabled,
+      final ResultCache resultCache) {
+    this.enabled = enabled;
+    this.resultCache = resultCache;
+  }
+
+  /**
+   * Returns true if the enactment of the given function node can be coalesced
+   * with identical enactments.
+   *
+   * @param functionNode the given function node
+   * @return true if the enactment of the given function node can be coalesced
+   */
+  public boolean isApplicable(final Task functionNode) {
+    return enabled && ResultCache.isCacheable(functionNode);
+  }
+
+  /**
+   * Returns the key identifying the enactment of the given function node with
+   * its current inputs.
+   *
+   * @param functionNode the given function node
+   * @param graphAccess the access to the graph
+   * @param instanceState the state of the enacted instance
+   * @return the key identifying the enactment of the given function node
+   */
+  public String getKey(final Task functionNode, final GraphAccess graphAccess,
+      final InstanceState instanceState) {
+    return resultCache.getKey(functionNode, graphAccess, instanceState);
+  }
+
+  /**
+   * Joins the enactment with the given key: If an identical enactment is in
+   * flight, its invocation is returned. Otherwise, the given invocation is
+   * registered and null is returned (the caller is the leader and has to
+   * complete the invocation with {@link #complete(String, CompletableFuture,
+   * JsonObject)} or {@link #fail(String, CompletableFuture, Throwable)} and
+   * finally {@link #release(String, CompletableFuture)} it).
+   *
+   * @param key the key of the enactment
+   * @param invocation the invocation of the caller
+   * @return the invocation in flight, or null if the caller is the leader
+   */
+  public CompletableFuture<JsonObject> join(final String key,
+      final CompletableFuture<JsonObject> invocation) {
+    final CompletableFuture<JsonObject> running = inFlight.putIfAbsent(key, invocation);
+    if (running == null) {
+      leadingCalls.increment();
+    }
+    return running;
+  }
+
+  /**
+   * Completes the invocation of a leader with the given result.
+   *
+   * @param key the key of the enactment
+   * @param invocation the invocation of the leader
+   * @param result the result of the invocation, or null if the invocation was
+   *        stopped (the waiting enactments are then enacted on their own)
+   */
+  public void complete(final String key, final CompletableFuture<JsonObject> invocation,
+      final JsonObject result) {
+    // removed first, so that enactments started from now on are not coalesced
+    inFlight.remove(key, invocation);
+    invocation.complete(result);
+  }
+
+  /**
+   * Completes the invocation of a leader with the given throwable.
+   *
+   * @param key the key of the enactment
+   * @param invocation the invocation of the leader
+   * @param failure the throwable thrown by the invocation
+   */
+  public void fail(final String key, final CompletableFuture<JsonObject> invocation,
+      final Throwable failure) {
+    inFlight.remove(key, invocation);
+    invocation.completeExceptionally(failure);
+  }
+
+  /**
+   * Releases the invocation of a leader: The invocation is no longer in flight
+   * and, if it was neither completed nor failed, the waiting enactments are
+   * enacted on their own. Has to be called when the leader is done, whatever
+   * the outcome of its invocation.
+   *
+   * @param key the key of the enactment
+   * @param invocation the invocation of the leader
+   */
+  public void release(final String key, final CompletableFuture<JsonObject> invocation) {
+    complete(key, invocation, null);
+  }
+
+  /**
+   * Returns the result served to an enactment which joined the given invocation
+   * in flight.
+   *
+   * @param running the invocation in flight
+   * @return a future completed with a copy of the result of the invocation
+   *         (null if it was stopped) or with the throwable thrown by the
+   *         invocation
+   */
+  public CompletableFuture<JsonObject> serve(final CompletableFuture<JsonObject> running) {
+    return running.thenApply(result -> {
+      if (result == null) {
+        return null;
+      }
+      coalescedCalls.increment();
+      return result.deepCopy();
+    });
+  }
+
+  /**
+   * Returns true if identical concurrent enactments are coalesced.
+   *
+   * @return true if identical concurrent enactments are coalesced
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Returns the number of invocations performed by leaders.
+   *
+   * @return the number of invocations performed by leaders
+   */
+  public long getLeadingCallNumber() {
+    return leadingCalls.sum();
+  }
+
+  /**
+   * Returns the number of enactments served with the result of a leader.
+   *
+   * @return the number of enactments served with the result of a leader
+   */
+  public long getCoalescedCallNumber() {
+    return coalescedCalls.sum();
+  }
+}
@@ -0,0 +1,49 @@
+package at.uibk.dps.ee.control.enactment;
+
+import at.uibk.dps.ee.control.graph.GraphAccess;
+import at.uibk.dps.ee.control.graph.InstanceState;
+import at.uibk.dps.ee.core.enactable.Enactable;
+import at.uibk.dps.ee.core.enactable.Enactable.State;
+import net.sf.opendse.model.Task;
+
+/**
+ * The {@link PostEnactmentMemoization} caches the result of the enacted task
+ * in the {@link ResultCache} (if the task is cacheable and its enactment was
+ * completed) before performing the decorated post enactment operation.
+ *
+ * @author Fedor Smirnov
+ */
+public class PostEnactmentMemoization implements PostEnactment {
+
+  protected final PostEnactment decorated;
+  protected final ResultCache resultCache;
+  protected final GraphAccess graphAccess;
+  protected final InstanceState instanceState;
+
+  /**
+   * Default constructor
+   *
+   * @param decorated the decorated post enactment operation
+   * @param resultCache the cache for the function results
+   * @param graphAccess the access to the graph (to read the inputs of the task)
+   * @param instanceState the state of the enacted instance
+   */
+  public PostEnactmentMemoization(final PostEnactment decorated, final ResultCache resultCache,
+      final GraphAccess graphAccess, final InstanceState instanceState) {
+    this.decorated = decorated;
+    this.resultCache = resultCache;
+    this.graphAccess = graphAccess;
+    this.instanceState = instanceState;
+  }
+
+  @Override
+  public void postEnactmentTreatment(final Task enactedTask) {
+    final Enactable enactable = instanceState.getEnactable(enactedTask);
+    if (enactable.getState() == State.FINISHED && ResultCache.isCacheable(enactedTask)) {
+      // the result may have been served by an identical enactment
+      resultCache.put(resultCache.getKey(enactedTask, graphAccess, instanceState),
+          instanceState.getResult(enactedTask));
+    }
+    decorated.postEnactmentTreatment(enactedTask);
+  }
+}
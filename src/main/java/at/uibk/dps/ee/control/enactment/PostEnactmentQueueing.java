@@ -1,11 +1,10 @@
 package at.uibk.dps.ee.control.enactment;
 
+import at.uibk.dps.ee.control.graph.InstanceState;
+import at.uibk.dps.ee.control.graph.NodeProperties;
 import at.uibk.dps.ee.control.management.EnactmentQueues;
+import at.uibk.dps.ee.core.enactable.Enactable;
 import at.uibk.dps.ee.core.enactable.Enactable.State;
-import at.uibk.dps.ee.model.properties.PropertyServiceFunction;
-import at.uibk.dps.ee.model.properties.PropertyServiceFunction.UsageType;
-import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlow.DataFlowType;
-import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlow;
 import net.sf.opendse.model.Task;
 
 /**
@@ -17,25 +16,32 @@ import net.sf.opendse.model.Task;
 public class PostEnactmentQueueing implements PostEnactment {
 
   protected final EnactmentQueues enactmentState;
+  protected final InstanceState instanceState;
 
   /**
    * Default constructor
    * 
    * @param enactmentState the enactment state (for the access to the queues)
+   * @param instanceState the state of the enacted instance
    */
-  public PostEnactmentQueueing(final EnactmentQueues enactmentState) {
+  public PostEnactmentQueueing(final EnactmentQueues enactmentState,
+      final InstanceState instanceState) {
     this.enactmentState = enactmentState;
+    this.instanceState = instanceState;
   }
 
   @Override
   public void postEnactmentTreatment(final Task enactedTask) {
     if (requiresTransformation(enactedTask)) {
       enactmentState.putTransformTask(enactedTask);
-    } else if (PropertyServiceFunction.getEnactable(enactedTask).getState() == State.STOPPED) {
-      PropertyServiceFunction.getEnactable(enactedTask).setState(State.SCHEDULABLE);
-      enactmentState.putSchedulableTask(enactedTask);
     } else {
-      enactmentState.putFinishedTask(enactedTask);
+      final Enactable enactable = instanceState.getEnactable(enactedTask);
+      if (enactable.getState() == State.STOPPED) {
+        enactable.setState(State.SCHEDULABLE);
+        enactmentState.putSchedulableTask(enactedTask);
+      } else {
+        enactmentState.putFinishedTask(enactedTask);
+      }
     }
   }
 
@@ -48,7 +54,6 @@ public class PostEnactmentQueueing implements PostEnactment {
    *         enactment
    */
   protected boolean requiresTransformation(final Task task) {
-    return PropertyServiceFunction.getUsageType(task).equals(UsageType.DataFlow)
-        && PropertyServiceFunctionDataFlow.getDataFlowType(task).equals(DataFlowType.Collections);
+    return NodeProperties.of(task).isCollectionOperation();
   }
 }
@@ -0,0 +1,387 @@
+package at.uibk.dps.ee.control.enactment;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.opt4j.core.start.Constant;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import at.uibk.dps.ee.control.graph.GraphAccess;
+import at.uibk.dps.ee.control.graph.InstanceState;
+import at.uibk.dps.ee.control.graph.NodeProperties;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunction.UsageType;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionUser;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+
+/**
+ * Opt-in memoization of the results of the user functions, so that a function
+ * which is called with the same inputs as an earlier function of the same type
+ * (in the same or in an earlier request) is neither scheduled nor enacted.
+ *
+ * The results are cached under a hash of the function type (the type id of
+ * the user function, so that the function nodes of the same type share their
+ * results) and the canonical form of its inputs (the json entries sorted by
+ * key). The key of a function node is computed once per enactment and kept in
+ * the {@link InstanceState}, so that the scheduling (look-up), the coalescing,
+ * and the memoization of the result share it. The cache keeps a bounded
+ * number of results in memory, evicting the least recently used ones, and
+ * (optionally) writes the results into a local directory, which is read on
+ * misses of the memory tier (failed writes are logged; the result then stays
+ * cached in memory only). Cached results expire after the configured time;
+ * expired files are deleted when they are read. The disk tier is not bounded
+ * by the number of entries: Files which are never read again stay in the
+ * directory (without an expiry time, the directory only grows), so that it
+ * has to be cleaned up externally.
+ *
+ * Functions can be excluded from the memoization (e.g., functions with side
+ * effects) by marking them as non-cacheable; the mark is inherited by the
+ * offspring of the function node. The cache is disabled if its size is 0.
+ *
+ * @author Fedor Smirnov
+ */
+@Singleton
+public class ResultCache {
+
+  private static final String nonCacheableAttributeName = "NonCacheable";
+  private static final String hashAlgorithm = "SHA-256";
+  private static final String fileSuffix = ".json";
+  private static final Logger logger = Logger.getLogger(ResultCache.class.getName());
+
+  protected final int maxEntries;
+  protected final long ttlMillis;
+  protected final Path directory;
+  protected final Map<String, CachedResult> memoryTier;
+
+  /**
+   * A result cached in memory, together with the time when it was cached.
+   *
+   * @author Fedor Smirnov
+   */
+  protected static final class CachedResult {
+    protected final JsonObject result;
+    protected final long timeCached;
+
+    /**
+     * Default constructor.
+     *
+     * @param result the cached result
+     * @param timeCached the time (ms) when the result was cached
+     */
+    protected CachedResult(final JsonObject result, final long timeCached) {
+      this.result = result;
+      this.timeCached = timeCached;
+    }
+  }
+
+  /**
+   * The injection constructor.
+   *
+   * @param maxEntries the maximal number of results kept in memory (0 disables
+   *        the cache)
+   * @param ttlSeconds the time (s) after which cached results expire (0 = never)
+   * @param directory the directory of the disk tier (empty = no disk tier)
+   */
+  @Inject
+  public ResultCache(
+      @Constant(namespace = ResultCache.class, value = "maxEntries") final int maxEntries,
+      @Constant(namespace = ResultCache.class, value = "ttlSeconds") final int ttlSeconds,
+      @Constant(namespace = ResultCache.class, value = "directory") final String directory) {
+    this.maxEntries = maxEntries;
+    this.ttlMillis = TimeUnit.SECONDS.toMillis(ttlSeconds);
+    this.directory = directory == null || directory.isEmpty() ? null : Paths.get(directory);
+    this.memoryTier = new LinkedHashMap<String, CachedResult>(16, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(final Entry<String, CachedResult> eldest) {
+        return size() > maxEntries;
+      }
+    };
+  }
+
+  /**
+   * Returns true if the cache is enabled.
+   *
+   * @return true if the cache is enabled
+   */
+  public boolean isEnabled() {
+    return maxEntries > 0;
+  }
+
+  /**
+   * Marks the given function node (and its offspring) as non-cacheable.
+   *
+   * @param functionNode the given function node
+   */
+  public static void markNonCacheable(final Task functionNode) {
+    functionNode.setAttribute(nonCacheableAttributeName, true);
+  }
+
+  /**
+   * Returns true if the result of the given function node can be memoized:
+   * Only the user functions which are not marked as non-cacheable are
+   * memoized.
+   *
+   * @param functionNode the given function node
+   * @return true if the result of the given function node can be memoized
+   */
+  public static boolean isCacheable(final Task functionNode) {
+    return NodeProperties.of(functionNode).getUsageType().equals(UsageType.User)
+        && !Boolean.TRUE.equals(functionNode.getAttribute(nonCacheableAttributeName));
+  }
+
+  /**
+   * Returns the key of the given function node with its current inputs. Must be
+   * called when all inputs of the node are available. The key is computed on
+   * the first call for the enactment of the node and then taken from the given
+   * instance state.
+   *
+   * @param functionNode the given function node
+   * @param graphAccess the access to the graph
+   * @param instanceState the state of the enacted instance
+   * @return the key of the given function node with its current inputs
+   */
+  public String getKey(final Task functionNode, final GraphAccess graphAccess,
+      final InstanceState instanceState) {
+    final String known = instanceState.getEnactmentKey(functionNode);
+    if (known != null) {
+      return known;
+    }
+    final JsonObject inputs =
+        graphAccess.readGraph(graph -> gatherInputs(graph, functionNode, instanceState));
+    final String result = getKey(getFunctionType(functionNode), inputs);
+    instanceState.setEnactmentKey(functionNode, result);
+    return result;
+  }
+
+  /**
+   * Returns the key of a function of the given type with the given inputs.
+   *
+   * @param functionType the type of the function
+   * @param inputs the inputs of the function
+   * @return the key of a function of the given type with the given inputs
+   */
+  public static String getKey(final String functionType, final JsonObject inputs) {
+    final StringBuilder canonical = new StringBuilder(functionType).append('\n');
+    appendCanonical(inputs, canonical);
+    try {
+      final byte[] hash = MessageDigest.getInstance(hashAlgorithm)
+          .digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+      final StringBuilder result = new StringBuilder(hash.length * 2);
+      for (final byte b : hash) {
+        result.append(Character.forDigit((b >> 4) & 0xF, 16))
+            .append(Character.forDigit(b & 0xF, 16));
+      }
+      return result.toString();
+    } catch (NoSuchAlgorithmException exc) {
+      throw new IllegalStateException("Hash algorithm not available: " + hashAlgorithm, exc);
+    }
+  }
+
+  /**
+   * Returns the cached result for the given key, if any.
+   *
+   * @param key the key
+   * @return a copy of the cached result, or null if no (valid) result is cached
+   */
+  public JsonObject get(final String key) {
+    final long now = System.currentTimeMillis();
+    synchronized (memoryTier) {
+      final CachedResult cached = memoryTier.get(key);
+      if (cached != null) {
+        if (!isExpired(cached.timeCached, now)) {
+          return cached.result.deepCopy();
+        }
+        memoryTier.remove(key);
+      }
+    }
+    final CachedResult stored = readFromDisk(key, now);
+    if (stored == null) {
+      return null;
+    }
+    synchronized (memoryTier) {
+      memoryTier.put(key, stored);
+    }
+    return stored.result.deepCopy();
+  }
+
+  /**
+   * Caches the given result under the given key.
+   *
+   * @param key the key
+   * @param result the result to cache
+   */
+  public void put(final String key, final JsonObject result) {
+    final JsonObject copy = result.deepCopy();
+    synchronized (memoryTier) {
+      memoryTier.put(key, new CachedResult(copy, System.currentTimeMillis()));
+    }
+    writeToDisk(key, copy);
+  }
+
+  /**
+   * Reads the result with the given key from the disk tier. An expired file is
+   * deleted.
+   *
+   * @param key the key
+   * @param now the current time (ms)
+   * @return the stored result (with the time when it was written), or null if no
+   *         (valid) result is stored
+   */
+  protected CachedResult readFromDisk(final String key, final long now) {
+    if (directory == null) {
+      return null;
+    }
+    final Path file = directory.resolve(key + fileSuffix);
+    try {
+      if (!Files.exists(file)) {
+        return null;
+      }
+      final long timeWritten = Files.getLastModifiedTime(file).toMillis();
+      if (isExpired(timeWritten, now)) {
+        Files.deleteIfExists(file);
+        return null;
+      }
+      final JsonElement stored =
+          JsonParser.parseString(new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+      return stored.isJsonObject() ? new CachedResult(stored.getAsJsonObject(), timeWritten)
+          : null;
+    } catch (IOException | JsonParseException exc) {
+      // an unreadable entry is treated as a miss
+      return null;
+    }
+  }
+
+  /**
+   * Writes the given result into the disk tier (if configured).
+   *
+   * @param key the key
+   * @param result the result
+   */
+  protected void writeToDisk(final String key, final JsonObject result) {
+    if (directory == null) {
+      return;
+    }
+    try {
+      Files.createDirectories(directory);
+      // written to a temporary file first, so that readers never see partial entries
+      final Path tmpFile = Files.createTempFile(directory, key, null);
+      Files.write(tmpFile, result.toString().getBytes(StandardCharsets.UTF_8));
+      Files.move(tmpFile, directory.resolve(key + fileSuffix),
+          StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException exc) {
+      // the disk tier is an optimization, the enactment goes on without it
+      logger.log(Level.WARNING, "Could not write the cached result " + key, exc);
+    }
+  }
+
+  /**
+   * Returns true if a result cached at the given time is expired.
+   *
+   * @param timeCached the time (ms) when the result was cached
+   * @param now the current time (ms)
+   * @return true if a result cached at the given time is expired
+   */
+  protected boolean isExpired(final long timeCached, final long now) {
+    return ttlMillis > 0 && now - timeCached > ttlMillis;
+  }
+
+  /**
+   * Gathers the inputs of the given function node from the contents of the
+   * data nodes on its in edges.
+   *
+   * @param graph the enactment graph
+   * @param functionNode the function node
+   * @param instanceState the state of the enacted instance
+   * @return a json object with the inputs of the given function node
+   */
+  protected static JsonObject gatherInputs(final EnactmentGraph graph, final Task functionNode,
+      final InstanceState instanceState) {
+    final JsonObject result = new JsonObject();
+    for (final Dependency inEdge : graph.getInEdges(functionNode)) {
+      result.add(PropertyServiceDependency.getJsonKey(inEdge),
+          instanceState.getContent(graph.getSource(inEdge)));
+    }
+    return result;
+  }
+
+  /**
+   * Returns the type of the given function node: the type id for user
+   * functions and the id of the original node (the node the function node was
+   * reproduced from) otherwise.
+   *
+   * @param functionNode the given function node
+   * @return the type of the given function node
+   */
+  protected static String getFunctionType(final Task functionNode) {
+    if (NodeProperties.of(functionNode).getUsageType().equals(UsageType.User)) {
+      return PropertyServiceFunctionUser.getTypeId(functionNode);
+    }
+    Task original = functionNode;
+    while (original.getParent() instanceof Task) {
+      original = (Task) original.getParent();
+    }
+    return original.getId();
+  }
+
+  /**
+   * Appends the canonical form of the given element (json objects with their
+   * entries sorted by key) to the given builder.
+   *
+   * @param element the given element
+   * @param builder the builder
+   */
+  protected static void appendCanonical(final JsonElement element, final StringBuilder builder) {
+    if (element == null || element.isJsonNull()) {
+      builder.append("null");
+    } else if (element.isJsonObject()) {
+      final Map<String, JsonElement> sorted = new TreeMap<>();
+      element.getAsJsonObject().entrySet()
+          .forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+      builder.append('{');
+      boolean first = true;
+      for (final Entry<String, JsonElement> entry : sorted.entrySet()) {
+        if (!first) {
+          builder.append(',');
+        }
+        first = false;
+        builder.append(new JsonPrimitive(entry.getKey())).append(':');
+        appendCanonical(entry.getValue(), builder);
+      }
+      builder.append('}');
+    } else if (element.isJsonArray()) {
+      builder.append('[');
+      boolean first = true;
+      for (final JsonElement entry : element.getAsJsonArray()) {
+        if (!first) {
+          builder.append(',');
+        }
+        first = false;
+        appendCanonical(entry, builder);
+      }
+      builder.append(']');
+    } else {
+      builder.append(element);
+    }
+  }
+}
@@ -0,0 +1,101 @@
+package at.uibk.dps.ee.control.graph;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import at.uibk.dps.ee.control.graph.GraphAccess.EdgeTupleAppl;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+
+/**
+ * Immutable snapshot of the out edges of all nodes of the enactment graph. The
+ * edge tuples are created once when the index is built, so that the out edges
+ * can be read without locking and without allocations. The index carries the
+ * structure version of the graph it was built from.
+ *
+ * @author Fedor Smirnov
+ */
+public final class AdjacencyIndex {
+
+  protected final Map<Task, Set<EdgeTupleAppl>> outEdges;
+  protected final long version;
+
+  /**
+   * Private constructor, use {@link #build(EnactmentGraph, long)}.
+   *
+   * @param outEdges the (unmodifiable) out edge tuples of each node
+   * @param version the structure version of the graph
+   */
+  private AdjacencyIndex(final Map<Task, Set<EdgeTupleAppl>> outEdges, final long version) {
+    this.outEdges = outEdges;
+    this.version = version;
+  }
+
+  /**
+   * Builds the index for the current structure of the given graph. Must be
+   * called while the graph structure is not modified.
+   *
+   * @param graph the enactment graph
+   * @param version the structure version of the graph
+   * @return the index for the current structure of the given graph
+   */
+  public static AdjacencyIndex build(final EnactmentGraph graph, final long version) {
+    final Map<Task, Set<EdgeTupleAppl>> outEdges = new HashMap<>();
+    for (final Task node : graph.getVertices()) {
+      final Set<EdgeTupleAppl> tuples = new HashSet<>();
+      for (final Dependency edge : graph.getOutEdges(node)) {
+        tuples.add(new EdgeTupleAppl(node, graph.getDest(edge), edge));
+      }
+      outEdges.put(node,
+          tuples.isEmpty() ? Collections.emptySet() : Collections.unmodifiableSet(tuples));
+    }
+    return new AdjacencyIndex(outEdges, version);
+  }
+
+  /**
+   * Returns the out edge tuples of the given node (an empty set if the node is
+   * not part of the indexed graph).
+   *
+   * @param node the given node
+   * @return the (unmodifiable) out edge tuples of the given node
+   */
+  public Set<EdgeTupleAppl> getOutEdges(final Task node) {
+    return outEdges.getOrDefault(node, Collections.emptySet());
+  }
+
+  /**
+   * Returns the nodes of the indexed graph.
+   *
+   * @return the (unmodifiable) nodes of the indexed graph
+   */
+  public Set<Task> getNodes() {
+    return Collections.unmodifiableSet(outEdges.keySet());
+  }
+
+  /**
+   * Returns the edges of the indexed graph, mapped to their tuples.
+   *
+   * @return the edges of the indexed graph, mapped to their tuples
+   */
+  public Map<Dependency, EdgeTupleAppl> getEdges() {
+    final Map<Dependency, EdgeTupleAppl> result = new HashMap<>();
+    for (final Set<EdgeTupleAppl> tuples : outEdges.values()) {
+      for (final EdgeTupleAppl tuple : tuples) {
+        result.put(tuple.getEdge(), tuple);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the structure version of the graph the index was built from.
+   *
+   * @return the structure version of the graph the index was built from
+   */
+  public long getVersion() {
+    return version;
+  }
+}
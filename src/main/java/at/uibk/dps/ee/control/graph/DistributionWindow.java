@@ -0,0 +1,265 @@
+package at.uibk.dps.ee.control.graph;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import at.uibk.dps.ee.control.graph.GraphAccess.EdgeTupleAppl;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+
+/**
+ * The state of a distribution which is unrolled in a window: Only a bounded
+ * number of loop iterations is part of the graph at any time. An iteration is
+ * complete once its results have been transmitted to all aggregation nodes of
+ * the scope. The completed iterations are then removed from the graph and
+ * replaced by the next ones (by a transformation triggered with the slide
+ * trigger task of the window). The aggregation nodes become schedulable once
+ * they received the results of all iterations.
+ *
+ * The window is annotated on the aggregation nodes of its scope and on its
+ * slide trigger, which is a task outside of the graph.
+ *
+ * @author Fedor Smirnov
+ */
+public class DistributionWindow {
+
+  private static final String attributeName = "DistributionWindow";
+  private static final String triggerSuffix = "--windowSlide";
+
+  protected final Task distributionNode;
+  protected final int iterationNumber;
+  protected final int windowSize;
+  protected final Set<EdgeTupleAppl> originalEdges;
+  protected final Set<Task> originalBodyNodes;
+  protected final Set<Task> aggregationNodes;
+  protected final Task slideTrigger;
+
+  protected final Map<Dependency, Integer> aggregationEdges = new ConcurrentHashMap<>();
+  protected final Map<Integer, AtomicInteger> iterationArrivals = new ConcurrentHashMap<>();
+  protected final Map<Task, AtomicInteger> aggregationArrivals = new ConcurrentHashMap<>();
+  protected final Queue<Integer> completedIterations = new ConcurrentLinkedQueue<>();
+  protected final Set<Integer> activeIterations = new HashSet<>();
+  protected int nextIteration;
+  protected volatile boolean closed;
+
+  /**
+   * Default constructor.
+   *
+   * @param distributionNode the distribution node
+   * @param iterationNumber the overall number of loop iterations
+   * @param windowSize the maximal number of iterations in the graph
+   * @param originalEdges the original edges (with their end points) between
+   *        the distribution node and its aggregators
+   * @param originalBodyNodes the original nodes between the distribution node
+   *        and its aggregators (the nodes reproduced for each iteration)
+   * @param aggregationNodes the aggregation nodes of the scope
+   */
+  public DistributionWindow(final Task distributionNode, final int iterationNumber,
+      final int windowSize, final Set<EdgeTupleAppl> originalEdges,
+      final Set<Task> originalBodyNodes, final Set<Task> aggregationNodes) {
+    this.distributionNode = distributionNode;
+    this.iterationNumber = iterationNumber;
+    this.windowSize = windowSize;
+    this.originalEdges = originalEdges;
+    this.originalBodyNodes = originalBodyNodes;
+    this.aggregationNodes = aggregationNodes;
+    this.slideTrigger = new Task(distributionNode.getId() + triggerSuffix);
+    aggregationNodes
+        .forEach(aggregator -> aggregationArrivals.put(aggregator, new AtomicInteger()));
+  }
+
+  /**
+   * Annotates the window on the aggregation nodes and on the slide trigger.
+   */
+  public void attach() {
+    aggregationNodes.forEach(aggregator -> aggregator.setAttribute(attributeName, this));
+    slideTrigger.setAttribute(attributeName, this);
+  }
+
+  /**
+   * Marks the window as closed: It is no longer found via its annotations and
+   * later slides have no effect.
+   */
+  public void close() {
+    closed = true;
+  }
+
+  /**
+   * Returns the window annotated on the given task (the window of its scope for
+   * aggregation nodes), if any.
+   *
+   * @param task the given task
+   * @return the (open) window annotated on the given task, or null if the task
+   *         is not part of a windowed distribution
+   */
+  public static DistributionWindow find(final Task task) {
+    final Object attached = task.getAttribute(attributeName);
+    if (attached instanceof DistributionWindow && !((DistributionWindow) attached).closed) {
+      return (DistributionWindow) attached;
+    }
+    return null;
+  }
+
+  /**
+   * Returns true if the given task is the slide trigger of a window.
+   *
+   * @param task the given task
+   * @return true if the given task is the slide trigger of a window
+   */
+  public static boolean isSlideTrigger(final Task task) {
+    final Object attached = task.getAttribute(attributeName);
+    return attached instanceof DistributionWindow
+        && ((DistributionWindow) attached).slideTrigger == task;
+  }
+
+  /**
+   * Returns the window of the given slide trigger (also if it is closed).
+   *
+   * @param slideTrigger the given slide trigger
+   * @return the window of the given slide trigger
+   */
+  public static DistributionWindow ofSlideTrigger(final Task slideTrigger) {
+    if (!isSlideTrigger(slideTrigger)) {
+      throw new IllegalArgumentException(
+          "The task " + slideTrigger.getId() + " is not the slide trigger of a window.");
+    }
+    return (DistributionWindow) slideTrigger.getAttribute(attributeName);
+  }
+
+  /**
+   * Registers the edge connecting the given iteration to an aggregation node.
+   *
+   * @param aggregationEdge the edge to the aggregation node
+   * @param iteration the iteration index
+   */
+  public void registerAggregationEdge(final Dependency aggregationEdge, final int iteration) {
+    aggregationEdges.put(aggregationEdge, iteration);
+  }
+
+  /**
+   * Registers the transmission of an iteration result over the given edge to
+   * the given aggregation node. Returns true if this transmission completed the
+   * iteration (i.e., the iteration can be removed from the graph).
+   *
+   * @param aggregator the aggregation node
+   * @param aggregationEdge the edge of the transmission
+   * @return true if this transmission completed the iteration
+   */
+  public boolean registerArrival(final Task aggregator, final Dependency aggregationEdge) {
+    final Integer iteration = aggregationEdges.remove(aggregationEdge);
+    if (iteration == null) {
+      throw new IllegalArgumentException("The edge " + aggregationEdge.getId()
+          + " does not connect a window iteration to an aggregation node.");
+    }
+    aggregationArrivals.get(aggregator).incrementAndGet();
+    final int arrivals = iterationArrivals
+        .computeIfAbsent(iteration, idx -> new AtomicInteger()).incrementAndGet();
+    if (arrivals == aggregationNodes.size()) {
+      iterationArrivals.remove(iteration);
+      completedIterations.add(iteration);
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Returns true if the given aggregation node received the results of all
+   * iterations.
+   *
+   * @param aggregator the given aggregation node
+   * @return true if the given aggregation node received the results of all
+   *         iterations
+   */
+  public boolean isAggregationComplete(final Task aggregator) {
+    return aggregationArrivals.get(aggregator).get() == iterationNumber;
+  }
+
+  /**
+   * Returns the index of the next completed iteration which is still part of
+   * the graph (null if there is none).
+   *
+   * @return the index of the next completed iteration which is still part of
+   *         the graph
+   */
+  public Integer pollCompletedIteration() {
+    return completedIterations.poll();
+  }
+
+  /**
+   * Returns true if the window contains fewer iterations than its size and
+   * there are iterations left to unroll. Only called during graph
+   * transformations.
+   *
+   * @return true if another iteration can be unrolled
+   */
+  public boolean canUnroll() {
+    return !closed && nextIteration < iterationNumber && activeIterations.size() < windowSize;
+  }
+
+  /**
+   * Returns the index of the next iteration to unroll and counts it as part of
+   * the graph. Only called during graph transformations.
+   *
+   * @return the index of the next iteration to unroll
+   */
+  public int startNextIteration() {
+    activeIterations.add(nextIteration);
+    return nextIteration++;
+  }
+
+  /**
+   * Registers the removal of the given iteration from the graph. Only called
+   * during graph transformations.
+   *
+   * @param iteration the index of the removed iteration
+   */
+  public void finishIteration(final int iteration) {
+    activeIterations.remove(iteration);
+  }
+
+  /**
+   * Returns the indices of the iterations which are part of the graph. Only
+   * called during graph transformations.
+   *
+   * @return the indices of the iterations which are part of the graph
+   */
+  public Set<Integer> getActiveIterations() {
+    return activeIterations;
+  }
+
+  public Task getDistributionNode() {
+    return distributionNode;
+  }
+
+  public int getIterationNumber() {
+    return iterationNumber;
+  }
+
+  public int getWindowSize() {
+    return windowSize;
+  }
+
+  public Set<EdgeTupleAppl> getOriginalEdges() {
+    return originalEdges;
+  }
+
+  public Set<Task> getOriginalBodyNodes() {
+    return originalBodyNodes;
+  }
+
+  public Set<Task> getAggregationNodes() {
+    return aggregationNodes;
+  }
+
+  public Task getSlideTrigger() {
+    return slideTrigger;
+  }
+
+  public boolean isClosed() {
+    return closed;
+  }
+}
@@ -0,0 +1,377 @@
+package at.uibk.dps.ee.control.graph;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import com.google.gson.JsonElement;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.properties.PropertyServiceData;
+import at.uibk.dps.ee.model.properties.PropertyServiceData.NodeType;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependency.TypeDependency;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependencyControlIf;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.model.properties.TaskPropertyService;
+
+/**
+ * Immutable, integer-indexed compilation of the enactment graph for the
+ * enactment of instances on a graph whose structure does not change: Each node
+ * and each edge is assigned an index; the adjacency is stored as int arrays
+ * (the in and out edges of node n are the entries [offsets[n], offsets[n+1])
+ * of the respective edge array), and the static annotations read during the
+ * enactment (json keys, edge types, if activations, node types, constant
+ * contents) are resolved into per-edge and per-node arrays. The state changed
+ * during the enactment is kept in arrays indexed by the plan (see
+ * {@link InstanceStatePlan}), so that the agents walking the plan (see
+ * {@link at.uibk.dps.ee.control.management.EnactmentReactorPlan}) neither read
+ * the attributes of the graph elements nor lock the graph.
+ *
+ * The maps from the nodes and edges to their indices are only used at the
+ * boundary of the plan (e.g., for the tasks taken from the queues).
+ *
+ * The plan carries the structure version of the graph it was compiled from.
+ *
+ * @author Fedor Smirnov
+ */
+public final class ExecutionPlan {
+
+  protected final long version;
+
+  protected final Task[] nodes;
+  protected final Dependency[] edges;
+  protected final Map<Task, Integer> nodeIndices;
+  protected final Map<Dependency, Integer> edgeIndices;
+
+  protected final int[] edgeSources;
+  protected final int[] edgeTargets;
+  protected final int[] outOffsets;
+  protected final int[] outEdges;
+  protected final int[] inOffsets;
+  protected final int[] inEdges;
+
+  protected final String[] jsonKeys;
+  protected final BitSet controlIfEdges;
+  protected final BitSet ifActivations;
+  protected final BitSet sequentialityNodes;
+  protected final BitSet multiplexerNodes;
+  protected final JsonElement[] constantContents;
+  protected final int[] pendingDependencies;
+
+  /**
+   * Private constructor, use {@link #compile(EnactmentGraph, long)}.
+   *
+   * @param graph the enactment graph
+   * @param version the structure version of the graph
+   */
+  private ExecutionPlan(final EnactmentGraph graph, final long version) {
+    this.version = version;
+    final int nodeNumber = graph.getVertexCount();
+    final int edgeNumber = graph.getEdgeCount();
+    this.nodes = graph.getVertices().toArray(new Task[nodeNumber]);
+    this.edges = graph.getEdges().toArray(new Dependency[edgeNumber]);
+    this.nodeIndices = new HashMap<>(nodeNumber * 2);
+    this.edgeIndices = new HashMap<>(edgeNumber * 2);
+    for (int nodeIdx = 0; nodeIdx < nodeNumber; nodeIdx++) {
+      nodeIndices.put(nodes[nodeIdx], nodeIdx);
+    }
+    for (int edgeIdx = 0; edgeIdx < edgeNumber; edgeIdx++) {
+      edgeIndices.put(edges[edgeIdx], edgeIdx);
+    }
+    // the edges and their annotations
+    this.edgeSources = new int[edgeNumber];
+    this.edgeTargets = new int[edgeNumber];
+    this.jsonKeys = new String[edgeNumber];
+    this.controlIfEdges = new BitSet(edgeNumber);
+    this.ifActivations = new BitSet(edgeNumber);
+    for (int edgeIdx = 0; edgeIdx < edgeNumber; edgeIdx++) {
+      final Dependency edge = edges[edgeIdx];
+      edgeSources[edgeIdx] = nodeIndices.get(graph.getSource(edge));
+      edgeTargets[edgeIdx] = nodeIndices.get(graph.getDest(edge));
+      jsonKeys[edgeIdx] = PropertyServiceDependency.getJsonKey(edge);
+      if (PropertyServiceDependency.getType(edge).equals(TypeDependency.ControlIf)) {
+        controlIfEdges.set(edgeIdx);
+        ifActivations.set(edgeIdx, PropertyServiceDependencyControlIf.getActivation(edge));
+      }
+    }
+    // the adjacency
+    this.outOffsets = new int[nodeNumber + 1];
+    this.inOffsets = new int[nodeNumber + 1];
+    this.outEdges = new int[edgeNumber];
+    this.inEdges = new int[edgeNumber];
+    fillAdjacency(edgeSources, outOffsets, outEdges);
+    fillAdjacency(edgeTargets, inOffsets, inEdges);
+    // the nodes and their annotations
+    this.sequentialityNodes = new BitSet(nodeNumber);
+    this.multiplexerNodes = new BitSet(nodeNumber);
+    this.constantContents = new JsonElement[nodeNumber];
+    this.pendingDependencies = new int[nodeNumber];
+    for (int nodeIdx = 0; nodeIdx < nodeNumber; nodeIdx++) {
+      final Task node = nodes[nodeIdx];
+      if (TaskPropertyService.isCommunication(node)) {
+        final NodeType nodeType = NodeProperties.of(node).getNodeType();
+        sequentialityNodes.set(nodeIdx, nodeType.equals(NodeType.Sequentiality));
+        if (nodeType.equals(NodeType.Constant)) {
+          constantContents[nodeIdx] = PropertyServiceData.getContent(node);
+        }
+      } else {
+        multiplexerNodes.set(nodeIdx, NodeProperties.of(node).isMultiplexer());
+        // each in edge has to be transmitted, each if edge has to be active
+        int pending = getInEdgeNumber(nodeIdx);
+        for (int inEdge = inOffsets[nodeIdx]; inEdge < inOffsets[nodeIdx + 1]; inEdge++) {
+          if (controlIfEdges.get(inEdges[inEdge])) {
+            pending++;
+          }
+        }
+        pendingDependencies[nodeIdx] = pending;
+      }
+    }
+  }
+
+  /**
+   * Fills the offsets and the edge array of the adjacency defined by the given
+   * end points of the edges (counting sort of the edges by their end point).
+   *
+   * @param endPoints the end point (source or target) of each edge
+   * @param offsets the offsets to fill (one entry more than there are nodes)
+   * @param adjacentEdges the edge array to fill
+   */
+  protected static void fillAdjacency(final int[] endPoints, final int[] offsets,
+      final int[] adjacentEdges) {
+    for (final int node : endPoints) {
+      offsets[node + 1]++;
+    }
+    for (int nodeIdx = 0; nodeIdx < offsets.length - 1; nodeIdx++) {
+      offsets[nodeIdx + 1] += offsets[nodeIdx];
+    }
+    final int[] next = new int[offsets.length - 1];
+    System.arraycopy(offsets, 0, next, 0, next.length);
+    for (int edgeIdx = 0; edgeIdx < endPoints.length; edgeIdx++) {
+      adjacentEdges[next[endPoints[edgeIdx]]++] = edgeIdx;
+    }
+  }
+
+  /**
+   * Compiles the plan for the current structure of the given graph. Must be
+   * called while the graph structure is not modified.
+   *
+   * @param graph the enactment graph
+   * @param version the structure version of the graph
+   * @return the plan for the current structure of the given graph
+   */
+  public static ExecutionPlan compile(final EnactmentGraph graph, final long version) {
+    return new ExecutionPlan(graph, version);
+  }
+
+  /**
+   * Returns the index of the given node.
+   *
+   * @param node the given node
+   * @return the index of the given node
+   */
+  public int getNodeIndex(final Task node) {
+    final Integer result = nodeIndices.get(node);
+    if (result == null) {
+      throw new IllegalArgumentException(
+          "The node " + node.getId() + " is not part of the execution plan.");
+    }
+    return result;
+  }
+
+  /**
+   * Returns the index of the given edge.
+   *
+   * @param edge the given edge
+   * @return the index of the given edge
+   */
+  public int getEdgeIndex(final Dependency edge) {
+    final Integer result = edgeIndices.get(edge);
+    if (result == null) {
+      throw new IllegalArgumentException(
+          "The edge " + edge.getId() + " is not part of the execution plan.");
+    }
+    return result;
+  }
+
+  /**
+   * Returns the node with the given index.
+   *
+   * @param nodeIdx the given index
+   * @return the node with the given index
+   */
+  public Task getNode(final int nodeIdx) {
+    return nodes[nodeIdx];
+  }
+
+  /**
+   * Returns the edge with the given index.
+   *
+   * @param edgeIdx the given index
+   * @return the edge with the given index
+   */
+  public Dependency getEdge(final int edgeIdx) {
+    return edges[edgeIdx];
+  }
+
+  /**
+   * Returns the index of the source node of the given edge.
+   *
+   * @param edgeIdx the index of the given edge
+   * @return the index of the source node of the given edge
+   */
+  public int getSource(final int edgeIdx) {
+    return edgeSources[edgeIdx];
+  }
+
+  /**
+   * Returns the index of the target node of the given edge.
+   *
+   * @param edgeIdx the index of the given edge
+   * @return the index of the target node of the given edge
+   */
+  public int getTarget(final int edgeIdx) {
+    return edgeTargets[edgeIdx];
+  }
+
+  /**
+   * Returns the number of out edges of the given node.
+   *
+   * @param nodeIdx the index of the given node
+   * @return the number of out edges of the given node
+   */
+  public int getOutEdgeNumber(final int nodeIdx) {
+    return outOffsets[nodeIdx + 1] - outOffsets[nodeIdx];
+  }
+
+  /**
+   * Returns the index of the i-th out edge of the given node.
+   *
+   * @param nodeIdx the index of the given node
+   * @param i the position of the edge among the out edges of the node
+   * @return the index of the i-th out edge of the given node
+   */
+  public int getOutEdge(final int nodeIdx, final int i) {
+    return outEdges[outOffsets[nodeIdx] + i];
+  }
+
+  /**
+   * Returns the number of in edges of the given node.
+   *
+   * @param nodeIdx the index of the given node
+   * @return the number of in edges of the given node
+   */
+  public int getInEdgeNumber(final int nodeIdx) {
+    return inOffsets[nodeIdx + 1] - inOffsets[nodeIdx];
+  }
+
+  /**
+   * Returns the index of the i-th in edge of the given node.
+   *
+   * @param nodeIdx the index of the given node
+   * @param i the position of the edge among the in edges of the node
+   * @return the index of the i-th in edge of the given node
+   */
+  public int getInEdge(final int nodeIdx, final int i) {
+    return inEdges[inOffsets[nodeIdx] + i];
+  }
+
+  /**
+   * Returns the json key of the given edge.
+   *
+   * @param edgeIdx the index of the given edge
+   * @return the json key of the given edge
+   */
+  public String getJsonKey(final int edgeIdx) {
+    return jsonKeys[edgeIdx];
+  }
+
+  /**
+   * Returns true if the given edge is a control if edge.
+   *
+   * @param edgeIdx the index of the given edge
+   * @return true if the given edge is a control if edge
+   */
+  public boolean isControlIf(final int edgeIdx) {
+    return controlIfEdges.get(edgeIdx);
+  }
+
+  /**
+   * Returns the activation of the given control if edge.
+   *
+   * @param edgeIdx the index of the given edge
+   * @return the activation of the given control if edge
+   */
+  public boolean getIfActivation(final int edgeIdx) {
+    return ifActivations.get(edgeIdx);
+  }
+
+  /**
+   * Returns true if the given data node models a sequentiality.
+   *
+   * @param nodeIdx the index of the given node
+   * @return true if the given data node models a sequentiality
+   */
+  public boolean isSequentiality(final int nodeIdx) {
+    return sequentialityNodes.get(nodeIdx);
+  }
+
+  /**
+   * Returns true if the given function node is a multiplexer node.
+   *
+   * @param nodeIdx the index of the given node
+   * @return true if the given function node is a multiplexer node
+   */
+  public boolean isMultiplexer(final int nodeIdx) {
+    return multiplexerNodes.get(nodeIdx);
+  }
+
+  /**
+   * Returns the content of the given constant data node (null for other
+   * nodes).
+   *
+   * @param nodeIdx the index of the given node
+   * @return the content of the given constant data node
+   */
+  public JsonElement getConstantContent(final int nodeIdx) {
+    return constantContents[nodeIdx];
+  }
+
+  /**
+   * Returns the number of dependencies the given function node is waiting for
+   * before any transmission: one for each in edge, and one more for each
+   * control if edge (which has to be active).
+   *
+   * @param nodeIdx the index of the given node
+   * @return the initial number of pending dependencies of the given node
+   */
+  public int getPendingDependencies(final int nodeIdx) {
+    return pendingDependencies[nodeIdx];
+  }
+
+  /**
+   * Returns the number of nodes in the plan.
+   *
+   * @return the number of nodes in the plan
+   */
+  public int getNodeNumber() {
+    return nodes.length;
+  }
+
+  /**
+   * Returns the number of edges in the plan.
+   *
+   * @return the number of edges in the plan
+   */
+  public int getEdgeNumber() {
+    return edges.length;
+  }
+
+  /**
+   * Returns the structure version of the graph the plan was compiled from.
+   *
+   * @return the structure version of the graph the plan was compiled from
+   */
+  public long getVersion() {
+    return version;
+  }
+}
@@ -2,6 +2,7 @@ package at.uibk.dps.ee.control.graph;
 
 import java.util.Set;
 import java.util.function.BiConsumer;
+import java.util.function.Function;
 import com.google.inject.ImplementedBy;
 import at.uibk.dps.ee.model.graph.EnactmentGraph;
 import net.sf.opendse.model.Dependency;
@@ -55,13 +56,25 @@ public interface GraphAccess {
   
   /**
    * Returns a copy of the enactment graph which can be used for read purposes.
+   * The copy is made from the current snapshot (see {@link #getSnapshot()}).
    * 
    * @return A copy of the enactment graph which can be used for read purposes
    */
   EnactmentGraph getGraphCopy();
 
+  /**
+   * Returns a consistent snapshot of the graph (structure and attributes). The
+   * snapshot is shared until the next write to the graph. If a writer holds the
+   * graph, the snapshot of the last state captured before is returned instead
+   * of waiting for the writer.
+   * 
+   * @return a snapshot of the graph
+   */
+  GraphSnapshot getSnapshot();
+
   /**
    * Returns the edgeTuples (end nodes + edge) for all out edges of the given node
+   * (an unmodifiable set).
    * 
    * @param node the given node
    * @return the edgeTuples (end nodes + edge) for all out edges of the given node
@@ -69,21 +82,50 @@ public interface GraphAccess {
   Set<EdgeTupleAppl> getOutEdges(Task node);
 
   /**
-   * Returns the root nodes of the graph (annotated with the WF input).
+   * Returns the structure version of the graph, which is incremented with each
+   * transformation of the graph structure. Can be used to detect whether the
+   * results of earlier reads are outdated.
+   * 
+   * @return the structure version of the graph
+   */
+  long getStructureVersion();
+
+  /**
+   * Returns the integer-indexed execution plan compiled from the current
+   * structure of the graph (recompiled after each transformation of the graph
+   * structure).
+   * 
+   * @return the execution plan of the current graph structure
+   */
+  ExecutionPlan getExecutionPlan();
+
+  /**
+   * Returns the index of the collection operations of the graph. The index is
+   * maintained by the graph transforms and may only be used within
+   * {@link #transformGraph(BiConsumer, Task)}.
+   * 
+   * @return the index of the collection operations of the graph
+   */
+  ScopeIndex getScopeIndex();
+
+  /**
+   * Returns the root nodes of the graph (annotated with the WF input) as an
+   * unmodifiable set.
    * 
    * @return the root nodes of the graph (annotated with the WF input)
    */
   Set<Task> getRootDataNodes();
 
   /**
-   * Returns the leaf nodes of the graph (to be annotated with the WF result).
+   * Returns the leaf nodes of the graph (to be annotated with the WF result) as
+   * an unmodifiable set.
    * 
    * @return the leaf nodes of the graph (to be annotated with the WF result)
    */
   Set<Task> getLeafDataNodes();
 
   /**
-   * Returns the constant data nodes of the graph.
+   * Returns the constant data nodes of the graph as an unmodifiable set.
    * 
    * @return the set of the constant data nodes.
    */
@@ -91,10 +133,53 @@ public interface GraphAccess {
 
   /**
    * Applies the given write operation (relatively to the given task) in
-   * thread-safe way.
+   * thread-safe way. The operation may only modify the annotations of the given
+   * task and of its in edges. Changes of the graph structure have to be done via
+   * {@link #transformGraph(BiConsumer, Task)}.
    * 
    * @param writeOperation the write operation to apply
    * @param task the given task
    */
   void writeOperationTask(BiConsumer<EnactmentGraph, Task> writeOperation, Task task);
+
+  /**
+   * Applies the given operation which only reads the graph structure. The
+   * operation may run concurrently with the task-local write operations (but
+   * not with transformations) and may only modify the annotations of nodes which
+   * are not processed concurrently.
+   * 
+   * @param readOperation the read operation to apply
+   * @return the result of the read operation
+   */
+  <T> T readGraph(Function<EnactmentGraph, T> readOperation);
+
+  /**
+   * Applies the given operation changing the structure of the graph (adding or
+   * removing nodes and edges). The operation is applied with an exclusive access
+   * to the whole graph.
+   * 
+   * @param transformOperation the transform operation to apply
+   * @param task the task triggering the transformation
+   */
+  void transformGraph(BiConsumer<EnactmentGraph, Task> transformOperation, Task task);
+
+  /**
+   * Enables the recording of the {@link GraphChangeSet}s of the
+   * transformations. Recording the changes costs a comparison of the graph
+   * structure before and after each transformation, so it is only enabled if
+   * someone is interested in the changes (i.e., if there are listeners for the
+   * modifications of the graph).
+   */
+  void trackGraphChanges();
+
+  /**
+   * Returns (and forgets) the changes of the graph structure caused by the
+   * transformations triggered by the given task since the last call of this
+   * method for the task. Returns an empty change set if the recording of the
+   * changes is not enabled (see {@link #trackGraphChanges()}).
+   * 
+   * @param task the task triggering the transformations
+   * @return the merged changes of the transformations triggered by the task
+   */
+  GraphChangeSet takeGraphChanges(Task task);
 }
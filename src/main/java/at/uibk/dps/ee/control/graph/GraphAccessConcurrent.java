@@ -1,11 +1,16 @@
 package at.uibk.dps.ee.control.graph;
 
+import java.util.Collections;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.BiConsumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import com.google.inject.Inject;
@@ -23,7 +28,27 @@ import net.sf.opendse.model.properties.TaskPropertyService;
 
 /**
  * Implements a threat-safe run-time access to the enactment graph based on a
- * ReadWriteLock.
+ * ReadWriteLock. The out edges are read (without locking) from an immutable
+ * {@link AdjacencyIndex} which is dropped by each graph transformation and
+ * rebuilt (once) on the first read of the new structure version, so that the
+ * transformations do not pay for it under the exclusive lock. The root, leaf,
+ * and constant nodes as well as the {@link ExecutionPlan} are computed (and
+ * validated) once and cached until the next transformation. The
+ * {@link ScopeIndex} is built once and then maintained by the transforms. The
+ * {@link GraphChangeSet} of each transformation is (if the recording of the
+ * changes is enabled) computed from the adjacency indices before and after the
+ * transformation and kept (per trigger task) until it is taken by the agent
+ * applying the transformation.
+ *
+ * Each write through the access increments the state version of the graph.
+ * A {@link GraphSnapshot} (structure and an immutable image of the
+ * attributes) is captured at most once per state version and then shared, so
+ * that pinning a snapshot is O(1) and does not lock the graph. The capture
+ * itself needs a consistent graph: It is only attempted if the graph can be
+ * locked without waiting; if a writer holds the graph, the last captured
+ * snapshot is returned. Annotations made outside the graph access (e.g., the
+ * contents written by the extraction agents) become part of the snapshots
+ * with the next write through the access.
  * 
  * @author Fedor Smirnov
  */
@@ -34,6 +59,17 @@ public class GraphAccessConcurrent implements GraphAccess {
   protected final ReadWriteLock readWriteLock;
   protected final Lock readLock;
   protected final Lock writeLock;
+  protected volatile AdjacencyIndex adjacencyIndex;
+  protected volatile Set<Task> rootNodes;
+  protected volatile Set<Task> leafNodes;
+  protected volatile Set<Task> constantNodes;
+  protected volatile ExecutionPlan executionPlan;
+  protected volatile ScopeIndex scopeIndex;
+  protected volatile GraphSnapshot snapshot;
+  protected final AtomicLong stateVersion = new AtomicLong();
+  protected final AtomicLong structureVersion = new AtomicLong();
+  protected final Map<Task, GraphChangeSet> pendingChanges = new ConcurrentHashMap<>();
+  protected volatile boolean changeTracking;
 
   /**
    * The injection constructor.
@@ -43,7 +79,17 @@ public class GraphAccessConcurrent implements GraphAccess {
    */
   @Inject
   public GraphAccessConcurrent(final GraphProviderEnactables graphProvider) {
-    this.graph = graphProvider.getEnactmentGraph();
+    this(graphProvider.getEnactmentGraph());
+  }
+
+  /**
+   * Constructs the access to the given graph (e.g., the graph copy of a single
+   * workflow instance).
+   * 
+   * @param graph the enactment graph
+   */
+  public GraphAccessConcurrent(final EnactmentGraph graph) {
+    this.graph = graph;
     this.readWriteLock = new ReentrantReadWriteLock();
     this.readLock = readWriteLock.readLock();
     this.writeLock = readWriteLock.writeLock();
@@ -51,25 +97,74 @@ public class GraphAccessConcurrent implements GraphAccess {
 
   @Override
   public Set<EdgeTupleAppl> getOutEdges(final Task node) {
+    return getAdjacencyIndex().getOutEdges(node);
+  }
+
+  @Override
+  public long getStructureVersion() {
+    return structureVersion.get();
+  }
+
+  /**
+   * Returns the adjacency index of the current structure version (built on the
+   * first access after a transformation).
+   * 
+   * @return the current adjacency index
+   */
+  protected AdjacencyIndex getAdjacencyIndex() {
+    final AdjacencyIndex current = adjacencyIndex;
+    if (current != null) {
+      return current;
+    }
     try {
       readLock.lock();
-      return graph.getOutEdges(node).stream().map(edge -> getEdgeTupleForEdge(edge))
-          .collect(Collectors.toSet());
+      synchronized (this) {
+        if (adjacencyIndex == null) {
+          adjacencyIndex = AdjacencyIndex.build(graph, structureVersion.get());
+        }
+        return adjacencyIndex;
+      }
     } finally {
       readLock.unlock();
     }
   }
 
-  /**
-   * Summarizes the edge to an edgeTuple
-   * 
-   * @param edge the edge to summarize
-   * @return the edgeTuple of the edge
-   */
-  protected EdgeTupleAppl getEdgeTupleForEdge(final Dependency edge) {
-    final Task src = graph.getSource(edge);
-    final Task dst = graph.getDest(edge);
-    return new EdgeTupleAppl(src, dst, edge);
+  @Override
+  public ExecutionPlan getExecutionPlan() {
+    final ExecutionPlan current = executionPlan;
+    if (current != null) {
+      return current;
+    }
+    try {
+      readLock.lock();
+      synchronized (this) {
+        if (executionPlan == null) {
+          executionPlan = ExecutionPlan.compile(graph, structureVersion.get());
+        }
+        return executionPlan;
+      }
+    } finally {
+      readLock.unlock();
+    }
+  }
+
+  @Override
+  public ScopeIndex getScopeIndex() {
+    final ScopeIndex current = scopeIndex;
+    if (current != null) {
+      return current;
+    }
+    try {
+      readLock.lock();
+      synchronized (this) {
+        if (scopeIndex == null) {
+          scopeIndex = ScopeIndex.build(graph);
+        }
+        return scopeIndex;
+      }
+    } finally {
+      readLock.unlock();
+    }
   }
 
   @Override
@@ -78,24 +173,71 @@ public class GraphAccessConcurrent implements GraphAccess {
     try {
       writeLock.lock();
       writeOperation.accept(graph, task);
+      stateVersion.incrementAndGet();
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  @Override
+  public <T> T readGraph(final Function<EnactmentGraph, T> readOperation) {
+    try {
+      readLock.lock();
+      return readOperation.apply(graph);
+    } finally {
+      readLock.unlock();
+    }
+  }
+
+  @Override
+  public void transformGraph(final BiConsumer<EnactmentGraph, Task> transformOperation,
+      final Task task) {
+    try {
+      writeLock.lock();
+      final AdjacencyIndex before = changeTracking ? getAdjacencyIndex() : null;
+      transformOperation.accept(graph, task);
+      adjacencyIndex = null;
+      structureVersion.incrementAndGet();
+      if (changeTracking) {
+        // the changes are computed from the index of the new version
+        pendingChanges.merge(task, GraphChangeSet.diff(before, getAdjacencyIndex()),
+            GraphChangeSet::merge);
+      }
+      rootNodes = null;
+      leafNodes = null;
+      constantNodes = null;
+      executionPlan = null;
+      stateVersion.incrementAndGet();
     } finally {
       writeLock.unlock();
     }
+  }
 
+  @Override
+  public void trackGraphChanges() {
+    changeTracking = true;
+  }
+
+  @Override
+  public GraphChangeSet takeGraphChanges(final Task task) {
+    final GraphChangeSet result = pendingChanges.remove(task);
+    return result == null ? GraphChangeSet.empty() : result;
   }
 
   @Override
   public Set<Task> getRootDataNodes() {
+    final Set<Task> current = rootNodes;
+    if (current != null) {
+      return current;
+    }
     try {
       readLock.lock();
-      final Set<Task> result =
-          graph.getVertices().stream().filter(task -> graph.getInEdges(task).size() == 0)
-              .filter(task -> !PropertyServiceData.getNodeType(task).equals(NodeType.Constant))
-              .collect(Collectors.toSet());
-      if (result.stream().anyMatch(task -> !PropertyServiceData.isRoot(task))) {
-        throw new IllegalStateException("Non-root nodes without in edges present.");
+      synchronized (this) {
+        if (rootNodes == null) {
+          rootNodes = Collections.unmodifiableSet(findRootDataNodes());
+        }
+        return rootNodes;
       }
-      return result;
     } finally {
       readLock.unlock();
     }
@@ -103,14 +245,18 @@ public class GraphAccessConcurrent implements GraphAccess {
 
   @Override
   public Set<Task> getLeafDataNodes() {
+    final Set<Task> current = leafNodes;
+    if (current != null) {
+      return current;
+    }
     try {
       readLock.lock();
-      final Set<Task> result = graph.getVertices().stream()
-          .filter(task -> graph.getOutEdges(task).size() == 0).collect(Collectors.toSet());
-      if (result.stream().anyMatch(task -> !PropertyServiceData.isLeaf(task))) {
-        throw new IllegalStateException("Non-leaf nodes without out edges present.");
+      synchronized (this) {
+        if (leafNodes == null) {
+          leafNodes = Collections.unmodifiableSet(findLeafDataNodes());
+        }
+        return leafNodes;
       }
-      return result;
     } finally {
       readLock.unlock();
     }
@@ -118,45 +264,127 @@ public class GraphAccessConcurrent implements GraphAccess {
 
   @Override
   public Set<Task> getConstantDataNodes() {
+    final Set<Task> current = constantNodes;
+    if (current != null) {
+      return current;
+    }
     try {
       readLock.lock();
-      return graph.getVertices().stream().filter(task -> TaskPropertyService.isCommunication(task))
-          .filter(dataNode -> PropertyServiceData.getNodeType(dataNode).equals(NodeType.Constant))
-          .collect(Collectors.toSet());
+      synchronized (this) {
+        if (constantNodes == null) {
+          constantNodes = Collections.unmodifiableSet(findConstantDataNodes());
+        }
+        return constantNodes;
+      }
     } finally {
       readLock.unlock();
     }
   }
 
+  /**
+   * Finds the root nodes of the graph. Throws an exception if the graph contains
+   * nodes without in edges which are not annotated as root nodes.
+   * 
+   * @return the root nodes of the graph
+   */
+  protected Set<Task> findRootDataNodes() {
+    final Set<Task> result =
+        graph.getVertices().stream().filter(task -> graph.getInEdges(task).size() == 0)
+            .filter(task -> !PropertyServiceData.getNodeType(task).equals(NodeType.Constant))
+            .collect(Collectors.toSet());
+    if (result.stream().anyMatch(task -> !PropertyServiceData.isRoot(task))) {
+      throw new IllegalStateException("Non-root nodes without in edges present.");
+    }
+    return result;
+  }
+
+  /**
+   * Finds the leaf nodes of the graph. Throws an exception if the graph contains
+   * nodes without out edges which are not annotated as leaf nodes.
+   * 
+   * @return the leaf nodes of the graph
+   */
+  protected Set<Task> findLeafDataNodes() {
+    final Set<Task> result = graph.getVertices().stream()
+        .filter(task -> graph.getOutEdges(task).size() == 0).collect(Collectors.toSet());
+    if (result.stream().anyMatch(task -> !PropertyServiceData.isLeaf(task))) {
+      throw new IllegalStateException("Non-leaf nodes without out edges present.");
+    }
+    return result;
+  }
+
+  /**
+   * Finds the constant data nodes of the graph.
+   * 
+   * @return the constant data nodes of the graph
+   */
+  protected Set<Task> findConstantDataNodes() {
+    return graph.getVertices().stream().filter(task -> TaskPropertyService.isCommunication(task))
+        .filter(dataNode -> PropertyServiceData.getNodeType(dataNode).equals(NodeType.Constant))
+        .collect(Collectors.toSet());
+  }
+
   @Override
-  public EnactmentGraph getGraphCopy() {
+  public GraphSnapshot getSnapshot() {
+    final GraphSnapshot current = snapshot;
+    if (current != null && current.getStateVersion() == stateVersion.get()) {
+      return current;
+    }
+    final Lock captureLock = getCaptureLock();
+    if (current == null) {
+      // nothing captured yet
+      captureLock.lock();
+    } else if (!captureLock.tryLock()) {
+      // a writer holds the graph: pin the last captured state
+      return current;
+    }
     try {
-      readLock.lock();
-      return copyGraph();
+      synchronized (this) {
+        final long version = stateVersion.get();
+        if (snapshot == null || snapshot.getStateVersion() != version) {
+          snapshot = GraphSnapshot.capture(getAdjacencyIndex(), version);
+        }
+        return snapshot;
+      }
     } finally {
-      readLock.unlock();
+      captureLock.unlock();
     }
+  }
+
+  /**
+   * Returns the lock excluding all writes to the graph (acquired for the
+   * capture of a snapshot).
+   * 
+   * @return the lock excluding all writes to the graph
+   */
+  protected Lock getCaptureLock() {
+    return readLock;
+  }
 
+  @Override
+  public EnactmentGraph getGraphCopy() {
+    return copyGraph(getSnapshot());
   }
 
   /**
-   * Generates a copy of the enactment graph
+   * Generates a copy of the graph described by the given snapshot. Does not
+   * lock the graph (the attributes are taken from the snapshot).
    * 
+   * @param snapshot the snapshot of the graph
    * @return a copy of the enactment graph
    */
-  protected EnactmentGraph copyGraph() {
+  protected EnactmentGraph copyGraph(final GraphSnapshot snapshot) {
     final EnactmentGraph result = new EnactmentGraph();
     // add all vertices
-    for (final Task task : graph) {
-      result.addVertex((Task) copy(task));
+    for (final Task task : snapshot.getVertices()) {
+      result.addVertex((Task) copy(task, snapshot.getAttributes(task)));
     }
     // add all edges
-    for (final Dependency dep : graph.getEdges()) {
-      final Dependency copyDep = (Dependency) copy(dep);
-      final Task srcOrigin = graph.getSource(dep);
-      final Task dstOrigin = graph.getDest(dep);
-      final Task srcCopy = result.getVertex(srcOrigin.getId());
-      final Task dstCopy = result.getVertex(dstOrigin.getId());
+    for (final EdgeTupleAppl tuple : snapshot.getEdges()) {
+      final Dependency copyDep =
+          (Dependency) copy(tuple.getEdge(), snapshot.getAttributes(tuple.getEdge()));
+      final Task srcCopy = result.getVertex(tuple.getSrc().getId());
+      final Task dstCopy = result.getVertex(tuple.getDst().getId());
       result.addEdge(copyDep, srcCopy, dstCopy, EdgeType.DIRECTED);
     }
     return result;
@@ -170,6 +398,17 @@ public class GraphAccessConcurrent implements GraphAccess {
    * @return the element copy
    */
   protected Element copy(final Element original) {
+    return copy(original, GraphSnapshot.copyAttributes(original));
+  }
+
+  /**
+   * Returns a copy of the given element with the given attributes.
+   * 
+   * @param original the original element
+   * @param attributes the attributes of the copy
+   * @return the element copy
+   */
+  protected Element copy(final Element original, final Map<String, Object> attributes) {
     // make the object
     Optional<Element> result;
     // Element result = null;
@@ -184,9 +423,7 @@ public class GraphAccessConcurrent implements GraphAccess {
     }
     final Element resultElement = result.get();
     // copy the attributes
-    for (final String attrName : original.getAttributeNames()) {
-      resultElement.setAttribute(attrName, original.getAttribute(attrName));
-    }
+    attributes.forEach(resultElement::setAttribute);
     resultElement.setParent(original);
     return resultElement;
   }
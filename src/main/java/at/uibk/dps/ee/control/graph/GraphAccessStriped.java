@@ -0,0 +1,93 @@
+package at.uibk.dps.ee.control.graph;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import org.opt4j.core.start.Constant;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import at.uibk.dps.ee.core.enactable.Enactable;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import net.sf.opendse.model.Task;
+
+/**
+ * Graph access with lock striping: The task-local write operations (e.g., the
+ * annotation of a transmission) only hold the shared lock of the graph and the
+ * lock of the stripe of the corresponding task, so that operations on tasks in
+ * different stripes can be applied in parallel. The exclusive lock of the graph
+ * is only used for the transformations changing the graph structure.
+ *
+ * @author Fedor Smirnov
+ */
+@Singleton
+public class GraphAccessStriped extends GraphAccessConcurrent {
+
+  protected final Lock[] stripes;
+
+  /**
+   * The injection constructor.
+   *
+   * @param graphProvider the provider for the enactment graph (where the function
+   *        nodes are annotated with the corresponding {@link Enactable}s.)
+   * @param stripeNumber the number of lock stripes
+   */
+  @Inject
+  public GraphAccessStriped(final GraphProviderEnactables graphProvider,
+      @Constant(namespace = GraphAccessStriped.class,
+          value = "stripeNumber") final int stripeNumber) {
+    this(graphProvider.getEnactmentGraph(), stripeNumber);
+  }
+
+  /**
+   * Constructs the striped access to the given graph.
+   *
+   * @param graph the enactment graph
+   * @param stripeNumber the number of lock stripes
+   */
+  public GraphAccessStriped(final EnactmentGraph graph, final int stripeNumber) {
+    super(graph);
+    if (stripeNumber < 1) {
+      throw new IllegalArgumentException("The stripe number must be positive.");
+    }
+    this.stripes = new Lock[stripeNumber];
+    for (int idx = 0; idx < stripeNumber; idx++) {
+      stripes[idx] = new ReentrantLock();
+    }
+  }
+
+  @Override
+  public void writeOperationTask(final BiConsumer<EnactmentGraph, Task> writeOperation,
+      final Task task) {
+    final Lock stripeLock = stripes[getStripeIndex(task)];
+    try {
+      readLock.lock();
+      try {
+        stripeLock.lock();
+        writeOperation.accept(graph, task);
+      } finally {
+        stripeLock.unlock();
+      }
+      stateVersion.incrementAndGet();
+    } finally {
+      readLock.unlock();
+    }
+  }
+
+  @Override
+  protected Lock getCaptureLock() {
+    // the task-local write operations only hold the shared lock
+    return writeLock;
+  }
+
+  /**
+   * Returns the index of the lock stripe of the given task.
+   *
+   * @param task the given task
+   * @return the index of the lock stripe of the given task
+   */
+  protected int getStripeIndex(final Task task) {
+    final int hash = task.hashCode();
+    // spread the higher bits (ids often differ only in their suffix)
+    return ((hash ^ (hash >>> 16)) & Integer.MAX_VALUE) % stripes.length;
+  }
+}
@@ -0,0 +1,116 @@
+package at.uibk.dps.ee.control.graph;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import at.uibk.dps.ee.core.ModelModificationListener;
+
+/**
+ * Decorator for a {@link ModelModificationListener} which coalesces bursts of
+ * graph transformations: The changes arriving within the given delay after the
+ * first change of a burst are merged and delivered to the decorated listener
+ * as a single {@link GraphChangeSet} (or as a single notification for
+ * listeners which are not interested in the changes). Once the scheduler is
+ * shut down, the changes are delivered right away.
+ *
+ * @author Fedor Smirnov
+ */
+public class GraphChangeCoalescer implements GraphChangeListener {
+
+  protected final ModelModificationListener delegate;
+  protected final long delayMillis;
+  protected final ScheduledExecutorService scheduler;
+
+  protected GraphChangeSet pendingChanges;
+  protected boolean flushScheduled;
+
+  /**
+   * Default constructor.
+   *
+   * @param delegate the decorated listener
+   * @param delayMillis the time (in milliseconds) for which the changes are
+   *        gathered before they are delivered
+   * @param scheduler the executor scheduling the delivery
+   */
+  public GraphChangeCoalescer(final ModelModificationListener delegate, final long delayMillis,
+      final ScheduledExecutorService scheduler) {
+    this.delegate = delegate;
+    this.delayMillis = delayMillis;
+    this.scheduler = scheduler;
+  }
+
+  /**
+   * Creates the scheduler for the delivery of the coalesced changes (a single
+   * daemon thread). The scheduler is to be shut down by its creator once the
+   * enactment is over.
+   *
+   * @return the scheduler for the delivery of the coalesced changes
+   */
+  public static ScheduledExecutorService createScheduler() {
+    return Executors.newSingleThreadScheduledExecutor(runnable -> {
+      final Thread thread = new Thread(runnable, "graph-change-coalescer");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Decorates each of the given listeners with a coalescer (sharing the given
+   * scheduler for the delivery).
+   *
+   * @param listeners the listeners to decorate
+   * @param delayMillis the time (in milliseconds) for which the changes are
+   *        gathered before they are delivered
+   * @param scheduler the scheduler for the delivery (see
+   *        {@link #createScheduler()})
+   * @return the decorated listeners
+   */
+  public static Set<ModelModificationListener> wrap(
+      final Set<ModelModificationListener> listeners, final long delayMillis,
+      final ScheduledExecutorService scheduler) {
+    final Set<ModelModificationListener> result = new HashSet<>();
+    listeners.forEach(
+        listener -> result.add(new GraphChangeCoalescer(listener, delayMillis, scheduler)));
+    return result;
+  }
+
+  @Override
+  public void reactToModelModification() {
+    reactToGraphChange(GraphChangeSet.empty());
+  }
+
+  @Override
+  public void reactToGraphChange(final GraphChangeSet changes) {
+    synchronized (this) {
+      pendingChanges = pendingChanges == null ? changes : pendingChanges.merge(changes);
+      if (flushScheduled) {
+        return;
+      }
+      flushScheduled = true;
+    }
+    try {
+      scheduler.schedule(this::flush, delayMillis, TimeUnit.MILLISECONDS);
+    } catch (RejectedExecutionException exc) {
+      // the scheduler is shut down
+      flush();
+    }
+  }
+
+  /**
+   * Delivers the changes gathered so far to the decorated listener.
+   */
+  public void flush() {
+    final GraphChangeSet changes;
+    synchronized (this) {
+      changes = pendingChanges;
+      pendingChanges = null;
+      flushScheduled = false;
+    }
+    if (changes != null) {
+      GraphChangeListener.notifyListener(delegate, changes);
+    }
+  }
+}
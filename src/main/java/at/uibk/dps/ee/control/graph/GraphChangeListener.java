@@ -0,0 +1,39 @@
+package at.uibk.dps.ee.control.graph;
+
+import at.uibk.dps.ee.core.ModelModificationListener;
+
+/**
+ * Interface for the {@link ModelModificationListener}s which are interested in
+ * the changes of the graph structure caused by a transformation. Instead of
+ * {@link #reactToModelModification()}, these listeners are notified with the
+ * {@link GraphChangeSet} of the transformation by the agents applying the
+ * transformations.
+ *
+ * @author Fedor Smirnov
+ */
+public interface GraphChangeListener extends ModelModificationListener {
+
+  /**
+   * Reacts to the changes of the graph structure described by the given change
+   * set.
+   *
+   * @param changes the changes of the graph structure
+   */
+  void reactToGraphChange(GraphChangeSet changes);
+
+  /**
+   * Notifies the given listener about the given changes (with the change set
+   * for {@link GraphChangeListener}s and without it for the other listeners).
+   *
+   * @param listener the listener to notify
+   * @param changes the changes of the graph structure
+   */
+  static void notifyListener(final ModelModificationListener listener,
+      final GraphChangeSet changes) {
+    if (listener instanceof GraphChangeListener) {
+      ((GraphChangeListener) listener).reactToGraphChange(changes);
+    } else {
+      listener.reactToModelModification();
+    }
+  }
+}
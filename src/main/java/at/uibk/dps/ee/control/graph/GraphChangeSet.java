@@ -0,0 +1,200 @@
+package at.uibk.dps.ee.control.graph;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import at.uibk.dps.ee.control.graph.GraphAccess.EdgeTupleAppl;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+
+/**
+ * Immutable description of the changes of the graph structure caused by one
+ * or more graph transformations: The added and the removed vertices and edges
+ * (the edges with their end points, since removed edges are no longer part of
+ * the graph) and the modified vertices, i.e., the vertices which are part of
+ * the graph before and after the change and whose adjacent edges changed. The
+ * annotations changed by the transforms concern the added elements and the
+ * modified vertices.
+ *
+ * The change set of a transformation is computed by comparing the
+ * {@link AdjacencyIndex} of the graph before and after the transformation, so
+ * that the listeners do not have to copy the graph to find out what changed.
+ *
+ * @author Fedor Smirnov
+ */
+public final class GraphChangeSet {
+
+  private static final GraphChangeSet emptySet = new GraphChangeSet(Collections.emptySet(),
+      Collections.emptySet(), Collections.emptySet(), Collections.emptyMap(),
+      Collections.emptyMap());
+
+  protected final Set<Task> addedVertices;
+  protected final Set<Task> removedVertices;
+  protected final Set<Task> modifiedVertices;
+  protected final Map<Dependency, EdgeTupleAppl> addedEdges;
+  protected final Map<Dependency, EdgeTupleAppl> removedEdges;
+
+  /**
+   * Private constructor, use {@link #diff(AdjacencyIndex, AdjacencyIndex)} or
+   * {@link #merge(GraphChangeSet)}.
+   *
+   * @param addedVertices the added vertices
+   * @param removedVertices the removed vertices
+   * @param modifiedVertices the modified vertices
+   * @param addedEdges the added edges (mapped to their tuples)
+   * @param removedEdges the removed edges (mapped to their tuples)
+   */
+  private GraphChangeSet(final Set<Task> addedVertices, final Set<Task> removedVertices,
+      final Set<Task> modifiedVertices, final Map<Dependency, EdgeTupleAppl> addedEdges,
+      final Map<Dependency, EdgeTupleAppl> removedEdges) {
+    this.addedVertices = Collections.unmodifiableSet(addedVertices);
+    this.removedVertices = Collections.unmodifiableSet(removedVertices);
+    this.modifiedVertices = Collections.unmodifiableSet(modifiedVertices);
+    this.addedEdges = Collections.unmodifiableMap(addedEdges);
+    this.removedEdges = Collections.unmodifiableMap(removedEdges);
+  }
+
+  /**
+   * Returns the change set without any changes.
+   *
+   * @return the change set without any changes
+   */
+  public static GraphChangeSet empty() {
+    return emptySet;
+  }
+
+  /**
+   * Computes the changes between the graph structures described by the given
+   * indices.
+   *
+   * @param before the index of the graph before the change
+   * @param after the index of the graph after the change
+   * @return the changes between the given graph structures
+   */
+  public static GraphChangeSet diff(final AdjacencyIndex before, final AdjacencyIndex after) {
+    final Set<Task> addedVertices = new HashSet<>(after.getNodes());
+    addedVertices.removeAll(before.getNodes());
+    final Set<Task> removedVertices = new HashSet<>(before.getNodes());
+    removedVertices.removeAll(after.getNodes());
+    final Map<Dependency, EdgeTupleAppl> edgesBefore = before.getEdges();
+    final Map<Dependency, EdgeTupleAppl> edgesAfter = after.getEdges();
+    final Map<Dependency, EdgeTupleAppl> addedEdges = new HashMap<>();
+    edgesAfter.forEach((edge, tuple) -> {
+      if (!edgesBefore.containsKey(edge)) {
+        addedEdges.put(edge, tuple);
+      }
+    });
+    final Map<Dependency, EdgeTupleAppl> removedEdges = new HashMap<>();
+    edgesBefore.forEach((edge, tuple) -> {
+      if (!edgesAfter.containsKey(edge)) {
+        removedEdges.put(edge, tuple);
+      }
+    });
+    final Set<Task> modifiedVertices = new HashSet<>();
+    addEndPoints(addedEdges.values(), modifiedVertices);
+    addEndPoints(removedEdges.values(), modifiedVertices);
+    modifiedVertices.removeAll(addedVertices);
+    modifiedVertices.removeAll(removedVertices);
+    return new GraphChangeSet(addedVertices, removedVertices, modifiedVertices, addedEdges,
+        removedEdges);
+  }
+
+  /**
+   * Returns the change set describing the changes of this set followed by the
+   * changes of the given set. Elements which are added and then removed do not
+   * appear in the result; vertices which are removed and then added again are
+   * treated as modified.
+   *
+   * @param following the changes following the changes of this set
+   * @return the merged change set
+   */
+  public GraphChangeSet merge(final GraphChangeSet following) {
+    if (following.isEmpty()) {
+      return this;
+    }
+    if (isEmpty()) {
+      return following;
+    }
+    final Set<Task> added = new HashSet<>(addedVertices);
+    final Set<Task> removed = new HashSet<>(removedVertices);
+    final Set<Task> modified = new HashSet<>(modifiedVertices);
+    for (final Task vertex : following.addedVertices) {
+      if (removed.remove(vertex)) {
+        modified.add(vertex);
+      } else {
+        added.add(vertex);
+      }
+    }
+    for (final Task vertex : following.removedVertices) {
+      modified.remove(vertex);
+      if (!added.remove(vertex)) {
+        removed.add(vertex);
+      }
+    }
+    for (final Task vertex : following.modifiedVertices) {
+      if (!added.contains(vertex)) {
+        modified.add(vertex);
+      }
+    }
+    final Map<Dependency, EdgeTupleAppl> addedE = new HashMap<>(addedEdges);
+    final Map<Dependency, EdgeTupleAppl> removedE = new HashMap<>(removedEdges);
+    following.addedEdges.forEach((edge, tuple) -> {
+      if (removedE.remove(edge) == null) {
+        addedE.put(edge, tuple);
+      }
+    });
+    following.removedEdges.forEach((edge, tuple) -> {
+      if (addedE.remove(edge) == null) {
+        removedE.put(edge, tuple);
+      }
+    });
+    return new GraphChangeSet(added, removed, modified, addedE, removedE);
+  }
+
+  /**
+   * Adds the end points of the given edges to the given set.
+   *
+   * @param edges the given edges
+   * @param endPoints the set to add the end points to
+   */
+  protected static void addEndPoints(final Collection<EdgeTupleAppl> edges,
+      final Set<Task> endPoints) {
+    for (final EdgeTupleAppl edge : edges) {
+      endPoints.add(edge.getSrc());
+      endPoints.add(edge.getDst());
+    }
+  }
+
+  /**
+   * Returns true if the set does not contain any changes.
+   *
+   * @return true if the set does not contain any changes
+   */
+  public boolean isEmpty() {
+    return addedVertices.isEmpty() && removedVertices.isEmpty() && modifiedVertices.isEmpty()
+        && addedEdges.isEmpty() && removedEdges.isEmpty();
+  }
+
+  public Set<Task> getAddedVertices() {
+    return addedVertices;
+  }
+
+  public Set<Task> getRemovedVertices() {
+    return removedVertices;
+  }
+
+  public Set<Task> getModifiedVertices() {
+    return modifiedVertices;
+  }
+
+  public Collection<EdgeTupleAppl> getAddedEdges() {
+    return addedEdges.values();
+  }
+
+  public Collection<EdgeTupleAppl> getRemovedEdges() {
+    return removedEdges.values();
+  }
+}
@@ -1,5 +1,6 @@
 package at.uibk.dps.ee.control.graph;
 
+import org.opt4j.core.start.Constant;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import at.uibk.dps.ee.control.management.ResourceMonitor;
@@ -28,16 +29,35 @@ public class GraphProviderEnactables implements EnactmentGraphProvider {
    * 
    * @param graphProvider the provider for the raw enactment graph
    * @param factory the factory for the enactables
+   * @param resMonitor the resource monitor
+   * @param chunkSizes the chunk sizes requested for the loops of the
+   *        distribution nodes (see
+   *        {@link IterationChunk#requestChunkSizes(EnactmentGraph, String)})
    */
   @Inject
   public GraphProviderEnactables(final EnactmentGraphProvider graphProvider,
-      final FactoryInterface factory, final ResourceMonitor resMonitor) {
+      final FactoryInterface factory, final ResourceMonitor resMonitor,
+      @Constant(namespace = IterationChunk.class, value = "chunkSizes") final String chunkSizes) {
     final EnactmentGraph graph = graphProvider.getEnactmentGraph();
     factory.addEnactableStateListener(resMonitor);
     createEnactables(graph, factory);
+    graph.getVertices().forEach(NodeProperties::attach);
+    IterationChunk.requestChunkSizes(graph, chunkSizes);
     this.graph = graph;
   }
 
+  /**
+   * Constructor without chunked loops.
+   * 
+   * @param graphProvider the provider for the raw enactment graph
+   * @param factory the factory for the enactables
+   * @param resMonitor the resource monitor
+   */
+  public GraphProviderEnactables(final EnactmentGraphProvider graphProvider,
+      final FactoryInterface factory, final ResourceMonitor resMonitor) {
+    this(graphProvider, factory, resMonitor, "");
+  }
+
   /**
    * Goes through the given graph and creates and annotates an enactable for each
    * function node.
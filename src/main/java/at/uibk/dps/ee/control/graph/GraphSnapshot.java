@@ -0,0 +1,143 @@
+package at.uibk.dps.ee.control.graph;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import at.uibk.dps.ee.control.graph.GraphAccess.EdgeTupleAppl;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Element;
+import net.sf.opendse.model.Task;
+
+/**
+ * Consistent, immutable view of the enactment graph at a given state version
+ * (see {@link GraphAccessConcurrent#getSnapshot()}): The structure is given by
+ * the shared {@link AdjacencyIndex} of the structure version, the annotations
+ * of the nodes and edges by an immutable image of their attributes captured
+ * together with the structure. The snapshot references the nodes and edges of
+ * the graph, but does not read their (concurrently changed) attributes, so
+ * that it can be used without locking the graph. The attribute values
+ * themselves are shared with the graph.
+ *
+ * @author Fedor Smirnov
+ */
+public final class GraphSnapshot {
+
+  protected final AdjacencyIndex index;
+  protected final Map<Element, Map<String, Object>> attributes;
+  protected final long stateVersion;
+  protected volatile Map<Dependency, EdgeTupleAppl> edges;
+
+  /**
+   * Private constructor, use {@link #capture(AdjacencyIndex, long)}.
+   *
+   * @param index the adjacency index of the graph structure
+   * @param attributes the attributes of the nodes and edges
+   * @param stateVersion the state version of the graph
+   */
+  private GraphSnapshot(final AdjacencyIndex index,
+      final Map<Element, Map<String, Object>> attributes, final long stateVersion) {
+    this.index = index;
+    this.attributes = attributes;
+    this.stateVersion = stateVersion;
+  }
+
+  /**
+   * Captures the snapshot of the graph described by the given (current)
+   * adjacency index, copying the attributes of its nodes and edges. Must be
+   * called while the graph is not written.
+   *
+   * @param index the current adjacency index of the graph
+   * @param stateVersion the current state version of the graph
+   * @return the snapshot of the graph
+   */
+  public static GraphSnapshot capture(final AdjacencyIndex index, final long stateVersion) {
+    final Map<Element, Map<String, Object>> attributes = new IdentityHashMap<>();
+    index.getNodes().forEach(node -> attributes.put(node, copyAttributes(node)));
+    index.getEdges().keySet().forEach(edge -> attributes.put(edge, copyAttributes(edge)));
+    return new GraphSnapshot(index, attributes, stateVersion);
+  }
+
+  /**
+   * Returns an unmodifiable copy of the attributes of the given element.
+   *
+   * @param element the given element
+   * @return an unmodifiable copy of the attributes of the given element
+   */
+  protected static Map<String, Object> copyAttributes(final Element element) {
+    final Map<String, Object> result = new HashMap<>();
+    for (final String attrName : element.getAttributeNames()) {
+      result.put(attrName, element.getAttribute(attrName));
+    }
+    return Collections.unmodifiableMap(result);
+  }
+
+  /**
+   * Returns the state version of the graph captured by the snapshot.
+   *
+   * @return the state version of the graph captured by the snapshot
+   */
+  public long getStateVersion() {
+    return stateVersion;
+  }
+
+  /**
+   * Returns the attributes of the given node or edge at the time of the
+   * snapshot.
+   *
+   * @param element the given node or edge
+   * @return the (unmodifiable) attributes of the given element
+   */
+  public Map<String, Object> getAttributes(final Element element) {
+    final Map<String, Object> result = attributes.get(element);
+    if (result == null) {
+      throw new IllegalArgumentException(
+          "The element " + element.getId() + " is not part of the snapshot.");
+    }
+    return result;
+  }
+
+  /**
+   * Returns the structure version of the snapshot.
+   *
+   * @return the structure version of the snapshot
+   */
+  public long getVersion() {
+    return index.getVersion();
+  }
+
+  /**
+   * Returns the nodes of the snapshot.
+   *
+   * @return the (unmodifiable) nodes of the snapshot
+   */
+  public Set<Task> getVertices() {
+    return index.getNodes();
+  }
+
+  /**
+   * Returns the out edges of the given node.
+   *
+   * @param node the given node
+   * @return the (unmodifiable) out edges of the given node
+   */
+  public Set<EdgeTupleAppl> getOutEdges(final Task node) {
+    return index.getOutEdges(node);
+  }
+
+  /**
+   * Returns the edges of the snapshot (gathered on the first call).
+   *
+   * @return the (unmodifiable) edges of the snapshot
+   */
+  public Collection<EdgeTupleAppl> getEdges() {
+    Map<Dependency, EdgeTupleAppl> current = edges;
+    if (current == null) {
+      current = Collections.unmodifiableMap(index.getEdges());
+      edges = current;
+    }
+    return current.values();
+  }
+}
@@ -1,9 +1,13 @@
 package at.uibk.dps.ee.control.graph;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashSet;
 import java.util.Set;
-import java.util.stream.Collectors;
+import at.uibk.dps.ee.control.graph.GraphAccess.EdgeTupleAppl;
 import at.uibk.dps.ee.core.enactable.Enactable.State;
+import at.uibk.dps.ee.model.constants.ConstantsEEModel;
 import at.uibk.dps.ee.model.graph.EnactmentGraph;
 import at.uibk.dps.ee.model.properties.PropertyServiceFunction;
 import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections;
@@ -25,45 +29,135 @@ public class GraphTransformAggregation implements GraphTransform {
 
   @Override
   public void modifyEnactmentGraph(final GraphAccess graphAccess, final Task taskNode) {
-    graphAccess.writeOperationTask(this::revertDistributionReproduction, taskNode);
+    final ScopeIndex scopeIndex = graphAccess.getScopeIndex();
+    graphAccess.transformGraph(
+        (graph, aggregationNode) -> revertDistributionReproduction(graph, aggregationNode,
+            scopeIndex),
+        taskNode);
   }
 
   /**
    * Checks whether the completion of the provided aggregation node finishes up
    * the operations within the corresponding reproduction scope. Collapses the
-   * graph if it does.
+   * graph (and updates the scope index) if it does.
    * 
    * @param graph the enactment graph
    * @param aggregationNode the finished aggregation node
+   * @param scopeIndex the index of the collection operations
    */
   public void revertDistributionReproduction(final EnactmentGraph graph,
-      final Task aggregationNode) {
+      final Task aggregationNode, final ScopeIndex scopeIndex) {
+    final DistributionWindow window = DistributionWindow.find(aggregationNode);
+    if (window != null) {
+      revertWindowedReproduction(graph, window);
+      return;
+    }
     final String scope = PropertyServiceFunctionDataFlowCollections.getScope(aggregationNode);
-    if (!readyForRevert(graph, scope)) {
+    if (!readyForRevert(scopeIndex, scope)) {
       return;
     }
     // find the distribution node
-    final Set<Task> dNodes = graph.getVertices().stream()
-        .filter(task -> PropertyServiceFunctionDataFlowCollections.isDistributionNode(task)
-            && PropertyServiceFunctionDataFlowCollections.getScope(task).equals(scope))
-        .collect(Collectors.toSet());
-    final boolean moreThanOneDistNode = dNodes.size() > 1;
-    if (moreThanOneDistNode) {
-      throw new IllegalArgumentException("Multiple distribution nodes with the scope " + scope);
+    final Task distributionNode = scopeIndex.getDistributionNode(scope);
+    final LoopBodyTemplate template = LoopBodyTemplate.find(distributionNode);
+    if (template != null) {
+      revertWithTemplate(graph, template, scopeIndex);
+      return;
     }
 
     // sweep the graph to find the reproduced and the original elements
     final Set<Task> offspringTasks = new HashSet<>();
     final Set<Dependency> offspringDependencies = new HashSet<>();
-    final Task distributionNode = dNodes.iterator().next();
     final Task startNode = distributionNode;
-    recSweepReproducedGraphSection(graph, startNode, offspringTasks, offspringDependencies, scope);
+    sweepReproducedGraphSection(graph, startNode, offspringTasks, offspringDependencies, scope);
     // add the original edges (vertices added automatically)
     offspringDependencies
         .forEach(dependency -> addOriginalEdge(graph, dependency, scope, distributionNode));
     // remove the offsprings
     offspringDependencies.forEach(dependency -> graph.removeEdge(dependency));
     offspringTasks.forEach(task -> graph.removeVertex(task));
+    // update the index (the originals replace the offspring)
+    for (final Task offspring : offspringTasks) {
+      scopeIndex.removeCollectionNode(offspring);
+      final Task original = (Task) offspring.getParent();
+      if (original != null && graph.containsVertex(original)) {
+        scopeIndex.addCollectionNode(original);
+      }
+    }
+  }
+
+  /**
+   * Reverts the reproduction of a loop body with the template created during
+   * the reproduction: Removes the offspring of the original nodes of each
+   * iteration or chunk (and the offspring of the edges between unreproduced nodes) and
+   * restores the original edges, without sweeping the reproduced section.
+   * 
+   * @param graph the enactment graph
+   * @param template the template of the reproduced loop body
+   * @param scopeIndex the index of the collection operations
+   */
+  protected void revertWithTemplate(final EnactmentGraph graph, final LoopBodyTemplate template,
+      final ScopeIndex scopeIndex) {
+    final int offspringNum = IterationChunk.getOffspringNumber(template.getDistributionNode());
+    for (final Task original : template.getOriginalNodes()) {
+      for (int reproductionIdx = 0; reproductionIdx < offspringNum; reproductionIdx++) {
+        final Task offspring =
+            graph.getVertex(LoopBodyTemplate.getOffspringId(original, reproductionIdx));
+        if (offspring != null) {
+          scopeIndex.removeCollectionNode(offspring);
+          graph.removeVertex(offspring);
+        }
+      }
+    }
+    for (final EdgeTupleAppl direct : template.getDirectEdges()) {
+      for (final Dependency edge : new ArrayList<>(
+          graph.findEdgeSet(direct.getSrc(), direct.getDst()))) {
+        if (direct.getEdge().equals(edge.getParent())) {
+          graph.removeEdge(edge);
+        }
+      }
+    }
+    for (final EdgeTupleAppl original : template.getOriginalEdges()) {
+      if (!graph.containsEdge(original.getEdge())) {
+        graph.addEdge(original.getEdge(), original.getSrc(), original.getDst(),
+            EdgeType.DIRECTED);
+      }
+    }
+    template.getNestedCollectionNodes().forEach(scopeIndex::addCollectionNode);
+  }
+
+  /**
+   * Reverts the reproduction of a lazily unrolled distribution (once all of its
+   * aggregators are finished): Removes the iterations which are still part of
+   * the graph, restores the original edges, and closes the window.
+   * 
+   * @param graph the enactment graph
+   * @param window the window of the distribution
+   */
+  protected void revertWindowedReproduction(final EnactmentGraph graph,
+      final DistributionWindow window) {
+    final boolean aggregatorsFinished = window.getAggregationNodes().stream()
+        .allMatch(aggregator -> PropertyServiceFunction.getEnactable(aggregator).getState()
+            .equals(State.FINISHED));
+    if (!aggregatorsFinished) {
+      return;
+    }
+    for (final int iteration : window.getActiveIterations()) {
+      for (final Task originalNode : window.getOriginalBodyNodes()) {
+        final Task offspring = graph.getVertex(
+            originalNode.getId() + ConstantsEEModel.KeyWordSeparator2 + iteration);
+        if (offspring != null) {
+          graph.removeVertex(offspring);
+        }
+      }
+    }
+    window.getActiveIterations().clear();
+    for (final EdgeTupleAppl original : window.getOriginalEdges()) {
+      if (!graph.containsEdge(original.getEdge())) {
+        graph.addEdge(original.getEdge(), original.getSrc(), original.getDst(),
+            EdgeType.DIRECTED);
+      }
+    }
+    window.close();
   }
 
   /**
@@ -119,22 +213,30 @@ public class GraphTransformAggregation implements GraphTransform {
   }
 
   /**
-   * Recursively applied method realizing a traversal of the graph section created
-   * by the reproduction indicated by the provided scope.
+   * Traverses the graph section created by the reproduction indicated by the
+   * provided scope (iteratively, visiting each node once) and gathers the
+   * offspring elements.
    * 
-   * @param currentNode the currently processed node
-   * @param originals the set of the pre-reproduction elements
-   * @param offsprings the set of the reproduction results
    * @param graph the enacment graph (post-reproduction state)
+   * @param startNode the distribution node of the scope
+   * @param offspringTasks the set of the reproduced nodes (filled by the sweep)
+   * @param offspringDependencies the set of the reproduced edges (filled by the
+   *        sweep)
    * @param scope the reproduction scope
    */
-  protected void recSweepReproducedGraphSection(final EnactmentGraph graph, final Task currentNode,
+  protected void sweepReproducedGraphSection(final EnactmentGraph graph, final Task startNode,
       final Set<Task> offspringTasks, final Set<Dependency> offspringDependencies,
       final String scope) {
-    if (isEndNodeInScope(currentNode, scope, false)) {
-      // aggregation node as the base case
-      return;
-    } else {
+    final Set<Task> visited = new HashSet<>();
+    final Deque<Task> toVisit = new ArrayDeque<>();
+    visited.add(startNode);
+    toVisit.push(startNode);
+    while (!toVisit.isEmpty()) {
+      final Task currentNode = toVisit.pop();
+      if (isEndNodeInScope(currentNode, scope, false)) {
+        // aggregation node as the base case
+        continue;
+      }
       if (!isEndNodeInScope(currentNode, scope, true)) {
         // anything which is not a distribution node is an offspring
         offspringTasks.add(currentNode);
@@ -145,8 +247,9 @@ public class GraphTransformAggregation implements GraphTransform {
       for (final Dependency outEdge : graph.getOutEdges(currentNode)) {
         offspringDependencies.add(outEdge);
         final Task nextNode = graph.getDest(outEdge);
-        recSweepReproducedGraphSection(graph, nextNode, offspringTasks, offspringDependencies,
-            scope);
+        if (visited.add(nextNode)) {
+          toVisit.push(nextNode);
+        }
       }
     }
   }
@@ -189,19 +292,15 @@ public class GraphTransformAggregation implements GraphTransform {
    * be reverted (which is the case of all of its aggregators have content
    * available).
    * 
-   * @param graph the enactment graph
+   * @param scopeIndex the index of the collection operations
    * @param scope the reproduction scope
    * @return true if the reproduction indicated by the provided scope is ready to
    *         be reverted
    */
-  protected boolean readyForRevert(final EnactmentGraph graph, final String scope) {
-    // get the aggregators
-    final Set<Task> aggregators = graph.getVertices().stream()
-        .filter(task -> PropertyServiceFunctionDataFlowCollections.isAggregationNode(task)
-            && PropertyServiceFunctionDataFlowCollections.getScope(task).equals(scope))
-        .collect(Collectors.toSet());
-    return aggregators.stream().allMatch(aggregator -> PropertyServiceFunction
-        .getEnactable(aggregator).getState().equals(State.FINISHED));
+  protected boolean readyForRevert(final ScopeIndex scopeIndex, final String scope) {
+    return scopeIndex.getAggregationNodes(scope).stream().allMatch(
+        aggregator -> PropertyServiceFunction.getEnactable(aggregator).getState()
+            .equals(State.FINISHED));
   }
 
   @Override
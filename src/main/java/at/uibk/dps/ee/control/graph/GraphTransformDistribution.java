@@ -1,19 +1,27 @@
 package at.uibk.dps.ee.control.graph;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
+import com.google.gson.JsonObject;
+import at.uibk.dps.ee.control.graph.GraphAccess.EdgeTupleAppl;
 import at.uibk.dps.ee.core.enactable.Enactable;
 import at.uibk.dps.ee.enactables.EnactableAtomic;
 import at.uibk.dps.ee.enactables.wrapper.FactoryInterface;
 import at.uibk.dps.ee.model.constants.ConstantsEEModel;
 import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.properties.PropertyServiceData;
 import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
 import at.uibk.dps.ee.model.properties.PropertyServiceFunction;
 import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections;
 import at.uibk.dps.ee.model.properties.PropertyServiceReproduction;
 import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections.OperationType;
+import edu.uci.ics.jung.graph.util.EdgeType;
 import net.sf.opendse.model.Communication;
 import net.sf.opendse.model.Dependency;
 import net.sf.opendse.model.Task;
@@ -23,25 +31,131 @@ import net.sf.opendse.model.properties.TaskPropertyService;
  * The {@link GraphTransformDistribution} transforms the graph by reproducing
  * the graph parts which model a parallel processing of collection data.
  * 
+ * With a window size k > 0, distributions with more than k iterations are
+ * unrolled lazily: Only k iterations are part of the graph at any time; the
+ * iterations are replaced by the following ones once their results were
+ * transmitted to the aggregators (see {@link DistributionWindow} and
+ * {@link GraphTransformWindowSlide}). The window is only used if the loop body
+ * does not contain further collection operations and all of its inputs from
+ * outside the scope are already available; the distribution is unrolled
+ * completely otherwise.
+ * 
+ * If a chunk size k > 1 is requested on the distribution node (configured in
+ * the enactment module, see
+ * {@link IterationChunk#requestChunkSizes(EnactmentGraph, String)}), each offspring of the
+ * loop body processes a contiguous slice of (up to) k iterations, so that a
+ * loop with N iterations is unrolled into ceil(N/k) offspring (see
+ * {@link IterationChunk}). The functions of a chunked loop receive json
+ * arrays with the elements of their slice and have to produce json arrays with
+ * one result per element. Chunking is only used if the loop body does not
+ * contain further collection operations; chunked loops are always unrolled
+ * completely.
+ * 
  * @author Fedor Smirnov
  */
 public class GraphTransformDistribution implements GraphTransform {
 
+  /**
+   * The template of the reproduced loop body and the planned offspring (one
+   * graph per iteration).
+   *
+   * @author Fedor Smirnov
+   */
+  protected static class ReproductionPlan {
+    protected final LoopBodyTemplate template;
+    protected final int chunkSize;
+    protected List<EnactmentGraph> iterations;
+
+    /**
+     * Constructor for a reproduction without chunking.
+     *
+     * @param template the template of the reproduced loop body
+     */
+    protected ReproductionPlan(final LoopBodyTemplate template) {
+      this(template, 1);
+    }
+
+    /**
+     * Default constructor.
+     *
+     * @param template the template of the reproduced loop body
+     * @param chunkSize the number of iterations processed by each offspring
+     */
+    protected ReproductionPlan(final LoopBodyTemplate template, final int chunkSize) {
+      this.template = template;
+      this.chunkSize = chunkSize;
+    }
+  }
+
   protected final FactoryInterface enactableFactory;
+  protected final int windowSize;
 
   /**
-   * The default constructor
+   * The default constructor (the distributions are unrolled completely).
    * 
    * @param enactableFactory2 factory for the {@link Enactable}s (to create
    *        enactables for the nodes created by reproduction)
    */
   public GraphTransformDistribution(final FactoryInterface enactableFactory2) {
-    this.enactableFactory = enactableFactory2;
+    this(enactableFactory2, 0);
+  }
+
+  /**
+   * Constructor for the windowed unrolling.
+   * 
+   * @param enactableFactory factory for the {@link Enactable}s (to create
+   *        enactables for the nodes created by reproduction)
+   * @param windowSize the maximal number of loop iterations which are part of
+   *        the graph at the same time (0 to unroll all iterations at once)
+   */
+  public GraphTransformDistribution(final FactoryInterface enactableFactory,
+      final int windowSize) {
+    this.enactableFactory = enactableFactory;
+    this.windowSize = windowSize;
   }
 
   @Override
   public void modifyEnactmentGraph(final GraphAccess graphAccess, final Task taskNode) {
-    graphAccess.writeOperationTask(this::applyDistributionReproduction, taskNode);
+    final ScopeIndex scopeIndex = graphAccess.getScopeIndex();
+    final int iterationNum =
+        PropertyServiceFunctionDataFlowCollections.getIterationNumber(taskNode);
+    if (windowSize > 0 && iterationNum > windowSize) {
+      // (at most) a window of iterations is reproduced within the transformation
+      graphAccess.transformGraph(
+          (graph, distributionTask) -> applyDistributionReproduction(graph, distributionTask,
+              scopeIndex),
+          taskNode);
+      return;
+    }
+    // the offspring are created outside of the exclusive access to the graph
+    final ReproductionPlan plan = graphAccess.readGraph(graph -> {
+      final LoopBodyTemplate template = getTemplate(graph, taskNode);
+      return new ReproductionPlan(template, getChunkSize(template));
+    });
+    planOffspring(plan, taskNode);
+    graphAccess.transformGraph(
+        (graph, distributionTask) -> spliceOrReplan(graph, distributionTask, plan, scopeIndex),
+        taskNode);
+  }
+
+  /**
+   * Adds the planned offspring to the graph if the loop body still matches the
+   * template of the plan (transformations of other parts of the graph do not
+   * matter). Otherwise (e.g., if edges were added to the body), the
+   * reproduction is planned anew (within the transformation).
+   * 
+   * @param graph the enactment graph
+   * @param distributionTask the distribution node
+   * @param plan the reproduction plan
+   * @param scopeIndex the index of the collection operations
+   */
+  protected void spliceOrReplan(final EnactmentGraph graph, final Task distributionTask,
+      final ReproductionPlan plan, final ScopeIndex scopeIndex) {
+    if (plan.template.isBodyOf(graph)) {
+      spliceOffspring(graph, distributionTask, plan, scopeIndex);
+    } else {
+      applyDistributionReproduction(graph, distributionTask, scopeIndex);
+    }
   }
 
   /**
@@ -54,39 +168,405 @@ public class GraphTransformDistribution implements GraphTransform {
    * 
    * @param graph the enactment graph
    * @param distributionTask the distribution task
+   * @param scopeIndex the index of the collection operations (updated with the
+   *        reproduced nodes)
    */
   protected void applyDistributionReproduction(final EnactmentGraph graph,
-      final Task distributionTask) {
+      final Task distributionTask, final ScopeIndex scopeIndex) {
     final String scope = PropertyServiceFunctionDataFlowCollections.getScope(distributionTask);
     // find all edges which are relevant for the reproduction
-    final Set<Dependency> edgesToReproduce = findEdgesToReproduce(graph, distributionTask);
+    final LoopBodyTemplate template = getTemplate(graph, distributionTask);
+    final Set<Dependency> edgesToReproduce = template.getEdges();
+    final int iterationNum =
+        PropertyServiceFunctionDataFlowCollections.getIterationNumber(distributionTask);
+    final int planChunkSize = getChunkSize(template);
+    if (planChunkSize == 1 && windowSize > 0 && iterationNum > windowSize) {
+      annotateBody(template);
+      if (isWindowApplicable(graph, edgesToReproduce, distributionTask, scope)) {
+        applyWindowedReproduction(graph, edgesToReproduce, distributionTask, scope);
+        return;
+      }
+    }
+
+    final ReproductionPlan plan = new ReproductionPlan(template, planChunkSize);
+    planOffspring(plan, distributionTask);
+    spliceOffspring(graph, distributionTask, plan, scopeIndex);
+  }
+
+  /**
+   * Returns the template of the loop body of the given distribution node (the
+   * elements to reproduce). The template is created (by searching the body)
+   * on the first reproduction and reused as long as the body is in its
+   * original state. Only reads the graph (the template is attached to the
+   * distribution node when the offspring are added, see
+   * {@link #annotateBody(LoopBodyTemplate)}).
+   * 
+   * @param graph the enactment graph
+   * @param distributionTask the distribution node
+   * @return the template of the loop body of the given distribution node
+   */
+  protected LoopBodyTemplate getTemplate(final EnactmentGraph graph,
+      final Task distributionTask) {
+    final LoopBodyTemplate cached = LoopBodyTemplate.find(distributionTask);
+    if (cached != null && cached.isContainedIn(graph)) {
+      return cached;
+    }
+    final String scope = PropertyServiceFunctionDataFlowCollections.getScope(distributionTask);
+    return createTemplate(graph, findEdgesToReproduce(graph, distributionTask),
+        distributionTask, scope);
+  }
+
+  /**
+   * Attaches the given template to its distribution node and annotates the
+   * nodes of the loop body (including the aggregators of the scope) with the
+   * distribution node. Called within the transformation, since the annotations
+   * are read by concurrent readers of the graph.
+   * 
+   * @param template the template of the loop body
+   */
+  protected void annotateBody(final LoopBodyTemplate template) {
+    final Task distributionTask = template.getDistributionNode();
+    for (final EdgeTupleAppl original : template.getOriginalEdges()) {
+      if (!original.getDst().equals(distributionTask)) {
+        PropertyServiceReproduction.annotateDistributionNode(original.getDst(),
+            distributionTask.getId());
+      }
+    }
+    template.attach();
+  }
+
+  /**
+   * Returns the number of iterations processed by each offspring of the loop
+   * body described by the given template (1 if the loop is not chunked).
+   * 
+   * @param template the template of the loop body
+   * @return the number of iterations processed by each offspring
+   */
+  protected int getChunkSize(final LoopBodyTemplate template) {
+    final int chunkSize = IterationChunk.getRequestedChunkSize(template.getDistributionNode());
+    return chunkSize > 1 && template.getNestedCollectionNodes().isEmpty()
+        && template.getDirectEdges().isEmpty() ? chunkSize : 1;
+  }
 
-    // reproduce each of the edges, while keeping track of the new nodes in the
-    // graph
+  /**
+   * Creates the template for the reproduction of the given edges.
+   * 
+   * @param graph the enactment graph
+   * @param edgesToReproduce the edges between the distribution node and its
+   *        aggregators
+   * @param distributionTask the distribution node
+   * @param scope the reproduction scope
+   * @return the template for the reproduction of the given edges
+   */
+  protected LoopBodyTemplate createTemplate(final EnactmentGraph graph,
+      final Set<Dependency> edgesToReproduce, final Task distributionTask, final String scope) {
+    final Set<EdgeTupleAppl> originalEdges = new HashSet<>();
+    final Set<Task> originalNodes = new HashSet<>();
     for (final Dependency originalEdge : edgesToReproduce) {
-      reproduceEdge(graph, originalEdge, distributionTask);
+      final Task src = graph.getSource(originalEdge);
+      final Task dst = graph.getDest(originalEdge);
+      originalEdges.add(new EdgeTupleAppl(src, dst, originalEdge));
+      // each node of the body is the destination of an edge of the body
+      originalNodes.add(dst);
+    }
+    originalNodes
+        .removeIf(task -> task.equals(distributionTask) || isAggregatorInScope(task, scope));
+    return new LoopBodyTemplate(distributionTask, originalEdges, originalNodes);
+  }
+
+  /**
+   * Creates the offspring of all iterations (each iteration, or each chunk of
+   * iterations, in a separate graph which only contains the offspring edges
+   * and their end points). The offspring are planned sequentially, since the
+   * enactable factory is not required to be thread-safe. Does not access the
+   * enactment graph.
+   * 
+   * @param plan the reproduction plan (filled with the offspring)
+   * @param distributionTask the distribution node
+   */
+  protected void planOffspring(final ReproductionPlan plan, final Task distributionTask) {
+    final int offspringNum = IterationChunk.getChunkNumber(
+        PropertyServiceFunctionDataFlowCollections.getIterationNumber(distributionTask),
+        plan.chunkSize);
+    plan.iterations = new ArrayList<>(offspringNum);
+    for (int reproductionIdx = 0; reproductionIdx < offspringNum; reproductionIdx++) {
+      plan.iterations.add(planIteration(plan, distributionTask, reproductionIdx));
+    }
+  }
+
+  /**
+   * Creates the offspring of a single iteration (or chunk) and their
+   * enactables.
+   * 
+   * @param plan the reproduction plan
+   * @param distributionTask the distribution node
+   * @param reproductionIdx the iteration index (the chunk index for chunked
+   *        loops)
+   * @return a graph containing the offspring edges (and their end points)
+   */
+  protected EnactmentGraph planIteration(final ReproductionPlan plan,
+      final Task distributionTask, final int reproductionIdx) {
+    final EnactmentGraph result = new EnactmentGraph();
+    for (final EdgeTupleAppl original : plan.template.getOriginalEdges()) {
+      reproduceEdge(result, original.getEdge(), original.getSrc(), original.getDst(),
+          distributionTask, plan.template.getOriginalNodes(), reproductionIdx);
+    }
+    for (final Task original : plan.template.getOriginalNodes()) {
+      if (TaskPropertyService.isProcess(original)) {
+        enactableFactory.reproduceEnactable(
+            result.getVertex(getReproducedId(original.getId(), reproductionIdx)),
+            (EnactableAtomic) PropertyServiceFunction.getEnactable(original));
+      }
+    }
+    if (plan.chunkSize > 1) {
+      annotateChunk(result, plan, distributionTask, reproductionIdx);
+    }
+    return result;
+  }
+
+  /**
+   * Annotates the chunk with the given index on its offspring edges from the
+   * distribution node and to the aggregation nodes.
+   * 
+   * @param iteration the graph containing the offspring of the chunk
+   * @param plan the reproduction plan
+   * @param distributionTask the distribution node
+   * @param chunkIdx the index of the chunk
+   */
+  protected void annotateChunk(final EnactmentGraph iteration, final ReproductionPlan plan,
+      final Task distributionTask, final int chunkIdx) {
+    final int iterationNum =
+        PropertyServiceFunctionDataFlowCollections.getIterationNumber(distributionTask);
+    for (final EdgeTupleAppl original : plan.template.getOriginalEdges()) {
+      if (original.getSrc().equals(distributionTask)) {
+        final Task offspringDst =
+            iteration.getVertex(getReproducedId(original.getDst().getId(), chunkIdx));
+        IterationChunk.of(PropertyServiceDependency.getJsonKey(original.getEdge()), chunkIdx,
+            plan.chunkSize, iterationNum).attach(iteration.findEdge(distributionTask,
+                offspringDst));
+      } else if (isAggregatorInScope(original.getDst(), plan.template.getScope())) {
+        final Task offspringSrc =
+            iteration.getVertex(getReproducedId(original.getSrc().getId(), chunkIdx));
+        IterationChunk.of(ConstantsEEModel.JsonKeyAggregation, chunkIdx, plan.chunkSize,
+            iterationNum).attach(iteration.findEdge(offspringSrc, original.getDst()));
+      }
+    }
+  }
+
+  /**
+   * Adds the planned offspring to the graph, annotates the original body,
+   * removes the original elements, and updates the scope index. The plan has to
+   * match the current state of the graph.
+   * 
+   * @param graph the enactment graph
+   * @param distributionTask the distribution node
+   * @param plan the reproduction plan
+   * @param scopeIndex the index of the collection operations
+   */
+  protected void spliceOffspring(final EnactmentGraph graph, final Task distributionTask,
+      final ReproductionPlan plan, final ScopeIndex scopeIndex) {
+    final String scope = PropertyServiceFunctionDataFlowCollections.getScope(distributionTask);
+    annotateBody(plan.template);
+    for (final EnactmentGraph iteration : plan.iterations) {
+      for (final Dependency offspringEdge : iteration.getEdges()) {
+        graph.addEdge(offspringEdge, iteration.getSource(offspringEdge),
+            iteration.getDest(offspringEdge), EdgeType.DIRECTED);
+      }
+    }
+    removeOriginalElements(graph, plan.template.getEdges(), scope, distributionTask);
+    IterationChunk.annotateChunkSize(distributionTask, plan.chunkSize);
+    plan.template.getNestedCollectionNodes().forEach(scopeIndex::removeCollectionNode);
+    for (final Task original : plan.template.getOriginalNodes()) {
+      if (TaskPropertyService.isProcess(original)) {
+        for (int reproductionIdx = 0; reproductionIdx < plan.iterations.size();
+            reproductionIdx++) {
+          final Task offspring = plan.iterations.get(reproductionIdx)
+              .getVertex(getReproducedId(original.getId(), reproductionIdx));
+          scopeIndex.addCollectionNode(offspring);
+        }
+      }
     }
+  }
+
 
-    // remove the original elements
+  /**
+   * Returns true if the reproduction can be unrolled in a window. This is the
+   * case if (a) the body does not contain further collection operations, (b)
+   * each aggregator of the scope has exactly one in edge, and (c) all
+   * transmissions from outside the scope into the body are done (so that the
+   * data of later iterations does not depend on transmissions which happened
+   * before the iterations were unrolled).
+   * 
+   * @param graph the enactment graph
+   * @param edgesToReproduce the edges between the distribution node and its
+   *        aggregators
+   * @param distributionTask the distribution node
+   * @param scope the reproduction scope
+   * @return true if the reproduction can be unrolled in a window
+   */
+  protected boolean isWindowApplicable(final EnactmentGraph graph,
+      final Set<Dependency> edgesToReproduce, final Task distributionTask, final String scope) {
+    final Set<Task> aggregators = new HashSet<>();
+    for (final Dependency edge : edgesToReproduce) {
+      final Task src = graph.getSource(edge);
+      final Task dst = graph.getDest(edge);
+      if (isAggregatorInScope(dst, scope)) {
+        if (!aggregators.add(dst)) {
+          return false;
+        }
+      } else if (PropertyServiceFunctionDataFlowCollections.isAggregationNode(dst)
+          || PropertyServiceFunctionDataFlowCollections.isDistributionNode(dst)) {
+        return false;
+      }
+      final boolean internalSrc = src.equals(distributionTask)
+          || PropertyServiceReproduction.belongsToDistributionNode(src, distributionTask);
+      if (!internalSrc && !PropertyServiceDependency.isTransmissionDone(edge)) {
+        return false;
+      }
+    }
+    return !aggregators.isEmpty();
+  }
+
+  /**
+   * Unrolls the first window of iterations, removes the original elements, and
+   * annotates the {@link DistributionWindow} which tracks the remaining
+   * iterations.
+   * 
+   * @param graph the enactment graph
+   * @param edgesToReproduce the edges between the distribution node and its
+   *        aggregators
+   * @param distributionTask the distribution node
+   * @param scope the reproduction scope
+   */
+  protected void applyWindowedReproduction(final EnactmentGraph graph,
+      final Set<Dependency> edgesToReproduce, final Task distributionTask, final String scope) {
+    final Set<EdgeTupleAppl> originalEdges = new HashSet<>();
+    final Set<Task> bodyNodes = new HashSet<>();
+    final Set<Task> aggregators = new HashSet<>();
+    for (final Dependency edge : edgesToReproduce) {
+      final Task src = graph.getSource(edge);
+      final Task dst = graph.getDest(edge);
+      originalEdges.add(new EdgeTupleAppl(src, dst, edge));
+      if (PropertyServiceReproduction.belongsToDistributionNode(src, distributionTask)) {
+        bodyNodes.add(src);
+      }
+      if (isAggregatorInScope(dst, scope)) {
+        aggregators.add(dst);
+      } else {
+        bodyNodes.add(dst);
+      }
+    }
+    final DistributionWindow window = new DistributionWindow(distributionTask,
+        PropertyServiceFunctionDataFlowCollections.getIterationNumber(distributionTask),
+        windowSize, originalEdges, bodyNodes, aggregators);
+    while (window.canUnroll()) {
+      unrollIteration(graph, window, window.startNextIteration());
+    }
     removeOriginalElements(graph, edgesToReproduce, scope, distributionTask);
+    window.attach();
+  }
 
-    final Set<Task> newTasks = graph.getVertices().stream()
-        .filter(task -> TaskPropertyService.isProcess(task)
-            && PropertyServiceReproduction.belongsToDistributionNode(task, distributionTask))
-        .collect(Collectors.toSet());
-    final Set<Task> aggregationNodes = newTasks.stream()
-        .filter(task -> PropertyServiceFunctionDataFlowCollections.isAggregationNode(task)
-            && scope.equals(PropertyServiceFunctionDataFlowCollections.getScope(task)))
-        .collect(Collectors.toSet());
-    newTasks.removeAll(aggregationNodes);
-    // adjust the enactable of the new function tasks
-    newTasks.forEach(task -> {
-      final Task parent = (Task) task.getParent();
-      enactableFactory.reproduceEnactable(task,
-          (EnactableAtomic) PropertyServiceFunction.getEnactable(parent));
-    });
+  /**
+   * Slides the given window: Removes the completed iterations from the graph and
+   * unrolls the following ones. The data nodes of the new iterations which are
+   * fed by the distribution node are annotated with their content; they are
+   * returned so that their availability can be processed.
+   * 
+   * @param graph the enactment graph
+   * @param window the window to slide
+   * @return the data nodes (of the new iterations) with available content
+   */
+  protected List<Task> slideWindow(final EnactmentGraph graph, final DistributionWindow window) {
+    final List<Task> result = new ArrayList<>();
+    if (window.isClosed()) {
+      return result;
+    }
+    Integer completed = window.pollCompletedIteration();
+    while (completed != null) {
+      removeIteration(graph, window, completed);
+      completed = window.pollCompletedIteration();
+    }
+    final JsonObject distributedData =
+        PropertyServiceFunction.getEnactable(window.getDistributionNode()).getResult();
+    while (window.canUnroll()) {
+      final int iteration = window.startNextIteration();
+      unrollIteration(graph, window, iteration);
+      for (final EdgeTupleAppl original : window.getOriginalEdges()) {
+        if (original.getSrc().equals(window.getDistributionNode())) {
+          final Task offspring =
+              graph.getVertex(getReproducedId(original.getDst().getId(), iteration));
+          final String key = ConstantsEEModel.getCollectionElementKey(
+              PropertyServiceDependency.getJsonKey(original.getEdge()), iteration);
+          PropertyServiceData.setContent(offspring, distributedData.get(key));
+          result.add(offspring);
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Adds the offspring of the given iteration to the graph, creates the
+   * enactables of its function nodes, and registers its edges to the
+   * aggregators with the window.
+   * 
+   * @param graph the enactment graph
+   * @param window the distribution window
+   * @param iteration the iteration index
+   */
+  protected void unrollIteration(final EnactmentGraph graph, final DistributionWindow window,
+      final int iteration) {
+    final Task distributionNode = window.getDistributionNode();
+    for (final EdgeTupleAppl original : window.getOriginalEdges()) {
+      reproduceEdge(graph, original.getEdge(), original.getSrc(), original.getDst(),
+          distributionNode, window.getOriginalBodyNodes(), iteration);
+    }
+    for (final Task originalNode : window.getOriginalBodyNodes()) {
+      if (TaskPropertyService.isProcess(originalNode)) {
+        enactableFactory.reproduceEnactable(
+            graph.getVertex(getReproducedId(originalNode.getId(), iteration)),
+            (EnactableAtomic) PropertyServiceFunction.getEnactable(originalNode));
+      }
+    }
+    for (final EdgeTupleAppl original : window.getOriginalEdges()) {
+      if (window.getAggregationNodes().contains(original.getDst())) {
+        final Task offspringSrc =
+            graph.getVertex(getReproducedId(original.getSrc().getId(), iteration));
+        window.registerAggregationEdge(graph.findEdge(offspringSrc, original.getDst()),
+            iteration);
+      }
+    }
   }
 
+  /**
+   * Removes the offspring of the given (completed) iteration from the graph.
+   * 
+   * @param graph the enactment graph
+   * @param window the distribution window
+   * @param iteration the iteration index
+   */
+  protected void removeIteration(final EnactmentGraph graph, final DistributionWindow window,
+      final int iteration) {
+    for (final Task originalNode : window.getOriginalBodyNodes()) {
+      final Task offspring = graph.getVertex(getReproducedId(originalNode.getId(), iteration));
+      if (offspring != null) {
+        graph.removeVertex(offspring);
+      }
+    }
+    window.finishIteration(iteration);
+  }
+
+  /**
+   * Returns true if the given task is an aggregation node of the given scope.
+   * 
+   * @param task the given task
+   * @param scope the reproduction scope
+   * @return true if the given task is an aggregation node of the given scope
+   */
+  protected boolean isAggregatorInScope(final Task task, final String scope) {
+    return PropertyServiceFunctionDataFlowCollections.isAggregationNode(task)
+        && scope.equals(PropertyServiceFunctionDataFlowCollections.getScope(task));
+  }
 
   /**
    * Removes the original elements from the graph.
@@ -116,52 +596,49 @@ public class GraphTransformDistribution implements GraphTransform {
 
 
   /**
-   * Reproduces the given edge the requested amount of times. Adds the offspring
-   * edge and end points to the graph.
+   * Adds the offspring of the given edge (and of its end points) with the given
+   * reproduction index to the graph.
    * 
-   * @param originalEdge the original edge
    * @param graph the enactment graph
+   * @param originalEdge the original edge
+   * @param originalSrc the source of the original edge
+   * @param originalDst the destination of the original edge
+   * @param distributionNode the distribution node
+   * @param bodyNodes the original nodes of the loop body (which are reproduced)
+   * @param reproductionIdx the reproduction index
    */
   protected void reproduceEdge(final EnactmentGraph graph, final Dependency originalEdge,
-      final Task distributionNode) {
-    final int iterationNum =
-        PropertyServiceFunctionDataFlowCollections.getIterationNumber(distributionNode);
+      final Task originalSrc, final Task originalDst, final Task distributionNode,
+      final Set<Task> bodyNodes, final int reproductionIdx) {
     final String scope = PropertyServiceFunctionDataFlowCollections.getScope(distributionNode);
-    final Task originalSrc = graph.getSource(originalEdge);
-    final Task originalDst = graph.getDest(originalEdge);
+    Optional<Task> offspringSrc;
+    String jsonKey = PropertyServiceDependency.getJsonKey(originalEdge);
+    Optional<Task> offspringDst;
 
-    for (int reproductionIdx = 0; reproductionIdx < iterationNum; reproductionIdx++) {
-
-      Optional<Task> offspringSrc;
-      String jsonKey = PropertyServiceDependency.getJsonKey(originalEdge);
-      Optional<Task> offspringDst;
-
-      // assign src
-      if (PropertyServiceReproduction.belongsToDistributionNode(originalSrc, distributionNode)) {
-        // src needs to be reproduced
-        offspringSrc = reproduceNode(graph, originalSrc, reproductionIdx);
-      } else {
-        // edge from distribution node
-        offspringSrc = Optional.of(originalSrc);
-        final String collectionName = PropertyServiceDependency.getJsonKey(originalEdge);
-        if (originalSrc.equals(distributionNode)) {
-          jsonKey = ConstantsEEModel.getCollectionElementKey(collectionName, reproductionIdx);
-        }
+    // assign src
+    if (bodyNodes.contains(originalSrc)) {
+      // src needs to be reproduced
+      offspringSrc = reproduceNode(graph, originalSrc, reproductionIdx);
+    } else {
+      // edge from distribution node
+      offspringSrc = Optional.of(originalSrc);
+      final String collectionName = PropertyServiceDependency.getJsonKey(originalEdge);
+      if (originalSrc.equals(distributionNode)) {
+        jsonKey = ConstantsEEModel.getCollectionElementKey(collectionName, reproductionIdx);
       }
+    }
 
-      if (PropertyServiceFunctionDataFlowCollections.isAggregationNode(originalDst)
-          && PropertyServiceFunctionDataFlowCollections.getScope(originalDst).equals(scope)) {
-        // edge to aggregation node
-        offspringDst = Optional.of(originalDst);
-        jsonKey = ConstantsEEModel.getCollectionElementKey(ConstantsEEModel.JsonKeyAggregation,
-            reproductionIdx);
-      } else {
-        // dst needs to be reproduced
-        offspringDst = reproduceNode(graph, originalDst, reproductionIdx);
-      }
-      PropertyServiceReproduction.addDataDependencyOffspring(offspringSrc.get(), offspringDst.get(),
-          jsonKey, graph, originalEdge, scope);
+    if (isAggregatorInScope(originalDst, scope)) {
+      // edge to aggregation node
+      offspringDst = Optional.of(originalDst);
+      jsonKey = ConstantsEEModel.getCollectionElementKey(ConstantsEEModel.JsonKeyAggregation,
+          reproductionIdx);
+    } else {
+      // dst needs to be reproduced
+      offspringDst = reproduceNode(graph, originalDst, reproductionIdx);
     }
+    PropertyServiceReproduction.addDataDependencyOffspring(offspringSrc.get(), offspringDst.get(),
+        jsonKey, graph, originalEdge, scope);
   }
 
   /**
@@ -189,6 +666,7 @@ public class GraphTransformDistribution implements GraphTransform {
             + ConstantsEEModel.KeywordSeparator1 + reproductionIdx;
         PropertyServiceFunctionDataFlowCollections.setScope(task, adjustedScope);
       }
+      NodeProperties.attach(task);
       return task;
     });
     return Optional.of(offspring);
@@ -217,50 +695,52 @@ public class GraphTransformDistribution implements GraphTransform {
   protected Set<Dependency> findEdgesToReproduce(final EnactmentGraph graph,
       final Task distributionNode) {
     final Set<Dependency> result = new HashSet<>();
-    final Task curNode = distributionNode;
     final String scope = PropertyServiceFunctionDataFlowCollections.getScope(distributionNode);
     final Set<Task> visited = new HashSet<>();
-    recProcessOutEdgesNode(graph, curNode, scope, visited, result, distributionNode);
+    final Deque<Task> toVisit = new ArrayDeque<>();
+    visited.add(distributionNode);
+    toVisit.push(distributionNode);
+    while (!toVisit.isEmpty()) {
+      final Task curNode = toVisit.pop();
+      for (final Task dest : processNode(graph, curNode, scope, result, distributionNode)) {
+        if (visited.add(dest)) {
+          toVisit.push(dest);
+        }
+      }
+    }
     return result;
   }
 
   /**
-   * Recursive operation to check a node and gather all of its out edges which are
-   * relevant for reproduction.
+   * Checks a node and gathers all of its edges which are relevant for
+   * reproduction. Returns the successors of the node which have to be checked
+   * (an empty list for the aggregation nodes of the scope).
    * 
-   * @param curNode the node to check
    * @param graph the enactment graph
+   * @param curNode the node to check
    * @param scope the reproduction scope
-   * @param visited the set of visited nodes
-   * @param distributionNode the distribution node doing the reproduction
    * @param result the edges gathered so far
+   * @param distributionNode the distribution node doing the reproduction
+   * @return the successors of the node which have to be checked
    */
-  protected void recProcessOutEdgesNode(final EnactmentGraph graph, final Task curNode,
-      final String scope, final Set<Task> visited, final Set<Dependency> result,
-      final Task distributionNode) {
-    visited.add(curNode);
-    if (!curNode.equals(distributionNode)) {
-      PropertyServiceReproduction.annotateDistributionNode(curNode, distributionNode.getId());
+  protected List<Task> processNode(final EnactmentGraph graph, final Task curNode,
+      final String scope, final Set<Dependency> result, final Task distributionNode) {
+    final List<Task> successors = new ArrayList<>();
+    if (isAggregatorInScope(curNode, scope)) {
+      // base case: arrival at an aggregation node.
+      return successors;
     }
-    if (PropertyServiceFunctionDataFlowCollections.isAggregationNode(curNode)
-        && PropertyServiceFunctionDataFlowCollections.getScope(curNode).equals(scope)) {
-      // recursion base case: arrival at an aggregation node.
-      return;
-    } else {
-      // if the node is not a distribution node with the proper scope, all in edges
-      // are also added
-      if (!(PropertyServiceFunctionDataFlowCollections.isDistributionNode(curNode)
-          && scope.equals(PropertyServiceFunctionDataFlowCollections.getScope(curNode)))) {
-        result.addAll(graph.getInEdges(curNode));
-      }
-      for (final Dependency outEdge : graph.getOutEdges(curNode)) {
-        result.add(outEdge);
-        final Task dest = graph.getDest(outEdge);
-        if (!visited.contains(dest)) {
-          recProcessOutEdgesNode(graph, dest, scope, visited, result, distributionNode);
-        }
-      }
+    // if the node is not a distribution node with the proper scope, all in edges
+    // are also added
+    if (!(PropertyServiceFunctionDataFlowCollections.isDistributionNode(curNode)
+        && scope.equals(PropertyServiceFunctionDataFlowCollections.getScope(curNode)))) {
+      result.addAll(graph.getInEdges(curNode));
+    }
+    for (final Dependency outEdge : graph.getOutEdges(curNode)) {
+      result.add(outEdge);
+      successors.add(graph.getDest(outEdge));
     }
+    return successors;
   }
 
   @Override
@@ -0,0 +1,49 @@
+package at.uibk.dps.ee.control.graph;
+
+import java.util.ArrayList;
+import java.util.List;
+import at.uibk.dps.ee.control.management.EnactmentQueues;
+import net.sf.opendse.model.Task;
+
+/**
+ * The {@link GraphTransformWindowSlide} slides the {@link DistributionWindow}
+ * of a lazily unrolled distribution: The completed iterations are removed from
+ * the graph and the following iterations are unrolled. The distributed data of
+ * the new iterations is then put into the queue of available data.
+ *
+ * @author Fedor Smirnov
+ */
+public class GraphTransformWindowSlide implements GraphTransform {
+
+  protected final GraphTransformDistribution distributionTransform;
+  protected final EnactmentQueues enactmentState;
+
+  /**
+   * Default constructor.
+   *
+   * @param distributionTransform the distribution transform (used to unroll the
+   *        iterations)
+   * @param enactmentState the state of the enactment (for the access to the
+   *        queues)
+   */
+  public GraphTransformWindowSlide(final GraphTransformDistribution distributionTransform,
+      final EnactmentQueues enactmentState) {
+    this.distributionTransform = distributionTransform;
+    this.enactmentState = enactmentState;
+  }
+
+  @Override
+  public void modifyEnactmentGraph(final GraphAccess graphAccess, final Task taskNode) {
+    final DistributionWindow window = DistributionWindow.ofSlideTrigger(taskNode);
+    final List<Task> availableData = new ArrayList<>();
+    graphAccess.transformGraph(
+        (graph, trigger) -> availableData.addAll(distributionTransform.slideWindow(graph, window)),
+        taskNode);
+    availableData.forEach(enactmentState::putAvailableData);
+  }
+
+  @Override
+  public String getTransformName() {
+    return "WindowSlide";
+  }
+}
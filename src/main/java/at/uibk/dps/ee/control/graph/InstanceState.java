@@ -0,0 +1,107 @@
+package at.uibk.dps.ee.control.graph;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.inject.ImplementedBy;
+import at.uibk.dps.ee.core.enactable.Enactable;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+
+/**
+ * Interface for the access to the state of a workflow instance which is
+ * changed during the enactment: the content of the data nodes, the completed
+ * transmissions, the enactables of the function nodes, the results served
+ * without an enactment (from the result cache), and the keys of the
+ * enactments (see {@link at.uibk.dps.ee.control.enactment.ResultCache}). The
+ * structure of the enactment graph and its static annotations are read
+ * directly from the graph.
+ * 
+ * @author Fedor Smirnov
+ */
+@ImplementedBy(InstanceStateGraph.class)
+public interface InstanceState {
+
+  /**
+   * Returns the content of the given data node.
+   * 
+   * @param dataNode the given data node
+   * @return the content of the given data node
+   */
+  JsonElement getContent(Task dataNode);
+
+  /**
+   * Sets the content of the given data node.
+   * 
+   * @param dataNode the given data node
+   * @param content the content to set
+   */
+  void setContent(Task dataNode, JsonElement content);
+
+  /**
+   * Returns true if the transmission over the given edge is completed.
+   * 
+   * @param edge the given edge
+   * @return true if the transmission over the given edge is completed
+   */
+  boolean isTransmissionDone(Dependency edge);
+
+  /**
+   * Annotates the transmission over the given edge as completed.
+   * 
+   * @param edge the given edge
+   */
+  void annotateFinishedTransmission(Dependency edge);
+
+  /**
+   * Returns the enactable of the given function node.
+   * 
+   * @param functionNode the given function node
+   * @return the enactable of the given function node
+   */
+  Enactable getEnactable(Task functionNode);
+
+  /**
+   * Returns the result of the given function node: the result served without
+   * enacting the node, if any, and the result of its enactable otherwise.
+   * 
+   * @param functionNode the given function node
+   * @return the result of the given function node
+   */
+  default JsonObject getResult(final Task functionNode) {
+    final JsonObject served = getServedResult(functionNode);
+    return served == null ? getEnactable(functionNode).getResult() : served;
+  }
+
+  /**
+   * Returns the result served for the given function node without enacting it.
+   * 
+   * @param functionNode the given function node
+   * @return the served result, or null if the node is enacted
+   */
+  JsonObject getServedResult(Task functionNode);
+
+  /**
+   * Sets the result served for the given function node without enacting it.
+   * 
+   * @param functionNode the given function node
+   * @param result the served result, or null if the node is enacted
+   */
+  void setServedResult(Task functionNode, JsonObject result);
+
+  /**
+   * Returns the key of the enactment of the given function node, if it was
+   * already computed for this instance.
+   * 
+   * @param functionNode the given function node
+   * @return the key of the enactment, or null if it was not computed yet
+   */
+  String getEnactmentKey(Task functionNode);
+
+  /**
+   * Sets the key of the enactment of the given function node.
+   * 
+   * @param functionNode the given function node
+   * @param key the key of the enactment, or null to remove it
+   */
+  void setEnactmentKey(Task functionNode, String key);
+}
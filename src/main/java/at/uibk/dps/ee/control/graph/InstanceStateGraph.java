@@ -0,0 +1,158 @@
+package at.uibk.dps.ee.control.graph;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.inject.Singleton;
+import at.uibk.dps.ee.core.enactable.Enactable;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.properties.PropertyServiceData;
+import at.uibk.dps.ee.model.properties.PropertyServiceData.NodeType;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunction;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.model.properties.TaskPropertyService;
+
+/**
+ * The {@link InstanceState} of the (only) workflow instance enacted on the
+ * graph: The state is annotated directly on the nodes and edges of the
+ * enactment graph. The results served without an enactment and the keys of
+ * the enactments are attached to their nodes (and are thereby removed together
+ * with the nodes, e.g., when offspring are reverted). Since the attributes of
+ * the offspring nodes fall back to those of their parents, an attached value
+ * keeps a reference to its node and is only used for that exact node.
+ * 
+ * Since the state is kept on the graph, it has to be reset (see
+ * {@link #reset(EnactmentGraph)}) before each instance enacted on the graph.
+ * 
+ * @author Fedor Smirnov
+ */
+@Singleton
+public class InstanceStateGraph implements InstanceState {
+
+  private static final String servedResultAttributeName = "ServedResult";
+  private static final String enactmentKeyAttributeName = "EnactmentKey";
+
+  /**
+   * A value attached to a function node, together with the node.
+   *
+   * @author Fedor Smirnov
+   *
+   * @param <T> the type of the value
+   */
+  protected static final class NodeValue<T> {
+    protected final Task functionNode;
+    protected final T value;
+
+    /**
+     * Default constructor.
+     *
+     * @param functionNode the function node
+     * @param value the value attached to the function node
+     */
+    protected NodeValue(final Task functionNode, final T value) {
+      this.functionNode = functionNode;
+      this.value = value;
+    }
+  }
+
+  @Override
+  public JsonElement getContent(final Task dataNode) {
+    return PropertyServiceData.getContent(dataNode);
+  }
+
+  @Override
+  public void setContent(final Task dataNode, final JsonElement content) {
+    PropertyServiceData.setContent(dataNode, content);
+  }
+
+  @Override
+  public boolean isTransmissionDone(final Dependency edge) {
+    return PropertyServiceDependency.isTransmissionDone(edge);
+  }
+
+  @Override
+  public void annotateFinishedTransmission(final Dependency edge) {
+    PropertyServiceDependency.annotateFinishedTransmission(edge);
+  }
+
+  @Override
+  public Enactable getEnactable(final Task functionNode) {
+    return PropertyServiceFunction.getEnactable(functionNode);
+  }
+
+  @Override
+  public JsonObject getServedResult(final Task functionNode) {
+    return getNodeValue(functionNode, servedResultAttributeName, JsonObject.class);
+  }
+
+  @Override
+  public void setServedResult(final Task functionNode, final JsonObject result) {
+    setNodeValue(functionNode, servedResultAttributeName, result);
+  }
+
+  @Override
+  public String getEnactmentKey(final Task functionNode) {
+    return getNodeValue(functionNode, enactmentKeyAttributeName, String.class);
+  }
+
+  @Override
+  public void setEnactmentKey(final Task functionNode, final String key) {
+    setNodeValue(functionNode, enactmentKeyAttributeName, key);
+  }
+
+  /**
+   * Returns the value attached to the given function node (and not to one of
+   * its parents) under the given attribute name.
+   *
+   * @param functionNode the given function node
+   * @param attributeName the attribute name
+   * @param type the type of the value
+   * @return the value attached to the given node, or null if there is none
+   */
+  protected <T> T getNodeValue(final Task functionNode, final String attributeName,
+      final Class<T> type) {
+    final Object attached = functionNode.getAttribute(attributeName);
+    if (attached instanceof NodeValue && ((NodeValue<?>) attached).functionNode == functionNode) {
+      return type.cast(((NodeValue<?>) attached).value);
+    }
+    return null;
+  }
+
+  /**
+   * Attaches the given value to the given function node under the given
+   * attribute name.
+   *
+   * @param functionNode the given function node
+   * @param attributeName the attribute name
+   * @param value the value to attach, or null to remove the attached value
+   */
+  protected <T> void setNodeValue(final Task functionNode, final String attributeName,
+      final T value) {
+    functionNode.setAttribute(attributeName,
+        value == null ? null : new NodeValue<>(functionNode, value));
+  }
+
+  /**
+   * Resets the state annotated on the given graph before the enactment of a new
+   * instance: The transmissions are marked as not done, and the contents of the
+   * data nodes (apart from the constants), the served results, and the keys of
+   * the enactments are removed.
+   * Must be called while no instance is enacted on the graph.
+   * 
+   * @param graph the enactment graph
+   */
+  public void reset(final EnactmentGraph graph) {
+    for (final Dependency edge : graph.getEdges()) {
+      PropertyServiceDependency.resetTransmission(edge);
+    }
+    for (final Task node : graph.getVertices()) {
+      if (TaskPropertyService.isProcess(node)) {
+        setServedResult(node, null);
+        setEnactmentKey(node, null);
+      } else if (!NodeProperties.of(node).getNodeType().equals(NodeType.Constant)) {
+        PropertyServiceData.resetContent(node);
+      }
+    }
+  }
+}
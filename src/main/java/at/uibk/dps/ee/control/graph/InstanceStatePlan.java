@@ -0,0 +1,171 @@
+package at.uibk.dps.ee.control.graph;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import at.uibk.dps.ee.core.enactable.Enactable;
+import at.uibk.dps.ee.enactables.wrapper.FactoryInterface;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+
+/**
+ * The {@link InstanceState} of a workflow instance enacted on a graph whose
+ * structure does not change during the enactment. The state is kept in arrays
+ * indexed by the {@link ExecutionPlan} of the graph, so that the graph itself
+ * is only read. The agents walking the plan use the index-based accessors; the
+ * accessors for nodes and edges (used by the agents which are not specific to
+ * the plan) map them to their index first. The content of the data nodes which
+ * were not written by the instance (i.e., the constants) is taken from the
+ * plan. The enactables are created on first access.
+ *
+ * @author Fedor Smirnov
+ */
+public class InstanceStatePlan implements InstanceState {
+
+  protected final ExecutionPlan plan;
+  protected final FactoryInterface enactableFactory;
+  protected final AtomicReferenceArray<JsonElement> contents;
+  protected final AtomicIntegerArray finishedTransmissions;
+  protected final AtomicReferenceArray<Enactable> enactables;
+  protected final AtomicReferenceArray<JsonObject> servedResults;
+  protected final AtomicReferenceArray<String> enactmentKeys;
+
+  /**
+   * Default constructor.
+   *
+   * @param plan the execution plan of the enacted graph
+   * @param enactableFactory the factory for the enactables of the instance
+   */
+  public InstanceStatePlan(final ExecutionPlan plan, final FactoryInterface enactableFactory) {
+    this.plan = plan;
+    this.enactableFactory = enactableFactory;
+    this.contents = new AtomicReferenceArray<>(plan.getNodeNumber());
+    this.finishedTransmissions = new AtomicIntegerArray(plan.getEdgeNumber());
+    this.enactables = new AtomicReferenceArray<>(plan.getNodeNumber());
+    this.servedResults = new AtomicReferenceArray<>(plan.getNodeNumber());
+    this.enactmentKeys = new AtomicReferenceArray<>(plan.getNodeNumber());
+  }
+
+  @Override
+  public JsonElement getContent(final Task dataNode) {
+    return getContent(plan.getNodeIndex(dataNode));
+  }
+
+  /**
+   * Returns the content of the data node with the given index.
+   *
+   * @param nodeIdx the index of the data node
+   * @return the content of the data node with the given index
+   */
+  public JsonElement getContent(final int nodeIdx) {
+    final JsonElement result = contents.get(nodeIdx);
+    return result == null ? plan.getConstantContent(nodeIdx) : result;
+  }
+
+  @Override
+  public void setContent(final Task dataNode, final JsonElement content) {
+    setContent(plan.getNodeIndex(dataNode), content);
+  }
+
+  /**
+   * Sets the content of the data node with the given index.
+   *
+   * @param nodeIdx the index of the data node
+   * @param content the content to set
+   */
+  public void setContent(final int nodeIdx, final JsonElement content) {
+    contents.set(nodeIdx, content);
+  }
+
+  @Override
+  public boolean isTransmissionDone(final Dependency edge) {
+    return isTransmissionDone(plan.getEdgeIndex(edge));
+  }
+
+  /**
+   * Returns true if the transmission over the edge with the given index is
+   * completed.
+   *
+   * @param edgeIdx the index of the edge
+   * @return true if the transmission over the edge is completed
+   */
+  public boolean isTransmissionDone(final int edgeIdx) {
+    return finishedTransmissions.get(edgeIdx) != 0;
+  }
+
+  @Override
+  public void annotateFinishedTransmission(final Dependency edge) {
+    annotateFinishedTransmission(plan.getEdgeIndex(edge));
+  }
+
+  /**
+   * Annotates the transmission over the edge with the given index as completed.
+   *
+   * @param edgeIdx the index of the edge
+   */
+  public void annotateFinishedTransmission(final int edgeIdx) {
+    finishedTransmissions.set(edgeIdx, 1);
+  }
+
+  @Override
+  public Enactable getEnactable(final Task functionNode) {
+    return getEnactable(plan.getNodeIndex(functionNode));
+  }
+
+  /**
+   * Returns the enactable of the function node with the given index.
+   *
+   * @param nodeIdx the index of the function node
+   * @return the enactable of the function node with the given index
+   */
+  public Enactable getEnactable(final int nodeIdx) {
+    final Enactable current = enactables.get(nodeIdx);
+    if (current != null) {
+      return current;
+    }
+    final Enactable created = enactableFactory.createEnactable(plan.getNode(nodeIdx));
+    return enactables.compareAndSet(nodeIdx, null, created) ? created : enactables.get(nodeIdx);
+  }
+
+  /**
+   * Returns the result of the function node with the given index (see
+   * {@link #getResult(Task)}).
+   *
+   * @param nodeIdx the index of the function node
+   * @return the result of the function node with the given index
+   */
+  public JsonObject getResult(final int nodeIdx) {
+    final JsonObject served = servedResults.get(nodeIdx);
+    return served == null ? getEnactable(nodeIdx).getResult() : served;
+  }
+
+  @Override
+  public JsonObject getServedResult(final Task functionNode) {
+    return servedResults.get(plan.getNodeIndex(functionNode));
+  }
+
+  @Override
+  public void setServedResult(final Task functionNode, final JsonObject result) {
+    servedResults.set(plan.getNodeIndex(functionNode), result);
+  }
+
+  @Override
+  public String getEnactmentKey(final Task functionNode) {
+    return enactmentKeys.get(plan.getNodeIndex(functionNode));
+  }
+
+  @Override
+  public void setEnactmentKey(final Task functionNode, final String key) {
+    enactmentKeys.set(plan.getNodeIndex(functionNode), key);
+  }
+
+  /**
+   * Returns the execution plan the state is indexed by.
+   *
+   * @return the execution plan the state is indexed by
+   */
+  public ExecutionPlan getPlan() {
+    return plan;
+  }
+}
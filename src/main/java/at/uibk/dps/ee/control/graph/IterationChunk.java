@@ -0,0 +1,269 @@
+package at.uibk.dps.ee.control.graph;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import at.uibk.dps.ee.model.constants.ConstantsEEModel;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.model.properties.TaskPropertyService;
+
+/**
+ * A contiguous slice of the iterations of a distribution which is processed by
+ * a single offspring of the loop body (when the distribution is unrolled in
+ * chunks, see {@link GraphTransformDistribution}). The chunk is annotated on
+ * the offspring edges which connect the chunk to the collection operations of
+ * its scope:
+ *
+ * <ul>
+ * <li>On the edges from the distribution node, the elements of the chunk are
+ * collected into a json array (so that the functions of the chunk process a
+ * slice of the collection).</li>
+ * <li>On the edges to the aggregation nodes, the result of the chunk (a json
+ * array with one entry per iteration) is split into the aggregation keys of
+ * the individual iterations.</li>
+ * </ul>
+ *
+ * Chunking changes the contract of the functions of the loop body: Instead of
+ * a single element, each function of a chunked loop receives a json array with
+ * the elements of its slice (in iteration order), and has to return a json
+ * array with one result per element (in the same order). Chunking is
+ * therefore opt-in per distribution node: A loop is only chunked if a chunk
+ * size is requested on its distribution node, which is done for the
+ * distribution nodes listed in the chunk size configuration of the enactment
+ * module (see {@link #requestChunkSizes(EnactmentGraph, String)}, applied by
+ * the {@link GraphProviderEnactables}). The chunk size used for the current
+ * reproduction is annotated on the distribution node, so that the aggregation
+ * can find the offspring of the loop body.
+ *
+ * @author Fedor Smirnov
+ */
+public final class IterationChunk {
+
+  private static final String attributeName = "IterationChunk";
+  private static final String chunkSizeAttributeName = "IterationChunkSize";
+  private static final String requestedChunkSizeAttributeName = "RequestedChunkSize";
+
+  protected final String collectionKey;
+  protected final int firstIteration;
+  protected final int iterationNumber;
+
+  /**
+   * Default constructor.
+   *
+   * @param collectionKey the json key of the collection (the key of the edge
+   *        from the distribution node or the aggregation key)
+   * @param firstIteration the index of the first iteration of the chunk
+   * @param iterationNumber the number of iterations in the chunk
+   */
+  public IterationChunk(final String collectionKey, final int firstIteration,
+      final int iterationNumber) {
+    this.collectionKey = collectionKey;
+    this.firstIteration = firstIteration;
+    this.iterationNumber = iterationNumber;
+  }
+
+  /**
+   * Returns the chunk with the given index.
+   *
+   * @param collectionKey the json key of the collection
+   * @param chunkIdx the index of the chunk
+   * @param chunkSize the (maximal) number of iterations in a chunk
+   * @param iterationNumber the overall number of iterations
+   * @return the chunk with the given index
+   */
+  public static IterationChunk of(final String collectionKey, final int chunkIdx,
+      final int chunkSize, final int iterationNumber) {
+    final int first = chunkIdx * chunkSize;
+    return new IterationChunk(collectionKey, first,
+        Math.min(chunkSize, iterationNumber - first));
+  }
+
+  /**
+   * Returns the number of chunks needed to process the given number of
+   * iterations.
+   *
+   * @param iterationNumber the number of iterations
+   * @param chunkSize the (maximal) number of iterations in a chunk
+   * @return the number of chunks
+   */
+  public static int getChunkNumber(final int iterationNumber, final int chunkSize) {
+    return (iterationNumber + chunkSize - 1) / chunkSize;
+  }
+
+  /**
+   * Returns the chunk annotated on the given edge, if any.
+   *
+   * @param edge the given edge
+   * @return the chunk annotated on the given edge, or null if the edge does not
+   *         connect a chunk to a collection operation
+   */
+  public static IterationChunk find(final Dependency edge) {
+    final Object attached = edge.getAttribute(attributeName);
+    return attached instanceof IterationChunk ? (IterationChunk) attached : null;
+  }
+
+  /**
+   * Annotates the chunk on the given edge.
+   *
+   * @param edge the given edge
+   */
+  public void attach(final Dependency edge) {
+    edge.setAttribute(attributeName, this);
+  }
+
+  /**
+   * Requests the given chunk size for the loop of the given distribution node,
+   * i.e., opts the loop into chunking.
+   *
+   * @param distributionNode the distribution node
+   * @param chunkSize the number of iterations processed by each offspring of
+   *        the loop body (1 for an offspring per iteration)
+   */
+  public static void requestChunkSize(final Task distributionNode, final int chunkSize) {
+    if (chunkSize < 1) {
+      throw new IllegalArgumentException("The chunk size has to be positive.");
+    }
+    distributionNode.setAttribute(requestedChunkSizeAttributeName, chunkSize);
+  }
+
+  /**
+   * Requests the chunk sizes configured for the distribution nodes of the given
+   * graph. The configuration lists the distribution nodes whose loops are
+   * chunked, as comma-separated entries of the form
+   * {@code <distribution node id>=<chunk size>} (an empty configuration does not
+   * chunk any loop).
+   *
+   * @param graph the enactment graph
+   * @param chunkSizes the chunk size configuration
+   */
+  public static void requestChunkSizes(final EnactmentGraph graph, final String chunkSizes) {
+    for (final String entry : chunkSizes.split(",")) {
+      if (entry.trim().isEmpty()) {
+        continue;
+      }
+      final String[] idAndSize = entry.split("=");
+      if (idAndSize.length != 2) {
+        throw new IllegalArgumentException(
+            "The chunk size entry " + entry + " is not of the form <node id>=<chunk size>.");
+      }
+      final Task node = graph.getVertex(idAndSize[0].trim());
+      if (node == null || !TaskPropertyService.isProcess(node)
+          || !NodeProperties.of(node).isCollectionOperation()
+          || !PropertyServiceFunctionDataFlowCollections.isDistributionNode(node)) {
+        throw new IllegalArgumentException(
+            "A chunk size is configured for " + idAndSize[0] + ", which is no distribution node.");
+      }
+      try {
+        requestChunkSize(node, Integer.parseInt(idAndSize[1].trim()));
+      } catch (NumberFormatException exc) {
+        throw new IllegalArgumentException("The chunk size entry " + entry + " is not a number.",
+            exc);
+      }
+    }
+  }
+
+  /**
+   * Returns the chunk size requested for the loop of the given distribution
+   * node (1 if the loop did not opt into chunking).
+   *
+   * @param distributionNode the distribution node
+   * @return the chunk size requested for the loop of the given distribution
+   *         node
+   */
+  public static int getRequestedChunkSize(final Task distributionNode) {
+    final Object chunkSize = distributionNode.getAttribute(requestedChunkSizeAttributeName);
+    return chunkSize instanceof Integer ? (Integer) chunkSize : 1;
+  }
+
+  /**
+   * Annotates the chunk size of the current reproduction on the given
+   * distribution node.
+   *
+   * @param distributionNode the distribution node
+   * @param chunkSize the chunk size (1 if the iterations were not chunked)
+   */
+  public static void annotateChunkSize(final Task distributionNode, final int chunkSize) {
+    distributionNode.setAttribute(chunkSizeAttributeName, chunkSize);
+  }
+
+  /**
+   * Returns the number of offspring created for each original node of the
+   * loop body of the given distribution node (the number of chunks, or the
+   * number of iterations if the loop was not chunked).
+   *
+   * @param distributionNode the distribution node
+   * @return the number of offspring of each original node of the loop body
+   */
+  public static int getOffspringNumber(final Task distributionNode) {
+    final int iterationNumber =
+        PropertyServiceFunctionDataFlowCollections.getIterationNumber(distributionNode);
+    final Object chunkSize = distributionNode.getAttribute(chunkSizeAttributeName);
+    return chunkSize instanceof Integer ? getChunkNumber(iterationNumber, (Integer) chunkSize)
+        : iterationNumber;
+  }
+
+  /**
+   * Collects the elements of the chunk from the result of the distribution
+   * node.
+   *
+   * @param distributionResult the result of the distribution node
+   * @return a json array with the elements of the chunk
+   */
+  public JsonArray collect(final JsonObject distributionResult) {
+    final JsonArray result = new JsonArray();
+    for (int offset = 0; offset < iterationNumber; offset++) {
+      final String key = getElementKey(offset);
+      if (!distributionResult.has(key)) {
+        throw new IllegalStateException("The distribution result has no entry named " + key);
+      }
+      result.add(distributionResult.get(key));
+    }
+    return result;
+  }
+
+  /**
+   * Splits the result of the chunk into the entries of the individual
+   * iterations.
+   *
+   * @param chunkResult the result of the chunk (a json array with one entry per
+   *        iteration)
+   * @return a json object mapping the keys of the iterations to their entries
+   */
+  public JsonObject split(final JsonElement chunkResult) {
+    if (!chunkResult.isJsonArray() || chunkResult.getAsJsonArray().size() != iterationNumber) {
+      throw new IllegalStateException("The result of the chunk starting at iteration "
+          + firstIteration + " is not an array with " + iterationNumber + " entries.");
+    }
+    final JsonArray entries = chunkResult.getAsJsonArray();
+    final JsonObject result = new JsonObject();
+    for (int offset = 0; offset < iterationNumber; offset++) {
+      result.add(getElementKey(offset), entries.get(offset));
+    }
+    return result;
+  }
+
+  /**
+   * Returns the key of the iteration with the given offset within the chunk.
+   *
+   * @param offset the offset within the chunk
+   * @return the key of the iteration with the given offset
+   */
+  protected String getElementKey(final int offset) {
+    return ConstantsEEModel.getCollectionElementKey(collectionKey, firstIteration + offset);
+  }
+
+  public String getCollectionKey() {
+    return collectionKey;
+  }
+
+  public int getFirstIteration() {
+    return firstIteration;
+  }
+
+  public int getIterationNumber() {
+    return iterationNumber;
+  }
+}
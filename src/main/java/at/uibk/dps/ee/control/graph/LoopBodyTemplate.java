@@ -0,0 +1,178 @@
+package at.uibk.dps.ee.control.graph;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import at.uibk.dps.ee.control.graph.GraphAccess.EdgeTupleAppl;
+import at.uibk.dps.ee.model.constants.ConstantsEEModel;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+
+/**
+ * The loop body of a distribution node, found by the first reproduction of
+ * the node and then reused by each subsequent reproduction (and by the
+ * corresponding reverts), so that the body is not searched anew each time the
+ * loop is run. The template contains the original edges between the
+ * distribution node and its aggregators, the original nodes which are
+ * reproduced, and the nested collection operations (whose scope is adjusted
+ * for each offspring).
+ *
+ * The template is attached to the distribution node as an attribute. Since the
+ * attributes of the offspring nodes fall back to the attributes of their
+ * parents, the template is only used for the exact node it was created for.
+ * The template is valid as long as its original edges are part of the graph
+ * (the revert of the reproduction restores the original body).
+ *
+ * @author Fedor Smirnov
+ */
+public final class LoopBodyTemplate {
+
+  private static final String attributeName = "LoopBodyTemplate";
+
+  protected final Task distributionNode;
+  protected final String scope;
+  protected final Set<EdgeTupleAppl> originalEdges;
+  protected final Set<Task> originalNodes;
+  protected final Set<Task> nestedCollectionNodes;
+  protected final Set<EdgeTupleAppl> directEdges;
+  protected final Set<Dependency> edges;
+
+  /**
+   * Default constructor.
+   *
+   * @param distributionNode the distribution node
+   * @param originalEdges the original edges (with their end points) between the
+   *        distribution node and its aggregators
+   * @param originalNodes the original nodes which are reproduced
+   */
+  public LoopBodyTemplate(final Task distributionNode, final Set<EdgeTupleAppl> originalEdges,
+      final Set<Task> originalNodes) {
+    this.distributionNode = distributionNode;
+    this.scope = PropertyServiceFunctionDataFlowCollections.getScope(distributionNode);
+    this.originalEdges = Collections.unmodifiableSet(originalEdges);
+    this.originalNodes = Collections.unmodifiableSet(originalNodes);
+    final Set<Task> nested = new HashSet<>();
+    for (final Task original : originalNodes) {
+      if (PropertyServiceFunctionDataFlowCollections.isDistributionNode(original)
+          || PropertyServiceFunctionDataFlowCollections.isAggregationNode(original)) {
+        nested.add(original);
+      }
+    }
+    this.nestedCollectionNodes = Collections.unmodifiableSet(nested);
+    final Set<EdgeTupleAppl> direct = new HashSet<>();
+    for (final EdgeTupleAppl original : originalEdges) {
+      if (!originalNodes.contains(original.getSrc())
+          && !originalNodes.contains(original.getDst())) {
+        direct.add(original);
+      }
+    }
+    this.directEdges = Collections.unmodifiableSet(direct);
+    final Set<Dependency> bodyEdges = new HashSet<>();
+    originalEdges.forEach(original -> bodyEdges.add(original.getEdge()));
+    this.edges = Collections.unmodifiableSet(bodyEdges);
+  }
+
+  /**
+   * Returns the template attached to the given distribution node, if any.
+   *
+   * @param distributionNode the given distribution node
+   * @return the template attached to the given distribution node, or null if
+   *         the node does not have one
+   */
+  public static LoopBodyTemplate find(final Task distributionNode) {
+    final Object attached = distributionNode.getAttribute(attributeName);
+    if (attached instanceof LoopBodyTemplate
+        && ((LoopBodyTemplate) attached).distributionNode == distributionNode) {
+      return (LoopBodyTemplate) attached;
+    }
+    return null;
+  }
+
+  /**
+   * Attaches the template to its distribution node.
+   */
+  public void attach() {
+    distributionNode.setAttribute(attributeName, this);
+  }
+
+  /**
+   * Returns true if all original edges are part of the given graph (i.e., the
+   * body of the loop is in its original state).
+   *
+   * @param graph the enactment graph
+   * @return true if all original edges are part of the given graph
+   */
+  public boolean isContainedIn(final EnactmentGraph graph) {
+    return originalEdges.stream().allMatch(original -> graph.containsEdge(original.getEdge()));
+  }
+
+  /**
+   * Returns true if the template describes the current body of the loop in the
+   * given graph: All original edges are part of the graph and no other edges
+   * are connected to the body (the out edges of the distribution node and the
+   * in and out edges of the original nodes are exactly the original edges).
+   * Only checks the body, so that it is cheaper than searching the body anew.
+   *
+   * @param graph the enactment graph
+   * @return true if the template describes the current body of the loop
+   */
+  public boolean isBodyOf(final EnactmentGraph graph) {
+    if (!isContainedIn(graph) || !edges.containsAll(graph.getOutEdges(distributionNode))) {
+      return false;
+    }
+    for (final Task original : originalNodes) {
+      if (!edges.containsAll(graph.getInEdges(original))
+          || !edges.containsAll(graph.getOutEdges(original))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the original edges (without their end points).
+   *
+   * @return the original edges
+   */
+  public Set<Dependency> getEdges() {
+    return new HashSet<>(edges);
+  }
+
+  /**
+   * Returns the id of the offspring of the given original node with the given
+   * reproduction index.
+   *
+   * @param original the original node
+   * @param reproductionIdx the reproduction index
+   * @return the id of the offspring
+   */
+  public static String getOffspringId(final Task original, final int reproductionIdx) {
+    return original.getId() + ConstantsEEModel.KeyWordSeparator2 + reproductionIdx;
+  }
+
+  public Task getDistributionNode() {
+    return distributionNode;
+  }
+
+  public String getScope() {
+    return scope;
+  }
+
+  public Set<EdgeTupleAppl> getOriginalEdges() {
+    return originalEdges;
+  }
+
+  public Set<Task> getOriginalNodes() {
+    return originalNodes;
+  }
+
+  public Set<Task> getNestedCollectionNodes() {
+    return nestedCollectionNodes;
+  }
+
+  public Set<EdgeTupleAppl> getDirectEdges() {
+    return directEdges;
+  }
+}
@@ -0,0 +1,163 @@
+package at.uibk.dps.ee.control.graph;
+
+import java.util.Optional;
+import at.uibk.dps.ee.model.properties.PropertyServiceData;
+import at.uibk.dps.ee.model.properties.PropertyServiceData.NodeType;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunction;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunction.UsageType;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlow;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlow.DataFlowType;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections;
+import net.sf.opendse.model.Task;
+
+/**
+ * Typed sidecar caching the static annotations of a node which are read on
+ * each visit of the node during the enactment, so that they are read with a
+ * single attribute lookup. The sidecar is attached to the node as an
+ * attribute; each annotation is read from the property services on its first
+ * access (concurrent first accesses read the same immutable value). The
+ * property services remain the source of truth: Writes have to go through them
+ * and then reattach the sidecar (see {@link #attach(Task)}). The enactable is
+ * not cached, since it is a single lookup anyway and is replaced for the
+ * offspring nodes.
+ *
+ * Since the attributes of offspring nodes (and of graph copies) fall back to
+ * the attributes of their parents, the sidecar keeps a reference to its node
+ * and is only used for that exact node.
+ *
+ * @author Fedor Smirnov
+ */
+public final class NodeProperties {
+
+  private static final String attributeName = "NodeProperties";
+
+  protected final Task node;
+  protected UsageType usageType;
+  protected Optional<DataFlowType> dataFlowType;
+  protected Boolean multiplexer;
+  protected Optional<String> scope;
+  protected NodeType nodeType;
+
+  /**
+   * Private constructor, use {@link #of(Task)} or {@link #attach(Task)}.
+   *
+   * @param node the node whose annotations are cached
+   */
+  private NodeProperties(final Task node) {
+    this.node = node;
+  }
+
+  /**
+   * Returns the sidecar of the given node, creating and attaching it if the
+   * node does not have one yet.
+   *
+   * @param node the given node
+   * @return the sidecar of the given node
+   */
+  public static NodeProperties of(final Task node) {
+    final Object attached = node.getAttribute(attributeName);
+    if (attached instanceof NodeProperties && ((NodeProperties) attached).node == node) {
+      return (NodeProperties) attached;
+    }
+    return attach(node);
+  }
+
+  /**
+   * Attaches a new sidecar to the given node (replacing the previous sidecar,
+   * so that the annotations are read anew).
+   *
+   * @param node the given node
+   * @return the attached sidecar
+   */
+  public static NodeProperties attach(final Task node) {
+    final NodeProperties result = new NodeProperties(node);
+    node.setAttribute(attributeName, result);
+    return result;
+  }
+
+  /**
+   * Returns the usage type of the function node.
+   *
+   * @return the usage type of the function node
+   */
+  public UsageType getUsageType() {
+    UsageType result = usageType;
+    if (result == null) {
+      result = PropertyServiceFunction.getUsageType(node);
+      usageType = result;
+    }
+    return result;
+  }
+
+  /**
+   * Returns the data flow type of the function node (an empty optional for
+   * functions which are not data flow functions).
+   *
+   * @return the data flow type of the function node
+   */
+  public Optional<DataFlowType> getDataFlowType() {
+    Optional<DataFlowType> result = dataFlowType;
+    if (result == null) {
+      result = getUsageType().equals(UsageType.DataFlow)
+          ? Optional.of(PropertyServiceFunctionDataFlow.getDataFlowType(node))
+          : Optional.empty();
+      dataFlowType = result;
+    }
+    return result;
+  }
+
+  /**
+   * Returns true if the function node is a collection operation (distribution
+   * or aggregation), which requires a graph transformation after its enactment.
+   *
+   * @return true if the function node is a collection operation
+   */
+  public boolean isCollectionOperation() {
+    return getDataFlowType().filter(DataFlowType.Collections::equals).isPresent();
+  }
+
+  /**
+   * Returns true if the function node is a multiplexer node.
+   *
+   * @return true if the function node is a multiplexer node
+   */
+  public boolean isMultiplexer() {
+    Boolean result = multiplexer;
+    if (result == null) {
+      result = PropertyServiceFunctionDataFlow.isMultiplexerNode(node);
+      multiplexer = result;
+    }
+    return result;
+  }
+
+  /**
+   * Returns the scope of the collection operation (an empty optional for other
+   * function nodes).
+   *
+   * @return the scope of the collection operation
+   */
+  public Optional<String> getScope() {
+    Optional<String> result = scope;
+    if (result == null) {
+      result = isCollectionOperation()
+          ? Optional.of(PropertyServiceFunctionDataFlowCollections.getScope(node))
+          : Optional.empty();
+      scope = result;
+    }
+    return result;
+  }
+
+  /**
+   * Returns the type of the data node.
+   *
+   * @return the type of the data node
+   */
+  public NodeType getNodeType() {
+    NodeType result = nodeType;
+    if (result == null) {
+      result = PropertyServiceData.getNodeType(node);
+      nodeType = result;
+    }
+    return result;
+  }
+}
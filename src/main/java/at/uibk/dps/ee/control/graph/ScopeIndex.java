@@ -0,0 +1,149 @@
+package at.uibk.dps.ee.control.graph;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections;
+import net.sf.opendse.model.Task;
+
+/**
+ * Index mapping each reproduction scope to its distribution node and its
+ * aggregation nodes. The
+ * index is built with a single sweep over the graph and then maintained by the
+ * graph transforms, so that they do not have to scan all vertices to find the
+ * collection operations of a scope. The index is not thread-safe: It may only
+ * be read and modified within a graph transformation (see
+ * {@link GraphAccess#transformGraph(java.util.function.BiConsumer, Task)}).
+ *
+ * @author Fedor Smirnov
+ */
+public class ScopeIndex {
+
+  /**
+   * The nodes of a single scope.
+   *
+   * @author Fedor Smirnov
+   */
+  protected static class ScopeEntry {
+    protected final Set<Task> distributionNodes = new HashSet<>();
+    protected final Set<Task> aggregationNodes = new HashSet<>();
+
+    /**
+     * Returns true if the entry does not reference any node.
+     *
+     * @return true if the entry does not reference any node
+     */
+    protected boolean isEmpty() {
+      return distributionNodes.isEmpty() && aggregationNodes.isEmpty();
+    }
+  }
+
+  protected final Map<String, ScopeEntry> scopes = new HashMap<>();
+
+  /**
+   * Builds the index for the collection operations of the given graph.
+   *
+   * @param graph the enactment graph
+   * @return the index for the collection operations of the given graph
+   */
+  public static ScopeIndex build(final EnactmentGraph graph) {
+    final ScopeIndex result = new ScopeIndex();
+    graph.getVertices().forEach(result::addCollectionNode);
+    return result;
+  }
+
+  /**
+   * Adds the given node to the index if it is a distribution or an aggregation
+   * node (other nodes are ignored).
+   *
+   * @param node the given node
+   */
+  public void addCollectionNode(final Task node) {
+    if (PropertyServiceFunctionDataFlowCollections.isDistributionNode(node)) {
+      getEntry(PropertyServiceFunctionDataFlowCollections.getScope(node)).distributionNodes
+          .add(node);
+    } else if (PropertyServiceFunctionDataFlowCollections.isAggregationNode(node)) {
+      getEntry(PropertyServiceFunctionDataFlowCollections.getScope(node)).aggregationNodes
+          .add(node);
+    }
+  }
+
+  /**
+   * Removes the given node from the index if it is a distribution or an
+   * aggregation node (other nodes are ignored).
+   *
+   * @param node the given node
+   */
+  public void removeCollectionNode(final Task node) {
+    final boolean distribution =
+        PropertyServiceFunctionDataFlowCollections.isDistributionNode(node);
+    if (!distribution && !PropertyServiceFunctionDataFlowCollections.isAggregationNode(node)) {
+      return;
+    }
+    final String scope = PropertyServiceFunctionDataFlowCollections.getScope(node);
+    final ScopeEntry entry = scopes.get(scope);
+    if (entry == null) {
+      return;
+    }
+    if (distribution) {
+      entry.distributionNodes.remove(node);
+    } else {
+      entry.aggregationNodes.remove(node);
+    }
+    removeIfEmpty(scope, entry);
+  }
+
+  /**
+   * Returns the distribution node of the given scope.
+   *
+   * @param scope the reproduction scope
+   * @return the distribution node of the given scope
+   */
+  public Task getDistributionNode(final String scope) {
+    final ScopeEntry entry = scopes.get(scope);
+    if (entry == null || entry.distributionNodes.isEmpty()) {
+      throw new IllegalArgumentException("No distribution node with the scope " + scope);
+    }
+    if (entry.distributionNodes.size() > 1) {
+      throw new IllegalArgumentException("Multiple distribution nodes with the scope " + scope);
+    }
+    return entry.distributionNodes.iterator().next();
+  }
+
+  /**
+   * Returns the aggregation nodes of the given scope.
+   *
+   * @param scope the reproduction scope
+   * @return the aggregation nodes of the given scope
+   */
+  public Set<Task> getAggregationNodes(final String scope) {
+    final ScopeEntry entry = scopes.get(scope);
+    return entry == null ? Collections.emptySet()
+        : Collections.unmodifiableSet(entry.aggregationNodes);
+  }
+
+  /**
+   * Returns the entry of the given scope, creating it if necessary.
+   *
+   * @param scope the reproduction scope
+   * @return the entry of the given scope
+   */
+  protected ScopeEntry getEntry(final String scope) {
+    return scopes.computeIfAbsent(scope, key -> new ScopeEntry());
+  }
+
+  /**
+   * Removes the entry of the given scope if it does not reference any node.
+   *
+   * @param scope the reproduction scope
+   * @param entry the entry of the scope
+   */
+  protected void removeIfEmpty(final String scope, final ScopeEntry entry) {
+    if (entry.isEmpty()) {
+      scopes.remove(scope);
+    }
+  }
+}
@@ -2,11 +2,13 @@ package at.uibk.dps.ee.control.management;
 
 import com.google.gson.JsonObject;
 import com.google.inject.ImplementedBy;
+import net.sf.opendse.model.Task;
 
 /**
  * The {@link DataHandler} is responsible for the annotation of the input data
  * to the graph and for the extraction of the enactment result from the leaf
- * nodes.
+ * nodes (including the publication of the entries of the result as soon as
+ * they are available).
  * 
  * @author Fedor Smirnov
  *
@@ -27,4 +29,12 @@ public interface DataHandler {
    * @return The {@link JsonObject} with the WF result
    */
   JsonObject extractResult();
+
+  /**
+   * Publishes the content of the given leaf node to the consumers of the partial
+   * results. Called as soon as the leaf node is available.
+   * 
+   * @param leafNode the available leaf node
+   */
+  void publishResult(Task leafNode);
 }
@@ -5,6 +5,7 @@ import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.inject.Inject;
 import at.uibk.dps.ee.control.graph.GraphAccess;
+import at.uibk.dps.ee.control.graph.InstanceState;
 import at.uibk.dps.ee.model.properties.PropertyServiceData;
 import net.sf.opendse.model.Task;
 
@@ -18,6 +19,9 @@ public class DataHandlerDefault implements DataHandler {
 
   protected final GraphAccess graphAccess;
   protected final EnactmentQueues enactmentState;
+  protected final InstanceState instanceState;
+  protected final PartialResultPublisher publisher;
+  protected volatile long instanceId;
 
   /**
    * Injection constructor.
@@ -25,15 +29,21 @@ public class DataHandlerDefault implements DataHandler {
    * @param graphAccess the access to the enactment graph
    * @param enactmentState the state of the enactment (to put the data into
    *        queues)
+   * @param instanceState the state of the enacted instance
+   * @param publisher the publisher of the partial results
    */
   @Inject
-  public DataHandlerDefault(final GraphAccess graphAccess, final EnactmentQueues enactmentState) {
+  public DataHandlerDefault(final GraphAccess graphAccess, final EnactmentQueues enactmentState,
+      final InstanceState instanceState, final PartialResultPublisher publisher) {
     this.graphAccess = graphAccess;
     this.enactmentState = enactmentState;
+    this.instanceState = instanceState;
+    this.publisher = publisher;
   }
 
   @Override
   public void annotateAvailableData(final JsonObject input) {
+    this.instanceId = publisher.startInstance(input);
     // get the input, annotate the root nodes, and add them to the
     // availableDataQueue
     graphAccess.getRootDataNodes().forEach(rootNode -> processRootNode(rootNode, input));
@@ -53,7 +63,7 @@ public class DataHandlerDefault implements DataHandler {
     final JsonElement content =
         Optional.ofNullable(jsonInput.get(jsonKey)).orElseThrow(() -> new IllegalArgumentException(
             "No entry with the key " + jsonKey + " in the WF input."));
-    PropertyServiceData.setContent(rootNode, content);
+    instanceState.setContent(rootNode, content);
     enactmentState.putAvailableData(rootNode);
   }
 
@@ -71,6 +81,14 @@ public class DataHandlerDefault implements DataHandler {
    */
   protected void processLeafNode(final Task leafNode, final JsonObject result) {
     final String jsonKey = PropertyServiceData.getJsonKey(leafNode);
-    result.add(jsonKey, PropertyServiceData.getContent(leafNode));
+    result.add(jsonKey, instanceState.getContent(leafNode));
+  }
+
+  @Override
+  public void publishResult(final Task leafNode) {
+    if (publisher.hasConsumers()) {
+      publisher.publish(instanceId, PropertyServiceData.getJsonKey(leafNode),
+          instanceState.getContent(leafNode));
+    }
   }
 }
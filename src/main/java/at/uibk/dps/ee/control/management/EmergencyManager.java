@@ -30,5 +30,5 @@ public interface EmergencyManager extends AgentTaskListener {
    * 
    * @param mainAgent the main agent
    */
-  void registerMain(EnactmentAgent mainAgent);
+  void registerMain(MainAgent mainAgent);
 }
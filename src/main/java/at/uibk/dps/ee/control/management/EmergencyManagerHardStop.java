@@ -17,10 +17,10 @@ public class EmergencyManagerHardStop implements EmergencyManager {
   protected boolean emergencyState;
   protected Optional<Exception> exc = Optional.empty();
   protected String additionalInformation;
-  protected Optional<EnactmentAgent> mainAgent = Optional.empty();
+  protected Optional<MainAgent> mainAgent = Optional.empty();
 
   @Override
-  public void registerMain(final EnactmentAgent mainAgent) {
+  public void registerMain(final MainAgent mainAgent) {
     this.mainAgent = Optional.of(mainAgent);
   }
 
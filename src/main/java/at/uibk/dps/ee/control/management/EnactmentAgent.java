@@ -13,10 +13,11 @@ import at.uibk.dps.ee.control.agents.AgentActivationTransmission;
 import at.uibk.dps.ee.control.agents.AgentFactoryActivation;
 import at.uibk.dps.ee.control.agents.PoisonPill;
 import at.uibk.dps.ee.control.command.Control;
+import at.uibk.dps.ee.control.management.ExecutorProvider.Stage;
 import at.uibk.dps.ee.core.ControlStateListener;
 import at.uibk.dps.ee.core.EnactmentState;
-import at.uibk.dps.ee.core.enactable.EnactmentFunction;
 import at.uibk.dps.ee.core.exception.StopException;
+import net.sf.opendse.model.Task;
 
 /**
  * The {@link EnactmentAgent} is the main-thread agent for the enactment of the
@@ -25,7 +26,7 @@ import at.uibk.dps.ee.core.exception.StopException;
  * 
  * @author Fedor Smirnov
  */
-public class EnactmentAgent implements EnactmentFunction, ControlStateListener {
+public class EnactmentAgent implements MainAgent, ControlStateListener {
 
   protected final AgentActivationEnactment activationEnactment;
   protected final AgentActivationExtraction activationExtraction;
@@ -39,6 +40,7 @@ public class EnactmentAgent implements EnactmentFunction, ControlStateListener {
   protected final ExecutorService executor;
 
   protected boolean enactmentStopped;
+  protected boolean wokenUp;
 
   /**
    * The injection constructor.
@@ -68,7 +70,7 @@ public class EnactmentAgent implements EnactmentFunction, ControlStateListener {
     activationTransform.addAgentTaskListener(emergencyManager);
     this.enactmentState = enactmentState;
     this.dataHandler = dataHandler;
-    this.executor = executorProvider.getExecutorService();
+    this.executor = executorProvider.getExecutorService(Stage.Activation);
     control.addListener(this);
     control.addListener(activationEnactment);
     control.addListener(activationExtraction);
@@ -86,10 +88,14 @@ public class EnactmentAgent implements EnactmentFunction, ControlStateListener {
     executor.submit(activationTransmission);
     executor.submit(activationScheduling);
     executor.submit(activationTransform);
-    // go to sleep
+    // go to sleep (unless the wake up call already happened)
     synchronized (this) {
       try {
-        wait();
+        while (!wokenUp) {
+          wait();
+        }
+        // consumed, so that the next input waits for its own wake up call
+        wokenUp = false;
       } catch (InterruptedException e) {
         throw new IllegalArgumentException("Root enactable interrupted.", e);
       }
@@ -112,10 +118,18 @@ public class EnactmentAgent implements EnactmentFunction, ControlStateListener {
 
 
   /**
-   * Called to wake up the main agent.
+   * Publishes the content of the given leaf node, which just became available.
+   * 
+   * @param leafNode the available leaf node
    */
+  public void publishResult(final Task leafNode) {
+    dataHandler.publishResult(leafNode);
+  }
+
+  @Override
   public void wakeUp() {
     synchronized (this) {
+      wokenUp = true;
       notifyAll();
     }
   }
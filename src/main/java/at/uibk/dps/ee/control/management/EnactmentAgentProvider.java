@@ -23,13 +23,13 @@ public class EnactmentAgentProvider implements EnactableProvider {
   /**
    * The injection constructor.
    * 
-   * @param enactmentAgents the main agent starting and ending the enactment
+   * @param mainAgent the main agent starting and ending the enactment
    * @param listeners the {@link EnactableStateListener}s.
    */
   @Inject
-  public EnactmentAgentProvider(final EnactmentAgent enactmentAgents,
+  public EnactmentAgentProvider(final MainAgent mainAgent,
       final Set<EnactableStateListener> listeners) {
-    this.rootEnactableAgents = new EnactableRoot(listeners, enactmentAgents);
+    this.rootEnactableAgents = new EnactableRoot(listeners, mainAgent);
   }
 
   @Override
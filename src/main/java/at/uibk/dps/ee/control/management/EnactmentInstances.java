@@ -0,0 +1,243 @@
+package at.uibk.dps.ee.control.management;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import com.google.gson.JsonObject;
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.google.inject.Singleton;
+import at.uibk.dps.ee.control.agents.AgentFactoryEnactment;
+import at.uibk.dps.ee.control.agents.AgentFactoryExtraction;
+import at.uibk.dps.ee.control.agents.AgentFactoryPlan;
+import at.uibk.dps.ee.control.agents.AgentFactoryScheduling;
+import at.uibk.dps.ee.control.agents.AgentFactoryTransform;
+import at.uibk.dps.ee.control.agents.AgentFactoryTransmission;
+import at.uibk.dps.ee.control.command.Control;
+import at.uibk.dps.ee.control.enactment.EnactmentCoalescer;
+import at.uibk.dps.ee.control.enactment.ResultCache;
+import at.uibk.dps.ee.control.graph.ExecutionPlan;
+import at.uibk.dps.ee.control.graph.GraphAccess;
+import at.uibk.dps.ee.control.graph.GraphAccessConcurrent;
+import at.uibk.dps.ee.control.graph.GraphProviderEnactables;
+import at.uibk.dps.ee.control.graph.InstanceStateGraph;
+import at.uibk.dps.ee.control.graph.InstanceStatePlan;
+import at.uibk.dps.ee.control.graph.NodeProperties;
+import at.uibk.dps.ee.control.transmission.ReadinessTracker;
+import at.uibk.dps.ee.core.ControlStateListener;
+import at.uibk.dps.ee.core.EnactmentState;
+import at.uibk.dps.ee.core.exception.StopException;
+import at.uibk.dps.ee.enactables.wrapper.FactoryInterface;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunction;
+import at.uibk.dps.sc.core.ScheduleModel;
+import at.uibk.dps.sc.core.interpreter.ScheduleInterpreter;
+import at.uibk.dps.sc.core.scheduler.Scheduler;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.model.properties.TaskPropertyService;
+
+/**
+ * The {@link EnactmentInstances} enables the concurrent enactment of multiple
+ * workflow instances (i.e., concurrent calls of
+ * {@link #processInput(JsonObject)}) on the same enactment graph. Each instance
+ * is enacted by its own {@link EnactmentReactorPlan} (run by the calling
+ * thread) with its own queues and its own {@link InstanceStatePlan}: The
+ * instance walks the int arrays of the {@link ExecutionPlan} compiled from the
+ * shared graph, so that the graph is neither written nor locked by the
+ * transmissions and extractions.
+ * 
+ * Workflows with data-flow collections change the structure of the graph
+ * during the enactment. Each of their instances is enacted on its own copy of
+ * the graph (with its own enactables and its own graph access), where the
+ * state is annotated and the transformations are applied, so that these
+ * instances are enacted concurrently as well. The copy costs O(V+E) per
+ * instance.
+ * 
+ * @author Fedor Smirnov
+ */
+@Singleton
+public class EnactmentInstances implements MainAgent, ControlStateListener {
+
+  protected final GraphAccess graphAccess;
+  protected final ExecutorProvider executorProvider;
+  protected final FactoryInterface enactableFactory;
+  protected final Provider<ScheduleModel> scheduleProvider;
+  protected final ScheduleInterpreter scheduleInterpreter;
+  protected final Scheduler scheduler;
+  protected final Provider<EmergencyManager> emergencyManagerProvider;
+  protected final InstanceStateGraph graphState;
+  protected final AgentFactoryTransform transformFactory;
+  protected final ResultCache resultCache;
+  protected final EnactmentCoalescer coalescer;
+  protected final PartialResultPublisher resultPublisher;
+
+  protected final boolean transformsGraph;
+  protected final Set<EnactmentReactor> runningInstances = ConcurrentHashMap.newKeySet();
+  protected volatile boolean paused;
+
+  /**
+   * The injection constructor.
+   * 
+   * @param graphProvider the provider of the (shared) enactment graph
+   * @param graphAccess the access to the enactment graph
+   * @param executorProvider the provider for the executor of the enactments
+   * @param enactableFactory the factory for the enactables of the instances
+   * @param scheduleProvider the provider for the schedule of an instance
+   * @param scheduleInterpreter the interpreter of the schedule
+   * @param scheduler the scheduler
+   * @param emergencyManagerProvider the provider for the emergency manager of an
+   *        instance
+   * @param graphState the state annotated on the graph copies
+   * @param transformFactory the factory for the transform agents (the
+   *        configuration of the transform agents of the instances)
+   * @param resultCache the cache for the function results (shared by the
+   *        instances)
+   * @param coalescer the coalescer of identical concurrent enactments (shared
+   *        by the instances)
+   * @param resultPublisher the publisher of the partial results of the
+   *        instances
+   * @param control the control of the enactment state
+   */
+  @Inject
+  public EnactmentInstances(final GraphProviderEnactables graphProvider,
+      final GraphAccess graphAccess, final ExecutorProvider executorProvider,
+      final FactoryInterface enactableFactory, final Provider<ScheduleModel> scheduleProvider,
+      final ScheduleInterpreter scheduleInterpreter, final Scheduler scheduler,
+      final Provider<EmergencyManager> emergencyManagerProvider,
+      final InstanceStateGraph graphState,
+      final AgentFactoryTransform transformFactory, final ResultCache resultCache,
+      final EnactmentCoalescer coalescer, final PartialResultPublisher resultPublisher,
+      final Control control) {
+    this.graphAccess = graphAccess;
+    this.executorProvider = executorProvider;
+    this.enactableFactory = enactableFactory;
+    this.scheduleProvider = scheduleProvider;
+    this.scheduleInterpreter = scheduleInterpreter;
+    this.scheduler = scheduler;
+    this.emergencyManagerProvider = emergencyManagerProvider;
+    this.graphState = graphState;
+    this.transformFactory = transformFactory;
+    this.resultCache = resultCache;
+    this.coalescer = coalescer;
+    this.resultPublisher = resultPublisher;
+    this.transformsGraph = graphProvider.getEnactmentGraph().getVertices().stream()
+        .filter(task -> TaskPropertyService.isProcess(task))
+        .anyMatch(task -> NodeProperties.of(task).isCollectionOperation());
+    control.addListener(this);
+  }
+
+  @Override
+  public JsonObject processInput(final JsonObject input) throws StopException {
+    if (transformsGraph) {
+      // the structure is transformed, so the instance gets its own graph
+      final GraphAccess instanceGraphAccess = new GraphAccessConcurrent(createInstanceGraph());
+      return enactInstance(createReactor(new EnactmentQueues(), instanceGraphAccess), input);
+    } else {
+      // the structure is not transformed, so the state can be indexed by the plan
+      return enactInstance(createPlanReactor(new EnactmentQueues(),
+          new InstanceStatePlan(graphAccess.getExecutionPlan(), enactableFactory)), input);
+    }
+  }
+
+  /**
+   * Enacts one instance with the given reactor.
+   * 
+   * @param reactor the reactor of the instance
+   * @param input the input of the instance
+   * @return the output of the instance
+   * @throws StopException if the enactment is stopped
+   */
+  protected JsonObject enactInstance(final EnactmentReactor reactor, final JsonObject input)
+      throws StopException {
+    runningInstances.add(reactor);
+    try {
+      if (paused) {
+        reactor.reactToStateChange(EnactmentState.RUNNING, EnactmentState.PAUSED);
+      }
+      return reactor.processInput(input);
+    } finally {
+      runningInstances.remove(reactor);
+    }
+  }
+
+  /**
+   * Creates the graph of an instance of a workflow with data-flow collections:
+   * a copy of the shared graph with fresh enactables and without any state of
+   * previous instances. The copied elements are detached from the shared graph
+   * (their attributes do not fall back to those of the originals, and they are
+   * not mistaken for offspring nodes).
+   * 
+   * @return the graph of an instance
+   */
+  protected EnactmentGraph createInstanceGraph() {
+    final EnactmentGraph result = graphAccess.getGraphCopy();
+    result.getEdges().forEach(edge -> edge.setParent(null));
+    for (final Task node : result.getVertices()) {
+      node.setParent(null);
+      if (TaskPropertyService.isProcess(node)) {
+        PropertyServiceFunction.setEnactable(node, enactableFactory.createEnactable(node));
+      }
+    }
+    graphState.reset(result);
+    return result;
+  }
+
+  /**
+   * Creates the reactor for an instance enacted on its own graph, with the
+   * given queues.
+   * 
+   * @param queues the queues of the instance
+   * @param instanceGraphAccess the access to the graph of the instance
+   * @return the reactor for an instance enacted on its own graph
+   */
+  protected EnactmentReactor createReactor(final EnactmentQueues queues,
+      final GraphAccess instanceGraphAccess) {
+    final AgentFactoryTransmission transmissionFactory =
+        new AgentFactoryTransmission(queues, instanceGraphAccess,
+            new ReadinessTracker(graphState, instanceGraphAccess), graphState);
+    final AgentFactoryScheduling schedulingFactory =
+        new AgentFactoryScheduling(scheduleProvider.get(), scheduleInterpreter, scheduler, queues,
+            graphState, resultCache, instanceGraphAccess);
+    return new EnactmentReactor(queues, instanceGraphAccess, executorProvider,
+        new AgentFactoryEnactment(queues, graphState, resultCache, instanceGraphAccess,
+            coalescer, executorProvider),
+        new AgentFactoryExtraction(queues, graphState), transmissionFactory, schedulingFactory,
+        transformFactory.forInstance(instanceGraphAccess, queues),
+        new DataHandlerDefault(instanceGraphAccess, queues, graphState, resultPublisher),
+        emergencyManagerProvider.get());
+  }
+
+  /**
+   * Creates the reactor for an instance walking the execution plan of the
+   * graph, with the given queues and state.
+   * 
+   * @param queues the queues of the instance
+   * @param instanceState the state of the instance (indexed by the plan)
+   * @return the reactor for an instance walking the execution plan
+   */
+  protected EnactmentReactorPlan createPlanReactor(final EnactmentQueues queues,
+      final InstanceStatePlan instanceState) {
+    final AgentFactoryScheduling schedulingFactory =
+        new AgentFactoryScheduling(scheduleProvider.get(), scheduleInterpreter, scheduler, queues,
+            instanceState, resultCache, graphAccess);
+    return new EnactmentReactorPlan(queues, graphAccess, executorProvider,
+        new AgentFactoryEnactment(queues, instanceState, resultCache, graphAccess, coalescer,
+            executorProvider),
+        new AgentFactoryPlan(queues, instanceState), schedulingFactory, transformFactory,
+        new DataHandlerDefault(graphAccess, queues, instanceState, resultPublisher),
+        emergencyManagerProvider.get());
+  }
+
+  @Override
+  public void wakeUp() {
+    runningInstances.forEach(EnactmentReactor::wakeUp);
+  }
+
+  @Override
+  public void reactToStateChange(final EnactmentState previousState,
+      final EnactmentState currentState) throws StopException {
+    paused = currentState.equals(EnactmentState.PAUSED);
+    for (final EnactmentReactor reactor : runningInstances) {
+      reactor.reactToStateChange(previousState, currentState);
+    }
+  }
+}
@@ -1,10 +1,17 @@
 package at.uibk.dps.ee.control.management;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
 
+import org.opt4j.core.start.Constant;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 
+import at.uibk.dps.ee.control.agents.PoisonPill;
 import net.sf.opendse.model.Task;
 
 /**
@@ -17,22 +24,53 @@ import net.sf.opendse.model.Task;
 @Singleton
 public class EnactmentQueues {
 
-  protected final LinkedBlockingQueue<Task> launchableTasks;
-  protected final LinkedBlockingQueue<Task> schedulableTasks;
-  protected final LinkedBlockingQueue<Task> finishedTasks;
-  protected final LinkedBlockingQueue<Task> availableData;
-  protected final LinkedBlockingQueue<Task> awaitingTransform;
+  protected final BlockingQueue<Task> launchableTasks;
+  protected final BlockingQueue<Task> schedulableTasks;
+  protected final BlockingQueue<Task> finishedTasks;
+  protected final BlockingQueue<Task> availableData;
+  protected final BlockingQueue<Task> awaitingTransform;
+
+  protected final int batchSize;
+
+  protected volatile Thread waitingPoller;
+
+  /**
+   * Constructs queues where the batch operations take single elements.
+   */
+  public EnactmentQueues() {
+    this(1);
+  }
 
   /**
    * The injection constructor
+   * 
+   * @param batchSize the maximal number of elements taken from a queue by one
+   *        batch operation
    */
   @Inject
-  public EnactmentQueues() {
-    this.launchableTasks = new LinkedBlockingQueue<>();
-    this.finishedTasks = new LinkedBlockingQueue<>();
-    this.availableData = new LinkedBlockingQueue<>();
-    this.schedulableTasks = new LinkedBlockingQueue<>();
-    this.awaitingTransform = new LinkedBlockingQueue<>();
+  public EnactmentQueues(
+      @Constant(namespace = EnactmentQueues.class, value = "batchSize") final int batchSize) {
+    this(batchSize, LinkedBlockingQueue::new);
+  }
+
+  /**
+   * Constructs the queues with the provided queue implementation.
+   * 
+   * @param batchSize the maximal number of elements taken from a queue by one
+   *        batch operation
+   * @param queueFactory supplier for the (unbounded) queues
+   */
+  protected EnactmentQueues(final int batchSize,
+      final Supplier<BlockingQueue<Task>> queueFactory) {
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("The batch size must be positive.");
+    }
+    this.batchSize = batchSize;
+    this.launchableTasks = queueFactory.get();
+    this.finishedTasks = queueFactory.get();
+    this.availableData = queueFactory.get();
+    this.schedulableTasks = queueFactory.get();
+    this.awaitingTransform = queueFactory.get();
   }
 
   /**
@@ -46,6 +84,17 @@ public class EnactmentQueues {
     return takeFromQueue(awaitingTransform);
   }
 
+  /**
+   * Returns a batch of function tasks which require a graph transformation.
+   * Blocks if the queue of transform tasks is empty.
+   * 
+   * @return a non-empty list of tasks requiring a graph transformation
+   * @throws InterruptedException
+   */
+  public List<Task> takeTransformTaskBatch() throws InterruptedException {
+    return takeBatchFromQueue(awaitingTransform);
+  }
+
   /**
    * Puts a function node into the queue of tasks which require a graph
    * transformation.
@@ -67,6 +116,17 @@ public class EnactmentQueues {
     return takeFromQueue(schedulableTasks);
   }
 
+  /**
+   * Returns a batch of function tasks which can be scheduled. Blocks if the queue
+   * of schedulable tasks is empty.
+   * 
+   * @return a non-empty list of schedulable tasks
+   * @throws InterruptedException
+   */
+  public List<Task> takeSchedulableTaskBatch() throws InterruptedException {
+    return takeBatchFromQueue(schedulableTasks);
+  }
+
   /**
    * Puts a function node into the queue of tasks which can be launched.
    * 
@@ -87,6 +147,17 @@ public class EnactmentQueues {
     return takeFromQueue(availableData);
   }
 
+  /**
+   * Returns a batch of data nodes with available data. Blocks until data is
+   * available.
+   * 
+   * @return a non-empty list of data nodes with content
+   * @throws InterruptedException
+   */
+  public List<Task> takeAvailableDataBatch() throws InterruptedException {
+    return takeBatchFromQueue(availableData);
+  }
+
   /**
    * Puts a data node into the queue with the available data.
    * 
@@ -106,6 +177,17 @@ public class EnactmentQueues {
     return takeFromQueue(finishedTasks);
   }
 
+  /**
+   * Returns a batch of task nodes which finished their execution. Blocks if the
+   * queue of finished tasks is empty.
+   * 
+   * @return a non-empty list of finished tasks
+   * @throws InterruptedException
+   */
+  public List<Task> takeFinishedTaskBatch() throws InterruptedException {
+    return takeBatchFromQueue(finishedTasks);
+  }
+
   /**
    * Adds a finished task to the queue (Blocking should never happen here since we
    * do not have a queue capacity limit).
@@ -127,6 +209,17 @@ public class EnactmentQueues {
     return takeFromQueue(launchableTasks);
   }
 
+  /**
+   * Returns a batch of task nodes which are ready for execution. Blocks if the
+   * queue of launchable tasks is empty.
+   * 
+   * @return a non-empty list of launchable tasks
+   * @throws InterruptedException
+   */
+  public List<Task> takeLaunchableTaskBatch() throws InterruptedException {
+    return takeBatchFromQueue(launchableTasks);
+  }
+
   /**
    * Adds a ready task to the queue (Blocking should never happen here since we do
    * not have a queue capacity limit).
@@ -137,6 +230,90 @@ public class EnactmentQueues {
     putInQueue(launchableTasks, readyTask);
   }
 
+  /**
+   * Returns a task which requires a graph transformation or null if there is no
+   * such task.
+   * 
+   * @return a task requiring a graph transformation or null
+   */
+  public Task pollTransformTask() {
+    return awaitingTransform.poll();
+  }
+
+  /**
+   * Returns a task which is ready to be scheduled or null if there is no such
+   * task.
+   * 
+   * @return a schedulable task or null
+   */
+  public Task pollSchedulableTask() {
+    return schedulableTasks.poll();
+  }
+
+  /**
+   * Returns a data node with available content or null if there is no such
+   * node.
+   * 
+   * @return a data node with available content or null
+   */
+  public Task pollAvailableData() {
+    return availableData.poll();
+  }
+
+  /**
+   * Returns a finished task or null if there is no finished task.
+   * 
+   * @return a finished task or null
+   */
+  public Task pollFinishedTask() {
+    return finishedTasks.poll();
+  }
+
+  /**
+   * Returns a task which is ready to be launched or null if there is no such
+   * task.
+   * 
+   * @return a launchable task or null
+   */
+  public Task pollLaunchableTask() {
+    return launchableTasks.poll();
+  }
+
+  /**
+   * Parks the calling thread until an element is put into one of the queues.
+   * Returns immediately if any queue is non-empty. May return spuriously, so
+   * callers have to re-check their condition. Only one thread at a time may wait
+   * with this method.
+   */
+  public void awaitElement() {
+    waitingPoller = Thread.currentThread();
+    // check after announcing the wait (a put may have missed the announcement)
+    if (isEmpty()) {
+      LockSupport.park(this);
+    }
+    waitingPoller = null;
+  }
+
+  /**
+   * Wakes up the thread waiting in {@link #awaitElement()} (if any).
+   */
+  protected void wakeUpPoller() {
+    final Thread poller = waitingPoller;
+    if (poller != null) {
+      LockSupport.unpark(poller);
+    }
+  }
+
+  /**
+   * Returns true if all queues are empty.
+   * 
+   * @return true if all queues are empty
+   */
+  protected boolean isEmpty() {
+    return launchableTasks.isEmpty() && schedulableTasks.isEmpty() && availableData.isEmpty()
+        && finishedTasks.isEmpty() && awaitingTransform.isEmpty();
+  }
+
   /**
    * Returns an element from the blocking queue. Can cause consumers to wait until
    * content is available.
@@ -146,10 +323,39 @@ public class EnactmentQueues {
    * @return an element from the blocking queue
    * @throws InterruptedException
    */
-  protected Task takeFromQueue(final LinkedBlockingQueue<Task> queue) throws InterruptedException {
+  protected Task takeFromQueue(final BlockingQueue<Task> queue) throws InterruptedException {
     return queue.take();
   }
 
+  /**
+   * Returns up to batchSize elements from the given queue. Waits until the first
+   * element is available and then takes the elements which are already in the
+   * queue, so that a burst of elements is handled with a single wake-up. The
+   * batch ends with a {@link PoisonPill}: The elements behind it are left in the
+   * queue.
+   * 
+   * @param queue the blocking queue
+   * @return a non-empty list of elements from the queue
+   * @throws InterruptedException
+   */
+  protected List<Task> takeBatchFromQueue(final BlockingQueue<Task> queue)
+      throws InterruptedException {
+    final Task first = queue.take();
+    if (batchSize == 1 || first instanceof PoisonPill) {
+      return List.of(first);
+    }
+    final List<Task> result = new ArrayList<>();
+    result.add(first);
+    Task next;
+    while (result.size() < batchSize && (next = queue.poll()) != null) {
+      result.add(next);
+      if (next instanceof PoisonPill) {
+        break;
+      }
+    }
+    return result;
+  }
+
   /**
    * Puts an element into one of the blocking queues. Since none of them have a
    * capacity limit, blocking should never happen.
@@ -158,11 +364,12 @@ public class EnactmentQueues {
    * @param queue the queue to put the element in
    * @param element the element to put into the queue
    */
-  protected void putInQueue(final LinkedBlockingQueue<Task> queue, final Task element) {
+  protected void putInQueue(final BlockingQueue<Task> queue, final Task element) {
     try {
       queue.put(element);
     } catch (InterruptedException e) {
       throw new IllegalStateException("Interrupted exception when putting task in queue.", e);
     }
+    wakeUpPoller();
   }
 }
@@ -0,0 +1,29 @@
+package at.uibk.dps.ee.control.management;
+
+import org.opt4j.core.start.Constant;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+/**
+ * {@link EnactmentQueues} backed by lock-free {@link MpscBlockingQueue}s. Each
+ * queue is consumed by a single activation agent while the tasks are put into
+ * it by arbitrary agents, so that producers never contend on a lock and the
+ * waiting consumer is woken up by a single unpark.
+ * 
+ * @author Fedor Smirnov
+ */
+@Singleton
+public class EnactmentQueuesMpsc extends EnactmentQueues {
+
+  /**
+   * The injection constructor
+   * 
+   * @param batchSize the maximal number of elements taken from a queue by one
+   *        batch operation
+   */
+  @Inject
+  public EnactmentQueuesMpsc(
+      @Constant(namespace = EnactmentQueues.class, value = "batchSize") final int batchSize) {
+    super(batchSize, MpscBlockingQueue::new);
+  }
+}
@@ -0,0 +1,273 @@
+package at.uibk.dps.ee.control.management;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import com.google.gson.JsonObject;
+import com.google.inject.Inject;
+import at.uibk.dps.ee.control.agents.AgentFactoryEnactment;
+import at.uibk.dps.ee.control.agents.AgentFactoryExtraction;
+import at.uibk.dps.ee.control.agents.AgentFactoryScheduling;
+import at.uibk.dps.ee.control.agents.AgentFactoryTransform;
+import at.uibk.dps.ee.control.agents.AgentFactoryTransmission;
+import at.uibk.dps.ee.control.agents.AgentTaskListener;
+import at.uibk.dps.ee.control.agents.PoisonPill;
+import at.uibk.dps.ee.control.command.Control;
+import at.uibk.dps.ee.control.graph.GraphAccess;
+import at.uibk.dps.ee.control.management.ExecutorProvider.Stage;
+import at.uibk.dps.ee.core.ControlStateListener;
+import at.uibk.dps.ee.core.EnactmentState;
+import at.uibk.dps.ee.core.exception.StopException;
+import net.sf.opendse.model.Task;
+
+/**
+ * The {@link EnactmentReactor} is an alternative to the {@link EnactmentAgent}
+ * which does not start any activation agents. Instead, the thread calling
+ * {@link #processInput(JsonObject)} runs a single event loop over the enactment
+ * queues: The extraction, transmission, scheduling, and transform agents are
+ * run directly within the loop, so that the successor of a finished function
+ * is launched without any thread hand-offs. Only the (potentially blocking)
+ * enactments are submitted to the executor.
+ * 
+ * The loop always processes the most advanced stage first (launchable tasks,
+ * then schedulable tasks, available data, finished tasks, and transform
+ * requests), so that chains of functions are pushed through the pipeline
+ * before new work is started.
+ * 
+ * @author Fedor Smirnov
+ */
+public class EnactmentReactor implements MainAgent, ControlStateListener {
+
+  protected final EnactmentQueues enactmentState;
+  protected final GraphAccess graphAccess;
+  protected final ExecutorService enactmentExecutor;
+  protected final AgentFactoryEnactment enactmentFactory;
+  protected final AgentFactoryExtraction extractionFactory;
+  protected final AgentFactoryTransmission transmissionFactory;
+  protected final AgentFactoryScheduling schedulingFactory;
+  protected final AgentFactoryTransform transformFactory;
+  protected final DataHandler dataHandler;
+  protected final EmergencyManager emergencyManager;
+  protected final Set<AgentTaskListener> listeners = new HashSet<>();
+
+  protected final Set<Task> leafNodes;
+  protected final Set<Task> availableWfResults = new HashSet<>();
+
+  protected volatile boolean wokenUp;
+  protected boolean enactmentStopped;
+  protected volatile boolean paused;
+
+  /**
+   * The injection constructor.
+   * 
+   * @param enactmentState the state of the enactment
+   * @param graphAccess the access to the enactment graph
+   * @param executorProvider the provider for the executor of the enactments
+   * @param enactmentFactory the factory for the enactment agents
+   * @param extractionFactory the factory for the extraction agents
+   * @param transmissionFactory the factory for the transmission agents
+   * @param schedulingFactory the factory for the scheduling agents
+   * @param transformFactory the factory for the transform agents
+   * @param dataHandler the object handling the wf input and output
+   * @param emergencyManager the object handling run-time problems
+   * @param control the control of the enactment state
+   */
+  @Inject
+  public EnactmentReactor(final EnactmentQueues enactmentState, final GraphAccess graphAccess,
+      final ExecutorProvider executorProvider, final AgentFactoryEnactment enactmentFactory,
+      final AgentFactoryExtraction extractionFactory,
+      final AgentFactoryTransmission transmissionFactory,
+      final AgentFactoryScheduling schedulingFactory,
+      final AgentFactoryTransform transformFactory, final DataHandler dataHandler,
+      final EmergencyManager emergencyManager, final Control control) {
+    this(enactmentState, graphAccess, executorProvider, enactmentFactory, extractionFactory,
+        transmissionFactory, schedulingFactory, transformFactory, dataHandler,
+        emergencyManager);
+    control.addListener(this);
+  }
+
+  /**
+   * Constructs a reactor which is not registered with the control (the state
+   * changes are forwarded by its creator).
+   * 
+   * @param enactmentState the state of the enactment
+   * @param graphAccess the access to the enactment graph
+   * @param executorProvider the provider for the executor of the enactments
+   * @param enactmentFactory the factory for the enactment agents
+   * @param extractionFactory the factory for the extraction agents
+   * @param transmissionFactory the factory for the transmission agents
+   * @param schedulingFactory the factory for the scheduling agents
+   * @param transformFactory the factory for the transform agents
+   * @param dataHandler the object handling the wf input and output
+   * @param emergencyManager the object handling run-time problems
+   */
+  public EnactmentReactor(final EnactmentQueues enactmentState, final GraphAccess graphAccess,
+      final ExecutorProvider executorProvider, final AgentFactoryEnactment enactmentFactory,
+      final AgentFactoryExtraction extractionFactory,
+      final AgentFactoryTransmission transmissionFactory,
+      final AgentFactoryScheduling schedulingFactory,
+      final AgentFactoryTransform transformFactory, final DataHandler dataHandler,
+      final EmergencyManager emergencyManager) {
+    this.enactmentState = enactmentState;
+    this.graphAccess = graphAccess;
+    this.enactmentExecutor = executorProvider.getExecutorService(Stage.Enactment);
+    this.enactmentFactory = enactmentFactory;
+    this.extractionFactory = extractionFactory;
+    this.transmissionFactory = transmissionFactory;
+    this.schedulingFactory = schedulingFactory;
+    this.transformFactory = transformFactory;
+    this.dataHandler = dataHandler;
+    this.emergencyManager = emergencyManager;
+    this.emergencyManager.registerMain(this);
+    this.listeners.add(emergencyManager);
+    this.leafNodes = graphAccess.getLeafDataNodes();
+  }
+
+  @Override
+  public JsonObject processInput(final JsonObject input) throws StopException {
+    dataHandler.annotateAvailableData(input);
+    while (!wokenUp) {
+      if (paused) {
+        awaitResume();
+      } else if (!processNextEvent()) {
+        enactmentState.awaitElement();
+      }
+    }
+    // consumed, so that the next input is processed until its own wake up call
+    wokenUp = false;
+    availableWfResults.clear();
+    // either execute the emergency protocol or return the wf result
+    if (emergencyManager.isEmergency()) {
+      emergencyManager.emergencyProtocol();
+      throw new IllegalStateException("This should be dead code.");
+    } else {
+      if (enactmentStopped) {
+        throw new StopException("Enactment stopped by user.");
+      } else {
+        return dataHandler.extractResult();
+      }
+    }
+  }
+
+  /**
+   * Processes one element from the enactment queues (the one from the most
+   * advanced stage). Returns false if all queues are empty.
+   * 
+   * @return true iff an element was processed
+   */
+  protected boolean processNextEvent() {
+    Task task = enactmentState.pollLaunchableTask();
+    if (task != null) {
+      enactmentExecutor.submit(enactmentFactory.createEnactmentAgent(task, listeners));
+      return true;
+    }
+    task = enactmentState.pollSchedulableTask();
+    if (task != null) {
+      schedulingFactory.createSchedulingAgent(task, listeners).call();
+      return true;
+    }
+    task = enactmentState.pollAvailableData();
+    if (task != null) {
+      processAvailableData(task);
+      return true;
+    }
+    task = enactmentState.pollFinishedTask();
+    if (task != null) {
+      if (!(task instanceof PoisonPill)) {
+        extractData(task);
+      }
+      return true;
+    }
+    task = enactmentState.pollTransformTask();
+    if (task != null) {
+      transformFactory.createTransformAgent(task, listeners).call();
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Transmits the content of the given data node to its successors or, for leaf
+   * nodes, publishes the content and checks whether the wf result is complete.
+   * 
+   * @param dataNode the data node with available content
+   */
+  protected void processAvailableData(final Task dataNode) {
+    if (leafNodes.contains(dataNode)) {
+      dataHandler.publishResult(dataNode);
+      availableWfResults.add(dataNode);
+      if (availableWfResults.containsAll(leafNodes)) {
+        wokenUp = true;
+      }
+    } else {
+      transmitData(dataNode);
+    }
+  }
+
+  /**
+   * Extracts the results of the given finished function into its successor
+   * data nodes.
+   * 
+   * @param functionNode the finished function node
+   */
+  protected void extractData(final Task functionNode) {
+    graphAccess.getOutEdges(functionNode).forEach(
+        edgeTuple -> extractionFactory.createExtractionAgent(edgeTuple, listeners).call());
+  }
+
+  /**
+   * Transmits the content of the given (non-leaf) data node to its successor
+   * function nodes.
+   * 
+   * @param dataNode the data node with available content
+   */
+  protected void transmitData(final Task dataNode) {
+    graphAccess.getOutEdges(dataNode).forEach(
+        edgeTuple -> transmissionFactory.createTransmissionAgent(edgeTuple, listeners).call());
+  }
+
+  /**
+   * Blocks the event loop while the enactment is paused.
+   */
+  protected void awaitResume() {
+    synchronized (this) {
+      try {
+        while (paused && !wokenUp) {
+          wait();
+        }
+      } catch (InterruptedException e) {
+        throw new IllegalArgumentException("Enactment reactor interrupted.", e);
+      }
+    }
+  }
+
+  @Override
+  public void wakeUp() {
+    synchronized (this) {
+      wokenUp = true;
+      notifyAll();
+    }
+    // the pill wakes up the event loop if it is waiting for an element
+    enactmentState.putFinishedTask(new PoisonPill());
+  }
+
+  @Override
+  public void reactToStateChange(final EnactmentState previousState,
+      final EnactmentState currentState) throws StopException {
+    if (currentState.equals(EnactmentState.STOPPED)) {
+      this.enactmentStopped = true;
+      wakeUp();
+    } else if (previousState.equals(EnactmentState.RUNNING)
+        && currentState.equals(EnactmentState.PAUSED)) {
+      synchronized (this) {
+        this.paused = true;
+      }
+    } else if (previousState.equals(EnactmentState.PAUSED)
+        && currentState.equals(EnactmentState.RUNNING)) {
+      synchronized (this) {
+        this.paused = false;
+        notifyAll();
+      }
+    }
+  }
+}
@@ -0,0 +1,70 @@
+package at.uibk.dps.ee.control.management;
+
+import at.uibk.dps.ee.control.agents.AgentFactoryEnactment;
+import at.uibk.dps.ee.control.agents.AgentFactoryPlan;
+import at.uibk.dps.ee.control.agents.AgentFactoryScheduling;
+import at.uibk.dps.ee.control.agents.AgentFactoryTransform;
+import at.uibk.dps.ee.control.graph.ExecutionPlan;
+import at.uibk.dps.ee.control.graph.GraphAccess;
+import net.sf.opendse.model.Task;
+
+/**
+ * The {@link EnactmentReactorPlan} is the {@link EnactmentReactor} of an
+ * instance enacted on a graph whose structure does not change: Instead of
+ * querying the graph access for the out edges of the processed nodes, it walks
+ * the int adjacency of the {@link ExecutionPlan} and runs the extraction and
+ * transmission agents created by the {@link AgentFactoryPlan}, which work on
+ * edge indices. The tasks taken from the queues are mapped to their index once
+ * per event. The scheduling and enactment agents are the ones of the reactor.
+ * 
+ * @author Fedor Smirnov
+ */
+public class EnactmentReactorPlan extends EnactmentReactor {
+
+  protected final AgentFactoryPlan planFactory;
+  protected final ExecutionPlan plan;
+
+  /**
+   * Constructs a reactor which is not registered with the control (the state
+   * changes are forwarded by its creator).
+   * 
+   * @param enactmentState the state of the enactment
+   * @param graphAccess the access to the enactment graph
+   * @param executorProvider the provider for the executor of the enactments
+   * @param enactmentFactory the factory for the enactment agents
+   * @param planFactory the factory for the extraction and transmission agents
+   *        walking the plan
+   * @param schedulingFactory the factory for the scheduling agents
+   * @param transformFactory the factory for the transform agents
+   * @param dataHandler the object handling the wf input and output
+   * @param emergencyManager the object handling run-time problems
+   */
+  public EnactmentReactorPlan(final EnactmentQueues enactmentState,
+      final GraphAccess graphAccess, final ExecutorProvider executorProvider,
+      final AgentFactoryEnactment enactmentFactory, final AgentFactoryPlan planFactory,
+      final AgentFactoryScheduling schedulingFactory,
+      final AgentFactoryTransform transformFactory, final DataHandler dataHandler,
+      final EmergencyManager emergencyManager) {
+    // the extraction and transmission factories working on the graph are not used
+    super(enactmentState, graphAccess, executorProvider, enactmentFactory, null, null,
+        schedulingFactory, transformFactory, dataHandler, emergencyManager);
+    this.planFactory = planFactory;
+    this.plan = planFactory.getPlan();
+  }
+
+  @Override
+  protected void extractData(final Task functionNode) {
+    final int nodeIdx = plan.getNodeIndex(functionNode);
+    for (int i = 0; i < plan.getOutEdgeNumber(nodeIdx); i++) {
+      planFactory.createExtractionAgent(plan.getOutEdge(nodeIdx, i), listeners).call();
+    }
+  }
+
+  @Override
+  protected void transmitData(final Task dataNode) {
+    final int nodeIdx = plan.getNodeIndex(dataNode);
+    for (int i = 0; i < plan.getOutEdgeNumber(nodeIdx); i++) {
+      planFactory.createTransmissionAgent(plan.getOutEdge(nodeIdx, i), listeners).call();
+    }
+  }
+}
@@ -14,10 +14,54 @@ import com.google.inject.ImplementedBy;
 @ImplementedBy(ExecutorProviderCachedThreads.class)
 public interface ExecutorProvider {
 
+  /**
+   * The stages of the enactment which submit tasks to an executor.
+   * 
+   * @author Fedor Smirnov
+   */
+  enum Stage {
+    /**
+     * The continuous agents monitoring the queues (long-running).
+     */
+    Activation,
+    /**
+     * The extraction of the results of finished tasks.
+     */
+    Extraction,
+    /**
+     * The transmission of available data to the function nodes.
+     */
+    Transmission,
+    /**
+     * The scheduling of schedulable function nodes.
+     */
+    Scheduling,
+    /**
+     * The enactment of the function nodes.
+     */
+    Enactment,
+    /**
+     * The transformation of the enactment graph.
+     */
+    Transform
+  }
+
   /**
    * Returns an executor service which is to be used for the creation of threads.
    * 
    * @return the executor service which is to be used for the creation of threads
    */
   ExecutorService getExecutorService();
+
+  /**
+   * Returns the executor service which is to be used for the tasks of the given
+   * stage. By default, all stages share the same executor service.
+   * 
+   * @param stage the given stage
+   * @return the executor service which is to be used for the tasks of the given
+   *         stage
+   */
+  default ExecutorService getExecutorService(final Stage stage) {
+    return getExecutorService();
+  }
 }
@@ -0,0 +1,20 @@
+package at.uibk.dps.ee.control.management;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Executor provider whose executor runs the submitted tasks in the submitting
+ * thread (see {@link ExecutorServiceInline}).
+ * 
+ * @author Fedor Smirnov
+ *
+ */
+public class ExecutorProviderInline implements ExecutorProvider {
+
+  protected final ExecutorService executor = new ExecutorServiceInline();
+
+  @Override
+  public ExecutorService getExecutorService() {
+    return executor;
+  }
+}
@@ -0,0 +1,118 @@
+package at.uibk.dps.ee.control.management;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.opt4j.core.start.Constant;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+/**
+ * Executor provider with a dedicated, bounded executor for each stage of the
+ * enactment. The bookkeeping stages (extraction, transmission, scheduling,
+ * transform) are sized to the number of cores, the enactment stage to the
+ * configured concurrency. Each executor has a bounded work queue: When it is
+ * full, the submitting activation agent blocks, so that the pending tasks stay
+ * in the {@link EnactmentQueues} instead of piling up in the executor. The
+ * continuous activation agents run in a separate cached pool.
+ * 
+ * @author Fedor Smirnov
+ *
+ */
+@Singleton
+public class ExecutorProviderStaged implements ExecutorProvider {
+
+  /**
+   * Rejection handler blocking the submitting thread until the queue of the
+   * executor has space for the task. Tasks enqueued after the executor was shut
+   * down (while the submitting thread was blocked) are taken back and rejected,
+   * since they would never be run otherwise.
+   */
+  protected static final RejectedExecutionHandler blockingSubmission = (task, executor) -> {
+    if (executor.isShutdown()) {
+      throw new RejectedExecutionException("Submission to an executor which was shut down.");
+    }
+    try {
+      executor.getQueue().put(task);
+      if (executor.isShutdown() && executor.getQueue().remove(task)) {
+        throw new RejectedExecutionException("Executor shut down while waiting for queue space.");
+      }
+    } catch (InterruptedException exc) {
+      Thread.currentThread().interrupt();
+      throw new RejectedExecutionException("Interrupted while waiting for queue space.", exc);
+    }
+  };
+
+  protected final ExecutorService activationExecutor;
+  protected final Map<Stage, ExecutorService> stageExecutors = new EnumMap<>(Stage.class);
+
+  /**
+   * Injection constructor.
+   * 
+   * @param bookkeepingThreads the number of threads of each bookkeeping stage (0
+   *        for the number of available cores)
+   * @param enactmentThreads the maximal number of concurrent enactments
+   * @param queueCapacity the capacity of the work queue of each stage
+   */
+  @Inject
+  public ExecutorProviderStaged(
+      @Constant(namespace = ExecutorProviderStaged.class,
+          value = "bookkeepingThreads") final int bookkeepingThreads,
+      @Constant(namespace = ExecutorProviderStaged.class,
+          value = "enactmentThreads") final int enactmentThreads,
+      @Constant(namespace = ExecutorProviderStaged.class,
+          value = "queueCapacity") final int queueCapacity) {
+    if (bookkeepingThreads < 0 || enactmentThreads < 1 || queueCapacity < 1) {
+      throw new IllegalArgumentException(
+          "Invalid stage executor configuration: bookkeeping threads " + bookkeepingThreads
+              + ", enactment threads " + enactmentThreads + ", queue capacity " + queueCapacity);
+    }
+    final int cpuThreads =
+        bookkeepingThreads == 0 ? Runtime.getRuntime().availableProcessors() : bookkeepingThreads;
+    this.activationExecutor = Executors.newCachedThreadPool();
+    for (final Stage stage : Stage.values()) {
+      if (stage.equals(Stage.Activation)) {
+        stageExecutors.put(stage, activationExecutor);
+      } else {
+        final int threadNumber = stage.equals(Stage.Enactment) ? enactmentThreads : cpuThreads;
+        stageExecutors.put(stage, createBoundedExecutor(threadNumber, queueCapacity));
+      }
+    }
+  }
+
+  /**
+   * Creates an executor with the given number of threads and a work queue with
+   * the given capacity. Submissions to a full executor block until there is
+   * space in the queue.
+   * 
+   * @param threadNumber the number of threads
+   * @param queueCapacity the capacity of the work queue
+   * @return an executor with a bounded number of threads and a bounded queue
+   */
+  protected static ExecutorService createBoundedExecutor(final int threadNumber,
+      final int queueCapacity) {
+    return new ThreadPoolExecutor(threadNumber, threadNumber, 0L, TimeUnit.MILLISECONDS,
+        new LinkedBlockingQueue<>(queueCapacity), blockingSubmission);
+  }
+
+  /**
+   * Returns the executor of the activation agents.
+   * 
+   * @return the executor of the activation agents
+   */
+  @Override
+  public ExecutorService getExecutorService() {
+    return activationExecutor;
+  }
+
+  @Override
+  public ExecutorService getExecutorService(final Stage stage) {
+    return stageExecutors.get(stage);
+  }
+}
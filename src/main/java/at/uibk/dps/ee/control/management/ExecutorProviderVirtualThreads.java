@@ -0,0 +1,79 @@
+package at.uibk.dps.ee.control.management;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+/**
+ * Executor provider starting a virtual thread for each task, so that the
+ * agents waiting for remote function calls do not block OS threads. Virtual
+ * threads are only available in newer Java versions: The executor is looked up
+ * reflectively, and a cached thread pool is used if it is not available.
+ * 
+ * Note that a virtual thread blocking inside a synchronized block (or waiting
+ * on a monitor) pins its carrier thread in the current JVMs. This is the case
+ * for the wait of the {@link EnactmentAgent} and of the
+ * {@link at.uibk.dps.ee.control.agents.AgentContinuous} agents, the lazily
+ * built caches of the {@link at.uibk.dps.ee.control.graph.GraphAccessConcurrent}
+ * (adjacency index, execution plan), and the synchronization on the enactables
+ * in the transmission agents. These sections are short (apart from the waits
+ * of the long-running agents, which hold one carrier each), so that the agents
+ * blocking in the enactables still benefit from the virtual threads.
+ * 
+ * @author Fedor Smirnov
+ *
+ */
+@Singleton
+public class ExecutorProviderVirtualThreads implements ExecutorProvider {
+
+  protected static final String factoryMethodName = "newVirtualThreadPerTaskExecutor";
+
+  protected final ExecutorService executor;
+  protected final boolean virtual;
+
+  /**
+   * Injection constructor.
+   */
+  @Inject
+  public ExecutorProviderVirtualThreads() {
+    final Optional<ExecutorService> virtualExecutor = createVirtualThreadExecutor();
+    this.virtual = virtualExecutor.isPresent();
+    this.executor = virtualExecutor.orElseGet(Executors::newCachedThreadPool);
+  }
+
+  /**
+   * Creates an executor starting a new virtual thread for each task (if
+   * supported by the JVM).
+   * 
+   * @return an optional of the virtual thread executor, empty if virtual threads
+   *         are not supported
+   */
+  protected static Optional<ExecutorService> createVirtualThreadExecutor() {
+    try {
+      final Method factoryMethod = Executors.class.getMethod(factoryMethodName);
+      return Optional.of((ExecutorService) factoryMethod.invoke(null));
+    } catch (ReflectiveOperationException exc) {
+      // older Java version (or preview features disabled; the resulting
+      // UnsupportedOperationException is wrapped by Method.invoke)
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Returns true if the provided executor is based on virtual threads, false if
+   * it falls back to a cached thread pool.
+   * 
+   * @return true if the provided executor is based on virtual threads
+   */
+  public boolean isVirtual() {
+    return virtual;
+  }
+
+  @Override
+  public ExecutorService getExecutorService() {
+    return executor;
+  }
+}
@@ -0,0 +1,55 @@
+package at.uibk.dps.ee.control.management;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executor service which runs each submitted task directly in the submitting
+ * thread. Used for the cheap bookkeeping agents, where the hand-off to another
+ * thread costs more than the actual work.
+ * 
+ * @author Fedor Smirnov
+ *
+ */
+public class ExecutorServiceInline extends AbstractExecutorService {
+
+  protected volatile boolean shutdown;
+
+  @Override
+  public void execute(final Runnable command) {
+    if (shutdown) {
+      throw new RejectedExecutionException("Submission to an executor which was shut down.");
+    }
+    command.run();
+  }
+
+  @Override
+  public void shutdown() {
+    shutdown = true;
+  }
+
+  @Override
+  public List<Runnable> shutdownNow() {
+    shutdown = true;
+    return Collections.emptyList();
+  }
+
+  @Override
+  public boolean isShutdown() {
+    return shutdown;
+  }
+
+  @Override
+  public boolean isTerminated() {
+    // the tasks are run by the submitting threads
+    return shutdown;
+  }
+
+  @Override
+  public boolean awaitTermination(final long timeout, final TimeUnit unit) {
+    return shutdown;
+  }
+}
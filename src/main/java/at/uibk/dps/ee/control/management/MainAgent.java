@@ -0,0 +1,20 @@
+package at.uibk.dps.ee.control.management;
+
+import com.google.inject.ImplementedBy;
+import at.uibk.dps.ee.core.enactable.EnactmentFunction;
+
+/**
+ * The {@link MainAgent} is the {@link EnactmentFunction} which starts the
+ * enactment and waits until it is finished (or has to be aborted).
+ * 
+ * @author Fedor Smirnov
+ */
+@ImplementedBy(EnactmentAgent.class)
+public interface MainAgent extends EnactmentFunction {
+
+  /**
+   * Called to wake up the main agent (when the enactment is finished or has to
+   * be aborted).
+   */
+  void wakeUp();
+}
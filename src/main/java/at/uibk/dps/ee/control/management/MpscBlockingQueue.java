@@ -0,0 +1,213 @@
+package at.uibk.dps.ee.control.management;
+
+import java.util.AbstractQueue;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Unbounded, lock-free multi-producer/single-consumer queue (linked nodes,
+ * producers append with a single atomic swap of the tail). A consumer waiting
+ * for an element is parked and unparked by the next producer. All consuming
+ * operations ({@link #take()}, {@link #poll()}, {@link #drainTo(Collection)},
+ * ...) must be called by a single thread at a time; the producing operations
+ * can be called by any number of threads.
+ * 
+ * @author Fedor Smirnov
+ *
+ * @param <E> the element type
+ */
+public class MpscBlockingQueue<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+
+  /**
+   * A node of the linked list.
+   * 
+   * @param <E> the element type
+   */
+  protected static class Node<E> {
+    protected E value;
+    protected volatile Node<E> next;
+
+    protected Node(final E value) {
+      this.value = value;
+    }
+  }
+
+  /**
+   * The consumer side: a stub node whose successor holds the next element.
+   */
+  protected volatile Node<E> head;
+  protected final AtomicReference<Node<E>> tail;
+  protected volatile Thread waitingConsumer;
+
+  /**
+   * Default constructor.
+   */
+  public MpscBlockingQueue() {
+    final Node<E> stub = new Node<>(null);
+    this.head = stub;
+    this.tail = new AtomicReference<>(stub);
+  }
+
+  @Override
+  public boolean offer(final E element) {
+    Objects.requireNonNull(element);
+    final Node<E> node = new Node<>(element);
+    final Node<E> previous = tail.getAndSet(node);
+    previous.next = node;
+    final Thread consumer = waitingConsumer;
+    if (consumer != null) {
+      LockSupport.unpark(consumer);
+    }
+    return true;
+  }
+
+  @Override
+  public void put(final E element) {
+    offer(element);
+  }
+
+  @Override
+  public boolean offer(final E element, final long timeout, final TimeUnit unit) {
+    return offer(element);
+  }
+
+  @Override
+  public E poll() {
+    final Node<E> currentHead = head;
+    final Node<E> next = currentHead.next;
+    if (next == null) {
+      return null;
+    }
+    final E result = next.value;
+    next.value = null;
+    head = next;
+    return result;
+  }
+
+  @Override
+  public E peek() {
+    final Node<E> next = head.next;
+    return next == null ? null : next.value;
+  }
+
+  @Override
+  public E take() throws InterruptedException {
+    E result = poll();
+    while (result == null) {
+      waitingConsumer = Thread.currentThread();
+      // check again after announcing the wait (the producer may have missed it)
+      result = poll();
+      if (result == null) {
+        LockSupport.park(this);
+        if (Thread.interrupted()) {
+          waitingConsumer = null;
+          throw new InterruptedException();
+        }
+        result = poll();
+      }
+      waitingConsumer = null;
+    }
+    return result;
+  }
+
+  @Override
+  public E poll(final long timeout, final TimeUnit unit) throws InterruptedException {
+    E result = poll();
+    final long deadline = System.nanoTime() + unit.toNanos(timeout);
+    while (result == null) {
+      final long remaining = deadline - System.nanoTime();
+      if (remaining <= 0) {
+        return null;
+      }
+      waitingConsumer = Thread.currentThread();
+      result = poll();
+      if (result == null) {
+        LockSupport.parkNanos(this, remaining);
+        if (Thread.interrupted()) {
+          waitingConsumer = null;
+          throw new InterruptedException();
+        }
+        result = poll();
+      }
+      waitingConsumer = null;
+    }
+    return result;
+  }
+
+  @Override
+  public int remainingCapacity() {
+    return Integer.MAX_VALUE;
+  }
+
+  @Override
+  public int drainTo(final Collection<? super E> collection) {
+    return drainTo(collection, Integer.MAX_VALUE);
+  }
+
+  @Override
+  public int drainTo(final Collection<? super E> collection, final int maxElements) {
+    if (collection == this) {
+      throw new IllegalArgumentException("Cannot drain a queue into itself.");
+    }
+    int drained = 0;
+    E element;
+    while (drained < maxElements && (element = poll()) != null) {
+      collection.add(element);
+      drained++;
+    }
+    return drained;
+  }
+
+  /**
+   * Returns the number of elements (a snapshot in the presence of concurrent
+   * modifications, computed in linear time).
+   * 
+   * @return the number of elements
+   */
+  @Override
+  public int size() {
+    int result = 0;
+    for (Node<E> node = head.next; node != null && result < Integer.MAX_VALUE; node = node.next) {
+      result++;
+    }
+    return result;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return head.next == null;
+  }
+
+  /**
+   * Returns a weakly consistent iterator which does not support removal.
+   * 
+   * @return a weakly consistent iterator over the elements
+   */
+  @Override
+  public Iterator<E> iterator() {
+    return new Iterator<E>() {
+      protected Node<E> current = head;
+
+      @Override
+      public boolean hasNext() {
+        return current.next != null;
+      }
+
+      @Override
+      public E next() {
+        final Node<E> next = current.next;
+        if (next == null) {
+          throw new NoSuchElementException();
+        }
+        current = next;
+        return next.value;
+      }
+    };
+  }
+}
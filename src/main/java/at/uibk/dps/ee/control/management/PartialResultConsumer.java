@@ -0,0 +1,42 @@
+package at.uibk.dps.ee.control.management;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+/**
+ * Interface for the consumers of the partial results of the enactment: Each
+ * entry of the wf result is passed to the consumers as soon as the
+ * corresponding leaf node is available, while the rest of the workflow is
+ * still enacted. The consumers are called by the threads of the enactment and
+ * should therefore hand the results off instead of processing them in place.
+ * 
+ * Each enacted wf instance is identified by an id which is assigned when the
+ * enactment of the instance starts. The start is reported (with the input of
+ * the instance) by the thread which requested the enactment, so that the
+ * consumers can associate the id with the request.
+ * 
+ * @author Fedor Smirnov
+ */
+@FunctionalInterface
+public interface PartialResultConsumer {
+
+  /**
+   * Reacts to the start of the enactment of a wf instance. Called by the thread
+   * which requested the enactment.
+   * 
+   * @param instanceId the id of the wf instance
+   * @param wfInput (a copy of) the input of the wf instance
+   */
+  default void consumeInstanceStart(final long instanceId, final JsonObject wfInput) {
+    // the instance start is not relevant by default
+  }
+
+  /**
+   * Consumes an entry of the result of the wf instance with the given id.
+   * 
+   * @param instanceId the id of the wf instance
+   * @param jsonKey the key of the entry in the wf result
+   * @param content (a copy of) the content of the entry
+   */
+  void consumePartialResult(long instanceId, String jsonKey, JsonElement content);
+}
@@ -0,0 +1,95 @@
+package at.uibk.dps.ee.control.management;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.inject.Singleton;
+
+/**
+ * The {@link PartialResultPublisher} keeps the registered
+ * {@link PartialResultConsumer}s, assigns the ids of the enacted wf instances,
+ * and publishes the entries of the wf result to the consumers as they become
+ * available (see {@link DataHandler#publishResult}). The consumers receive
+ * copies of the published data. Exceptions thrown by a consumer are logged and
+ * do not affect the enactment or the other consumers.
+ * 
+ * @author Fedor Smirnov
+ */
+@Singleton
+public class PartialResultPublisher {
+
+  private static final Logger logger = Logger.getLogger(PartialResultPublisher.class.getName());
+
+  protected final List<PartialResultConsumer> consumers = new CopyOnWriteArrayList<>();
+  protected final AtomicLong instanceCounter = new AtomicLong();
+
+  /**
+   * Registers the given consumer.
+   * 
+   * @param consumer the given consumer
+   */
+  public void addConsumer(final PartialResultConsumer consumer) {
+    consumers.add(consumer);
+  }
+
+  /**
+   * Unregisters the given consumer.
+   * 
+   * @param consumer the given consumer
+   */
+  public void removeConsumer(final PartialResultConsumer consumer) {
+    consumers.remove(consumer);
+  }
+
+  /**
+   * Returns true if at least one consumer is registered.
+   * 
+   * @return true if at least one consumer is registered
+   */
+  public boolean hasConsumers() {
+    return !consumers.isEmpty();
+  }
+
+  /**
+   * Assigns the id of a wf instance whose enactment starts and reports the start
+   * to the consumers.
+   * 
+   * @param wfInput the input of the wf instance
+   * @return the id of the wf instance
+   */
+  public long startInstance(final JsonObject wfInput) {
+    final long instanceId = instanceCounter.incrementAndGet();
+    for (final PartialResultConsumer consumer : consumers) {
+      try {
+        consumer.consumeInstanceStart(instanceId, wfInput.deepCopy());
+      } catch (RuntimeException exc) {
+        logger.log(Level.WARNING, "Consumer failed to process the start of instance "
+            + instanceId, exc);
+      }
+    }
+    return instanceId;
+  }
+
+  /**
+   * Publishes the given entry of the result of the wf instance with the given id
+   * to all registered consumers.
+   * 
+   * @param instanceId the id of the wf instance
+   * @param jsonKey the key of the entry in the wf result
+   * @param content the content of the entry
+   */
+  public void publish(final long instanceId, final String jsonKey, final JsonElement content) {
+    for (final PartialResultConsumer consumer : consumers) {
+      try {
+        consumer.consumePartialResult(instanceId, jsonKey, content.deepCopy());
+      } catch (RuntimeException exc) {
+        logger.log(Level.WARNING, "Consumer failed to process the entry " + jsonKey
+            + " of instance " + instanceId, exc);
+      }
+    }
+  }
+}
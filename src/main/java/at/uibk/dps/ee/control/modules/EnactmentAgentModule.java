@@ -3,8 +3,28 @@ package at.uibk.dps.ee.control.modules;
 import org.opt4j.core.config.annotations.Info;
 import org.opt4j.core.config.annotations.Order;
 import org.opt4j.core.start.Constant;
+import at.uibk.dps.ee.control.agents.AgentFactoryActivation;
+import at.uibk.dps.ee.control.agents.AgentFactoryTransform;
 import at.uibk.dps.ee.control.command.Control;
+import at.uibk.dps.ee.control.enactment.EnactmentCoalescer;
+import at.uibk.dps.ee.control.enactment.ResultCache;
+import at.uibk.dps.ee.control.graph.GraphAccess;
+import at.uibk.dps.ee.control.graph.GraphAccessConcurrent;
+import at.uibk.dps.ee.control.graph.GraphAccessStriped;
+import at.uibk.dps.ee.control.graph.GraphChangeCoalescer;
+import at.uibk.dps.ee.control.graph.GraphTransformDistribution;
+import at.uibk.dps.ee.control.graph.IterationChunk;
+import at.uibk.dps.ee.control.management.EnactmentAgent;
 import at.uibk.dps.ee.control.management.EnactmentAgentProvider;
+import at.uibk.dps.ee.control.management.EnactmentInstances;
+import at.uibk.dps.ee.control.management.EnactmentQueues;
+import at.uibk.dps.ee.control.management.EnactmentQueuesMpsc;
+import at.uibk.dps.ee.control.management.EnactmentReactor;
+import at.uibk.dps.ee.control.management.ExecutorProvider;
+import at.uibk.dps.ee.control.management.ExecutorProviderCachedThreads;
+import at.uibk.dps.ee.control.management.ExecutorProviderStaged;
+import at.uibk.dps.ee.control.management.ExecutorProviderVirtualThreads;
+import at.uibk.dps.ee.control.management.MainAgent;
 import at.uibk.dps.ee.core.EnactableProvider;
 import at.uibk.dps.ee.guice.modules.EeModule;
 
@@ -16,15 +36,194 @@ import at.uibk.dps.ee.guice.modules.EeModule;
  */
 public class EnactmentAgentModule extends EeModule {
 
+  /**
+   * The implementations of the access to the enactment graph.
+   *
+   * @author Fedor Smirnov
+   */
+  public enum GraphAccessType {
+    /**
+     * One read-write lock for the whole graph.
+     */
+    Global,
+    /**
+     * Lock stripes for the task-local operations, the global lock only for graph
+     * transformations.
+     */
+    Striped
+  }
+
+  /**
+   * The executors used for the agent tasks.
+   *
+   * @author Fedor Smirnov
+   */
+  public enum ExecutorType {
+    /**
+     * Cached pool of platform threads.
+     */
+    CachedThreads,
+    /**
+     * One virtual thread per task (falls back to the cached pool on Java
+     * versions without virtual threads).
+     */
+    VirtualThreads,
+    /**
+     * Bounded executors per enactment stage.
+     */
+    Staged
+  }
+
+  /**
+   * The queues connecting the agents.
+   *
+   * @author Fedor Smirnov
+   */
+  public enum QueueType {
+    /**
+     * Linked blocking queues (lock-based).
+     */
+    Blocking,
+    /**
+     * Lock-free multi-producer/single-consumer queues.
+     */
+    Mpsc
+  }
+
+  /**
+   * The engines driving the enactment.
+   *
+   * @author Fedor Smirnov
+   */
+  public enum EngineType {
+    /**
+     * One activation agent (thread) per enactment queue.
+     */
+    Agents,
+    /**
+     * A single event loop; only the enactments are run by the executor.
+     */
+    Reactor,
+    /**
+     * One event loop per wf instance; concurrent instances share the graph.
+     */
+    Instances
+  }
+
   @Order(1)
   @Info("If checked, the EE will be initially in the PAUSED state.")
   @Constant(namespace = Control.class, value = "pauseOnStart")
   protected boolean pauseOnStart;
 
+  @Order(2)
+  @Info("The way the concurrent access to the enactment graph is synchronized (Striped is opt-in).")
+  protected GraphAccessType graphAccessType = GraphAccessType.Global;
+
+  @Order(3)
+  @Info("The number of lock stripes (used by the striped graph access).")
+  @Constant(namespace = GraphAccessStriped.class, value = "stripeNumber")
+  protected int stripeNumber = 64;
+
+  @Order(4)
+  @Info("The executor for the agent tasks (virtual threads do not block OS threads).")
+  protected ExecutorType executorType = ExecutorType.CachedThreads;
+
+  @Order(5)
+  @Info("Threads per bookkeeping stage (staged executor; 0 = number of cores).")
+  @Constant(namespace = ExecutorProviderStaged.class, value = "bookkeepingThreads")
+  protected int bookkeepingThreads;
+
+  @Order(6)
+  @Info("The maximal number of concurrent enactments (staged executor).")
+  @Constant(namespace = ExecutorProviderStaged.class, value = "enactmentThreads")
+  protected int enactmentThreads = 100;
+
+  @Order(7)
+  @Info("The capacity of the work queue of each stage (staged executor).")
+  @Constant(namespace = ExecutorProviderStaged.class, value = "queueCapacity")
+  protected int queueCapacity = 1000;
+
+  @Order(8)
+  @Info("If checked, the extraction and transmission agents are run by their activation agents.")
+  @Constant(namespace = AgentFactoryActivation.class, value = "inlineBookkeeping")
+  protected boolean inlineBookkeeping;
+
+  @Order(9)
+  @Info("The maximal number of elements an activation agent takes from its queue at once.")
+  @Constant(namespace = EnactmentQueues.class, value = "batchSize")
+  protected int queueBatchSize = 1;
+
+  @Order(10)
+  @Info("The implementation of the queues connecting the agents.")
+  protected QueueType queueType = QueueType.Blocking;
+
+  @Order(11)
+  @Info("The engine driving the enactment (the reactor avoids thread hand-offs between stages).")
+  protected EngineType engineType = EngineType.Agents;
+
+  @Order(12)
+  @Info("The maximal number of parallel-loop iterations in the graph at once (0 = unroll all).")
+  @Constant(namespace = GraphTransformDistribution.class, value = "windowSize")
+  protected int distributionWindowSize;
+
+  @Order(13)
+  @Info("Time (ms) for which graph changes are merged before the listeners are notified (0 = off).")
+  @Constant(namespace = GraphChangeCoalescer.class, value = "delayMillis")
+  protected int modificationCoalescingDelay;
+
+  @Order(14)
+  @Info("The number of function results memoized in memory (0 = no memoization).")
+  @Constant(namespace = ResultCache.class, value = "maxEntries")
+  protected int resultCacheSize;
+
+  @Order(15)
+  @Info("Time (s) after which memoized function results expire (0 = never).")
+  @Constant(namespace = ResultCache.class, value = "ttlSeconds")
+  protected int resultCacheTtl;
+
+  @Order(16)
+  @Info("Directory where memoized function results are also stored (empty = memory only).")
+  @Constant(namespace = ResultCache.class, value = "directory")
+  protected String resultCacheDirectory = "";
+
+  @Order(17)
+  @Info("If checked, identical concurrent function invocations share a single invocation.")
+  @Constant(namespace = EnactmentCoalescer.class, value = "enabled")
+  protected boolean coalesceInvocations;
+
+  @Order(18)
+  @Info("Loops processed in chunks, as 'distributionNodeId=chunkSize,...' (empty = none). "
+      + "The functions of a chunked loop take and return json arrays (one entry per iteration).")
+  @Constant(namespace = IterationChunk.class, value = "chunkSizes")
+  protected String distributionChunkSizes = "";
+
   @Override
   protected void config() {
     bind(EnactableProvider.class).to(EnactmentAgentProvider.class);
     addEnactmentStateListener(Control.class);
+    addEnactmentStateListener(AgentFactoryTransform.class);
+    if (graphAccessType.equals(GraphAccessType.Striped)) {
+      bind(GraphAccess.class).to(GraphAccessStriped.class);
+    } else {
+      bind(GraphAccess.class).to(GraphAccessConcurrent.class);
+    }
+    if (executorType.equals(ExecutorType.VirtualThreads)) {
+      bind(ExecutorProvider.class).to(ExecutorProviderVirtualThreads.class);
+    } else if (executorType.equals(ExecutorType.Staged)) {
+      bind(ExecutorProvider.class).to(ExecutorProviderStaged.class);
+    } else {
+      bind(ExecutorProvider.class).to(ExecutorProviderCachedThreads.class);
+    }
+    if (queueType.equals(QueueType.Mpsc)) {
+      bind(EnactmentQueues.class).to(EnactmentQueuesMpsc.class);
+    }
+    if (engineType.equals(EngineType.Reactor)) {
+      bind(MainAgent.class).to(EnactmentReactor.class);
+    } else if (engineType.equals(EngineType.Instances)) {
+      bind(MainAgent.class).to(EnactmentInstances.class);
+    } else {
+      bind(MainAgent.class).to(EnactmentAgent.class);
+    }
   }
 
   public boolean isPauseOnStart() {
@@ -34,4 +233,140 @@ public class EnactmentAgentModule extends EeModule {
   public void setPauseOnStart(final boolean pauseOnStart) {
     this.pauseOnStart = pauseOnStart;
   }
+
+  public GraphAccessType getGraphAccessType() {
+    return graphAccessType;
+  }
+
+  public void setGraphAccessType(final GraphAccessType graphAccessType) {
+    this.graphAccessType = graphAccessType;
+  }
+
+  public int getStripeNumber() {
+    return stripeNumber;
+  }
+
+  public void setStripeNumber(final int stripeNumber) {
+    this.stripeNumber = stripeNumber;
+  }
+
+  public ExecutorType getExecutorType() {
+    return executorType;
+  }
+
+  public void setExecutorType(final ExecutorType executorType) {
+    this.executorType = executorType;
+  }
+
+  public int getBookkeepingThreads() {
+    return bookkeepingThreads;
+  }
+
+  public void setBookkeepingThreads(final int bookkeepingThreads) {
+    this.bookkeepingThreads = bookkeepingThreads;
+  }
+
+  public int getEnactmentThreads() {
+    return enactmentThreads;
+  }
+
+  public void setEnactmentThreads(final int enactmentThreads) {
+    this.enactmentThreads = enactmentThreads;
+  }
+
+  public int getQueueCapacity() {
+    return queueCapacity;
+  }
+
+  public void setQueueCapacity(final int queueCapacity) {
+    this.queueCapacity = queueCapacity;
+  }
+
+  public boolean isInlineBookkeeping() {
+    return inlineBookkeeping;
+  }
+
+  public void setInlineBookkeeping(final boolean inlineBookkeeping) {
+    this.inlineBookkeeping = inlineBookkeeping;
+  }
+
+  public int getQueueBatchSize() {
+    return queueBatchSize;
+  }
+
+  public void setQueueBatchSize(final int queueBatchSize) {
+    this.queueBatchSize = queueBatchSize;
+  }
+
+  public QueueType getQueueType() {
+    return queueType;
+  }
+
+  public void setQueueType(final QueueType queueType) {
+    this.queueType = queueType;
+  }
+
+  public EngineType getEngineType() {
+    return engineType;
+  }
+
+  public void setEngineType(final EngineType engineType) {
+    this.engineType = engineType;
+  }
+
+  public int getDistributionWindowSize() {
+    return distributionWindowSize;
+  }
+
+  public void setDistributionWindowSize(final int distributionWindowSize) {
+    this.distributionWindowSize = distributionWindowSize;
+  }
+
+  public int getModificationCoalescingDelay() {
+    return modificationCoalescingDelay;
+  }
+
+  public void setModificationCoalescingDelay(final int modificationCoalescingDelay) {
+    this.modificationCoalescingDelay = modificationCoalescingDelay;
+  }
+
+  public int getResultCacheSize() {
+    return resultCacheSize;
+  }
+
+  public void setResultCacheSize(final int resultCacheSize) {
+    this.resultCacheSize = resultCacheSize;
+  }
+
+  public int getResultCacheTtl() {
+    return resultCacheTtl;
+  }
+
+  public void setResultCacheTtl(final int resultCacheTtl) {
+    this.resultCacheTtl = resultCacheTtl;
+  }
+
+  public String getResultCacheDirectory() {
+    return resultCacheDirectory;
+  }
+
+  public void setResultCacheDirectory(final String resultCacheDirectory) {
+    this.resultCacheDirectory = resultCacheDirectory;
+  }
+
+  public boolean isCoalesceInvocations() {
+    return coalesceInvocations;
+  }
+
+  public void setCoalesceInvocations(final boolean coalesceInvocations) {
+    this.coalesceInvocations = coalesceInvocations;
+  }
+
+  public String getDistributionChunkSizes() {
+    return distributionChunkSizes;
+  }
+
+  public void setDistributionChunkSizes(final String distributionChunkSizes) {
+    this.distributionChunkSizes = distributionChunkSizes;
+  }
 }
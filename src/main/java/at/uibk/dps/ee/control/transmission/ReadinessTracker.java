@@ -0,0 +1,173 @@
+package at.uibk.dps.ee.control.transmission;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import at.uibk.dps.ee.control.graph.GraphAccess;
+import at.uibk.dps.ee.control.graph.InstanceState;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependency.TypeDependency;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependencyControlIf;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+
+/**
+ * The {@link ReadinessTracker} keeps track of the dependencies which are still
+ * pending for the function nodes which already received data. The counters of
+ * a node are initialized (from the transmission annotations of its in edges)
+ * on the first transmission to the node and then decremented with each
+ * completed transmission, so that the readiness check does not require a scan
+ * of the in edges. The counters are only valid for the graph structure they
+ * were counted on: After a transformation of the graph (which may add in edges
+ * to a node or remove nodes), all counters are dropped and counted anew on the
+ * next transmission to their node. This also removes the counters of the
+ * nodes which never became ready.
+ *
+ * The transmissions to a given node are expected to be registered one at a
+ * time (i.e., within a write operation of the graph access for that node).
+ *
+ * @author Fedor Smirnov
+ */
+@Singleton
+public class ReadinessTracker {
+
+  /**
+   * The pending dependencies of a single function node.
+   *
+   * @author Fedor Smirnov
+   */
+  protected static class PendingDependencies {
+
+    protected final AtomicInteger pendingInputs;
+    protected final AtomicInteger pendingControlIfs;
+
+    /**
+     * Default constructor.
+     *
+     * @param pendingInputs the number of in edges without finished transmission
+     * @param pendingControlIfs the number of control if edges which are not
+     *        (yet) active
+     */
+    protected PendingDependencies(final int pendingInputs, final int pendingControlIfs) {
+      this.pendingInputs = new AtomicInteger(pendingInputs);
+      this.pendingControlIfs = new AtomicInteger(pendingControlIfs);
+    }
+
+    /**
+     * Returns true if all dependencies of the node are satisfied.
+     *
+     * @return true if all dependencies of the node are satisfied
+     */
+    protected boolean isReady() {
+      return pendingInputs.get() == 0 && pendingControlIfs.get() == 0;
+    }
+  }
+
+  protected final Map<Task, PendingDependencies> pendingDependencies =
+      new ConcurrentHashMap<>();
+  protected final AtomicLong countedVersion = new AtomicLong();
+  protected final InstanceState instanceState;
+  protected final GraphAccess graphAccess;
+
+  /**
+   * The injection constructor.
+   * 
+   * @param instanceState the state of the enacted instance
+   * @param graphAccess the access to the graph (to check its structure version)
+   */
+  @Inject
+  public ReadinessTracker(final InstanceState instanceState, final GraphAccess graphAccess) {
+    this.instanceState = instanceState;
+    this.graphAccess = graphAccess;
+  }
+
+  /**
+   * Registers the completed transmission over the given edge (which must
+   * already be annotated as finished). Returns true if this transmission
+   * satisfied the last pending dependency of the target node.
+   *
+   * @param target the function node receiving the data
+   * @param edge the edge over which the data was transmitted
+   * @param graph the enactment graph
+   * @return true if the target is ready to be scheduled after this
+   *         transmission
+   */
+  public boolean registerTransmission(final Task target, final Dependency edge,
+      final EnactmentGraph graph) {
+    final long version = graphAccess.getStructureVersion();
+    if (countedVersion.getAndSet(version) != version) {
+      // the graph was transformed since the counters were counted
+      pendingDependencies.clear();
+    }
+    PendingDependencies pending = pendingDependencies.get(target);
+    if (pending == null) {
+      // first contact: the counters already account for the given edge
+      pending = countPendingDependencies(target, graph);
+      pendingDependencies.put(target, pending);
+    } else {
+      pending.pendingInputs.decrementAndGet();
+      if (isControlIf(edge) && isIfEdgeActive(graph, edge)) {
+        pending.pendingControlIfs.decrementAndGet();
+      }
+    }
+    if (pending.isReady()) {
+      // the node is done; a later transmission starts with fresh counters
+      pendingDependencies.remove(target);
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Counts the pending dependencies of the given node by checking the
+   * annotations of its in edges.
+   *
+   * @param target the given node
+   * @param graph the enactment graph
+   * @return the pending dependencies of the given node
+   */
+  protected PendingDependencies countPendingDependencies(final Task target,
+      final EnactmentGraph graph) {
+    int pendingInputs = 0;
+    int pendingControlIfs = 0;
+    for (final Dependency inEdge : graph.getInEdges(target)) {
+      final boolean transmitted = instanceState.isTransmissionDone(inEdge);
+      if (!transmitted) {
+        pendingInputs++;
+      }
+      if (isControlIf(inEdge) && !(transmitted && isIfEdgeActive(graph, inEdge))) {
+        pendingControlIfs++;
+      }
+    }
+    return new PendingDependencies(pendingInputs, pendingControlIfs);
+  }
+
+  /**
+   * Returns true if the given edge is a control if edge.
+   *
+   * @param edge the given edge
+   * @return true if the given edge is a control if edge
+   */
+  protected boolean isControlIf(final Dependency edge) {
+    return PropertyServiceDependency.getType(edge).equals(TypeDependency.ControlIf);
+  }
+
+  /**
+   * Checks whether the given control if edge is active, i.e., whether its
+   * activation matches the data in its src data node.
+   *
+   * @param graph the enactment graph
+   * @param edge the given edge
+   * @return true if the edge is active
+   */
+  protected boolean isIfEdgeActive(final EnactmentGraph graph, final Dependency edge) {
+    final boolean edgeActivation = PropertyServiceDependencyControlIf.getActivation(edge);
+    final Task dataNode = graph.getSource(edge);
+    final boolean decisionVariable = instanceState.getContent(dataNode).getAsBoolean();
+    return edgeActivation == decisionVariable;
+  }
+}
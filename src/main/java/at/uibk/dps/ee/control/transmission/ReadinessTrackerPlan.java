@@ -0,0 +1,103 @@
+package at.uibk.dps.ee.control.transmission;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import at.uibk.dps.ee.control.graph.ExecutionPlan;
+import at.uibk.dps.ee.control.graph.InstanceStatePlan;
+
+/**
+ * The {@link ReadinessTrackerPlan} is the counterpart of the
+ * {@link ReadinessTracker} for the instances walking an {@link ExecutionPlan}:
+ * The pending dependencies of all function nodes are kept in an int array
+ * (initialized from the plan) and decremented atomically with each completed
+ * transmission, so that the transmissions to a node can be registered
+ * concurrently and without locking the graph. Exactly one transmission (the one
+ * satisfying the last pending dependency) reports the node as ready.
+ *
+ * @author Fedor Smirnov
+ */
+public class ReadinessTrackerPlan {
+
+  protected final ExecutionPlan plan;
+  protected final InstanceStatePlan instanceState;
+  protected final AtomicIntegerArray pendingDependencies;
+
+  /**
+   * Default constructor.
+   *
+   * @param plan the plan of the enacted graph
+   * @param instanceState the state of the enacted instance
+   */
+  public ReadinessTrackerPlan(final ExecutionPlan plan, final InstanceStatePlan instanceState) {
+    this.plan = plan;
+    this.instanceState = instanceState;
+    final int[] initial = new int[plan.getNodeNumber()];
+    for (int nodeIdx = 0; nodeIdx < initial.length; nodeIdx++) {
+      initial[nodeIdx] = plan.getPendingDependencies(nodeIdx);
+    }
+    this.pendingDependencies = new AtomicIntegerArray(initial);
+  }
+
+  /**
+   * Annotates the transmission over the given edge as completed and registers
+   * it. Returns true if this transmission made the target of the edge ready to
+   * be scheduled.
+   *
+   * @param edgeIdx the index of the edge over which the data was transmitted
+   * @return true if the target is ready to be scheduled after this
+   *         transmission
+   */
+  public boolean registerTransmission(final int edgeIdx) {
+    instanceState.annotateFinishedTransmission(edgeIdx);
+    final int target = plan.getTarget(edgeIdx);
+    if (plan.isMultiplexer(target)) {
+      // only reported once, even if both transmissions see the node as ready
+      return isMuxerReady(target) && pendingDependencies.getAndSet(target, 0) != 0;
+    }
+    final int satisfied = plan.isControlIf(edgeIdx) && isIfEdgeActive(edgeIdx) ? 2 : 1;
+    return pendingDependencies.addAndGet(target, -satisfied) == 0;
+  }
+
+  /**
+   * Returns true if the given control if edge is active, i.e., if its
+   * activation matches the data in its src data node.
+   *
+   * @param edgeIdx the index of the given edge
+   * @return true if the edge is active
+   */
+  protected boolean isIfEdgeActive(final int edgeIdx) {
+    return plan.getIfActivation(edgeIdx) == instanceState.getContent(plan.getSource(edgeIdx))
+        .getAsBoolean();
+  }
+
+  /**
+   * Returns true if the given multiplexer node received its decision variable
+   * and the data of the branch selected by the decision variable.
+   *
+   * @param muxer the index of the multiplexer node
+   * @return true if the multiplexer node is ready to be scheduled
+   */
+  protected boolean isMuxerReady(final int muxer) {
+    int decVarEdge = -1;
+    int trueEdge = -1;
+    int falseEdge = -1;
+    for (int i = 0; i < plan.getInEdgeNumber(muxer); i++) {
+      final int inEdge = plan.getInEdge(muxer, i);
+      if (!plan.isControlIf(inEdge)) {
+        decVarEdge = inEdge;
+      } else if (plan.getIfActivation(inEdge)) {
+        trueEdge = inEdge;
+      } else {
+        falseEdge = inEdge;
+      }
+    }
+    if (decVarEdge < 0 || trueEdge < 0 || falseEdge < 0) {
+      throw new IllegalArgumentException("The muxer node " + plan.getNode(muxer).getId()
+          + " does not have a decision variable, a true, and a false edge.");
+    }
+    if (!instanceState.isTransmissionDone(decVarEdge)) {
+      return false;
+    }
+    final boolean decVar = instanceState.getContent(plan.getSource(decVarEdge)).getAsBoolean();
+    return instanceState.isTransmissionDone(decVar ? trueEdge : falseEdge);
+  }
+}
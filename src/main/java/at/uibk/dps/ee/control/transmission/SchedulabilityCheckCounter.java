@@ -0,0 +1,35 @@
+package at.uibk.dps.ee.control.transmission;
+
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+
+/**
+ * The {@link SchedulabilityCheck} used for most function nodes. Instead of
+ * scanning the in edges of the target, it registers the transmission over its
+ * edge with the {@link ReadinessTracker}, making the check O(1).
+ *
+ * @author Fedor Smirnov
+ */
+public class SchedulabilityCheckCounter implements SchedulabilityCheck {
+
+  protected final ReadinessTracker readinessTracker;
+  protected final Dependency edge;
+
+  /**
+   * Default constructor.
+   *
+   * @param readinessTracker the tracker of the pending dependencies
+   * @param edge the edge of the transmission preceding the check
+   */
+  public SchedulabilityCheckCounter(final ReadinessTracker readinessTracker,
+      final Dependency edge) {
+    this.readinessTracker = readinessTracker;
+    this.edge = edge;
+  }
+
+  @Override
+  public boolean isTargetSchedulable(final Task target, final EnactmentGraph graph) {
+    return readinessTracker.registerTransmission(target, edge, graph);
+  }
+}
@@ -2,8 +2,8 @@ package at.uibk.dps.ee.control.transmission;
 
 import java.util.HashSet;
 import java.util.Set;
+import at.uibk.dps.ee.control.graph.InstanceState;
 import at.uibk.dps.ee.model.graph.EnactmentGraph;
-import at.uibk.dps.ee.model.properties.PropertyServiceData;
 import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
 import at.uibk.dps.ee.model.properties.PropertyServiceDependency.TypeDependency;
 import at.uibk.dps.ee.model.properties.PropertyServiceDependencyControlIf;
@@ -21,6 +21,17 @@ public class SchedulabilityCheckMuxer implements SchedulabilityCheck {
   private static final int expectedIfEdgeNumber = 2;
   private static final int expectedTrueEdgeNumber = 1;
 
+  protected final InstanceState instanceState;
+
+  /**
+   * Default constructor.
+   * 
+   * @param instanceState the state of the enacted instance
+   */
+  public SchedulabilityCheckMuxer(final InstanceState instanceState) {
+    this.instanceState = instanceState;
+  }
+
   @Override
   public boolean isTargetSchedulable(final Task target, final EnactmentGraph graph) {
     checkInEdges(new HashSet<>(graph.getInEdges(target)), target);
@@ -38,15 +49,15 @@ public class SchedulabilityCheckMuxer implements SchedulabilityCheck {
         decVarDep = dep;
       }
     }
-    if (!PropertyServiceDependency.isTransmissionDone(decVarDep)) {
+    if (!instanceState.isTransmissionDone(decVarDep)) {
       return false;
     }
     final boolean decVar =
-        PropertyServiceData.getContent(graph.getSource(decVarDep)).getAsBoolean();
+        instanceState.getContent(graph.getSource(decVarDep)).getAsBoolean();
     if (decVar) {
-      return PropertyServiceDependency.isTransmissionDone(trueDep);
+      return instanceState.isTransmissionDone(trueDep);
     } else {
-      return PropertyServiceDependency.isTransmissionDone(falseDep);
+      return instanceState.isTransmissionDone(falseDep);
     }
   }
 
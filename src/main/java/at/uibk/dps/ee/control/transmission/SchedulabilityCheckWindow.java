@@ -0,0 +1,46 @@
+package at.uibk.dps.ee.control.transmission;
+
+import at.uibk.dps.ee.control.graph.DistributionWindow;
+import at.uibk.dps.ee.control.management.EnactmentQueues;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+
+/**
+ * The {@link SchedulabilityCheck} used for the aggregation nodes of a lazily
+ * unrolled distribution. Registers the transmission with the
+ * {@link DistributionWindow}, triggers the slide of the window when the
+ * transmission completes an iteration, and reports the aggregator as
+ * schedulable once it received the results of all iterations.
+ *
+ * @author Fedor Smirnov
+ */
+public class SchedulabilityCheckWindow implements SchedulabilityCheck {
+
+  protected final DistributionWindow window;
+  protected final Dependency edge;
+  protected final EnactmentQueues enactmentState;
+
+  /**
+   * Default constructor.
+   *
+   * @param window the window of the aggregator
+   * @param edge the edge of the transmission preceding the check
+   * @param enactmentState the state of the enactment (for the access to the
+   *        queues)
+   */
+  public SchedulabilityCheckWindow(final DistributionWindow window, final Dependency edge,
+      final EnactmentQueues enactmentState) {
+    this.window = window;
+    this.edge = edge;
+    this.enactmentState = enactmentState;
+  }
+
+  @Override
+  public boolean isTargetSchedulable(final Task target, final EnactmentGraph graph) {
+    if (window.registerArrival(target, edge)) {
+      enactmentState.putTransformTask(window.getSlideTrigger());
+    }
+    return window.isAggregationComplete(target);
+  }
+}
@@ -18,6 +18,7 @@ import net.sf.opendse.model.Dependency;
 import net.sf.opendse.model.Task;
 
 import static org.mockito.Mockito.verify;
+import at.uibk.dps.ee.control.management.ExecutorProvider.Stage;
 
 public class AgentActicationExtractionTest {
 
@@ -47,7 +48,7 @@ public class AgentActicationExtractionTest {
 
     ExecutorProvider execProvider = mock(ExecutorProvider.class);
     ExecutorService mockExecutor = mock(ExecutorService.class);
-    when(execProvider.getExecutorService()).thenReturn(mockExecutor);
+    when(execProvider.getExecutorService(Stage.Extraction)).thenReturn(mockExecutor);
     AgentTaskListener mockListener = mock(AgentTaskListener.class);
     Set<AgentTaskListener> listeners = new HashSet<>();
     listeners.add(mockListener);
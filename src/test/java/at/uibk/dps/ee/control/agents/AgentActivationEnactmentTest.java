@@ -13,6 +13,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import static org.mockito.Mockito.verify;
+import at.uibk.dps.ee.control.management.ExecutorProvider.Stage;
 
 public class AgentActivationEnactmentTest {
 
@@ -28,7 +29,7 @@ public class AgentActivationEnactmentTest {
 
     ExecutorProvider execProvider = mock(ExecutorProvider.class);
     ExecutorService mockExecutor = mock(ExecutorService.class);
-    when(execProvider.getExecutorService()).thenReturn(mockExecutor);
+    when(execProvider.getExecutorService(Stage.Enactment)).thenReturn(mockExecutor);
     AgentTaskListener mockListener = mock(AgentTaskListener.class);
     Set<AgentTaskListener> listeners = new HashSet<>();
     listeners.add(mockListener);
@@ -13,6 +13,7 @@ import org.junit.Test;
 import at.uibk.dps.ee.control.management.EnactmentQueues;
 import at.uibk.dps.ee.control.management.ExecutorProvider;
 import net.sf.opendse.model.Task;
+import at.uibk.dps.ee.control.management.ExecutorProvider.Stage;
 
 public class AgentActivationSchedulingTest {
 
@@ -28,7 +29,7 @@ public class AgentActivationSchedulingTest {
 
     ExecutorProvider execProvider = mock(ExecutorProvider.class);
     ExecutorService mockExecutor = mock(ExecutorService.class);
-    when(execProvider.getExecutorService()).thenReturn(mockExecutor);
+    when(execProvider.getExecutorService(Stage.Scheduling)).thenReturn(mockExecutor);
     AgentTaskListener mockListener = mock(AgentTaskListener.class);
     Set<AgentTaskListener> listeners = new HashSet<>();
     listeners.add(mockListener);
@@ -12,6 +12,7 @@ import static org.mockito.Mockito.doReturn;
 import java.util.HashSet;
 import java.util.concurrent.ExecutorService;
 import static org.mockito.Mockito.verify;
+import at.uibk.dps.ee.control.management.ExecutorProvider.Stage;
 
 public class AgentActivationTransformTest {
 
@@ -21,7 +22,7 @@ public class AgentActivationTransformTest {
     AgentFactoryTransform factoryMock = mock(AgentFactoryTransform.class);
     ExecutorService execMock = mock(ExecutorService.class);
     ExecutorProvider providerMock = mock(ExecutorProvider.class);
-    when(providerMock.getExecutorService()).thenReturn(execMock);
+    when(providerMock.getExecutorService(Stage.Transform)).thenReturn(execMock);
     AgentActivationTransform tested =
         new AgentActivationTransform(stateMock, factoryMock, providerMock);
     AgentTaskListener listenerMock = mock(AgentTaskListener.class);
@@ -35,7 +36,7 @@ public class AgentActivationTransformTest {
     AgentFactoryTransform factoryMock = mock(AgentFactoryTransform.class);
     ExecutorService execMock = mock(ExecutorService.class);
     ExecutorProvider providerMock = mock(ExecutorProvider.class);
-    when(providerMock.getExecutorService()).thenReturn(execMock);
+    when(providerMock.getExecutorService(Stage.Transform)).thenReturn(execMock);
     AgentActivationTransform tested =
         new AgentActivationTransform(stateMock, factoryMock, providerMock);
 
@@ -56,7 +57,7 @@ public class AgentActivationTransformTest {
     AgentFactoryTransform factoryMock = mock(AgentFactoryTransform.class);
     ExecutorService execMock = mock(ExecutorService.class);
     ExecutorProvider providerMock = mock(ExecutorProvider.class);
-    when(providerMock.getExecutorService()).thenReturn(execMock);
+    when(providerMock.getExecutorService(Stage.Transform)).thenReturn(execMock);
     AgentActivationTransform tested =
         new AgentActivationTransform(stateMock, factoryMock, providerMock);
     Task task = new Task("task");
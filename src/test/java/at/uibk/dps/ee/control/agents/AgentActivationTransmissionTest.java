@@ -18,6 +18,7 @@ import at.uibk.dps.ee.control.management.ExecutorProvider;
 import net.sf.opendse.model.Communication;
 import net.sf.opendse.model.Dependency;
 import net.sf.opendse.model.Task;
+import at.uibk.dps.ee.control.management.ExecutorProvider.Stage;
 
 public class AgentActivationTransmissionTest {
 
@@ -55,7 +56,7 @@ public class AgentActivationTransmissionTest {
 
     ExecutorProvider execProvider = mock(ExecutorProvider.class);
     ExecutorService mockExecutor = mock(ExecutorService.class);
-    when(execProvider.getExecutorService()).thenReturn(mockExecutor);
+    when(execProvider.getExecutorService(Stage.Transmission)).thenReturn(mockExecutor);
     AgentTaskListener mockListener = mock(AgentTaskListener.class);
     Set<AgentTaskListener> listeners = new HashSet<>();
     listeners.add(mockListener);
@@ -87,6 +88,7 @@ public class AgentActivationTransmissionTest {
     verify(mockExecutor).submit(mockAgent1);
     verify(mockExecutor).submit(mockAgent2);
     verify(mockExecutor).submit(mockAgent3);
+    verify(mockRoot).publishResult(leaf);
     verify(mockRoot).wakeUp();
   }
 
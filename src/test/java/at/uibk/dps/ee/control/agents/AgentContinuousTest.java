@@ -3,6 +3,9 @@ package at.uibk.dps.ee.control.agents;
 import static org.junit.Assert.*;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -137,4 +140,31 @@ public class AgentContinuousTest {
     }
     assertTrue(future.isDone());
   }
+
+  @Test
+  public void testBatchWithPoisonPill() throws Exception {
+    Task task1 = new Task("task1");
+    Task task2 = new Task("task2");
+    List<Task> processed = new ArrayList<>();
+    AgentContinuous tested = new AgentContinuous() {
+      @Override
+      protected void operationOnTask(Task task) {
+        processed.add(task);
+      }
+
+      @Override
+      protected Task getTaskFromBlockingQueue() {
+        fail();
+        return null;
+      }
+
+      @Override
+      protected List<Task> getTaskBatch() {
+        return Arrays.asList(task1, new PoisonPill(), task2);
+      }
+    };
+    assertTrue(tested.call());
+    // the agent stops at the pill
+    assertEquals(Arrays.asList(task1), processed);
+  }
 }
@@ -2,13 +2,41 @@ package at.uibk.dps.ee.control.agents;
 
 import static org.junit.Assert.*;
 import org.junit.Test;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import at.uibk.dps.ee.control.enactment.EnactmentCoalescer;
 import at.uibk.dps.ee.control.enactment.PostEnactment;
+import at.uibk.dps.ee.control.enactment.ResultCache;
+import at.uibk.dps.ee.control.graph.GraphAccess;
+import at.uibk.dps.ee.control.graph.GraphAccessConcurrent;
+import at.uibk.dps.ee.control.graph.GraphProviderEnactables;
+import at.uibk.dps.ee.control.graph.InstanceStateGraph;
+import at.uibk.dps.ee.control.management.ExecutorServiceInline;
 import at.uibk.dps.ee.core.enactable.Enactable;
+import at.uibk.dps.ee.core.enactable.Enactable.State;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.properties.PropertyServiceData;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
 import at.uibk.dps.ee.model.properties.PropertyServiceFunction;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionUser;
+import net.sf.opendse.model.Communication;
 import net.sf.opendse.model.Task;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
-import java.util.HashSet;;
+import static org.mockito.Mockito.when;
+import java.util.HashSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class AgentEnactmentTest {
 
@@ -18,7 +46,9 @@ public class AgentEnactmentTest {
     PostEnactment postMock = mock(PostEnactment.class);
     Task task = new Task("task");
     PropertyServiceFunction.setEnactable(task, mockEnactable);
-    AgentEnactment tested = new AgentEnactment(task, postMock, new HashSet<>());
+    AgentEnactment tested = new AgentEnactment(task, postMock, new HashSet<>(),
+        new InstanceStateGraph(), new EnactmentCoalescer(false, new ResultCache(0, 0, "")),
+        mock(GraphAccess.class), new ExecutorServiceInline());
     assertEquals(/*ConstantsAgents.ExcMessageEnactment +*/ task.getId(),
         tested.formulateExceptionMessage());
     try {
@@ -29,4 +59,173 @@ public class AgentEnactmentTest {
       fail();
     }
   }
+
+  @Test
+  public void testCoalesced() {
+    EnactmentGraph graph = new EnactmentGraph();
+    Task input = new Communication("input");
+    PropertyServiceData.setContent(input, new JsonPrimitive(42));
+    Task task = PropertyServiceFunctionUser.createUserTask("task", "addition");
+    PropertyServiceDependency.addDataDependency(input, task, "in", graph);
+    Enactable mockEnactable = mock(Enactable.class);
+    PropertyServiceFunction.setEnactable(task, mockEnactable);
+    GraphProviderEnactables providerMock = mock(GraphProviderEnactables.class);
+    when(providerMock.getEnactmentGraph()).thenReturn(graph);
+    GraphAccess graphAccess = new GraphAccessConcurrent(providerMock);
+    InstanceStateGraph instanceState = new InstanceStateGraph();
+    EnactmentCoalescer coalescer = new EnactmentCoalescer(true, new ResultCache(0, 0, ""));
+    PostEnactment postMock = mock(PostEnactment.class);
+    AgentEnactment tested = new AgentEnactment(task, postMock, new HashSet<>(), instanceState,
+        coalescer, graphAccess, new ExecutorServiceInline());
+    // an identical enactment is in flight
+    JsonObject result = new JsonObject();
+    result.addProperty("out", 43);
+    coalescer.join(coalescer.getKey(task, graphAccess, instanceState),
+        CompletableFuture.completedFuture(result));
+    try {
+      tested.actualCall();
+      verify(mockEnactable, never()).play();
+      verify(mockEnactable).setState(State.FINISHED);
+      verify(postMock).postEnactmentTreatment(task);
+      assertEquals(result, instanceState.getResult(task));
+      assertEquals(1, coalescer.getCoalescedCallNumber());
+    } catch (Exception e) {
+      fail();
+    }
+  }
+
+  @Test
+  public void testLeader() {
+    EnactmentGraph graph = new EnactmentGraph();
+    Task task = PropertyServiceFunctionUser.createUserTask("task", "addition");
+    graph.addVertex(task);
+    Enactable mockEnactable = mock(Enactable.class);
+    JsonObject result = new JsonObject();
+    result.addProperty("out", 43);
+    when(mockEnactable.getResult()).thenReturn(result);
+    PropertyServiceFunction.setEnactable(task, mockEnactable);
+    GraphProviderEnactables providerMock = mock(GraphProviderEnactables.class);
+    when(providerMock.getEnactmentGraph()).thenReturn(graph);
+    GraphAccess graphAccess = new GraphAccessConcurrent(providerMock);
+    InstanceStateGraph instanceState = new InstanceStateGraph();
+    EnactmentCoalescer coalescer = new EnactmentCoalescer(true, new ResultCache(0, 0, ""));
+    PostEnactment postMock = mock(PostEnactment.class);
+    AgentEnactment tested = new AgentEnactment(task, postMock, new HashSet<>(), instanceState,
+        coalescer, graphAccess, new ExecutorServiceInline());
+    try {
+      tested.actualCall();
+      verify(mockEnactable).play();
+      verify(postMock).postEnactmentTreatment(task);
+      assertEquals(1, coalescer.getLeadingCallNumber());
+      // the invocation is no longer in flight
+      CompletableFuture<JsonObject> next = new CompletableFuture<>();
+      assertNull(coalescer.join(coalescer.getKey(task, graphAccess, instanceState), next));
+    } catch (Exception e) {
+      fail();
+    }
+  }
+
+  @Test
+  public void testCoalescedPending() {
+    EnactmentGraph graph = new EnactmentGraph();
+    Task task = PropertyServiceFunctionUser.createUserTask("task", "addition");
+    graph.addVertex(task);
+    Enactable mockEnactable = mock(Enactable.class);
+    PropertyServiceFunction.setEnactable(task, mockEnactable);
+    GraphProviderEnactables providerMock = mock(GraphProviderEnactables.class);
+    when(providerMock.getEnactmentGraph()).thenReturn(graph);
+    GraphAccess graphAccess = new GraphAccessConcurrent(providerMock);
+    InstanceStateGraph instanceState = new InstanceStateGraph();
+    EnactmentCoalescer coalescer = new EnactmentCoalescer(true, new ResultCache(0, 0, ""));
+    PostEnactment postMock = mock(PostEnactment.class);
+    AgentEnactment tested = new AgentEnactment(task, postMock, new HashSet<>(), instanceState,
+        coalescer, graphAccess, new ExecutorServiceInline());
+    String key = coalescer.getKey(task, graphAccess, instanceState);
+    CompletableFuture<JsonObject> leader = new CompletableFuture<>();
+    coalescer.join(key, leader);
+    try {
+      // the agent does not wait for the identical enactment
+      assertTrue(tested.actualCall());
+      verify(postMock, never()).postEnactmentTreatment(task);
+      JsonObject result = new JsonObject();
+      result.addProperty("out", 43);
+      coalescer.complete(key, leader, result);
+      verify(mockEnactable, never()).play();
+      verify(postMock).postEnactmentTreatment(task);
+      assertEquals(result, instanceState.getResult(task));
+    } catch (Exception e) {
+      fail();
+    }
+  }
+
+  @Test
+  public void testLeaderError() throws Exception {
+    EnactmentGraph graph = new EnactmentGraph();
+    Task task = PropertyServiceFunctionUser.createUserTask("task", "addition");
+    graph.addVertex(task);
+    Enactable mockEnactable = mock(Enactable.class);
+    Error failure = new StackOverflowError();
+    doThrow(failure).when(mockEnactable).play();
+    PropertyServiceFunction.setEnactable(task, mockEnactable);
+    GraphProviderEnactables providerMock = mock(GraphProviderEnactables.class);
+    when(providerMock.getEnactmentGraph()).thenReturn(graph);
+    GraphAccess graphAccess = new GraphAccessConcurrent(providerMock);
+    InstanceStateGraph instanceState = new InstanceStateGraph();
+    EnactmentCoalescer coalescer = new EnactmentCoalescer(true, new ResultCache(0, 0, ""));
+    AgentEnactment tested = new AgentEnactment(task, mock(PostEnactment.class),
+        new HashSet<>(), instanceState, coalescer, graphAccess, new ExecutorServiceInline());
+    try {
+      tested.actualCall();
+      fail();
+    } catch (StackOverflowError error) {
+      assertSame(failure, error);
+    }
+    // the failed invocation is no longer in flight
+    CompletableFuture<JsonObject> next = new CompletableFuture<>();
+    assertNull(coalescer.join(coalescer.getKey(task, graphAccess, instanceState), next));
+  }
+
+  @Test
+  public void testFollowersAfterStoppedLeader() throws Exception {
+    final int followerNumber = 4;
+    EnactmentGraph graph = new EnactmentGraph();
+    InstanceStateGraph instanceState = new InstanceStateGraph();
+    EnactmentCoalescer coalescer = new EnactmentCoalescer(true, new ResultCache(0, 0, ""));
+    PostEnactment postMock = mock(PostEnactment.class);
+    ExecutorService executor = Executors.newFixedThreadPool(followerNumber);
+    GraphProviderEnactables providerMock = mock(GraphProviderEnactables.class);
+    when(providerMock.getEnactmentGraph()).thenReturn(graph);
+    GraphAccess graphAccess = new GraphAccessConcurrent(providerMock);
+    // the followers only finish if they are enacted at the same time
+    CyclicBarrier barrier = new CyclicBarrier(followerNumber);
+    AtomicInteger parallelPlays = new AtomicInteger();
+    Enactable followerEnactable = mock(Enactable.class);
+    doAnswer(invocation -> {
+      barrier.await(5, TimeUnit.SECONDS);
+      parallelPlays.incrementAndGet();
+      return null;
+    }).when(followerEnactable).play();
+    AgentEnactment[] followers = new AgentEnactment[followerNumber];
+    for (int i = 0; i < followerNumber; i++) {
+      Task follower = PropertyServiceFunctionUser.createUserTask("follower" + i, "addition");
+      graph.addVertex(follower);
+      PropertyServiceFunction.setEnactable(follower, followerEnactable);
+      followers[i] = new AgentEnactment(follower, postMock, new HashSet<>(), instanceState,
+          coalescer, graphAccess, executor);
+    }
+    String key = coalescer.getKey(followers[0].taskNode, graphAccess, instanceState);
+    CompletableFuture<JsonObject> leader = new CompletableFuture<>();
+    coalescer.join(key, leader);
+    try {
+      for (AgentEnactment follower : followers) {
+        assertTrue(follower.actualCall());
+      }
+      // the leader was stopped: the followers are enacted on their own
+      coalescer.complete(key, leader, null);
+      verify(postMock, timeout(10000).times(followerNumber)).postEnactmentTreatment(any());
+      assertEquals(followerNumber, parallelPlays.get());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
 }
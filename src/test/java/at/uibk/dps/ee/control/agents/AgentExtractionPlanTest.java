@@ -0,0 +1,79 @@
+package at.uibk.dps.ee.control.agents;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.util.HashSet;
+import org.junit.Test;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import at.uibk.dps.ee.control.graph.ExecutionPlan;
+import at.uibk.dps.ee.control.graph.InstanceStatePlan;
+import at.uibk.dps.ee.control.management.EnactmentQueues;
+import at.uibk.dps.ee.core.enactable.Enactable;
+import at.uibk.dps.ee.enactables.wrapper.FactoryInterface;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.properties.PropertyServiceData;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionUser;
+import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+
+public class AgentExtractionPlanTest {
+
+  protected final EnactmentGraph graph = new EnactmentGraph();
+  protected final Task finished = PropertyServiceFunctionUser.createUserTask("finished", "add");
+  protected final Task dataNode = new Communication("data");
+  protected final Task sequentiality = PropertyServiceData.createSequentialityNode("seq");
+  protected final Dependency dataEdge =
+      PropertyServiceDependency.addDataDependency(finished, dataNode, "key", graph);
+  protected final Dependency seqEdge =
+      PropertyServiceDependency.addDataDependency(finished, sequentiality, "seqKey", graph);
+
+  protected InstanceStatePlan getState(ExecutionPlan plan, JsonObject result) {
+    FactoryInterface factory = mock(FactoryInterface.class);
+    Enactable enactable = mock(Enactable.class);
+    when(enactable.getResult()).thenReturn(result);
+    when(factory.createEnactable(finished)).thenReturn(enactable);
+    return new InstanceStatePlan(plan, factory);
+  }
+
+  @Test
+  public void testExtraction() throws Exception {
+    ExecutionPlan plan = ExecutionPlan.compile(graph, 0);
+    JsonObject result = new JsonObject();
+    result.add("key", new JsonPrimitive(42));
+    InstanceStatePlan state = getState(plan, result);
+    EnactmentQueues queues = mock(EnactmentQueues.class);
+    AgentExtractionPlan tested = new AgentExtractionPlan(plan.getEdgeIndex(dataEdge), plan,
+        queues, new HashSet<>(), state);
+    String expectedMessage = ConstantsAgents.ExcMessageExtractionPrefix + finished.getId()
+        + ConstantsAgents.ExcMessageExtractionSuffix + dataNode.getId();
+    assertEquals(expectedMessage, tested.formulateExceptionMessage());
+    assertTrue(tested.actualCall());
+    assertEquals(new JsonPrimitive(42), state.getContent(dataNode));
+    verify(queues).putAvailableData(dataNode);
+  }
+
+  @Test
+  public void testSequentiality() throws Exception {
+    ExecutionPlan plan = ExecutionPlan.compile(graph, 0);
+    InstanceStatePlan state = getState(plan, new JsonObject());
+    EnactmentQueues queues = mock(EnactmentQueues.class);
+    AgentExtractionPlan tested = new AgentExtractionPlan(plan.getEdgeIndex(seqEdge), plan,
+        queues, new HashSet<>(), state);
+    assertTrue(tested.actualCall());
+    assertEquals(new JsonPrimitive(true), state.getContent(sequentiality));
+    verify(queues).putAvailableData(sequentiality);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testMissingKey() throws Exception {
+    ExecutionPlan plan = ExecutionPlan.compile(graph, 0);
+    AgentExtractionPlan tested = new AgentExtractionPlan(plan.getEdgeIndex(dataEdge), plan,
+        mock(EnactmentQueues.class), new HashSet<>(), getState(plan, new JsonObject()));
+    tested.actualCall();
+  }
+}
@@ -5,6 +5,7 @@ import org.junit.Test;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonPrimitive;
+import at.uibk.dps.ee.control.graph.InstanceStateGraph;
 import at.uibk.dps.ee.control.management.EnactmentQueues;
 import at.uibk.dps.ee.core.enactable.Enactable;
 import at.uibk.dps.ee.model.constants.ConstantsEEModel;
@@ -37,7 +38,8 @@ public class AgentExtractionTest {
     EnactmentQueues mockState = mock(EnactmentQueues.class);
     PropertyServiceDependency.setJsonKey(dep, "key");
     AgentExtraction tested =
-        new AgentExtraction(finished, dep, dataNode, mockState, new HashSet<>());
+        new AgentExtraction(finished, dep, dataNode, mockState, new HashSet<>(),
+            new InstanceStateGraph());
     String expectedMessage = ConstantsAgents.ExcMessageExtractionPrefix + finished.getId()
         + ConstantsAgents.ExcMessageExtractionSuffix + dataNode.getId();
     assertEquals(expectedMessage, tested.formulateExceptionMessage());
@@ -62,7 +64,8 @@ public class AgentExtractionTest {
     EnactmentQueues mockState = mock(EnactmentQueues.class);
     PropertyServiceDependency.setJsonKey(dep, ConstantsEEModel.JsonKeySequentiality);
     AgentExtraction tested =
-        new AgentExtraction(finished, dep, dataNode, mockState, new HashSet<>());
+        new AgentExtraction(finished, dep, dataNode, mockState, new HashSet<>(),
+            new InstanceStateGraph());
     try {
       tested.actualCall();
     } catch (Exception e) {
@@ -84,7 +87,8 @@ public class AgentExtractionTest {
     EnactmentQueues mockState = mock(EnactmentQueues.class);
     PropertyServiceDependency.setJsonKey(dep, "key");
     AgentExtraction tested =
-        new AgentExtraction(finished, dep, dataNode, mockState, new HashSet<>());
+        new AgentExtraction(finished, dep, dataNode, mockState, new HashSet<>(),
+            new InstanceStateGraph());
     String expectedMessage = ConstantsAgents.ExcMessageExtractionPrefix + finished.getId()
         + ConstantsAgents.ExcMessageExtractionSuffix + dataNode.getId();
     assertEquals(expectedMessage, tested.formulateExceptionMessage());
@@ -6,6 +6,8 @@ import at.uibk.dps.ee.control.graph.GraphAccess;
 import at.uibk.dps.ee.control.management.EnactmentAgent;
 import at.uibk.dps.ee.control.management.EnactmentQueues;
 import at.uibk.dps.ee.control.management.ExecutorProvider;
+import at.uibk.dps.ee.control.management.ExecutorProviderInline;
+import at.uibk.dps.ee.control.management.ExecutorServiceInline;
 import static org.mockito.Mockito.mock;
 
 public class AgentFactoryActivationTest {
@@ -21,7 +23,7 @@ public class AgentFactoryActivationTest {
     AgentFactoryTransform transformMock = mock(AgentFactoryTransform.class);
     GraphAccess graphMock = mock(GraphAccess.class);
     AgentFactoryActivation tested = new AgentFactoryActivation(state, execProvider, schedMock,
-        transMock, enactMock, extractMock, transformMock, graphMock);
+        transMock, enactMock, extractMock, transformMock, graphMock, false);
 
     EnactmentAgent agentMock = mock(EnactmentAgent.class);
     assertTrue(tested.createSchedulingActivationAgent() instanceof AgentActivationScheduling);
@@ -30,5 +32,19 @@ public class AgentFactoryActivationTest {
     assertTrue(
         tested.createTransmissionActivationAgent(agentMock) instanceof AgentActivationTransmission);
     assertTrue(tested.createTransformActicationAgent() instanceof AgentActivationTransform);
+    assertSame(execProvider, tested.bookkeepingExecutorProvider);
+  }
+
+  @Test
+  public void testInlineBookkeeping() {
+    EnactmentQueues state = mock(EnactmentQueues.class);
+    ExecutorProvider execProvider = mock(ExecutorProvider.class);
+    AgentFactoryActivation tested = new AgentFactoryActivation(state, execProvider,
+        mock(AgentFactoryScheduling.class), mock(AgentFactoryTransmission.class),
+        mock(AgentFactoryEnactment.class), mock(AgentFactoryExtraction.class),
+        mock(AgentFactoryTransform.class), mock(GraphAccess.class), true);
+    assertTrue(tested.bookkeepingExecutorProvider instanceof ExecutorProviderInline);
+    AgentActivationExtraction extraction = tested.createExtractionActivationAgent();
+    assertTrue(extraction.executor instanceof ExecutorServiceInline);
   }
 }
@@ -2,7 +2,14 @@ package at.uibk.dps.ee.control.agents;
 
 import static org.junit.Assert.*;
 import org.junit.Test;
+import at.uibk.dps.ee.control.enactment.EnactmentCoalescer;
+import at.uibk.dps.ee.control.enactment.PostEnactmentMemoization;
+import at.uibk.dps.ee.control.enactment.PostEnactmentQueueing;
+import at.uibk.dps.ee.control.enactment.ResultCache;
+import at.uibk.dps.ee.control.graph.GraphAccess;
+import at.uibk.dps.ee.control.graph.InstanceStateGraph;
 import at.uibk.dps.ee.control.management.EnactmentQueues;
+import at.uibk.dps.ee.control.management.ExecutorProviderInline;
 import net.sf.opendse.model.Task;
 import static org.mockito.Mockito.mock;
 import java.util.HashSet;
@@ -13,11 +20,25 @@ public class AgentFactoryEnactmentTest {
   @Test
   public void test() {
     EnactmentQueues stateMock = mock(EnactmentQueues.class);
-    AgentFactoryEnactment tested = new AgentFactoryEnactment(stateMock);
+    AgentFactoryEnactment tested = new AgentFactoryEnactment(stateMock, new InstanceStateGraph(),
+        new ResultCache(0, 0, ""), mock(GraphAccess.class),
+        new EnactmentCoalescer(false, new ResultCache(0, 0, "")), new ExecutorProviderInline());
     Task task = new Task("task");
     Set<AgentTaskListener> listeners = new HashSet<>();
     AgentEnactment result = tested.createEnactmentAgent(task, listeners);
     assertEquals(task, result.taskNode);
     assertEquals(listeners, result.listeners);
+    assertTrue(result.postEnactment instanceof PostEnactmentQueueing);
+  }
+
+  @Test
+  public void testMemoization() {
+    EnactmentQueues stateMock = mock(EnactmentQueues.class);
+    AgentFactoryEnactment tested = new AgentFactoryEnactment(stateMock, new InstanceStateGraph(),
+        new ResultCache(10, 0, ""), mock(GraphAccess.class),
+        new EnactmentCoalescer(false, new ResultCache(10, 0, "")),
+        new ExecutorProviderInline());
+    AgentEnactment result = tested.createEnactmentAgent(new Task("task"), new HashSet<>());
+    assertTrue(result.postEnactment instanceof PostEnactmentMemoization);
   }
 }
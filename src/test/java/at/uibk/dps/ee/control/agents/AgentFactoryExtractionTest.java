@@ -3,6 +3,7 @@ package at.uibk.dps.ee.control.agents;
 import static org.junit.Assert.*;
 import org.junit.Test;
 import at.uibk.dps.ee.control.graph.GraphAccess.EdgeTupleAppl;
+import at.uibk.dps.ee.control.graph.InstanceStateGraph;
 import at.uibk.dps.ee.control.management.EnactmentQueues;
 import net.sf.opendse.model.Dependency;
 import net.sf.opendse.model.Task;
@@ -21,7 +22,7 @@ public class AgentFactoryExtractionTest {
     EdgeTupleAppl tuple = new EdgeTupleAppl(src, dst, edge);
     Set<AgentTaskListener> listeners = new HashSet<>();
 
-    AgentFactoryExtraction tested = new AgentFactoryExtraction(stateMock);
+    AgentFactoryExtraction tested = new AgentFactoryExtraction(stateMock, new InstanceStateGraph());
     AgentExtraction result = tested.createExtractionAgent(tuple, listeners);
     assertEquals(src, result.finishedFunction);
     assertEquals(dst, result.dataNode);
@@ -2,6 +2,9 @@ package at.uibk.dps.ee.control.agents;
 
 import static org.junit.Assert.*;
 import org.junit.Test;
+import at.uibk.dps.ee.control.enactment.ResultCache;
+import at.uibk.dps.ee.control.graph.GraphAccess;
+import at.uibk.dps.ee.control.graph.InstanceStateGraph;
 import at.uibk.dps.ee.control.management.EnactmentQueues;
 import at.uibk.dps.sc.core.ScheduleModel;
 import at.uibk.dps.sc.core.interpreter.ScheduleInterpreter;
@@ -24,7 +27,8 @@ public class AgentFactorySchedulingTest {
     Set<AgentTaskListener> listeners = new HashSet<>();
 
     AgentFactoryScheduling tested =
-        new AgentFactoryScheduling(scheduleMock, interpreterMock, schedulerMock, stateMock);
+        new AgentFactoryScheduling(scheduleMock, interpreterMock, schedulerMock, stateMock,
+            new InstanceStateGraph(), new ResultCache(0, 0, ""), mock(GraphAccess.class));
     AgentScheduling result = tested.createSchedulingAgent(task, listeners);
     assertEquals(task, result.functionNode);
     assertEquals(listeners, result.listeners);
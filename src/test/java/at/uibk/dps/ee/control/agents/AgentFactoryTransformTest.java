@@ -2,17 +2,25 @@ package at.uibk.dps.ee.control.agents;
 
 import static org.junit.Assert.*;
 import org.junit.Test;
+import at.uibk.dps.ee.control.graph.DistributionWindow;
 import at.uibk.dps.ee.control.graph.GraphAccess;
+import at.uibk.dps.ee.control.graph.GraphChangeListener;
+import at.uibk.dps.ee.control.graph.GraphChangeSet;
 import at.uibk.dps.ee.control.graph.GraphTransformAggregation;
 import at.uibk.dps.ee.control.graph.GraphTransformDistribution;
+import at.uibk.dps.ee.control.graph.GraphTransformWindowSlide;
 import at.uibk.dps.ee.control.management.EnactmentQueues;
 import at.uibk.dps.ee.control.management.ExecutionMonitor;
+import at.uibk.dps.ee.core.ModelModificationListener;
 import at.uibk.dps.ee.enactables.EnactableFactory;
 import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections;
 import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections.OperationType;
 import net.sf.opendse.model.Task;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import java.util.HashSet;
+import java.util.Set;
 
 public class AgentFactoryTransformTest {
 
@@ -22,8 +30,8 @@ public class AgentFactoryTransformTest {
     EnactableFactory factoryMock = mock(EnactableFactory.class);
     EnactmentQueues stateMock = mock(EnactmentQueues.class);
     ExecutionMonitor executionMock = mock(ExecutionMonitor.class);
-    AgentFactoryTransform tested =
-        new AgentFactoryTransform(gMock, factoryMock, stateMock, new HashSet<>(), executionMock);
+    AgentFactoryTransform tested = new AgentFactoryTransform(gMock, factoryMock, stateMock,
+        new HashSet<>(), executionMock, 2, 0);
     Task aggregationTask = PropertyServiceFunctionDataFlowCollections
         .createCollectionDataFlowTask("t1", OperationType.Aggregation, "scope");
     Task distributionTask = PropertyServiceFunctionDataFlowCollections
@@ -32,5 +40,60 @@ public class AgentFactoryTransformTest {
     assertTrue(resultAgg.modification instanceof GraphTransformAggregation);
     AgentTransform resultDist = tested.createTransformAgent(distributionTask, new HashSet<>());
     assertTrue(resultDist.modification instanceof GraphTransformDistribution);
+    Set<Task> aggregators = new HashSet<>();
+    aggregators.add(aggregationTask);
+    DistributionWindow window = new DistributionWindow(distributionTask, 3, 2, new HashSet<>(),
+        new HashSet<>(), aggregators);
+    window.attach();
+    AgentTransform resultSlide =
+        tested.createTransformAgent(window.getSlideTrigger(), new HashSet<>());
+    assertTrue(resultSlide.modification instanceof GraphTransformWindowSlide);
+  }
+
+  @Test
+  public void testForInstance() {
+    AgentFactoryTransform parent = new AgentFactoryTransform(mock(GraphAccess.class),
+        mock(EnactableFactory.class), mock(EnactmentQueues.class), new HashSet<>(),
+        mock(ExecutionMonitor.class), 2, 0);
+    GraphAccess instanceAccess = mock(GraphAccess.class);
+    EnactmentQueues instanceQueues = mock(EnactmentQueues.class);
+    AgentFactoryTransform tested = parent.forInstance(instanceAccess, instanceQueues);
+    assertSame(instanceAccess, tested.graphAccess);
+    assertSame(instanceQueues, tested.enactmentState);
+    assertSame(parent.modificationListeners, tested.modificationListeners);
+    assertSame(parent.enactableFactory, tested.enactableFactory);
+    assertEquals(2, tested.windowSize);
+  }
+
+  @Test
+  public void testChangeTracking() {
+    GraphAccess withoutListeners = mock(GraphAccess.class);
+    new AgentFactoryTransform(withoutListeners, mock(EnactableFactory.class),
+        mock(EnactmentQueues.class), new HashSet<>(), mock(ExecutionMonitor.class), 2, 0);
+    verify(withoutListeners, never()).trackGraphChanges();
+    GraphAccess withListeners = mock(GraphAccess.class);
+    Set<ModelModificationListener> listeners = new HashSet<>();
+    listeners.add(mock(ModelModificationListener.class));
+    new AgentFactoryTransform(withListeners, mock(EnactableFactory.class),
+        mock(EnactmentQueues.class), listeners, mock(ExecutionMonitor.class), 2, 0);
+    verify(withListeners).trackGraphChanges();
+  }
+
+  @Test
+  public void testEnactmentTerminated() {
+    GraphChangeListener listener = mock(GraphChangeListener.class);
+    Set<ModelModificationListener> listeners = new HashSet<>();
+    listeners.add(listener);
+    AgentFactoryTransform tested = new AgentFactoryTransform(mock(GraphAccess.class),
+        mock(EnactableFactory.class), mock(EnactmentQueues.class), listeners,
+        mock(ExecutionMonitor.class), 2, 10000);
+    GraphChangeSet changes = GraphChangeSet.empty();
+    tested.modificationListeners.forEach(
+        coalescer -> ((GraphChangeListener) coalescer).reactToGraphChange(changes));
+    verify(listener, never()).reactToGraphChange(changes);
+    // the pending changes are delivered and the delivery thread is shut down
+    tested.enactmentTerminated();
+    verify(listener).reactToGraphChange(changes);
+    assertTrue(tested.coalescingScheduler.isShutdown());
   }
 }
@@ -4,8 +4,10 @@ import static org.junit.Assert.*;
 import org.junit.Test;
 import at.uibk.dps.ee.control.graph.GraphAccess;
 import at.uibk.dps.ee.control.graph.GraphAccess.EdgeTupleAppl;
+import at.uibk.dps.ee.control.graph.InstanceStateGraph;
 import at.uibk.dps.ee.control.management.EnactmentQueues;
-import at.uibk.dps.ee.control.transmission.SchedulabilityCheckDefault;
+import at.uibk.dps.ee.control.transmission.ReadinessTracker;
+import at.uibk.dps.ee.control.transmission.SchedulabilityCheckCounter;
 import at.uibk.dps.ee.control.transmission.SchedulabilityCheckMuxer;
 import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlow;
 import at.uibk.dps.ee.model.properties.PropertyServiceFunctionUser;
@@ -28,7 +30,8 @@ public class AgentFactoryTransmissionTest {
     Task task = PropertyServiceFunctionUser.createUserTask("task", "addition");
     EdgeTupleAppl tuple = new EdgeTupleAppl(data, task, edge);
     Set<AgentTaskListener> listeners = new HashSet<>();
-    AgentFactoryTransmission tested = new AgentFactoryTransmission(stateMock, graphMock);
+    AgentFactoryTransmission tested = new AgentFactoryTransmission(stateMock, graphMock,
+        new ReadinessTracker(new InstanceStateGraph(), graphMock), new InstanceStateGraph());
     AgentTransmission result = tested.createTransmissionAgent(tuple, listeners);
     assertEquals(stateMock, result.enactmentState);
     assertEquals(graphMock, result.graphAccess);
@@ -42,11 +45,13 @@ public class AgentFactoryTransmissionTest {
   public void testGetCheckForTarget() {
     EnactmentQueues stateMock = mock(EnactmentQueues.class);
     GraphAccess graphMock = mock(GraphAccess.class);
-    AgentFactoryTransmission tested = new AgentFactoryTransmission(stateMock, graphMock);
+    AgentFactoryTransmission tested = new AgentFactoryTransmission(stateMock, graphMock,
+        new ReadinessTracker(new InstanceStateGraph(), graphMock), new InstanceStateGraph());
     Task normalTask = PropertyServiceFunctionUser.createUserTask("userTask", "addition");
     Task muxer =
         PropertyServiceFunctionDataFlow.createDataFlowFunction("muxer", DataFlowType.Multiplexer);
-    assertTrue(tested.getCheckForTarget(normalTask) instanceof SchedulabilityCheckDefault);
-    assertTrue(tested.getCheckForTarget(muxer) instanceof SchedulabilityCheckMuxer);
+    Dependency edge = new Dependency("edge");
+    assertTrue(tested.getCheckForTarget(normalTask, edge) instanceof SchedulabilityCheckCounter);
+    assertTrue(tested.getCheckForTarget(muxer, edge) instanceof SchedulabilityCheckMuxer);
   }
 }
@@ -2,18 +2,33 @@ package at.uibk.dps.ee.control.agents;
 
 import static org.junit.Assert.*;
 import org.junit.Test;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import at.uibk.dps.ee.control.enactment.PostEnactment;
+import at.uibk.dps.ee.control.enactment.ResultCache;
+import at.uibk.dps.ee.control.graph.GraphAccess;
+import at.uibk.dps.ee.control.graph.GraphAccessConcurrent;
+import at.uibk.dps.ee.control.graph.GraphProviderEnactables;
+import at.uibk.dps.ee.control.graph.InstanceStateGraph;
 import at.uibk.dps.ee.control.management.EnactmentQueues;
 import at.uibk.dps.ee.core.enactable.Enactable;
+import at.uibk.dps.ee.core.enactable.Enactable.State;
 import at.uibk.dps.ee.core.enactable.EnactmentFunction;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.properties.PropertyServiceData;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
 import at.uibk.dps.ee.model.properties.PropertyServiceFunction;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionUser;
 import at.uibk.dps.sc.core.ScheduleModel;
 import at.uibk.dps.sc.core.interpreter.ScheduleInterpreter;
 import at.uibk.dps.sc.core.scheduler.Scheduler;
+import net.sf.opendse.model.Communication;
 import net.sf.opendse.model.Mapping;
 import net.sf.opendse.model.Resource;
 import net.sf.opendse.model.Task;
 import static org.mockito.Mockito.mock;
 
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.when;
 import java.util.HashSet;
 import java.util.Set;
@@ -38,7 +53,8 @@ public class AgentSchedulingTest {
     when(interpreterMock.interpretSchedule(task, schedule)).thenReturn(functionMock);
 
     AgentScheduling tested = new AgentScheduling(scheduleMock, schedulerMock, task, stateMock,
-        interpreterMock, listeners);
+        interpreterMock, listeners, new InstanceStateGraph(), new ResultCache(0, 0, ""),
+        mock(GraphAccess.class), mock(PostEnactment.class));
     assertEquals(ConstantsAgents.ExcMessageScheduling + task.getId(),
         tested.formulateExceptionMessage());
 
@@ -51,6 +67,48 @@ public class AgentSchedulingTest {
     }
   }
 
+  @Test
+  public void testCachedResult() {
+    ScheduleModel scheduleMock = mock(ScheduleModel.class);
+    Scheduler schedulerMock = mock(Scheduler.class);
+    EnactmentQueues stateMock = mock(EnactmentQueues.class);
+    ScheduleInterpreter interpreterMock = mock(ScheduleInterpreter.class);
+    EnactmentGraph graph = new EnactmentGraph();
+    Task input = new Communication("input");
+    PropertyServiceData.setContent(input, new JsonPrimitive(42));
+    Task task = PropertyServiceFunctionUser.createUserTask("task", "addition");
+    PropertyServiceDependency.addDataDependency(input, task, "in", graph);
+    Enactable enactableMock = mock(Enactable.class);
+    PropertyServiceFunction.setEnactable(task, enactableMock);
+    GraphProviderEnactables providerMock = mock(GraphProviderEnactables.class);
+    when(providerMock.getEnactmentGraph()).thenReturn(graph);
+    GraphAccess graphAccess = new GraphAccessConcurrent(providerMock);
+    InstanceStateGraph instanceState = new InstanceStateGraph();
+    ResultCache cache = new ResultCache(10, 0, "");
+    PostEnactment postMock = mock(PostEnactment.class);
+    AgentScheduling tested = new AgentScheduling(scheduleMock, schedulerMock, task, stateMock,
+        interpreterMock, new HashSet<>(), instanceState, cache, graphAccess, postMock);
+    JsonObject result = new JsonObject();
+    result.addProperty("out", 43);
+    cache.put(cache.getKey(task, graphAccess, instanceState), result);
+    try {
+      tested.actualCall();
+      verify(schedulerMock, never()).scheduleTask(task);
+      verify(stateMock, never()).putLaunchableTask(task);
+      verify(enactableMock).setState(State.FINISHED);
+      verify(postMock).postEnactmentTreatment(task);
+      assertEquals(result, instanceState.getResult(task));
+      // a miss clears the served result (new inputs, so the key is computed anew)
+      instanceState.setEnactmentKey(task, null);
+      PropertyServiceData.setContent(input, new JsonPrimitive(43));
+      tested.actualCall();
+      verify(stateMock).putLaunchableTask(task);
+      assertNull(instanceState.getServedResult(task));
+    } catch (Exception e) {
+      fail();
+    }
+  }
+
   @Test
   public void testAlreadyScheduled() {
     /* will be updated
@@ -69,7 +127,7 @@ public class AgentSchedulingTest {
     when(interpreterMock.interpretSchedule(task, schedule)).thenReturn(functionMock);
 
     AgentScheduling tested = new AgentScheduling(scheduleMock, schedulerMock, task, stateMock,
-        interpreterMock, listeners);
+        interpreterMock, listeners, new InstanceStateGraph());
     try {
       tested.actualCall();
     } catch (IllegalStateException e) {
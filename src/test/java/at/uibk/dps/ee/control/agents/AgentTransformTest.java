@@ -5,12 +5,15 @@ import java.util.HashSet;
 import java.util.Set;
 import org.junit.Test;
 import at.uibk.dps.ee.control.graph.GraphAccess;
+import at.uibk.dps.ee.control.graph.GraphChangeListener;
+import at.uibk.dps.ee.control.graph.GraphChangeSet;
 import at.uibk.dps.ee.control.graph.GraphTransform;
 import at.uibk.dps.ee.control.management.EnactmentQueues;
 import at.uibk.dps.ee.core.ModelModificationListener;
 import net.sf.opendse.model.Task;
 
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -43,4 +46,21 @@ public class AgentTransformTest {
       fail();
     }
   }
+
+  @Test
+  public void testChangeListener() throws Exception {
+    Task taskNode = new Task("task");
+    GraphTransform modification = mock(GraphTransform.class);
+    GraphAccess gAccess = mock(GraphAccess.class);
+    GraphChangeSet changes = GraphChangeSet.empty();
+    when(gAccess.takeGraphChanges(taskNode)).thenReturn(changes);
+    GraphChangeListener changeListener = mock(GraphChangeListener.class);
+    Set<ModelModificationListener> modificationListeners = new HashSet<>();
+    modificationListeners.add(changeListener);
+    AgentTransform tested = new AgentTransform(new HashSet<>(), gAccess, modification, taskNode,
+        mock(EnactmentQueues.class), modificationListeners);
+    assertTrue(tested.actualCall());
+    verify(changeListener).reactToGraphChange(changes);
+    verify(changeListener, never()).reactToModelModification();
+  }
 }
@@ -0,0 +1,62 @@
+package at.uibk.dps.ee.control.agents;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.util.HashSet;
+import org.junit.Test;
+import com.google.gson.JsonPrimitive;
+import at.uibk.dps.ee.control.graph.ExecutionPlan;
+import at.uibk.dps.ee.control.graph.InstanceStatePlan;
+import at.uibk.dps.ee.control.management.EnactmentQueues;
+import at.uibk.dps.ee.control.transmission.ReadinessTrackerPlan;
+import at.uibk.dps.ee.core.enactable.Enactable;
+import at.uibk.dps.ee.core.enactable.Enactable.State;
+import at.uibk.dps.ee.enactables.wrapper.FactoryInterface;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionUser;
+import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+
+public class AgentTransmissionPlanTest {
+
+  @Test
+  public void testTransmission() throws Exception {
+    EnactmentGraph graph = new EnactmentGraph();
+    Task data1 = new Communication("data1");
+    Task data2 = new Communication("data2");
+    Task function = PropertyServiceFunctionUser.createUserTask("function", "addition");
+    Dependency edge1 = PropertyServiceDependency.addDataDependency(data1, function, "k1", graph);
+    Dependency edge2 = PropertyServiceDependency.addDataDependency(data2, function, "k2", graph);
+    ExecutionPlan plan = ExecutionPlan.compile(graph, 0);
+    FactoryInterface factory = mock(FactoryInterface.class);
+    Enactable enactable = mock(Enactable.class);
+    when(factory.createEnactable(function)).thenReturn(enactable);
+    InstanceStatePlan state = new InstanceStatePlan(plan, factory);
+    state.setContent(data1, new JsonPrimitive(1));
+    state.setContent(data2, new JsonPrimitive(2));
+    ReadinessTrackerPlan tracker = new ReadinessTrackerPlan(plan, state);
+    EnactmentQueues queues = mock(EnactmentQueues.class);
+
+    AgentTransmissionPlan first = new AgentTransmissionPlan(plan.getEdgeIndex(edge1), plan,
+        queues, new HashSet<>(), tracker, state);
+    String expected = ConstantsAgents.ExcMessageTransmissionPrefix + data1.getId()
+        + ConstantsAgents.ExcMessageTransmissionSuffix + function.getId();
+    assertEquals(expected, first.formulateExceptionMessage());
+    assertTrue(first.actualCall());
+    verify(enactable).setInputValue("k1", new JsonPrimitive(1));
+    assertTrue(state.isTransmissionDone(edge1));
+    verify(queues, never()).putSchedulableTask(function);
+
+    AgentTransmissionPlan second = new AgentTransmissionPlan(plan.getEdgeIndex(edge2), plan,
+        queues, new HashSet<>(), tracker, state);
+    assertTrue(second.actualCall());
+    verify(enactable).setInputValue("k2", new JsonPrimitive(2));
+    verify(enactable).setState(State.SCHEDULABLE);
+    verify(queues).putSchedulableTask(function);
+  }
+}
@@ -2,12 +2,16 @@ package at.uibk.dps.ee.control.agents;
 
 import static org.junit.Assert.*;
 import org.junit.Test;
+import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonPrimitive;
 import at.uibk.dps.ee.control.graph.GraphAccess;
+import at.uibk.dps.ee.control.graph.InstanceStateGraph;
+import at.uibk.dps.ee.control.graph.IterationChunk;
 import at.uibk.dps.ee.control.management.EnactmentQueues;
 import at.uibk.dps.ee.control.transmission.SchedulabilityCheck;
 import at.uibk.dps.ee.core.enactable.Enactable;
+import at.uibk.dps.ee.model.constants.ConstantsEEModel;
 import at.uibk.dps.ee.model.graph.EnactmentGraph;
 import at.uibk.dps.ee.model.properties.PropertyServiceData;
 import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
@@ -41,7 +45,8 @@ public class AgentTransmissionTest {
     PropertyServiceFunction.setEnactable(function, enactableMock);
     SchedulabilityCheck checkMock = mock(SchedulabilityCheck.class);
     AgentTransmission tested =
-        new AgentTransmission(stateMock, dataNode, edge, function, gMock, listeners, checkMock);
+        new AgentTransmission(stateMock, dataNode, edge, function, gMock, listeners, checkMock,
+            new InstanceStateGraph());
     String expected = ConstantsAgents.ExcMessageTransmissionPrefix + dataNode.getId()
         + ConstantsAgents.ExcMessageTransmissionSuffix + function.getId();
     assertEquals(expected, tested.formulateExceptionMessage());
@@ -53,6 +58,32 @@ public class AgentTransmissionTest {
     }
   }
 
+  @Test
+  public void testActualCallChunk() throws Exception {
+    EnactmentQueues stateMock = mock(EnactmentQueues.class);
+    Communication dataNode = new Communication("data");
+    JsonArray content = new JsonArray();
+    content.add(1);
+    content.add(2);
+    PropertyServiceData.setContent(dataNode, content);
+    Dependency edge = new Dependency("dep");
+    PropertyServiceDependency.setJsonKey(edge, "key");
+    IterationChunk.of(ConstantsEEModel.JsonKeyAggregation, 1, 2, 5).attach(edge);
+    Task function = new Task("aggregation");
+    Enactable enactableMock = mock(Enactable.class);
+    PropertyServiceFunction.setEnactable(function, enactableMock);
+    AgentTransmission tested = new AgentTransmission(stateMock, dataNode, edge, function,
+        mock(GraphAccess.class), new HashSet<>(), mock(SchedulabilityCheck.class),
+        new InstanceStateGraph());
+    tested.actualCall();
+    verify(enactableMock).setInputValue(
+        ConstantsEEModel.getCollectionElementKey(ConstantsEEModel.JsonKeyAggregation, 2),
+        new JsonPrimitive(1));
+    verify(enactableMock).setInputValue(
+        ConstantsEEModel.getCollectionElementKey(ConstantsEEModel.JsonKeyAggregation, 3),
+        new JsonPrimitive(2));
+  }
+
   @Test
   public void testTransmitData() {
     EnactmentQueues stateMock = mock(EnactmentQueues.class);
@@ -69,7 +100,8 @@ public class AgentTransmissionTest {
     PropertyServiceFunction.setEnactable(function, enactableMock);
     SchedulabilityCheck checkMock = mock(SchedulabilityCheck.class);
     AgentTransmission tested =
-        new AgentTransmission(stateMock, dataNode, edge, function, gMock, listeners, checkMock);
+        new AgentTransmission(stateMock, dataNode, edge, function, gMock, listeners, checkMock,
+            new InstanceStateGraph());
     assertFalse(PropertyServiceDependency.isTransmissionDone(edge));
 
     Dependency otherEdge1 = new Dependency("e1");
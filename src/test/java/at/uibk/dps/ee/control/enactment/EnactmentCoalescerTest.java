@@ -0,0 +1,88 @@
+package at.uibk.dps.ee.control.enactment;
+
+import static org.junit.Assert.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import org.junit.Test;
+import com.google.gson.JsonObject;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections.OperationType;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionUser;
+import net.sf.opendse.model.Task;
+
+public class EnactmentCoalescerTest {
+
+  @Test
+  public void testApplicable() {
+    Task function = PropertyServiceFunctionUser.createUserTask("func", "addition");
+    Task distribution = PropertyServiceFunctionDataFlowCollections
+        .createCollectionDataFlowTask("distribution", OperationType.Distribution, "scope");
+    EnactmentCoalescer tested = new EnactmentCoalescer(true, new ResultCache(0, 0, ""));
+    assertTrue(tested.isEnabled());
+    assertTrue(tested.isApplicable(function));
+    assertFalse(tested.isApplicable(distribution));
+    assertFalse(new EnactmentCoalescer(false, new ResultCache(0, 0, "")).isApplicable(function));
+  }
+
+  @Test
+  public void testShareResult() throws Exception {
+    EnactmentCoalescer tested = new EnactmentCoalescer(true, new ResultCache(0, 0, ""));
+    CompletableFuture<JsonObject> leader = new CompletableFuture<>();
+    assertNull(tested.join("key", leader));
+    CompletableFuture<JsonObject> running = tested.join("key", new CompletableFuture<>());
+    assertSame(leader, running);
+    JsonObject result = new JsonObject();
+    result.addProperty("out", 42);
+    CompletableFuture<JsonObject> served = tested.serve(running);
+    assertFalse(served.isDone());
+    tested.complete("key", leader, result);
+    tested.release("key", leader);
+    assertEquals(result, served.get());
+    assertNotSame(result, served.get());
+    assertEquals(1, tested.getLeadingCallNumber());
+    assertEquals(1, tested.getCoalescedCallNumber());
+    // the next enactment is a new leader
+    assertNull(tested.join("key", new CompletableFuture<>()));
+    assertEquals(2, tested.getLeadingCallNumber());
+  }
+
+  @Test
+  public void testStopped() throws Exception {
+    EnactmentCoalescer tested = new EnactmentCoalescer(true, new ResultCache(0, 0, ""));
+    CompletableFuture<JsonObject> leader = new CompletableFuture<>();
+    tested.join("key", leader);
+    CompletableFuture<JsonObject> running = tested.join("key", new CompletableFuture<>());
+    tested.complete("key", leader, null);
+    assertNull(tested.serve(running).get());
+    assertEquals(0, tested.getCoalescedCallNumber());
+  }
+
+  @Test
+  public void testFailed() throws Exception {
+    EnactmentCoalescer tested = new EnactmentCoalescer(true, new ResultCache(0, 0, ""));
+    CompletableFuture<JsonObject> leader = new CompletableFuture<>();
+    tested.join("key", leader);
+    CompletableFuture<JsonObject> running = tested.join("key", new CompletableFuture<>());
+    Error failure = new StackOverflowError();
+    tested.fail("key", leader, failure);
+    try {
+      tested.serve(running).get();
+      fail();
+    } catch (ExecutionException exc) {
+      assertSame(failure, exc.getCause());
+    }
+    assertNull(tested.join("key", new CompletableFuture<>()));
+  }
+
+  @Test
+  public void testReleased() throws Exception {
+    EnactmentCoalescer tested = new EnactmentCoalescer(true, new ResultCache(0, 0, ""));
+    CompletableFuture<JsonObject> leader = new CompletableFuture<>();
+    tested.join("key", leader);
+    CompletableFuture<JsonObject> running = tested.join("key", new CompletableFuture<>());
+    // the leader is done without completing its invocation
+    tested.release("key", leader);
+    assertNull(tested.serve(running).get());
+    assertNull(tested.join("key", new CompletableFuture<>()));
+  }
+}
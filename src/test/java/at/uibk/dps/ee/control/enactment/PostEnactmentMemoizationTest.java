@@ -0,0 +1,79 @@
+package at.uibk.dps.ee.control.enactment;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.junit.Test;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import at.uibk.dps.ee.control.graph.GraphAccessConcurrent;
+import at.uibk.dps.ee.control.graph.GraphProviderEnactables;
+import at.uibk.dps.ee.control.graph.InstanceStateGraph;
+import at.uibk.dps.ee.core.enactable.Enactable;
+import at.uibk.dps.ee.core.enactable.Enactable.State;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.properties.PropertyServiceData;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunction;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionUser;
+import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.Task;
+
+public class PostEnactmentMemoizationTest {
+
+  @Test
+  public void test() {
+    EnactmentGraph graph = new EnactmentGraph();
+    Task input = new Communication("input");
+    PropertyServiceData.setContent(input, new JsonPrimitive(42));
+    Task function = PropertyServiceFunctionUser.createUserTask("func", "addition");
+    PropertyServiceDependency.addDataDependency(input, function, "in", graph);
+    Task sideEffect = PropertyServiceFunctionUser.createUserTask("sideEffect", "addition");
+    PropertyServiceDependency.addDataDependency(input, sideEffect, "in", graph);
+    ResultCache.markNonCacheable(sideEffect);
+    JsonObject result = new JsonObject();
+    result.addProperty("out", 43);
+    Enactable enactable = mock(Enactable.class);
+    when(enactable.getState()).thenReturn(State.FINISHED);
+    when(enactable.getResult()).thenReturn(result);
+    PropertyServiceFunction.setEnactable(function, enactable);
+    PropertyServiceFunction.setEnactable(sideEffect, enactable);
+    GraphProviderEnactables providerMock = mock(GraphProviderEnactables.class);
+    when(providerMock.getEnactmentGraph()).thenReturn(graph);
+    GraphAccessConcurrent graphAccess = new GraphAccessConcurrent(providerMock);
+    InstanceStateGraph instanceState = new InstanceStateGraph();
+    ResultCache cache = new ResultCache(10, 0, "");
+    PostEnactment decorated = mock(PostEnactment.class);
+    PostEnactmentMemoization tested =
+        new PostEnactmentMemoization(decorated, cache, graphAccess, instanceState);
+
+    tested.postEnactmentTreatment(function);
+    verify(decorated).postEnactmentTreatment(function);
+    assertEquals(result, cache.get(cache.getKey(function, graphAccess, instanceState)));
+    tested.postEnactmentTreatment(sideEffect);
+    verify(decorated).postEnactmentTreatment(sideEffect);
+    assertNull(cache.get(cache.getKey(sideEffect, graphAccess, instanceState)));
+  }
+
+  @Test
+  public void testStopped() {
+    EnactmentGraph graph = new EnactmentGraph();
+    Task function = PropertyServiceFunctionUser.createUserTask("func", "addition");
+    graph.addVertex(function);
+    Enactable enactable = mock(Enactable.class);
+    when(enactable.getState()).thenReturn(State.STOPPED);
+    PropertyServiceFunction.setEnactable(function, enactable);
+    GraphProviderEnactables providerMock = mock(GraphProviderEnactables.class);
+    when(providerMock.getEnactmentGraph()).thenReturn(graph);
+    GraphAccessConcurrent graphAccess = new GraphAccessConcurrent(providerMock);
+    InstanceStateGraph instanceState = new InstanceStateGraph();
+    ResultCache cache = new ResultCache(10, 0, "");
+    PostEnactment decorated = mock(PostEnactment.class);
+    PostEnactmentMemoization tested =
+        new PostEnactmentMemoization(decorated, cache, graphAccess, instanceState);
+    tested.postEnactmentTreatment(function);
+    verify(decorated).postEnactmentTreatment(function);
+    assertNull(cache.get(cache.getKey(function, graphAccess, instanceState)));
+  }
+}
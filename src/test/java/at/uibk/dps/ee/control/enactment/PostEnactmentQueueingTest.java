@@ -1,6 +1,7 @@
 package at.uibk.dps.ee.control.enactment;
 
 import org.junit.Test;
+import at.uibk.dps.ee.control.graph.InstanceStateGraph;
 import at.uibk.dps.ee.control.management.EnactmentQueues;
 import at.uibk.dps.ee.core.enactable.Enactable;
 import at.uibk.dps.ee.model.properties.PropertyServiceFunction;
@@ -19,7 +20,7 @@ public class PostEnactmentQueueingTest {
     Task normalTask = PropertyServiceFunctionUser.createUserTask("task", "addition");
     Enactable enactable = mock(Enactable.class);
     PropertyServiceFunction.setEnactable(normalTask, enactable);
-    PostEnactmentQueueing tested = new PostEnactmentQueueing(queueMock);
+    PostEnactmentQueueing tested = new PostEnactmentQueueing(queueMock, new InstanceStateGraph());
     tested.postEnactmentTreatment(normalTask);
     verify(queueMock).putFinishedTask(normalTask);
   }
@@ -29,7 +30,7 @@ public class PostEnactmentQueueingTest {
     EnactmentQueues queueMock = mock(EnactmentQueues.class);
     Task normalTask = PropertyServiceFunctionDataFlowCollections
         .createCollectionDataFlowTask("task", OperationType.Distribution, "scope");
-    PostEnactmentQueueing tested = new PostEnactmentQueueing(queueMock);
+    PostEnactmentQueueing tested = new PostEnactmentQueueing(queueMock, new InstanceStateGraph());
     tested.postEnactmentTreatment(normalTask);
     verify(queueMock).putTransformTask(normalTask);
   }
@@ -0,0 +1,199 @@
+package at.uibk.dps.ee.control.enactment;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.io.File;
+import java.io.IOException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import at.uibk.dps.ee.control.graph.GraphAccess;
+import at.uibk.dps.ee.control.graph.GraphAccessConcurrent;
+import at.uibk.dps.ee.control.graph.GraphProviderEnactables;
+import at.uibk.dps.ee.control.graph.InstanceStateGraph;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.properties.PropertyServiceData;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections.OperationType;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionUser;
+import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.Task;
+
+public class ResultCacheTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  protected static JsonObject getResult(final int value) {
+    JsonObject result = new JsonObject();
+    result.addProperty("out", value);
+    return result;
+  }
+
+  @Test
+  public void testKey() {
+    JsonObject nested1 = new JsonObject();
+    nested1.addProperty("a", 1);
+    nested1.addProperty("b", "text");
+    JsonObject nested2 = new JsonObject();
+    nested2.addProperty("b", "text");
+    nested2.addProperty("a", 1);
+    JsonArray array = new JsonArray();
+    array.add(1);
+    array.add(2);
+    JsonObject inputs1 = new JsonObject();
+    inputs1.add("nested", nested1);
+    inputs1.add("array", array);
+    JsonObject inputs2 = new JsonObject();
+    inputs2.add("array", array);
+    inputs2.add("nested", nested2);
+    // the order of the entries does not matter
+    assertEquals(ResultCache.getKey("func", inputs1), ResultCache.getKey("func", inputs2));
+    assertNotEquals(ResultCache.getKey("func", inputs1), ResultCache.getKey("other", inputs1));
+    inputs2.add("array", new JsonArray());
+    assertNotEquals(ResultCache.getKey("func", inputs1), ResultCache.getKey("func", inputs2));
+  }
+
+  @Test
+  public void testKeyFromGraph() {
+    EnactmentGraph graph = new EnactmentGraph();
+    Task input = new Communication("input");
+    Task function = PropertyServiceFunctionUser.createUserTask("func", "addition");
+    PropertyServiceDependency.addDataDependency(input, function, "in", graph);
+    Task offspring = PropertyServiceFunctionUser.createUserTask("func+1", "addition");
+    offspring.setParent(function);
+    PropertyServiceDependency.addDataDependency(input, offspring, "in", graph);
+    GraphProviderEnactables providerMock = mock(GraphProviderEnactables.class);
+    when(providerMock.getEnactmentGraph()).thenReturn(graph);
+    GraphAccessConcurrent graphAccess = new GraphAccessConcurrent(providerMock);
+    InstanceStateGraph instanceState = new InstanceStateGraph();
+    PropertyServiceData.setContent(input, new JsonPrimitive(42));
+    ResultCache tested = new ResultCache(10, 0, "");
+
+    JsonObject expectedInputs = new JsonObject();
+    expectedInputs.addProperty("in", 42);
+    String key = tested.getKey(function, graphAccess, instanceState);
+    assertEquals(ResultCache.getKey("addition", expectedInputs), key);
+    // the offspring have the type of their original
+    assertEquals(key, tested.getKey(offspring, graphAccess, instanceState));
+    // nodes of the same type share the key, nodes of other types do not
+    Task sameType = PropertyServiceFunctionUser.createUserTask("other", "addition");
+    PropertyServiceDependency.addDataDependency(input, sameType, "in", graph);
+    Task otherType = PropertyServiceFunctionUser.createUserTask("func2", "subtraction");
+    PropertyServiceDependency.addDataDependency(input, otherType, "in", graph);
+    assertEquals(key, tested.getKey(sameType, graphAccess, instanceState));
+    assertNotEquals(key, tested.getKey(otherType, graphAccess, instanceState));
+    // the next instance
+    instanceState.reset(graph);
+    PropertyServiceData.setContent(input, new JsonPrimitive(43));
+    assertNotEquals(key, tested.getKey(function, graphAccess, instanceState));
+  }
+
+  @Test
+  public void testKeyComputedOnce() {
+    Task function = PropertyServiceFunctionUser.createUserTask("func", "addition");
+    GraphAccess graphAccess = mock(GraphAccess.class);
+    when(graphAccess.readGraph(any())).thenReturn(new JsonObject());
+    InstanceStateGraph instanceState = new InstanceStateGraph();
+    ResultCache tested = new ResultCache(10, 0, "");
+    String key = tested.getKey(function, graphAccess, instanceState);
+    assertEquals(key, instanceState.getEnactmentKey(function));
+    assertEquals(key, tested.getKey(function, graphAccess, instanceState));
+    verify(graphAccess, times(1)).readGraph(any());
+  }
+
+  @Test
+  public void testCacheable() {
+    Task function = PropertyServiceFunctionUser.createUserTask("func", "addition");
+    Task offspring = PropertyServiceFunctionUser.createUserTask("func+1", "addition");
+    offspring.setParent(function);
+    Task distribution = PropertyServiceFunctionDataFlowCollections
+        .createCollectionDataFlowTask("distribution", OperationType.Distribution, "scope");
+    assertTrue(ResultCache.isCacheable(function));
+    assertFalse(ResultCache.isCacheable(distribution));
+    ResultCache.markNonCacheable(function);
+    assertFalse(ResultCache.isCacheable(function));
+    assertFalse(ResultCache.isCacheable(offspring));
+  }
+
+  @Test
+  public void testLeastRecentlyUsed() {
+    ResultCache tested = new ResultCache(2, 0, "");
+    assertTrue(tested.isEnabled());
+    assertFalse(new ResultCache(0, 0, "").isEnabled());
+    tested.put("key1", getResult(1));
+    tested.put("key2", getResult(2));
+    assertEquals(getResult(1), tested.get("key1"));
+    tested.put("key3", getResult(3));
+    // key2 was used least recently
+    assertNull(tested.get("key2"));
+    assertEquals(getResult(1), tested.get("key1"));
+    assertEquals(getResult(3), tested.get("key3"));
+  }
+
+  @Test
+  public void testCopies() {
+    ResultCache tested = new ResultCache(2, 0, "");
+    JsonObject result = getResult(1);
+    tested.put("key", result);
+    result.addProperty("out", 2);
+    JsonObject cached = tested.get("key");
+    assertEquals(getResult(1), cached);
+    cached.addProperty("out", 3);
+    assertEquals(getResult(1), tested.get("key"));
+  }
+
+  @Test
+  public void testExpiry() {
+    ResultCache tested = new ResultCache(2, 1, "");
+    assertFalse(tested.isExpired(0, 1000));
+    assertTrue(tested.isExpired(0, 1001));
+    tested.put("key", getResult(1));
+    assertNotNull(tested.get("key"));
+    ResultCache noExpiry = new ResultCache(2, 0, "");
+    assertFalse(noExpiry.isExpired(0, Long.MAX_VALUE));
+  }
+
+  @Test
+  public void testDiskTier() throws IOException {
+    String directory = folder.newFolder("cache").getAbsolutePath();
+    ResultCache first = new ResultCache(1, 0, directory);
+    first.put("key1", getResult(1));
+    first.put("key2", getResult(2));
+    // evicted from memory, read from disk
+    assertEquals(getResult(1), first.get("key1"));
+    // shared across cache instances
+    ResultCache second = new ResultCache(1, 0, directory);
+    assertEquals(getResult(2), second.get("key2"));
+    assertNull(second.get("key3"));
+  }
+
+  @Test
+  public void testExpiredFileDeleted() throws IOException {
+    File directory = folder.newFolder("cache");
+    ResultCache tested = new ResultCache(1, 1, directory.getAbsolutePath());
+    tested.put("key", getResult(1));
+    File file = new File(directory, "key.json");
+    assertTrue(file.exists());
+    assertTrue(file.setLastModified(System.currentTimeMillis() - 2000));
+    assertNull(tested.readFromDisk("key", System.currentTimeMillis()));
+    assertFalse(file.exists());
+  }
+
+  @Test
+  public void testDiskWriteFailure() throws IOException {
+    // the directory of the disk tier cannot be created
+    String directory = folder.newFile("cache").getAbsolutePath();
+    ResultCache tested = new ResultCache(1, 0, directory);
+    tested.put("key", getResult(1));
+    assertEquals(getResult(1), tested.get("key"));
+  }
+}
@@ -0,0 +1,49 @@
+package at.uibk.dps.ee.control.graph;
+
+import static org.junit.Assert.*;
+import java.util.Set;
+import org.junit.Test;
+import at.uibk.dps.ee.control.graph.GraphAccess.EdgeTupleAppl;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import edu.uci.ics.jung.graph.util.EdgeType;
+import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+
+public class AdjacencyIndexTest {
+
+  @Test
+  public void testBuild() {
+    EnactmentGraph graph = new EnactmentGraph();
+    Task task = new Task("task");
+    Communication comm1 = new Communication("comm1");
+    Communication comm2 = new Communication("comm2");
+    Dependency dep1 = new Dependency("dep1");
+    Dependency dep2 = new Dependency("dep2");
+    graph.addEdge(dep1, task, comm1, EdgeType.DIRECTED);
+    graph.addEdge(dep2, task, comm2, EdgeType.DIRECTED);
+    AdjacencyIndex tested = AdjacencyIndex.build(graph, 3);
+    assertEquals(3, tested.getVersion());
+    Set<EdgeTupleAppl> outEdges = tested.getOutEdges(task);
+    assertEquals(2, outEdges.size());
+    for (EdgeTupleAppl tuple : outEdges) {
+      assertEquals(task, tuple.getSrc());
+      assertEquals(graph.getDest(tuple.getEdge()), tuple.getDst());
+    }
+    assertTrue(tested.getOutEdges(comm1).isEmpty());
+    assertTrue(tested.getOutEdges(new Task("unknown")).isEmpty());
+    // changes of the graph are not reflected in the index
+    graph.removeEdge(dep1);
+    assertEquals(2, tested.getOutEdges(task).size());
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testUnmodifiable() {
+    EnactmentGraph graph = new EnactmentGraph();
+    Task task = new Task("task");
+    Communication comm = new Communication("comm");
+    graph.addEdge(new Dependency("dep"), task, comm, EdgeType.DIRECTED);
+    AdjacencyIndex tested = AdjacencyIndex.build(graph, 0);
+    tested.getOutEdges(task).clear();
+  }
+}
@@ -0,0 +1,117 @@
+package at.uibk.dps.ee.control.graph;
+
+import static org.junit.Assert.*;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.Test;
+import com.google.gson.JsonPrimitive;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.properties.PropertyServiceData;
+import at.uibk.dps.ee.model.properties.PropertyServiceData.DataType;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependencyControlIf;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionUser;
+import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+
+public class ExecutionPlanTest {
+
+  @Test
+  public void testCompile() {
+    EnactmentGraph graph = new EnactmentGraph();
+    Task input = new Communication("input");
+    Task decision = new Communication("decision");
+    Task function = PropertyServiceFunctionUser.createUserTask("function", "addition");
+    Task output = PropertyServiceData.createSequentialityNode("output");
+    PropertyServiceDependency.addDataDependency(input, function, "inKey", graph);
+    PropertyServiceDependencyControlIf.addIfDependency(decision, function, "ifKey", true,
+        graph);
+    PropertyServiceDependency.addDataDependency(function, output, "outKey", graph);
+    ExecutionPlan tested = ExecutionPlan.compile(graph, 5);
+    assertEquals(5, tested.getVersion());
+    assertEquals(4, tested.getNodeNumber());
+    assertEquals(3, tested.getEdgeNumber());
+
+    // the indices are dense and unique
+    Set<Integer> nodeIndices = new HashSet<>();
+    for (Task node : graph.getVertices()) {
+      int nodeIdx = tested.getNodeIndex(node);
+      assertTrue(nodeIdx >= 0 && nodeIdx < tested.getNodeNumber());
+      nodeIndices.add(nodeIdx);
+    }
+    assertEquals(4, nodeIndices.size());
+    Set<Integer> edgeIndices = new HashSet<>();
+    for (Dependency edge : graph.getEdges()) {
+      int edgeIdx = tested.getEdgeIndex(edge);
+      assertTrue(edgeIdx >= 0 && edgeIdx < tested.getEdgeNumber());
+      edgeIndices.add(edgeIdx);
+    }
+    assertEquals(3, edgeIndices.size());
+  }
+
+  @Test
+  public void testAdjacencyAndAnnotations() {
+    EnactmentGraph graph = new EnactmentGraph();
+    Task input = new Communication("input");
+    Task decision = new Communication("decision");
+    Task function = PropertyServiceFunctionUser.createUserTask("function", "addition");
+    Task output = PropertyServiceData.createSequentialityNode("output");
+    Task constant =
+        PropertyServiceData.createConstantNode("constant", DataType.Number, new JsonPrimitive(3));
+    Dependency inEdge =
+        PropertyServiceDependency.addDataDependency(input, function, "inKey", graph);
+    Dependency ifEdge = PropertyServiceDependencyControlIf.addIfDependency(decision, function,
+        "ifKey", true, graph);
+    Dependency constEdge =
+        PropertyServiceDependency.addDataDependency(constant, function, "constKey", graph);
+    Dependency outEdge =
+        PropertyServiceDependency.addDataDependency(function, output, "outKey", graph);
+    ExecutionPlan tested = ExecutionPlan.compile(graph, 0);
+    int functionIdx = tested.getNodeIndex(function);
+
+    // the in and out edges of the function
+    assertEquals(3, tested.getInEdgeNumber(functionIdx));
+    Set<Dependency> inEdges = new HashSet<>();
+    for (int i = 0; i < tested.getInEdgeNumber(functionIdx); i++) {
+      int edgeIdx = tested.getInEdge(functionIdx, i);
+      assertEquals(functionIdx, tested.getTarget(edgeIdx));
+      inEdges.add(tested.getEdge(edgeIdx));
+    }
+    assertEquals(new HashSet<>(graph.getInEdges(function)), inEdges);
+    assertEquals(1, tested.getOutEdgeNumber(functionIdx));
+    int outIdx = tested.getOutEdge(functionIdx, 0);
+    assertEquals(outEdge, tested.getEdge(outIdx));
+    assertEquals(functionIdx, tested.getSource(outIdx));
+    assertEquals(output, tested.getNode(tested.getTarget(outIdx)));
+    assertEquals(0, tested.getOutEdgeNumber(tested.getNodeIndex(output)));
+
+    // the annotations
+    assertEquals("outKey", tested.getJsonKey(outIdx));
+    int ifIdx = tested.getEdgeIndex(ifEdge);
+    assertTrue(tested.isControlIf(ifIdx));
+    assertTrue(tested.getIfActivation(ifIdx));
+    assertFalse(tested.isControlIf(tested.getEdgeIndex(inEdge)));
+    assertTrue(tested.isSequentiality(tested.getNodeIndex(output)));
+    assertFalse(tested.isSequentiality(tested.getNodeIndex(input)));
+    assertFalse(tested.isMultiplexer(functionIdx));
+    assertEquals(new JsonPrimitive(3), tested.getConstantContent(tested.getNodeIndex(constant)));
+    assertNull(tested.getConstantContent(tested.getNodeIndex(input)));
+    assertEquals(tested.getNodeIndex(constant),
+        tested.getSource(tested.getEdgeIndex(constEdge)));
+    // three in edges, one of which is an if edge
+    assertEquals(4, tested.getPendingDependencies(functionIdx));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownNode() {
+    ExecutionPlan tested = ExecutionPlan.compile(new EnactmentGraph(), 0);
+    tested.getNodeIndex(new Task("unknown"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownEdge() {
+    ExecutionPlan tested = ExecutionPlan.compile(new EnactmentGraph(), 0);
+    tested.getEdgeIndex(new Dependency("unknown"));
+  }
+}
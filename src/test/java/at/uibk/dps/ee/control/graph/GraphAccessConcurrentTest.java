@@ -7,6 +7,8 @@ import at.uibk.dps.ee.control.graph.GraphAccess.EdgeTupleAppl;
 import at.uibk.dps.ee.model.graph.EnactmentGraph;
 import at.uibk.dps.ee.model.properties.PropertyServiceData;
 import at.uibk.dps.ee.model.properties.PropertyServiceData.DataType;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionUser;
 import edu.uci.ics.jung.graph.util.EdgeType;
 import net.sf.opendse.model.Communication;
 import net.sf.opendse.model.Dependency;
@@ -21,6 +23,7 @@ import java.time.Instant;
 import java.util.Iterator;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
@@ -127,7 +130,7 @@ public class GraphAccessConcurrentTest {
     GraphAccessConcurrent tested = new GraphAccessConcurrent(providerMock);
 
     WriteCallable writer = new WriteCallable(task1, 250, tested);
-    ReadCallable reader = new ReadCallable(task1, tested, 0);
+    WriteCallable writer2 = new WriteCallable(task1, 0, tested);
 
     ExecutorService exec = Executors.newCachedThreadPool();
 
@@ -138,21 +141,77 @@ public class GraphAccessConcurrentTest {
     } catch (InterruptedException e1) {
       fail();
     }
-    Future<Boolean> readFuture = exec.submit(reader);
+    Future<Boolean> writeFuture2 = exec.submit(writer2);
 
     try {
-      assertTrue(readFuture.get());
+      assertTrue(writeFuture2.get());
       assertTrue(writeFuture.isDone());
       Instant after = Instant.now();
       assertTrue(writer.task.getAttribute(writer.attrName));
-      long readTime = Duration.between(before, after).toMillis();
-      assertTrue(readTime >= writer.waitTime);
+      long writeTime = Duration.between(before, after).toMillis();
+      assertTrue(writeTime >= writer.waitTime);
     } catch (Exception e) {
       fail();
     }
   }
 
 
+  @Test
+  public void testReadGraph() {
+    EnactmentGraph graph = new EnactmentGraph();
+    Task task1 = new Task("task1");
+    graph.addVertex(task1);
+    GraphProviderEnactables providerMock = mock(GraphProviderEnactables.class);
+    when(providerMock.getEnactmentGraph()).thenReturn(graph);
+    GraphAccessConcurrent tested = new GraphAccessConcurrent(providerMock);
+    assertEquals(Integer.valueOf(1), tested.readGraph(readGraph -> readGraph.getVertexCount()));
+    assertSame(task1, tested.readGraph(readGraph -> readGraph.getVertex("task1")));
+  }
+
+  @Test
+  public void testGraphChangesNotTracked() {
+    EnactmentGraph graph = new EnactmentGraph();
+    GraphProviderEnactables providerMock = mock(GraphProviderEnactables.class);
+    when(providerMock.getEnactmentGraph()).thenReturn(graph);
+    GraphAccessConcurrent tested = new GraphAccessConcurrent(providerMock);
+    Task trigger = new Task("trigger");
+    tested.transformGraph((transformed, task) -> transformed.addVertex(new Task("task")),
+        trigger);
+    assertTrue(tested.takeGraphChanges(trigger).isEmpty());
+    assertTrue(tested.pendingChanges.isEmpty());
+  }
+
+  @Test
+  public void testTakeGraphChanges() {
+    EnactmentGraph graph = new EnactmentGraph();
+    Task task1 = new Task("task1");
+    Task task2 = new Task("task2");
+    Dependency edge1 = new Dependency("edge1");
+    graph.addEdge(edge1, task1, task2, EdgeType.DIRECTED);
+    GraphProviderEnactables providerMock = mock(GraphProviderEnactables.class);
+    when(providerMock.getEnactmentGraph()).thenReturn(graph);
+    GraphAccessConcurrent tested = new GraphAccessConcurrent(providerMock);
+    tested.trackGraphChanges();
+    Task trigger = new Task("trigger");
+    Task task3 = new Task("task3");
+    Dependency edge2 = new Dependency("edge2");
+    tested.transformGraph(
+        (transformed, task) -> transformed.addEdge(edge2, task2, task3, EdgeType.DIRECTED),
+        trigger);
+    tested.transformGraph((transformed, task) -> transformed.removeEdge(edge1), trigger);
+    GraphChangeSet changes = tested.takeGraphChanges(trigger);
+    assertEquals(1, changes.getAddedVertices().size());
+    assertTrue(changes.getAddedVertices().contains(task3));
+    assertTrue(changes.getRemovedVertices().isEmpty());
+    assertEquals(1, changes.getAddedEdges().size());
+    assertSame(edge2, changes.getAddedEdges().iterator().next().getEdge());
+    assertEquals(1, changes.getRemovedEdges().size());
+    assertSame(task1, changes.getRemovedEdges().iterator().next().getSrc());
+    assertTrue(changes.getModifiedVertices().contains(task1));
+    assertTrue(changes.getModifiedVertices().contains(task2));
+    assertTrue(tested.takeGraphChanges(trigger).isEmpty());
+  }
+
   @Test
   public void testGetOutEdges() {
     EnactmentGraph graph = new EnactmentGraph();
@@ -179,6 +238,113 @@ public class GraphAccessConcurrentTest {
     assertTrue(second.getDst().equals(task2) || second.getDst().equals(task3));
   }
 
+  @Test
+  public void testOutEdgesNotBlockedByWrite() {
+    EnactmentGraph graph = new EnactmentGraph();
+    Task task1 = new Task("task1");
+    graph.addVertex(task1);
+    GraphProviderEnactables providerMock = mock(GraphProviderEnactables.class);
+    when(providerMock.getEnactmentGraph()).thenReturn(graph);
+    GraphAccessConcurrent tested = new GraphAccessConcurrent(providerMock);
+    tested.getOutEdges(task1);
+
+    WriteCallable writer = new WriteCallable(task1, 250, tested);
+    ReadCallable reader = new ReadCallable(task1, tested, 0);
+    ExecutorService exec = Executors.newCachedThreadPool();
+    Instant before = Instant.now();
+    Future<Boolean> writeFuture = exec.submit(writer);
+    try {
+      Thread.sleep(50);
+    } catch (InterruptedException e1) {
+      fail();
+    }
+    Future<Boolean> readFuture = exec.submit(reader);
+    try {
+      assertTrue(readFuture.get());
+      assertFalse(writeFuture.isDone());
+      long readTime = Duration.between(before, Instant.now()).toMillis();
+      assertTrue(readTime < writer.waitTime);
+    } catch (Exception e) {
+      fail();
+    }
+  }
+
+  @Test
+  public void testOutEdgesAfterTransform() {
+    EnactmentGraph graph = new EnactmentGraph();
+    Task task1 = new Task("task1");
+    Task task2 = new Task("task2");
+    Dependency edge = new Dependency("edge");
+    graph.addVertex(task1);
+    graph.addVertex(task2);
+    GraphProviderEnactables providerMock = mock(GraphProviderEnactables.class);
+    when(providerMock.getEnactmentGraph()).thenReturn(graph);
+    GraphAccessConcurrent tested = new GraphAccessConcurrent(providerMock);
+    assertTrue(tested.getOutEdges(task1).isEmpty());
+    Set<EdgeTupleAppl> first = tested.getOutEdges(task1);
+    assertSame(first, tested.getOutEdges(task1));
+    long versionBefore = tested.getStructureVersion();
+
+    tested.transformGraph((g, t) -> g.addEdge(edge, t, task2, EdgeType.DIRECTED), task1);
+    assertEquals(versionBefore + 1, tested.getStructureVersion());
+    Set<EdgeTupleAppl> result = tested.getOutEdges(task1);
+    assertEquals(1, result.size());
+    EdgeTupleAppl tuple = result.iterator().next();
+    assertEquals(task1, tuple.getSrc());
+    assertEquals(task2, tuple.getDst());
+    assertEquals(edge, tuple.getEdge());
+    assertSame(result, tested.getOutEdges(task1));
+  }
+
+  @Test
+  public void testAdjacencyIndexBuiltLazily() {
+    EnactmentGraph graph = new EnactmentGraph();
+    Task task1 = new Task("task1");
+    Task task2 = new Task("task2");
+    graph.addVertex(task1);
+    graph.addVertex(task2);
+    GraphProviderEnactables providerMock = mock(GraphProviderEnactables.class);
+    when(providerMock.getEnactmentGraph()).thenReturn(graph);
+    GraphAccessConcurrent tested = new GraphAccessConcurrent(providerMock);
+    AdjacencyIndex first = tested.getAdjacencyIndex();
+    tested.transformGraph(
+        (g, t) -> g.addEdge(new Dependency("edge1"), t, task2, EdgeType.DIRECTED), task1);
+    tested.transformGraph(
+        (g, t) -> g.addEdge(new Dependency("edge2"), task2, t, EdgeType.DIRECTED), task1);
+    // not rebuilt by the transformations
+    assertNull(tested.adjacencyIndex);
+    assertEquals(first.getVersion() + 2, tested.getStructureVersion());
+    AdjacencyIndex current = tested.getAdjacencyIndex();
+    assertEquals(tested.getStructureVersion(), current.getVersion());
+    assertEquals(1, current.getOutEdges(task1).size());
+    assertEquals(1, current.getOutEdges(task2).size());
+    assertSame(current, tested.getAdjacencyIndex());
+  }
+
+  @Test
+  public void testExecutionPlan() {
+    EnactmentGraph graph = new EnactmentGraph();
+    Task function = PropertyServiceFunctionUser.createUserTask("function", "addition");
+    Task data = new Communication("data");
+    Task data2 = new Communication("data2");
+    PropertyServiceDependency.addDataDependency(data, function, "key", graph);
+    GraphProviderEnactables providerMock = mock(GraphProviderEnactables.class);
+    when(providerMock.getEnactmentGraph()).thenReturn(graph);
+    GraphAccessConcurrent tested = new GraphAccessConcurrent(providerMock);
+    ExecutionPlan first = tested.getExecutionPlan();
+    assertSame(first, tested.getExecutionPlan());
+    assertEquals(tested.getStructureVersion(), first.getVersion());
+    assertEquals(1, first.getEdgeNumber());
+
+    tested.transformGraph(
+        (g, t) -> PropertyServiceDependency.addDataDependency(t, data2, "key2", g), function);
+    ExecutionPlan second = tested.getExecutionPlan();
+    assertNotSame(first, second);
+    assertEquals(tested.getStructureVersion(), second.getVersion());
+    assertEquals(2, second.getEdgeNumber());
+    assertEquals(3, second.getNodeNumber());
+  }
+
   @Test
   public void testGetConstantDataNodes() {
     EnactmentGraph graph = new EnactmentGraph();
@@ -254,6 +420,51 @@ public class GraphAccessConcurrentTest {
     assertTrue(roots.contains(data2));
   }
 
+  @Test
+  public void testNodeSetsCached() {
+    EnactmentGraph graph = new EnactmentGraph();
+    Communication root = new Communication("root");
+    Communication leaf = new Communication("leaf");
+    Task task = new Task("task");
+    PropertyServiceData.makeRoot(root);
+    PropertyServiceData.makeLeaf(leaf);
+    graph.addEdge(new Dependency("dep1"), root, task, EdgeType.DIRECTED);
+    graph.addEdge(new Dependency("dep2"), task, leaf, EdgeType.DIRECTED);
+    GraphProviderEnactables providerMock = mock(GraphProviderEnactables.class);
+    when(providerMock.getEnactmentGraph()).thenReturn(graph);
+    GraphAccessConcurrent tested = new GraphAccessConcurrent(providerMock);
+    Set<Task> roots = tested.getRootDataNodes();
+    Set<Task> leaves = tested.getLeafDataNodes();
+    Set<Task> constants = tested.getConstantDataNodes();
+    assertSame(roots, tested.getRootDataNodes());
+    assertSame(leaves, tested.getLeafDataNodes());
+    assertSame(constants, tested.getConstantDataNodes());
+    assertEquals(1, roots.size());
+    assertEquals(1, leaves.size());
+    assertTrue(constants.isEmpty());
+
+    // a transformation invalidates the cached sets
+    Communication leaf2 = new Communication("leaf2");
+    PropertyServiceData.makeLeaf(leaf2);
+    tested.transformGraph(
+        (g, t) -> g.addEdge(new Dependency("dep3"), t, leaf2, EdgeType.DIRECTED), task);
+    Set<Task> leavesAfter = tested.getLeafDataNodes();
+    assertEquals(2, leavesAfter.size());
+    assertTrue(leavesAfter.contains(leaf2));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testNodeSetsUnmodifiable() {
+    EnactmentGraph graph = new EnactmentGraph();
+    Communication root = new Communication("root");
+    PropertyServiceData.makeRoot(root);
+    graph.addVertex(root);
+    GraphProviderEnactables providerMock = mock(GraphProviderEnactables.class);
+    when(providerMock.getEnactmentGraph()).thenReturn(graph);
+    GraphAccessConcurrent tested = new GraphAccessConcurrent(providerMock);
+    tested.getRootDataNodes().clear();
+  }
+
   @Test(expected = IllegalStateException.class)
   public void testGetRootDataNodesExc() {
     EnactmentGraph graph = new EnactmentGraph();
@@ -290,6 +501,70 @@ public class GraphAccessConcurrentTest {
     assertEquals(2, result.getEdgeCount());
   }
 
+  @Test
+  public void testSnapshot() throws Exception {
+    Task task = new Task("task1");
+    Communication comm = new Communication("comm");
+    Dependency dep1 = new Dependency("dep1");
+    EnactmentGraph original = new EnactmentGraph();
+    original.addEdge(dep1, task, comm, EdgeType.DIRECTED);
+    GraphProviderEnactables mockProvider = mock(GraphProviderEnactables.class);
+    when(mockProvider.getEnactmentGraph()).thenReturn(original);
+    GraphAccessConcurrent tested = new GraphAccessConcurrent(mockProvider);
+    GraphSnapshot before = tested.getSnapshot();
+    assertSame(before.index, tested.getSnapshot().index);
+    Task task2 = new Task("task2");
+    tested.transformGraph((graph, trigger) -> graph.addEdge(new Dependency("dep2"), comm, task2,
+        EdgeType.DIRECTED), task);
+    // the earlier snapshot is not affected by the transformation
+    assertEquals(2, before.getVertices().size());
+    assertEquals(1, before.getEdges().size());
+    GraphSnapshot after = tested.getSnapshot();
+    assertEquals(before.getVersion() + 1, after.getVersion());
+    assertEquals(3, after.getVertices().size());
+    assertEquals(1, after.getOutEdges(comm).size());
+
+    EnactmentGraph copy = tested.getGraphCopy();
+    assertEquals(3, copy.getVertexCount());
+    assertEquals(2, copy.getEdgeCount());
+    assertSame(task2, copy.getVertex("task2").getParent());
+
+    // the snapshot pins the attributes
+    task2.setAttribute("attribute", 1);
+    tested.writeOperationTask((graph, node) -> node.setAttribute("attribute", 2), task2);
+    GraphSnapshot pinned = tested.getSnapshot();
+    assertEquals(before.getVersion() + 1, pinned.getVersion());
+    assertEquals(2, pinned.getAttributes(task2).get("attribute"));
+    task2.setAttribute("attribute", 3);
+    assertEquals(2, pinned.getAttributes(task2).get("attribute"));
+
+    // copies are made while a writer holds the lock
+    ExecutorService exec = Executors.newSingleThreadExecutor();
+    CountDownLatch locked = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    exec.submit(() -> {
+      tested.writeLock.lock();
+      try {
+        locked.countDown();
+        release.await();
+      } finally {
+        tested.writeLock.unlock();
+      }
+      return true;
+    });
+    locked.await();
+    try {
+      copy = tested.getGraphCopy();
+      assertEquals(3, copy.getVertexCount());
+      assertEquals(2, copy.getEdgeCount());
+      assertSame(task2, copy.getVertex("task2").getParent());
+      assertEquals(2, copy.getVertex("task2").getAttribute("attribute"));
+    } finally {
+      release.countDown();
+      exec.shutdown();
+    }
+  }
+
   @Test
   public void testCopyElement() {
     String attName1 = "name1";
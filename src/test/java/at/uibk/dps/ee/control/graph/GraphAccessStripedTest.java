@@ -0,0 +1,102 @@
+package at.uibk.dps.ee.control.graph;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Test;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import net.sf.opendse.model.Task;
+
+public class GraphAccessStripedTest {
+
+  protected static final long waitTime = 250;
+
+  protected GraphAccessStriped createTested(EnactmentGraph graph, int stripeNumber) {
+    GraphProviderEnactables providerMock = mock(GraphProviderEnactables.class);
+    when(providerMock.getEnactmentGraph()).thenReturn(graph);
+    return new GraphAccessStriped(providerMock, stripeNumber);
+  }
+
+  protected void sleep(EnactmentGraph graph, Task task) {
+    try {
+      Thread.sleep(waitTime);
+    } catch (InterruptedException e) {
+      fail();
+    }
+  }
+
+  @Test
+  public void testParallelWritesDifferentStripes() throws Exception {
+    EnactmentGraph graph = new EnactmentGraph();
+    Task task1 = new Task("task1");
+    GraphAccessStriped tested = createTested(graph, 16);
+    // find a task in a different stripe
+    Task task2 = new Task("task2");
+    int idx = 3;
+    while (tested.getStripeIndex(task1) == tested.getStripeIndex(task2)) {
+      task2 = new Task("task" + idx++);
+    }
+    graph.addVertex(task1);
+    graph.addVertex(task2);
+    ExecutorService exec = Executors.newCachedThreadPool();
+    Instant before = Instant.now();
+    Future<?> write1 = exec.submit(() -> tested.writeOperationTask(this::sleep, task1));
+    Future<?> write2 = exec.submit(() -> tested.writeOperationTask(this::sleep, task2));
+    write1.get();
+    write2.get();
+    long writeTime = Duration.between(before, Instant.now()).toMillis();
+    assertTrue(writeTime < 2 * waitTime);
+    exec.shutdown();
+  }
+
+  @Test
+  public void testSameStripeSequential() throws Exception {
+    EnactmentGraph graph = new EnactmentGraph();
+    Task task1 = new Task("task1");
+    Task task2 = new Task("task2");
+    graph.addVertex(task1);
+    graph.addVertex(task2);
+    // one stripe for all tasks
+    GraphAccessStriped tested = createTested(graph, 1);
+    ExecutorService exec = Executors.newCachedThreadPool();
+    Instant before = Instant.now();
+    Future<?> write1 = exec.submit(() -> tested.writeOperationTask(this::sleep, task1));
+    Future<?> write2 = exec.submit(() -> tested.writeOperationTask(this::sleep, task2));
+    write1.get();
+    write2.get();
+    long writeTime = Duration.between(before, Instant.now()).toMillis();
+    assertTrue(writeTime >= 2 * waitTime);
+    exec.shutdown();
+  }
+
+  @Test
+  public void testTransformExclusive() throws Exception {
+    EnactmentGraph graph = new EnactmentGraph();
+    Task task1 = new Task("task1");
+    Task task2 = new Task("task2");
+    graph.addVertex(task1);
+    graph.addVertex(task2);
+    GraphAccessStriped tested = createTested(graph, 16);
+    ExecutorService exec = Executors.newCachedThreadPool();
+    Instant before = Instant.now();
+    Future<?> transform = exec.submit(() -> tested.transformGraph(this::sleep, task1));
+    Thread.sleep(50);
+    Future<?> write = exec.submit(() -> tested.writeOperationTask((graph2, task) -> {
+    }, task2));
+    write.get();
+    assertTrue(transform.isDone());
+    long writeTime = Duration.between(before, Instant.now()).toMillis();
+    assertTrue(writeTime >= waitTime);
+    exec.shutdown();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidStripeNumber() {
+    createTested(new EnactmentGraph(), 0);
+  }
+}
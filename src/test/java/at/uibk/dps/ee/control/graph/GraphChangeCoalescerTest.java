@@ -0,0 +1,79 @@
+package at.uibk.dps.ee.control.graph;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import at.uibk.dps.ee.core.ModelModificationListener;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import net.sf.opendse.model.Task;
+
+public class GraphChangeCoalescerTest {
+
+  @Test
+  public void testCoalescing() {
+    GraphChangeListener delegate = mock(GraphChangeListener.class);
+    ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+    GraphChangeCoalescer tested = new GraphChangeCoalescer(delegate, 10, scheduler);
+    EnactmentGraph graph = new EnactmentGraph();
+    AdjacencyIndex empty = AdjacencyIndex.build(graph, 0);
+    Task task1 = new Task("task1");
+    graph.addVertex(task1);
+    AdjacencyIndex first = AdjacencyIndex.build(graph, 1);
+    Task task2 = new Task("task2");
+    graph.addVertex(task2);
+    AdjacencyIndex second = AdjacencyIndex.build(graph, 2);
+    tested.reactToGraphChange(GraphChangeSet.diff(empty, first));
+    tested.reactToGraphChange(GraphChangeSet.diff(first, second));
+    // one delivery for the burst
+    verify(scheduler, times(1)).schedule(any(Runnable.class), eq(10L),
+        eq(TimeUnit.MILLISECONDS));
+    verifyNoInteractions(delegate);
+    tested.flush();
+    ArgumentCaptor<GraphChangeSet> captor = ArgumentCaptor.forClass(GraphChangeSet.class);
+    verify(delegate).reactToGraphChange(captor.capture());
+    assertEquals(2, captor.getValue().getAddedVertices().size());
+    // the next change starts a new burst
+    tested.reactToModelModification();
+    verify(scheduler, times(2)).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+  }
+
+  @Test
+  public void testPlainListener() {
+    ModelModificationListener delegate = mock(ModelModificationListener.class);
+    Set<ModelModificationListener> listeners = new HashSet<>();
+    listeners.add(delegate);
+    ScheduledExecutorService scheduler = GraphChangeCoalescer.createScheduler();
+    Set<ModelModificationListener> result = GraphChangeCoalescer.wrap(listeners, 10, scheduler);
+    assertEquals(1, result.size());
+    GraphChangeCoalescer tested = (GraphChangeCoalescer) result.iterator().next();
+    tested.flush();
+    verifyNoInteractions(delegate);
+    tested.reactToGraphChange(GraphChangeSet.empty());
+    tested.flush();
+    verify(delegate).reactToModelModification();
+    scheduler.shutdownNow();
+  }
+
+  @Test
+  public void testShutDownScheduler() {
+    GraphChangeListener delegate = mock(GraphChangeListener.class);
+    ScheduledExecutorService scheduler = GraphChangeCoalescer.createScheduler();
+    GraphChangeCoalescer tested = new GraphChangeCoalescer(delegate, 10000, scheduler);
+    scheduler.shutdownNow();
+    // delivered right away
+    GraphChangeSet changes = GraphChangeSet.empty();
+    tested.reactToGraphChange(changes);
+    verify(delegate).reactToGraphChange(changes);
+  }
+}
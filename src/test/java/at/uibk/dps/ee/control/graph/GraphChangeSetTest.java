@@ -0,0 +1,73 @@
+package at.uibk.dps.ee.control.graph;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import edu.uci.ics.jung.graph.util.EdgeType;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+
+public class GraphChangeSetTest {
+
+  @Test
+  public void testDiff() {
+    EnactmentGraph graph = new EnactmentGraph();
+    Task task1 = new Task("task1");
+    Task task2 = new Task("task2");
+    Task task3 = new Task("task3");
+    Dependency edge1 = new Dependency("edge1");
+    Dependency edge2 = new Dependency("edge2");
+    graph.addEdge(edge1, task1, task2, EdgeType.DIRECTED);
+    graph.addEdge(edge2, task2, task3, EdgeType.DIRECTED);
+    AdjacencyIndex before = AdjacencyIndex.build(graph, 0);
+    graph.removeVertex(task3);
+    Task task4 = new Task("task4");
+    Dependency edge3 = new Dependency("edge3");
+    graph.addEdge(edge3, task1, task4, EdgeType.DIRECTED);
+    GraphChangeSet tested = GraphChangeSet.diff(before, AdjacencyIndex.build(graph, 1));
+    assertTrue(tested.getAddedVertices().contains(task4));
+    assertEquals(1, tested.getAddedVertices().size());
+    assertTrue(tested.getRemovedVertices().contains(task3));
+    assertEquals(1, tested.getRemovedVertices().size());
+    assertSame(edge3, tested.getAddedEdges().iterator().next().getEdge());
+    assertSame(edge2, tested.getRemovedEdges().iterator().next().getEdge());
+    assertEquals(2, tested.getModifiedVertices().size());
+    assertTrue(tested.getModifiedVertices().contains(task1));
+    assertTrue(tested.getModifiedVertices().contains(task2));
+    assertTrue(GraphChangeSet
+        .diff(AdjacencyIndex.build(graph, 1), AdjacencyIndex.build(graph, 2)).isEmpty());
+  }
+
+  @Test
+  public void testMerge() {
+    EnactmentGraph graph = new EnactmentGraph();
+    Task task1 = new Task("task1");
+    Task task2 = new Task("task2");
+    Dependency edge1 = new Dependency("edge1");
+    graph.addEdge(edge1, task1, task2, EdgeType.DIRECTED);
+    AdjacencyIndex original = AdjacencyIndex.build(graph, 0);
+    // reproduction: the original edge is replaced by an offspring
+    graph.removeVertex(task2);
+    Task offspring = new Task("offspring");
+    Dependency offspringEdge = new Dependency("offspringEdge");
+    graph.addEdge(offspringEdge, task1, offspring, EdgeType.DIRECTED);
+    AdjacencyIndex reproduced = AdjacencyIndex.build(graph, 1);
+    // revert
+    graph.removeVertex(offspring);
+    graph.addEdge(edge1, task1, task2, EdgeType.DIRECTED);
+    AdjacencyIndex reverted = AdjacencyIndex.build(graph, 2);
+
+    GraphChangeSet reproduction = GraphChangeSet.diff(original, reproduced);
+    GraphChangeSet revert = GraphChangeSet.diff(reproduced, reverted);
+    GraphChangeSet tested = reproduction.merge(revert);
+    assertTrue(tested.getAddedVertices().isEmpty());
+    assertTrue(tested.getRemovedVertices().isEmpty());
+    assertTrue(tested.getAddedEdges().isEmpty());
+    assertTrue(tested.getRemovedEdges().isEmpty());
+    assertTrue(tested.getModifiedVertices().contains(task1));
+    assertTrue(tested.getModifiedVertices().contains(task2));
+    assertFalse(tested.getModifiedVertices().contains(offspring));
+    assertSame(reproduction, reproduction.merge(GraphChangeSet.empty()));
+    assertSame(revert, GraphChangeSet.empty().merge(revert));
+  }
+}
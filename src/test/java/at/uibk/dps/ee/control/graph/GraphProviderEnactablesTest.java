@@ -8,6 +8,8 @@ import at.uibk.dps.ee.enactables.EnactableFactory;
 import at.uibk.dps.ee.model.graph.EnactmentGraph;
 import at.uibk.dps.ee.model.graph.EnactmentGraphProvider;
 import at.uibk.dps.ee.model.properties.PropertyServiceFunction;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections.OperationType;
 import net.sf.opendse.model.Communication;
 import net.sf.opendse.model.Task;
 
@@ -41,4 +43,17 @@ public class GraphProviderEnactablesTest {
     assertEquals(enactable2, PropertyServiceFunction.getEnactable(task2));
     verify(factoryMock).addEnactableStateListener(monitor);
   }
+
+  @Test
+  public void testChunkSizes() {
+    EnactmentGraph graph = new EnactmentGraph();
+    Task distribution = PropertyServiceFunctionDataFlowCollections
+        .createCollectionDataFlowTask("distribution", OperationType.Distribution, "scope");
+    graph.addVertex(distribution);
+    EnactmentGraphProvider providerMock = mock(EnactmentGraphProvider.class);
+    when(providerMock.getEnactmentGraph()).thenReturn(graph);
+    new GraphProviderEnactables(providerMock, mock(EnactableFactory.class),
+        mock(ResourceMonitor.class), "distribution=5");
+    assertEquals(5, IterationChunk.getRequestedChunkSize(distribution));
+  }
 }
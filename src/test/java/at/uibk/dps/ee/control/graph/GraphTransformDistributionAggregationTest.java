@@ -11,6 +11,7 @@ import at.uibk.dps.ee.model.properties.PropertyServiceData;
 import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
 import at.uibk.dps.ee.model.properties.PropertyServiceFunction;
 import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionUser;
 import at.uibk.dps.ee.model.properties.PropertyServiceFunction.UsageType;
 import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections.OperationType;
 import net.sf.opendse.model.Communication;
@@ -19,6 +20,9 @@ import net.sf.opendse.model.Task;
 
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.verify;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 
 public class GraphTransformDistributionAggregationTest {
 
@@ -121,4 +125,165 @@ public class GraphTransformDistributionAggregationTest {
     assertEquals(8, testInput.getVertexCount());
     assertEquals(7, testInput.getEdgeCount());
   }
+
+  @Test
+  public void testDiamondChainBody() {
+    // each diamond doubles the number of paths through the loop body
+    int diamonds = 40;
+    EnactmentGraph graph = new EnactmentGraph();
+    Communication wfInput = new Communication("input");
+    PropertyServiceData.makeRoot(wfInput);
+    Communication wfOutput = new Communication("output");
+    PropertyServiceData.makeLeaf(wfOutput);
+    Task distributionNode = PropertyServiceFunctionDataFlowCollections
+        .createCollectionDataFlowTask("distribution", OperationType.Distribution, "scope");
+    PropertyServiceFunctionDataFlowCollections.setIterationNumber(distributionNode, 2);
+    Task aggregation = PropertyServiceFunctionDataFlowCollections
+        .createCollectionDataFlowTask("aggregation", OperationType.Aggregation, "scope");
+    Communication current = new Communication("distributedData");
+    PropertyServiceDependency.addDataDependency(wfInput, distributionNode, "coll", graph);
+    PropertyServiceDependency.addDataDependency(distributionNode, current, "coll", graph);
+    EnactableAtomic mockEnactable = mock(EnactableAtomic.class);
+    for (int idx = 0; idx < diamonds; idx++) {
+      Task left = new Task("left" + idx);
+      Task right = new Task("right" + idx);
+      Task join = new Task("join" + idx);
+      Communication leftResult = new Communication("leftResult" + idx);
+      Communication rightResult = new Communication("rightResult" + idx);
+      Communication joined = new Communication("joined" + idx);
+      for (Task function : new Task[] {left, right, join}) {
+        PropertyServiceFunction.setUsageType(UsageType.User, function);
+        PropertyServiceFunction.setEnactable(function, mockEnactable);
+      }
+      PropertyServiceDependency.addDataDependency(current, left, "in", graph);
+      PropertyServiceDependency.addDataDependency(current, right, "in", graph);
+      PropertyServiceDependency.addDataDependency(left, leftResult, "out", graph);
+      PropertyServiceDependency.addDataDependency(right, rightResult, "out", graph);
+      PropertyServiceDependency.addDataDependency(leftResult, join, "left", graph);
+      PropertyServiceDependency.addDataDependency(rightResult, join, "right", graph);
+      PropertyServiceDependency.addDataDependency(join, joined, "out", graph);
+      current = joined;
+    }
+    PropertyServiceDependency.addDataDependency(current, aggregation,
+        ConstantsEEModel.JsonKeyAggregation, graph);
+    PropertyServiceDependency.addDataDependency(aggregation, wfOutput,
+        ConstantsEEModel.JsonKeyAggregation, graph);
+    EnactableAtomic mockAggrEnactable = mock(EnactableAtomic.class);
+    when(mockAggrEnactable.getState()).thenReturn(State.FINISHED);
+    PropertyServiceFunction.setEnactable(aggregation, mockAggrEnactable);
+    GraphProviderEnactables mockProvider = mock(GraphProviderEnactables.class);
+    when(mockProvider.getEnactmentGraph()).thenReturn(graph);
+    GraphAccessConcurrent gAccess = new GraphAccessConcurrent(mockProvider);
+    int originalVertices = graph.getVertexCount();
+    int originalEdges = graph.getEdgeCount();
+    int bodyVertices = 1 + 6 * diamonds;
+    int bodyEdges = 2 + 7 * diamonds;
+
+    new GraphTransformDistribution(mock(EnactableFactory.class))
+        .modifyEnactmentGraph(gAccess, distributionNode);
+    assertEquals(originalVertices + bodyVertices, graph.getVertexCount());
+    assertEquals(originalEdges + bodyEdges, graph.getEdgeCount());
+    new GraphTransformAggregation().modifyEnactmentGraph(gAccess, aggregation);
+    assertEquals(originalVertices, graph.getVertexCount());
+    assertEquals(originalEdges, graph.getEdgeCount());
+  }
+
+  /**
+   * Creates a graph with a loop processing each element with one function.
+   *
+   * @param iterations the number of iterations
+   * @return the graph with the loop
+   */
+  protected EnactmentGraph createSimpleLoop(int iterations) {
+    EnactmentGraph graph = new EnactmentGraph();
+    Communication wfInput = new Communication("input");
+    PropertyServiceData.makeRoot(wfInput);
+    Communication wfOutput = new Communication("output");
+    PropertyServiceData.makeLeaf(wfOutput);
+    Task distributionNode = PropertyServiceFunctionDataFlowCollections
+        .createCollectionDataFlowTask("distribution", OperationType.Distribution, "scope");
+    PropertyServiceFunctionDataFlowCollections.setIterationNumber(distributionNode, iterations);
+    Task function = new Task("function");
+    PropertyServiceFunction.setUsageType(UsageType.User, function);
+    PropertyServiceFunction.setEnactable(function, mock(EnactableAtomic.class));
+    Task aggregation = PropertyServiceFunctionDataFlowCollections
+        .createCollectionDataFlowTask("aggregation", OperationType.Aggregation, "scope");
+    Communication distributedData = new Communication("distributedData");
+    Communication functionResult = new Communication("funcResult");
+    PropertyServiceDependency.addDataDependency(wfInput, distributionNode, "coll", graph);
+    PropertyServiceDependency.addDataDependency(distributionNode, distributedData, "coll", graph);
+    PropertyServiceDependency.addDataDependency(distributedData, function, "in", graph);
+    PropertyServiceDependency.addDataDependency(function, functionResult, "out", graph);
+    PropertyServiceDependency.addDataDependency(functionResult, aggregation,
+        ConstantsEEModel.JsonKeyAggregation, graph);
+    PropertyServiceDependency.addDataDependency(aggregation, wfOutput,
+        ConstantsEEModel.JsonKeyAggregation, graph);
+    return graph;
+  }
+
+  @Test
+  public void testParallelPlanning() {
+    int iterations = 200;
+    EnactmentGraph graph = createSimpleLoop(iterations);
+    GraphProviderEnactables mockProvider = mock(GraphProviderEnactables.class);
+    when(mockProvider.getEnactmentGraph()).thenReturn(graph);
+    GraphAccessConcurrent gAccess = new GraphAccessConcurrent(mockProvider);
+    EnactableFactory factoryMock = mock(EnactableFactory.class);
+    GraphTransformDistribution tested = new GraphTransformDistribution(factoryMock);
+    tested.modifyEnactmentGraph(gAccess, graph.getVertex("distribution"));
+    assertEquals(4 + 3 * iterations, graph.getVertexCount());
+    assertEquals(2 + 4 * iterations, graph.getEdgeCount());
+    for (int idx = 0; idx < iterations; idx++) {
+      Task func = graph.getVertex(tested.getReproducedId("function", idx));
+      assertNotNull(func);
+      assertEquals(1, graph.getInEdges(func).size());
+      verify(factoryMock).reproduceEnactable(eq(func), any(EnactableAtomic.class));
+    }
+    assertNull(graph.getVertex("function"));
+  }
+
+  @Test
+  public void testModifiedWhilePlanning() {
+    EnactmentGraph graph = createSimpleLoop(3);
+    Task distributionNode = graph.getVertex("distribution");
+    GraphTransformDistribution tested =
+        new GraphTransformDistribution(mock(EnactableFactory.class));
+    LoopBodyTemplate template = tested.getTemplate(graph, distributionNode);
+    GraphTransformDistribution.ReproductionPlan plan =
+        new GraphTransformDistribution.ReproductionPlan(template);
+    tested.planOffspring(plan, distributionNode);
+    // the body is extended while the offspring are planned
+    Communication constant = new Communication("constant");
+    PropertyServiceDependency.addDataDependency(constant, graph.getVertex("function"), "const",
+        graph);
+    tested.spliceOrReplan(graph, distributionNode, plan, ScopeIndex.build(graph));
+    // the reproduction was planned anew
+    for (int idx = 0; idx < 3; idx++) {
+      Task func = graph.getVertex(tested.getReproducedId("function", idx));
+      assertEquals(2, graph.getInEdges(func).size());
+    }
+    assertNull(graph.getVertex("function"));
+  }
+
+  @Test
+  public void testTransformedElsewhereWhilePlanning() {
+    EnactmentGraph graph = createSimpleLoop(3);
+    Task distributionNode = graph.getVertex("distribution");
+    GraphTransformDistribution tested =
+        new GraphTransformDistribution(mock(EnactableFactory.class));
+    LoopBodyTemplate template = tested.getTemplate(graph, distributionNode);
+    GraphTransformDistribution.ReproductionPlan plan =
+        new GraphTransformDistribution.ReproductionPlan(template);
+    tested.planOffspring(plan, distributionNode);
+    // a part of the graph outside of the body is transformed
+    PropertyServiceDependency.addDataDependency(new Communication("other"),
+        PropertyServiceFunctionUser.createUserTask("otherFunction", "addition"), "in", graph);
+    tested.spliceOrReplan(graph, distributionNode, plan, ScopeIndex.build(graph));
+    // the planned offspring are used
+    for (int idx = 0; idx < 3; idx++) {
+      String offspringId = tested.getReproducedId("function", idx);
+      assertSame(plan.iterations.get(idx).getVertex(offspringId), graph.getVertex(offspringId));
+    }
+    assertNull(graph.getVertex("function"));
+  }
 }
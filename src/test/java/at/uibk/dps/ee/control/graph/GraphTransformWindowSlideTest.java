@@ -0,0 +1,119 @@
+package at.uibk.dps.ee.control.graph;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.junit.Test;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import at.uibk.dps.ee.control.management.EnactmentQueues;
+import at.uibk.dps.ee.core.enactable.Enactable.State;
+import at.uibk.dps.ee.enactables.EnactableAtomic;
+import at.uibk.dps.ee.enactables.EnactableFactory;
+import at.uibk.dps.ee.model.constants.ConstantsEEModel;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.properties.PropertyServiceData;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunction;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunction.UsageType;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections.OperationType;
+import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+
+public class GraphTransformWindowSlideTest {
+
+  @Test
+  public void testWindowedUnrolling() {
+    String scopeName = "scope";
+    String collNameIn = "collectionInput";
+    EnactmentGraph graph = new EnactmentGraph();
+    Communication wfInput = new Communication("input");
+    PropertyServiceData.makeRoot(wfInput);
+    Communication wfOutput = new Communication("output");
+    PropertyServiceData.makeLeaf(wfOutput);
+    Task distributionNode = PropertyServiceFunctionDataFlowCollections
+        .createCollectionDataFlowTask("distribution", OperationType.Distribution, scopeName);
+    PropertyServiceFunctionDataFlowCollections.setIterationNumber(distributionNode, 3);
+    Task function = new Task("function");
+    PropertyServiceFunction.setUsageType(UsageType.User, function);
+    Task aggregation = PropertyServiceFunctionDataFlowCollections
+        .createCollectionDataFlowTask("aggregation", OperationType.Aggregation, scopeName);
+    Communication distributedData = new Communication("distributedData");
+    Communication functionResult = new Communication("funcResult");
+    Communication outsideInput = new Communication("outsideIn");
+    PropertyServiceDependency.addDataDependency(wfInput, distributionNode, collNameIn, graph);
+    PropertyServiceDependency.addDataDependency(distributionNode, distributedData, collNameIn,
+        graph);
+    PropertyServiceDependency.addDataDependency(distributedData, function, "funcIn", graph);
+    PropertyServiceDependency.addDataDependency(function, functionResult, "funcOut", graph);
+    PropertyServiceDependency.addDataDependency(functionResult, aggregation,
+        ConstantsEEModel.JsonKeyAggregation, graph);
+    PropertyServiceDependency.addDataDependency(aggregation, wfOutput,
+        ConstantsEEModel.JsonKeyAggregation, graph);
+    Dependency outsideEdge =
+        PropertyServiceDependency.addDataDependency(outsideInput, function, "outside", graph);
+    PropertyServiceDependency.annotateFinishedTransmission(outsideEdge);
+
+    EnactableAtomic distEnactable = mock(EnactableAtomic.class);
+    JsonObject distResult = new JsonObject();
+    for (int idx = 0; idx < 3; idx++) {
+      distResult.add(ConstantsEEModel.getCollectionElementKey(collNameIn, idx),
+          new JsonPrimitive(idx));
+    }
+    when(distEnactable.getResult()).thenReturn(distResult);
+    PropertyServiceFunction.setEnactable(distributionNode, distEnactable);
+    PropertyServiceFunction.setEnactable(function, mock(EnactableAtomic.class));
+    EnactableAtomic aggrEnactable = mock(EnactableAtomic.class);
+    when(aggrEnactable.getState()).thenReturn(State.SCHEDULABLE);
+    PropertyServiceFunction.setEnactable(aggregation, aggrEnactable);
+
+    GraphProviderEnactables mockProvider = mock(GraphProviderEnactables.class);
+    when(mockProvider.getEnactmentGraph()).thenReturn(graph);
+    GraphAccessConcurrent gAccess = new GraphAccessConcurrent(mockProvider);
+    EnactmentQueues queues = mock(EnactmentQueues.class);
+    GraphTransformDistribution distribution =
+        new GraphTransformDistribution(mock(EnactableFactory.class), 2);
+
+    // only the first two iterations are unrolled
+    distribution.modifyEnactmentGraph(gAccess, distributionNode);
+    assertEquals(11, graph.getVertexCount());
+    assertEquals(12, graph.getEdgeCount());
+    assertNotNull(graph.getVertex(distribution.getReproducedId("function", 1)));
+    assertNull(graph.getVertex(distribution.getReproducedId("function", 2)));
+    DistributionWindow window = DistributionWindow.find(aggregation);
+    assertNotNull(window);
+
+    // the first iteration completes, the window slides
+    Task funcOut0 = graph.getVertex(distribution.getReproducedId("funcResult", 0));
+    assertTrue(window.registerArrival(aggregation, graph.findEdge(funcOut0, aggregation)));
+    assertFalse(window.isAggregationComplete(aggregation));
+    GraphTransformWindowSlide tested = new GraphTransformWindowSlide(distribution, queues);
+    assertTrue(DistributionWindow.isSlideTrigger(window.getSlideTrigger()));
+    tested.modifyEnactmentGraph(gAccess, window.getSlideTrigger());
+    assertNull(graph.getVertex(distribution.getReproducedId("function", 0)));
+    assertNotNull(graph.getVertex(distribution.getReproducedId("function", 2)));
+    Task funcIn2 = graph.getVertex(distribution.getReproducedId("distributedData", 2));
+    assertEquals(new JsonPrimitive(2), PropertyServiceData.getContent(funcIn2));
+    verify(queues).putAvailableData(funcIn2);
+    assertEquals(11, graph.getVertexCount());
+
+    // the remaining iterations complete, the reproduction is reverted
+    for (int idx = 1; idx < 3; idx++) {
+      Task funcOut = graph.getVertex(distribution.getReproducedId("funcResult", idx));
+      window.registerArrival(aggregation, graph.findEdge(funcOut, aggregation));
+    }
+    assertTrue(window.isAggregationComplete(aggregation));
+    when(aggrEnactable.getState()).thenReturn(State.FINISHED);
+    new GraphTransformAggregation().modifyEnactmentGraph(gAccess, aggregation);
+    assertTrue(window.isClosed());
+    assertNull(DistributionWindow.find(aggregation));
+    assertEquals(8, graph.getVertexCount());
+    assertEquals(7, graph.getEdgeCount());
+    // a late slide has no effect
+    tested.modifyEnactmentGraph(gAccess, window.getSlideTrigger());
+    assertEquals(8, graph.getVertexCount());
+  }
+}
@@ -0,0 +1,65 @@
+package at.uibk.dps.ee.control.graph;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.properties.PropertyServiceData;
+import at.uibk.dps.ee.model.properties.PropertyServiceData.DataType;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionUser;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+
+public class InstanceStateGraphTest {
+
+  @Test
+  public void testServedResult() {
+    InstanceStateGraph tested = new InstanceStateGraph();
+    Task function = PropertyServiceFunctionUser.createUserTask("func", "addition");
+    Task offspring = PropertyServiceFunctionUser.createUserTask("func+1", "addition");
+    offspring.setParent(function);
+    assertNull(tested.getServedResult(function));
+    JsonObject result = new JsonObject();
+    result.addProperty("out", 42);
+    tested.setServedResult(function, result);
+    assertSame(result, tested.getServedResult(function));
+    // the result is attached to its node only
+    assertNull(tested.getServedResult(offspring));
+    tested.setServedResult(function, null);
+    assertNull(tested.getServedResult(function));
+  }
+
+  @Test
+  public void testEnactmentKey() {
+    InstanceStateGraph tested = new InstanceStateGraph();
+    Task function = PropertyServiceFunctionUser.createUserTask("func", "addition");
+    Task offspring = PropertyServiceFunctionUser.createUserTask("func+1", "addition");
+    offspring.setParent(function);
+    assertNull(tested.getEnactmentKey(function));
+    tested.setEnactmentKey(function, "key");
+    assertEquals("key", tested.getEnactmentKey(function));
+    assertNull(tested.getEnactmentKey(offspring));
+  }
+
+  @Test
+  public void testReset() {
+    EnactmentGraph graph = new EnactmentGraph();
+    Task constant = PropertyServiceData.createConstantNode("constant", DataType.Number,
+        new JsonPrimitive(42));
+    Task function = PropertyServiceFunctionUser.createUserTask("func", "addition");
+    Dependency edge =
+        PropertyServiceDependency.addDataDependency(constant, function, "in", graph);
+    InstanceStateGraph tested = new InstanceStateGraph();
+    tested.annotateFinishedTransmission(edge);
+    tested.setServedResult(function, new JsonObject());
+    tested.setEnactmentKey(function, "key");
+    tested.reset(graph);
+    assertFalse(tested.isTransmissionDone(edge));
+    assertNull(tested.getServedResult(function));
+    assertNull(tested.getEnactmentKey(function));
+    // the constants keep their content
+    assertEquals(new JsonPrimitive(42), tested.getContent(constant));
+  }
+}
@@ -0,0 +1,101 @@
+package at.uibk.dps.ee.control.graph;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.junit.Test;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import at.uibk.dps.ee.enactables.EnactableAtomic;
+import at.uibk.dps.ee.enactables.wrapper.FactoryInterface;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.properties.PropertyServiceData;
+import at.uibk.dps.ee.model.properties.PropertyServiceData.DataType;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionUser;
+import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+
+public class InstanceStatePlanTest {
+
+  protected final EnactmentGraph graph = new EnactmentGraph();
+  protected final Task input = new Communication("input");
+  protected final Task constant = PropertyServiceData.createConstantNode("constant",
+      DataType.Number, new JsonPrimitive(42));
+  protected final Task function = PropertyServiceFunctionUser.createUserTask("func", "addition");
+  protected final Dependency inEdge =
+      PropertyServiceDependency.addDataDependency(input, function, "in", graph);
+  protected final Dependency constEdge =
+      PropertyServiceDependency.addDataDependency(constant, function, "const", graph);
+
+  @Test
+  public void testContent() {
+    ExecutionPlan plan = ExecutionPlan.compile(graph, 0);
+    InstanceStatePlan tested = new InstanceStatePlan(plan, mock(FactoryInterface.class));
+    assertEquals(plan, tested.getPlan());
+    tested.setContent(input, new JsonPrimitive(1));
+    assertEquals(new JsonPrimitive(1), tested.getContent(input));
+    // constants are read from the plan
+    assertEquals(new JsonPrimitive(42), tested.getContent(constant));
+    // other instances do not see the content
+    InstanceStatePlan other = new InstanceStatePlan(plan, mock(FactoryInterface.class));
+    assertEquals(new JsonPrimitive(42), other.getContent(constant));
+    tested.setContent(constant, new JsonPrimitive(0));
+    assertEquals(new JsonPrimitive(42), other.getContent(constant));
+  }
+
+  @Test
+  public void testTransmission() {
+    InstanceStatePlan tested =
+        new InstanceStatePlan(ExecutionPlan.compile(graph, 0), mock(FactoryInterface.class));
+    assertFalse(tested.isTransmissionDone(inEdge));
+    tested.annotateFinishedTransmission(inEdge);
+    assertTrue(tested.isTransmissionDone(inEdge));
+    assertFalse(tested.isTransmissionDone(constEdge));
+    assertFalse(PropertyServiceDependency.isTransmissionDone(inEdge));
+  }
+
+  @Test
+  public void testEnactable() {
+    FactoryInterface factory = mock(FactoryInterface.class);
+    EnactableAtomic enactable = mock(EnactableAtomic.class);
+    when(factory.createEnactable(function)).thenReturn(enactable);
+    InstanceStatePlan tested = new InstanceStatePlan(ExecutionPlan.compile(graph, 0), factory);
+    assertEquals(enactable, tested.getEnactable(function));
+    assertEquals(enactable, tested.getEnactable(function));
+    verify(factory, times(1)).createEnactable(function);
+  }
+
+  @Test
+  public void testIndexAccess() {
+    FactoryInterface factory = mock(FactoryInterface.class);
+    EnactableAtomic enactable = mock(EnactableAtomic.class);
+    JsonObject result = new JsonObject();
+    when(enactable.getResult()).thenReturn(result);
+    when(factory.createEnactable(function)).thenReturn(enactable);
+    ExecutionPlan plan = ExecutionPlan.compile(graph, 0);
+    InstanceStatePlan tested = new InstanceStatePlan(plan, factory);
+    int inputIdx = plan.getNodeIndex(input);
+    int functionIdx = plan.getNodeIndex(function);
+    tested.setContent(inputIdx, new JsonPrimitive(1));
+    assertEquals(new JsonPrimitive(1), tested.getContent(input));
+    assertEquals(new JsonPrimitive(42), tested.getContent(plan.getNodeIndex(constant)));
+    tested.annotateFinishedTransmission(plan.getEdgeIndex(inEdge));
+    assertTrue(tested.isTransmissionDone(inEdge));
+    assertEquals(enactable, tested.getEnactable(functionIdx));
+    assertEquals(result, tested.getResult(functionIdx));
+    JsonObject served = new JsonObject();
+    tested.setServedResult(function, served);
+    assertSame(served, tested.getResult(functionIdx));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownNode() {
+    InstanceStatePlan tested =
+        new InstanceStatePlan(ExecutionPlan.compile(graph, 0), mock(FactoryInterface.class));
+    tested.setContent(new Communication("unknown"), new JsonPrimitive(0));
+  }
+}
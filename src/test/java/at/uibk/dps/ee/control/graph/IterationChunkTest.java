@@ -0,0 +1,178 @@
+package at.uibk.dps.ee.control.graph;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.junit.Test;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import at.uibk.dps.ee.core.enactable.Enactable.State;
+import at.uibk.dps.ee.enactables.EnactableAtomic;
+import at.uibk.dps.ee.enactables.EnactableFactory;
+import at.uibk.dps.ee.model.constants.ConstantsEEModel;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.properties.PropertyServiceData;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunction;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunction.UsageType;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections.OperationType;
+import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+
+public class IterationChunkTest {
+
+  @Test
+  public void testChunkNumber() {
+    assertEquals(3, IterationChunk.getChunkNumber(5, 2));
+    assertEquals(2, IterationChunk.getChunkNumber(4, 2));
+    assertEquals(0, IterationChunk.getChunkNumber(0, 2));
+    IterationChunk last = IterationChunk.of("coll", 2, 2, 5);
+    assertEquals(4, last.getFirstIteration());
+    assertEquals(1, last.getIterationNumber());
+  }
+
+  @Test
+  public void testRequestedChunkSize() {
+    Task distribution = PropertyServiceFunctionDataFlowCollections
+        .createCollectionDataFlowTask("distribution", OperationType.Distribution, "scope");
+    // not chunked unless requested
+    assertEquals(1, IterationChunk.getRequestedChunkSize(distribution));
+    IterationChunk.requestChunkSize(distribution, 3);
+    assertEquals(3, IterationChunk.getRequestedChunkSize(distribution));
+  }
+
+  @Test
+  public void testRequestConfiguredChunkSizes() {
+    EnactmentGraph graph = new EnactmentGraph();
+    Task distribution1 = PropertyServiceFunctionDataFlowCollections
+        .createCollectionDataFlowTask("distribution1", OperationType.Distribution, "scope1");
+    Task distribution2 = PropertyServiceFunctionDataFlowCollections
+        .createCollectionDataFlowTask("distribution2", OperationType.Distribution, "scope2");
+    graph.addVertex(distribution1);
+    graph.addVertex(distribution2);
+    IterationChunk.requestChunkSizes(graph, "");
+    assertEquals(1, IterationChunk.getRequestedChunkSize(distribution1));
+    IterationChunk.requestChunkSizes(graph, " distribution2 = 4 ");
+    assertEquals(1, IterationChunk.getRequestedChunkSize(distribution1));
+    assertEquals(4, IterationChunk.getRequestedChunkSize(distribution2));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testRequestChunkSizeForOtherNode() {
+    EnactmentGraph graph = new EnactmentGraph();
+    Task aggregation = PropertyServiceFunctionDataFlowCollections
+        .createCollectionDataFlowTask("aggregation", OperationType.Aggregation, "scope");
+    graph.addVertex(aggregation);
+    IterationChunk.requestChunkSizes(graph, "aggregation=2");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testRequestMalformedChunkSize() {
+    EnactmentGraph graph = new EnactmentGraph();
+    graph.addVertex(PropertyServiceFunctionDataFlowCollections
+        .createCollectionDataFlowTask("distribution", OperationType.Distribution, "scope"));
+    IterationChunk.requestChunkSizes(graph, "distribution=two");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testRequestInvalidChunkSize() {
+    IterationChunk.requestChunkSize(new Task("distribution"), 0);
+  }
+
+  @Test
+  public void testCollectSplit() {
+    IterationChunk tested = IterationChunk.of("coll", 1, 2, 5);
+    JsonObject distributionResult = new JsonObject();
+    for (int i = 0; i < 5; i++) {
+      distributionResult.add(ConstantsEEModel.getCollectionElementKey("coll", i),
+          new JsonPrimitive(i));
+    }
+    JsonArray slice = tested.collect(distributionResult);
+    assertEquals(2, slice.size());
+    assertEquals(2, slice.get(0).getAsInt());
+    assertEquals(3, slice.get(1).getAsInt());
+    JsonObject entries = tested.split(slice);
+    assertEquals(2, entries.size());
+    assertEquals(3, entries.get(ConstantsEEModel.getCollectionElementKey("coll", 3)).getAsInt());
+    Dependency edge = new Dependency("edge");
+    assertNull(IterationChunk.find(edge));
+    tested.attach(edge);
+    assertSame(tested, IterationChunk.find(edge));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testSplitWrongSize() {
+    JsonArray result = new JsonArray();
+    result.add(1);
+    IterationChunk.of("coll", 0, 2, 5).split(result);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testCollectMissingElement() {
+    IterationChunk.of("coll", 0, 2, 5).collect(new JsonObject());
+  }
+
+  @Test
+  public void testChunkedReproduction() {
+    EnactmentGraph graph = new EnactmentGraph();
+    Communication wfInput = new Communication("input");
+    PropertyServiceData.makeRoot(wfInput);
+    Communication wfOutput = new Communication("output");
+    PropertyServiceData.makeLeaf(wfOutput);
+    Task distribution = PropertyServiceFunctionDataFlowCollections
+        .createCollectionDataFlowTask("distribution", OperationType.Distribution, "scope");
+    PropertyServiceFunctionDataFlowCollections.setIterationNumber(distribution, 5);
+    Task function = new Task("function");
+    PropertyServiceFunction.setUsageType(UsageType.User, function);
+    PropertyServiceFunction.setEnactable(function, mock(EnactableAtomic.class));
+    Task aggregation = PropertyServiceFunctionDataFlowCollections
+        .createCollectionDataFlowTask("aggregation", OperationType.Aggregation, "scope");
+    EnactableAtomic aggrEnactable = mock(EnactableAtomic.class);
+    when(aggrEnactable.getState()).thenReturn(State.FINISHED);
+    PropertyServiceFunction.setEnactable(aggregation, aggrEnactable);
+    Communication distributedData = new Communication("distributedData");
+    Communication functionResult = new Communication("funcResult");
+    PropertyServiceDependency.addDataDependency(wfInput, distribution, "coll", graph);
+    PropertyServiceDependency.addDataDependency(distribution, distributedData, "coll", graph);
+    PropertyServiceDependency.addDataDependency(distributedData, function, "in", graph);
+    PropertyServiceDependency.addDataDependency(function, functionResult, "out", graph);
+    PropertyServiceDependency.addDataDependency(functionResult, aggregation,
+        ConstantsEEModel.JsonKeyAggregation, graph);
+    PropertyServiceDependency.addDataDependency(aggregation, wfOutput,
+        ConstantsEEModel.JsonKeyAggregation, graph);
+    GraphProviderEnactables mockProvider = mock(GraphProviderEnactables.class);
+    when(mockProvider.getEnactmentGraph()).thenReturn(graph);
+    GraphAccessConcurrent gAccess = new GraphAccessConcurrent(mockProvider);
+    GraphTransformDistribution distributionTransform =
+        new GraphTransformDistribution(mock(EnactableFactory.class));
+    IterationChunk.requestChunkSize(distribution, 2);
+    int vertexCount = graph.getVertexCount();
+    int edgeCount = graph.getEdgeCount();
+
+    distributionTransform.modifyEnactmentGraph(gAccess, distribution);
+    // 3 chunks (2 + 2 + 1 iterations)
+    assertEquals(vertexCount + 6, graph.getVertexCount());
+    assertEquals(edgeCount + 8, graph.getEdgeCount());
+    assertEquals(3, IterationChunk.getOffspringNumber(distribution));
+    assertNull(graph.getVertex(distributionTransform.getReproducedId("function", 3)));
+    Task lastData =
+        graph.getVertex(distributionTransform.getReproducedId("distributedData", 2));
+    IterationChunk lastIn = IterationChunk.find(graph.getInEdges(lastData).iterator().next());
+    assertEquals("coll", lastIn.getCollectionKey());
+    assertEquals(4, lastIn.getFirstIteration());
+    assertEquals(1, lastIn.getIterationNumber());
+    Task lastResult = graph.getVertex(distributionTransform.getReproducedId("funcResult", 2));
+    IterationChunk lastOut =
+        IterationChunk.find(graph.getOutEdges(lastResult).iterator().next());
+    assertEquals(ConstantsEEModel.JsonKeyAggregation, lastOut.getCollectionKey());
+    assertEquals(4, lastOut.getFirstIteration());
+
+    new GraphTransformAggregation().modifyEnactmentGraph(gAccess, aggregation);
+    assertEquals(vertexCount, graph.getVertexCount());
+    assertEquals(edgeCount, graph.getEdgeCount());
+    assertTrue(graph.containsVertex(function));
+  }
+}
@@ -0,0 +1,141 @@
+package at.uibk.dps.ee.control.graph;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.Test;
+import at.uibk.dps.ee.control.graph.GraphAccess.EdgeTupleAppl;
+import at.uibk.dps.ee.core.enactable.Enactable.State;
+import at.uibk.dps.ee.enactables.EnactableAtomic;
+import at.uibk.dps.ee.enactables.EnactableFactory;
+import at.uibk.dps.ee.model.constants.ConstantsEEModel;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.properties.PropertyServiceData;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunction;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunction.UsageType;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections.OperationType;
+import edu.uci.ics.jung.graph.util.EdgeType;
+import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+
+public class LoopBodyTemplateTest {
+
+  @Test
+  public void testFind() {
+    Task distribution = PropertyServiceFunctionDataFlowCollections
+        .createCollectionDataFlowTask("distribution", OperationType.Distribution, "scope");
+    Task function = new Task("function");
+    Dependency edge = new Dependency("edge");
+    Set<EdgeTupleAppl> edges = new HashSet<>();
+    edges.add(new EdgeTupleAppl(distribution, function, edge));
+    Set<Task> nodes = new HashSet<>();
+    nodes.add(function);
+    LoopBodyTemplate tested = new LoopBodyTemplate(distribution, edges, nodes);
+    assertNull(LoopBodyTemplate.find(distribution));
+    tested.attach();
+    assertSame(tested, LoopBodyTemplate.find(distribution));
+    assertEquals("scope", tested.getScope());
+    assertTrue(tested.getDirectEdges().isEmpty());
+    assertTrue(tested.getNestedCollectionNodes().isEmpty());
+    // offspring do not use the template of their parent
+    Task offspring = new Task("offspring");
+    offspring.setParent(distribution);
+    assertNull(LoopBodyTemplate.find(offspring));
+    EnactmentGraph graph = new EnactmentGraph();
+    assertFalse(tested.isContainedIn(graph));
+    graph.addEdge(edge, distribution, function, EdgeType.DIRECTED);
+    assertTrue(tested.isContainedIn(graph));
+    assertEquals("function" + ConstantsEEModel.KeyWordSeparator2 + 2,
+        LoopBodyTemplate.getOffspringId(function, 2));
+  }
+
+  @Test
+  public void testIsBodyOf() {
+    Task distribution = PropertyServiceFunctionDataFlowCollections
+        .createCollectionDataFlowTask("distribution", OperationType.Distribution, "scope");
+    Task function = new Task("function");
+    Dependency edge = new Dependency("edge");
+    EnactmentGraph graph = new EnactmentGraph();
+    graph.addEdge(edge, distribution, function, EdgeType.DIRECTED);
+    Set<EdgeTupleAppl> edges = new HashSet<>();
+    edges.add(new EdgeTupleAppl(distribution, function, edge));
+    Set<Task> nodes = new HashSet<>();
+    nodes.add(function);
+    LoopBodyTemplate tested = new LoopBodyTemplate(distribution, edges, nodes);
+    assertTrue(tested.isBodyOf(graph));
+    // edges elsewhere do not matter
+    graph.addEdge(new Dependency("other"), new Task("a"), new Task("b"), EdgeType.DIRECTED);
+    assertTrue(tested.isBodyOf(graph));
+    // an edge added to the body does
+    graph.addEdge(new Dependency("extension"), new Task("c"), function, EdgeType.DIRECTED);
+    assertFalse(tested.isBodyOf(graph));
+    assertTrue(tested.isContainedIn(graph));
+  }
+
+  @Test
+  public void testReuseAcrossRuns() {
+    EnactmentGraph graph = new EnactmentGraph();
+    Communication wfInput = new Communication("input");
+    PropertyServiceData.makeRoot(wfInput);
+    Communication wfOutput = new Communication("output");
+    PropertyServiceData.makeLeaf(wfOutput);
+    Task distribution = PropertyServiceFunctionDataFlowCollections
+        .createCollectionDataFlowTask("distribution", OperationType.Distribution, "scope");
+    PropertyServiceFunctionDataFlowCollections.setIterationNumber(distribution, 3);
+    Task function = new Task("function");
+    PropertyServiceFunction.setUsageType(UsageType.User, function);
+    PropertyServiceFunction.setEnactable(function, mock(EnactableAtomic.class));
+    Task aggregation = PropertyServiceFunctionDataFlowCollections
+        .createCollectionDataFlowTask("aggregation", OperationType.Aggregation, "scope");
+    EnactableAtomic aggrEnactable = mock(EnactableAtomic.class);
+    when(aggrEnactable.getState()).thenReturn(State.FINISHED);
+    PropertyServiceFunction.setEnactable(aggregation, aggrEnactable);
+    Communication distributedData = new Communication("distributedData");
+    Communication functionResult = new Communication("funcResult");
+    PropertyServiceDependency.addDataDependency(wfInput, distribution, "coll", graph);
+    PropertyServiceDependency.addDataDependency(distribution, distributedData, "coll", graph);
+    PropertyServiceDependency.addDataDependency(distributedData, function, "in", graph);
+    PropertyServiceDependency.addDataDependency(function, functionResult, "out", graph);
+    PropertyServiceDependency.addDataDependency(functionResult, aggregation,
+        ConstantsEEModel.JsonKeyAggregation, graph);
+    // a direct edge between the distribution and the aggregation
+    PropertyServiceDependency.addDataDependency(distribution, aggregation,
+        ConstantsEEModel.JsonKeyAggregation, graph);
+    PropertyServiceDependency.addDataDependency(aggregation, wfOutput,
+        ConstantsEEModel.JsonKeyAggregation, graph);
+    GraphProviderEnactables mockProvider = mock(GraphProviderEnactables.class);
+    when(mockProvider.getEnactmentGraph()).thenReturn(graph);
+    GraphAccessConcurrent gAccess = new GraphAccessConcurrent(mockProvider);
+    GraphTransformDistribution distributionTransform =
+        new GraphTransformDistribution(mock(EnactableFactory.class));
+    GraphTransformAggregation aggregationTransform = new GraphTransformAggregation();
+    int vertexCount = graph.getVertexCount();
+    int edgeCount = graph.getEdgeCount();
+
+    distributionTransform.modifyEnactmentGraph(gAccess, distribution);
+    LoopBodyTemplate template = LoopBodyTemplate.find(distribution);
+    assertNotNull(template);
+    assertEquals(3, template.getOriginalNodes().size());
+    assertEquals(1, template.getDirectEdges().size());
+    assertEquals(vertexCount + 6, graph.getVertexCount());
+    assertEquals(edgeCount + 10, graph.getEdgeCount());
+    aggregationTransform.modifyEnactmentGraph(gAccess, aggregation);
+    assertEquals(vertexCount, graph.getVertexCount());
+    assertEquals(edgeCount, graph.getEdgeCount());
+    assertTrue(template.isContainedIn(graph));
+
+    // the second run reuses the template
+    PropertyServiceFunctionDataFlowCollections.setIterationNumber(distribution, 2);
+    distributionTransform.modifyEnactmentGraph(gAccess, distribution);
+    assertSame(template, LoopBodyTemplate.find(distribution));
+    assertEquals(vertexCount + 3, graph.getVertexCount());
+    aggregationTransform.modifyEnactmentGraph(gAccess, aggregation);
+    assertEquals(vertexCount, graph.getVertexCount());
+    assertEquals(edgeCount, graph.getEdgeCount());
+  }
+}
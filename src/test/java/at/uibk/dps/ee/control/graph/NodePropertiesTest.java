@@ -0,0 +1,78 @@
+package at.uibk.dps.ee.control.graph;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import at.uibk.dps.ee.model.properties.PropertyServiceData;
+import at.uibk.dps.ee.model.properties.PropertyServiceData.NodeType;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunction.UsageType;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlow;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlow.DataFlowType;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections.OperationType;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionUser;
+import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.Task;
+
+public class NodePropertiesTest {
+
+  @Test
+  public void testUserFunction() {
+    Task function = PropertyServiceFunctionUser.createUserTask("function", "addition");
+    NodeProperties tested = NodeProperties.of(function);
+    assertSame(tested, NodeProperties.of(function));
+    assertEquals(UsageType.User, tested.getUsageType());
+    assertFalse(tested.getDataFlowType().isPresent());
+    assertFalse(tested.isCollectionOperation());
+    assertFalse(tested.isMultiplexer());
+    assertFalse(tested.getScope().isPresent());
+  }
+
+  @Test
+  public void testCollectionOperation() {
+    Task distribution = PropertyServiceFunctionDataFlowCollections
+        .createCollectionDataFlowTask("distribution", OperationType.Distribution, "scope");
+    NodeProperties tested = NodeProperties.of(distribution);
+    assertEquals(UsageType.DataFlow, tested.getUsageType());
+    assertEquals(DataFlowType.Collections, tested.getDataFlowType().get());
+    assertTrue(tested.isCollectionOperation());
+    assertEquals("scope", tested.getScope().get());
+  }
+
+  @Test
+  public void testMultiplexer() {
+    Task muxer =
+        PropertyServiceFunctionDataFlow.createDataFlowFunction("muxer", DataFlowType.Multiplexer);
+    assertTrue(NodeProperties.of(muxer).isMultiplexer());
+  }
+
+  @Test
+  public void testDataNode() {
+    Task sequentiality = PropertyServiceData.createSequentialityNode("seq");
+    assertEquals(NodeType.Sequentiality, NodeProperties.of(sequentiality).getNodeType());
+  }
+
+  @Test
+  public void testOffspring() {
+    Task parent = PropertyServiceFunctionDataFlowCollections
+        .createCollectionDataFlowTask("distribution", OperationType.Distribution, "scope");
+    NodeProperties parentProperties = NodeProperties.of(parent);
+    assertEquals("scope", parentProperties.getScope().get());
+    Task offspring = new Task("offspring");
+    offspring.setParent(parent);
+    PropertyServiceFunctionDataFlowCollections.setScope(offspring, "scope_0");
+    // the sidecar of the parent is not used for the offspring
+    NodeProperties offspringProperties = NodeProperties.of(offspring);
+    assertNotSame(parentProperties, offspringProperties);
+    assertEquals("scope_0", offspringProperties.getScope().get());
+    assertSame(parentProperties, NodeProperties.of(parent));
+  }
+
+  @Test
+  public void testAttach() {
+    Task data = new Communication("data");
+    NodeProperties first = NodeProperties.of(data);
+    NodeProperties second = NodeProperties.attach(data);
+    assertNotSame(first, second);
+    assertSame(second, NodeProperties.of(data));
+  }
+}
@@ -0,0 +1,99 @@
+package at.uibk.dps.ee.control.graph;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.junit.Test;
+import at.uibk.dps.ee.core.enactable.Enactable.State;
+import at.uibk.dps.ee.enactables.EnactableAtomic;
+import at.uibk.dps.ee.enactables.EnactableFactory;
+import at.uibk.dps.ee.model.constants.ConstantsEEModel;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.properties.PropertyServiceData;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunction;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunction.UsageType;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections.OperationType;
+import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.Task;
+
+public class ScopeIndexTest {
+
+  @Test
+  public void testAddRemove() {
+    Task distribution = PropertyServiceFunctionDataFlowCollections
+        .createCollectionDataFlowTask("distribution", OperationType.Distribution, "scope");
+    Task aggregation = PropertyServiceFunctionDataFlowCollections
+        .createCollectionDataFlowTask("aggregation", OperationType.Aggregation, "scope");
+    Communication data = new Communication("data");
+    ScopeIndex tested = new ScopeIndex();
+    tested.addCollectionNode(distribution);
+    tested.addCollectionNode(aggregation);
+    tested.addCollectionNode(data);
+    assertEquals(distribution, tested.getDistributionNode("scope"));
+    assertEquals(1, tested.getAggregationNodes("scope").size());
+    assertTrue(tested.getAggregationNodes("scope").contains(aggregation));
+    tested.removeCollectionNode(aggregation);
+    assertTrue(tested.getAggregationNodes("scope").isEmpty());
+    assertTrue(tested.getAggregationNodes("otherScope").isEmpty());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMultipleDistributionNodes() {
+    ScopeIndex tested = new ScopeIndex();
+    tested.addCollectionNode(PropertyServiceFunctionDataFlowCollections
+        .createCollectionDataFlowTask("d1", OperationType.Distribution, "scope"));
+    tested.addCollectionNode(PropertyServiceFunctionDataFlowCollections
+        .createCollectionDataFlowTask("d2", OperationType.Distribution, "scope"));
+    tested.getDistributionNode("scope");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNoDistributionNode() {
+    new ScopeIndex().getDistributionNode("scope");
+  }
+
+  @Test
+  public void testMaintainedByTransforms() {
+    EnactmentGraph graph = new EnactmentGraph();
+    Communication wfInput = new Communication("input");
+    PropertyServiceData.makeRoot(wfInput);
+    Communication wfOutput = new Communication("output");
+    PropertyServiceData.makeLeaf(wfOutput);
+    Task distribution = PropertyServiceFunctionDataFlowCollections
+        .createCollectionDataFlowTask("distribution", OperationType.Distribution, "scope");
+    PropertyServiceFunctionDataFlowCollections.setIterationNumber(distribution, 2);
+    Task function = new Task("function");
+    PropertyServiceFunction.setUsageType(UsageType.User, function);
+    Task aggregation = PropertyServiceFunctionDataFlowCollections
+        .createCollectionDataFlowTask("aggregation", OperationType.Aggregation, "scope");
+    Communication distributedData = new Communication("distributedData");
+    Communication functionResult = new Communication("funcResult");
+    PropertyServiceDependency.addDataDependency(wfInput, distribution, "coll", graph);
+    PropertyServiceDependency.addDataDependency(distribution, distributedData, "coll", graph);
+    PropertyServiceDependency.addDataDependency(distributedData, function, "in", graph);
+    PropertyServiceDependency.addDataDependency(function, functionResult, "out", graph);
+    PropertyServiceDependency.addDataDependency(functionResult, aggregation,
+        ConstantsEEModel.JsonKeyAggregation, graph);
+    PropertyServiceDependency.addDataDependency(aggregation, wfOutput,
+        ConstantsEEModel.JsonKeyAggregation, graph);
+    PropertyServiceFunction.setEnactable(function, mock(EnactableAtomic.class));
+    EnactableAtomic aggrEnactable = mock(EnactableAtomic.class);
+    when(aggrEnactable.getState()).thenReturn(State.FINISHED);
+    PropertyServiceFunction.setEnactable(aggregation, aggrEnactable);
+    GraphProviderEnactables mockProvider = mock(GraphProviderEnactables.class);
+    when(mockProvider.getEnactmentGraph()).thenReturn(graph);
+    GraphAccessConcurrent gAccess = new GraphAccessConcurrent(mockProvider);
+
+    ScopeIndex tested = gAccess.getScopeIndex();
+    assertEquals(distribution, tested.getDistributionNode("scope"));
+    new GraphTransformDistribution(mock(EnactableFactory.class))
+        .modifyEnactmentGraph(gAccess, distribution);
+    assertSame(tested, gAccess.getScopeIndex());
+    assertEquals(distribution, tested.getDistributionNode("scope"));
+    new GraphTransformAggregation().modifyEnactmentGraph(gAccess, aggregation);
+    assertEquals(distribution, tested.getDistributionNode("scope"));
+    assertEquals(7, graph.getVertexCount());
+  }
+}
@@ -6,6 +6,7 @@ import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonPrimitive;
 import at.uibk.dps.ee.control.graph.GraphAccess;
+import at.uibk.dps.ee.control.graph.InstanceStateGraph;
 import at.uibk.dps.ee.model.properties.PropertyServiceData;
 import at.uibk.dps.ee.model.properties.PropertyServiceData.DataType;
 import net.sf.opendse.model.Communication;
@@ -23,7 +24,9 @@ public class DataHandlerDefaultTest {
   public void annotateAvailableData() {
     GraphAccess gAccess = mock(GraphAccess.class);
     EnactmentQueues stateMock = mock(EnactmentQueues.class);
-    DataHandlerDefault tested = new DataHandlerDefault(gAccess, stateMock);
+    DataHandlerDefault tested =
+        new DataHandlerDefault(gAccess, stateMock, new InstanceStateGraph(),
+            new PartialResultPublisher());
 
     Communication root = new Communication("root");
     PropertyServiceData.makeRoot(root);
@@ -57,7 +60,9 @@ public class DataHandlerDefaultTest {
   public void testProcessRootNode() {
     GraphAccess gAccess = mock(GraphAccess.class);
     EnactmentQueues stateMock = mock(EnactmentQueues.class);
-    DataHandlerDefault tested = new DataHandlerDefault(gAccess, stateMock);
+    DataHandlerDefault tested =
+        new DataHandlerDefault(gAccess, stateMock, new InstanceStateGraph(),
+            new PartialResultPublisher());
 
     Communication root = new Communication("root");
     PropertyServiceData.makeRoot(root);
@@ -76,7 +81,9 @@ public class DataHandlerDefaultTest {
   public void testProcessRootNodeExc() {
     GraphAccess gAccess = mock(GraphAccess.class);
     EnactmentQueues stateMock = mock(EnactmentQueues.class);
-    DataHandlerDefault tested = new DataHandlerDefault(gAccess, stateMock);
+    DataHandlerDefault tested =
+        new DataHandlerDefault(gAccess, stateMock, new InstanceStateGraph(),
+            new PartialResultPublisher());
 
     Communication root = new Communication("root");
     PropertyServiceData.makeRoot(root);
@@ -107,7 +114,9 @@ public class DataHandlerDefaultTest {
 
     GraphAccess gAccess = mock(GraphAccess.class);
     EnactmentQueues stateMock = mock(EnactmentQueues.class);
-    DataHandlerDefault tested = new DataHandlerDefault(gAccess, stateMock);
+    DataHandlerDefault tested =
+        new DataHandlerDefault(gAccess, stateMock, new InstanceStateGraph(),
+            new PartialResultPublisher());
     when(gAccess.getLeafDataNodes()).thenReturn(leafNodes);
 
     JsonObject result = tested.extractResult();
@@ -127,9 +136,38 @@ public class DataHandlerDefaultTest {
 
     GraphAccess gAccess = mock(GraphAccess.class);
     EnactmentQueues stateMock = mock(EnactmentQueues.class);
-    DataHandlerDefault tested = new DataHandlerDefault(gAccess, stateMock);
+    DataHandlerDefault tested =
+        new DataHandlerDefault(gAccess, stateMock, new InstanceStateGraph(),
+            new PartialResultPublisher());
     tested.processLeafNode(leafNode, result);
     assertEquals(content, result.get(key));
   }
 
+  @Test
+  public void testPublishResult() {
+    Communication leafNode = new Communication("leaf");
+    String key = "key";
+    PropertyServiceData.makeLeaf(leafNode);
+    PropertyServiceData.setJsonKey(leafNode, key);
+    JsonElement content = new JsonPrimitive(42);
+    PropertyServiceData.setContent(leafNode, content);
+    JsonObject wfInput = new JsonObject();
+
+    GraphAccess gAccess = mock(GraphAccess.class);
+    when(gAccess.getRootDataNodes()).thenReturn(new HashSet<>());
+    when(gAccess.getConstantDataNodes()).thenReturn(new HashSet<>());
+    EnactmentQueues stateMock = mock(EnactmentQueues.class);
+    PartialResultPublisher publisher = new PartialResultPublisher();
+    PartialResultConsumer consumer = mock(PartialResultConsumer.class);
+    DataHandlerDefault tested =
+        new DataHandlerDefault(gAccess, stateMock, new InstanceStateGraph(), publisher);
+    publisher.addConsumer(consumer);
+    assertTrue(publisher.hasConsumers());
+    tested.annotateAvailableData(wfInput);
+    verify(consumer).consumeInstanceStart(1L, wfInput);
+    tested.publishResult(leafNode);
+    verify(consumer).consumePartialResult(1L, key, content);
+    publisher.removeConsumer(consumer);
+    assertFalse(publisher.hasConsumers());
+  }
 }
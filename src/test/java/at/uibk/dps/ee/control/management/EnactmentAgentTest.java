@@ -22,6 +22,7 @@ import java.util.concurrent.Executors;
 import static org.mockito.Mockito.verify;
 
 import static org.mockito.ArgumentMatchers.any;
+import at.uibk.dps.ee.control.management.ExecutorProvider.Stage;
 
 public class EnactmentAgentTest {
 
@@ -47,7 +48,7 @@ public class EnactmentAgentTest {
     EnactmentQueues stateMock = mock(EnactmentQueues.class);
     ExecutorService execMock = mock(ExecutorService.class);
     ExecutorProvider providerMock = mock(ExecutorProvider.class);
-    when(providerMock.getExecutorService()).thenReturn(execMock);
+    when(providerMock.getExecutorService(Stage.Activation)).thenReturn(execMock);
     EmergencyManager emerMan = mock(EmergencyManager.class);
 
     AgentFactoryActivation factoryMock = mock(AgentFactoryActivation.class);
@@ -87,7 +88,7 @@ public class EnactmentAgentTest {
     EnactmentQueues stateMock = mock(EnactmentQueues.class);
     ExecutorService execMock = mock(ExecutorService.class);
     ExecutorProvider providerMock = mock(ExecutorProvider.class);
-    when(providerMock.getExecutorService()).thenReturn(execMock);
+    when(providerMock.getExecutorService(Stage.Activation)).thenReturn(execMock);
     EmergencyManager emerMan = mock(EmergencyManager.class);
 
     AgentFactoryActivation factoryMock = mock(AgentFactoryActivation.class);
@@ -141,7 +142,7 @@ public class EnactmentAgentTest {
     EnactmentQueues stateMock = mock(EnactmentQueues.class);
     ExecutorService execMock = mock(ExecutorService.class);
     ExecutorProvider providerMock = mock(ExecutorProvider.class);
-    when(providerMock.getExecutorService()).thenReturn(execMock);
+    when(providerMock.getExecutorService(Stage.Activation)).thenReturn(execMock);
     EmergencyManager emerMan = mock(EmergencyManager.class);
 
     AgentFactoryActivation factoryMock = mock(AgentFactoryActivation.class);
@@ -189,7 +190,7 @@ public class EnactmentAgentTest {
     EnactmentQueues stateMock = mock(EnactmentQueues.class);
     ExecutorService execMock = mock(ExecutorService.class);
     ExecutorProvider providerMock = mock(ExecutorProvider.class);
-    when(providerMock.getExecutorService()).thenReturn(execMock);
+    when(providerMock.getExecutorService(Stage.Activation)).thenReturn(execMock);
     EmergencyManager emerMan = mock(EmergencyManager.class);
 
     AgentFactoryActivation factoryMock = mock(AgentFactoryActivation.class);
@@ -0,0 +1,154 @@
+package at.uibk.dps.ee.control.management;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.junit.Test;
+import com.google.gson.JsonPrimitive;
+import com.google.inject.Provider;
+import at.uibk.dps.ee.control.agents.AgentFactoryTransform;
+import at.uibk.dps.ee.control.command.Control;
+import at.uibk.dps.ee.control.enactment.EnactmentCoalescer;
+import at.uibk.dps.ee.control.enactment.ResultCache;
+import at.uibk.dps.ee.control.graph.ExecutionPlan;
+import at.uibk.dps.ee.control.graph.GraphAccess;
+import at.uibk.dps.ee.control.graph.GraphAccessConcurrent;
+import at.uibk.dps.ee.control.graph.GraphProviderEnactables;
+import at.uibk.dps.ee.control.graph.InstanceStateGraph;
+import at.uibk.dps.ee.control.graph.InstanceStatePlan;
+import at.uibk.dps.ee.core.EnactmentState;
+import at.uibk.dps.ee.enactables.EnactableAtomic;
+import at.uibk.dps.ee.enactables.wrapper.FactoryInterface;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.properties.PropertyServiceData;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunction;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections.OperationType;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionUser;
+import at.uibk.dps.sc.core.ScheduleModel;
+import at.uibk.dps.sc.core.interpreter.ScheduleInterpreter;
+import at.uibk.dps.sc.core.scheduler.Scheduler;
+import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+
+public class EnactmentInstancesTest {
+
+  protected static EnactmentInstances getTested(EnactmentGraph graph, Control control) {
+    return getTested(graph, control, mock(GraphAccess.class), mock(FactoryInterface.class));
+  }
+
+  @SuppressWarnings("unchecked")
+  protected static EnactmentInstances getTested(EnactmentGraph graph, Control control,
+      GraphAccess graphAccess, FactoryInterface enactableFactory) {
+    GraphProviderEnactables graphProvider = mock(GraphProviderEnactables.class);
+    when(graphProvider.getEnactmentGraph()).thenReturn(graph);
+    Provider<ScheduleModel> scheduleProvider = mock(Provider.class);
+    when(scheduleProvider.get()).thenReturn(mock(ScheduleModel.class));
+    Provider<EmergencyManager> emergencyProvider = mock(Provider.class);
+    when(emergencyProvider.get()).thenAnswer(invocation -> new EmergencyManagerHardStop());
+    return new EnactmentInstances(graphProvider, graphAccess, mock(ExecutorProvider.class),
+        enactableFactory, scheduleProvider, mock(ScheduleInterpreter.class),
+        mock(Scheduler.class), emergencyProvider, new InstanceStateGraph(),
+        mock(AgentFactoryTransform.class),
+        new ResultCache(0, 0, ""), new EnactmentCoalescer(false, new ResultCache(0, 0, "")),
+        new PartialResultPublisher(), control);
+  }
+
+  @Test
+  public void testConcurrentForSimpleGraph() {
+    EnactmentGraph graph = new EnactmentGraph();
+    Task function = PropertyServiceFunctionUser.createUserTask("function", "addition");
+    graph.addVertex(function);
+    Control control = mock(Control.class);
+    EnactmentInstances tested = getTested(graph, control);
+    assertFalse(tested.transformsGraph);
+    verify(control).addListener(tested);
+  }
+
+  @Test
+  public void testOwnGraphForCollections() {
+    EnactmentGraph graph = new EnactmentGraph();
+    Task distribution = PropertyServiceFunctionDataFlowCollections
+        .createCollectionDataFlowTask("distribution", OperationType.Distribution, "scope");
+    graph.addVertex(distribution);
+    EnactmentInstances tested = getTested(graph, mock(Control.class));
+    assertTrue(tested.transformsGraph);
+  }
+
+  @Test
+  public void testInstanceReactors() {
+    EnactmentInstances tested = getTested(new EnactmentGraph(), mock(Control.class));
+    EnactmentReactor first = tested.createReactor(new EnactmentQueues(), mock(GraphAccess.class));
+    EnactmentReactor second =
+        tested.createReactor(new EnactmentQueues(), mock(GraphAccess.class));
+    assertNotSame(first.emergencyManager, second.emergencyManager);
+    assertNotSame(first.transmissionFactory, second.transmissionFactory);
+  }
+
+  @Test
+  public void testInstanceGraph() {
+    EnactmentGraph graph = new EnactmentGraph();
+    Task distribution = PropertyServiceFunctionDataFlowCollections
+        .createCollectionDataFlowTask("distribution", OperationType.Distribution, "scope");
+    Task data = new Communication("data");
+    Dependency edge = PropertyServiceDependency.addDataDependency(data, distribution, "key",
+        graph);
+    EnactableAtomic original = mock(EnactableAtomic.class);
+    PropertyServiceFunction.setEnactable(distribution, original);
+    PropertyServiceData.setContent(data, new JsonPrimitive(1));
+    PropertyServiceDependency.annotateFinishedTransmission(edge);
+    FactoryInterface factory = mock(FactoryInterface.class);
+    EnactableAtomic fresh = mock(EnactableAtomic.class);
+    when(factory.createEnactable(any(Task.class))).thenReturn(fresh);
+    GraphProviderEnactables provider = mock(GraphProviderEnactables.class);
+    when(provider.getEnactmentGraph()).thenReturn(graph);
+    EnactmentInstances tested =
+        getTested(graph, mock(Control.class), new GraphAccessConcurrent(provider), factory);
+    assertTrue(tested.transformsGraph);
+    EnactmentGraph instanceGraph = tested.createInstanceGraph();
+    assertNotSame(graph, instanceGraph);
+    Task copiedDistribution = instanceGraph.getVertex("distribution");
+    assertNotSame(distribution, copiedDistribution);
+    assertSame(fresh, PropertyServiceFunction.getEnactable(copiedDistribution));
+    assertSame(original, PropertyServiceFunction.getEnactable(distribution));
+    Dependency copiedEdge = instanceGraph.getEdge(edge.getId());
+    assertFalse(PropertyServiceDependency.isTransmissionDone(copiedEdge));
+    // the shared graph is not changed
+    assertTrue(PropertyServiceDependency.isTransmissionDone(edge));
+  }
+
+  @Test
+  public void testPlanReactors() {
+    EnactmentGraph graph = new EnactmentGraph();
+    graph.addVertex(PropertyServiceFunctionUser.createUserTask("function", "addition"));
+    EnactmentInstances tested = getTested(graph, mock(Control.class));
+    ExecutionPlan plan = ExecutionPlan.compile(graph, 0);
+    EnactmentReactorPlan first = tested.createPlanReactor(new EnactmentQueues(),
+        new InstanceStatePlan(plan, mock(FactoryInterface.class)));
+    EnactmentReactorPlan second = tested.createPlanReactor(new EnactmentQueues(),
+        new InstanceStatePlan(plan, mock(FactoryInterface.class)));
+    assertSame(plan, first.plan);
+    assertNotSame(first.planFactory, second.planFactory);
+    assertNotSame(first.emergencyManager, second.emergencyManager);
+  }
+
+  @Test
+  public void testForwardStateChange() throws Exception {
+    EnactmentInstances tested = getTested(new EnactmentGraph(), mock(Control.class));
+    EnactmentReactor reactor = tested.createReactor(new EnactmentQueues(),
+        mock(GraphAccess.class));
+    tested.runningInstances.add(reactor);
+    tested.reactToStateChange(EnactmentState.RUNNING, EnactmentState.PAUSED);
+    assertTrue(tested.paused);
+    assertTrue(reactor.paused);
+    tested.reactToStateChange(EnactmentState.PAUSED, EnactmentState.RUNNING);
+    assertFalse(tested.paused);
+    assertFalse(reactor.paused);
+    tested.wakeUp();
+    assertTrue(reactor.wokenUp);
+  }
+}
@@ -4,10 +4,12 @@ import static org.junit.Assert.*;
 
 import org.junit.Test;
 
+import at.uibk.dps.ee.control.agents.PoisonPill;
 import net.sf.opendse.model.Task;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
@@ -123,4 +125,90 @@ public class EnactmentQueuesTest {
     assertTrue(tested.launchableTasks.contains(task1));
     assertTrue(tested.launchableTasks.contains(task2));
   }
+
+  @Test
+  public void testBatchTake() throws InterruptedException {
+    EnactmentQueues tested = new EnactmentQueues(2);
+    Task task1 = new Task("task1");
+    Task task2 = new Task("task2");
+    Task task3 = new Task("task3");
+    tested.putAvailableData(task1);
+    tested.putAvailableData(task2);
+    tested.putAvailableData(task3);
+    List<Task> batch = tested.takeAvailableDataBatch();
+    assertEquals(2, batch.size());
+    assertEquals(task1, batch.get(0));
+    assertEquals(task2, batch.get(1));
+    batch = tested.takeAvailableDataBatch();
+    assertEquals(1, batch.size());
+    assertEquals(task3, batch.get(0));
+  }
+
+  @Test
+  public void testBatchEndsWithPoisonPill() throws InterruptedException {
+    EnactmentQueues tested = new EnactmentQueues(10);
+    Task task1 = new Task("task1");
+    PoisonPill pill = new PoisonPill();
+    Task task2 = new Task("task2");
+    tested.putFinishedTask(task1);
+    tested.putFinishedTask(pill);
+    tested.putFinishedTask(task2);
+    List<Task> batch = tested.takeFinishedTaskBatch();
+    assertEquals(2, batch.size());
+    assertEquals(task1, batch.get(0));
+    assertEquals(pill, batch.get(1));
+    // the task behind the pill stays in the queue
+    assertEquals(1, tested.finishedTasks.size());
+    assertTrue(tested.finishedTasks.contains(task2));
+  }
+
+  @Test
+  public void testBatchTakeBlocks() throws Exception {
+    EnactmentQueues tested = new EnactmentQueues(10);
+    ExecutorService executor = Executors.newCachedThreadPool();
+    Future<List<Task>> future = executor.submit(() -> tested.takeLaunchableTaskBatch());
+    Thread.sleep(50);
+    assertFalse(future.isDone());
+    Task task = new Task("task");
+    tested.putLaunchableTask(task);
+    List<Task> batch = future.get();
+    assertEquals(1, batch.size());
+    assertEquals(task, batch.get(0));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidBatchSize() {
+    new EnactmentQueues(0);
+  }
+
+  @Test
+  public void testPoll() {
+    EnactmentQueues tested = new EnactmentQueues();
+    assertNull(tested.pollLaunchableTask());
+    Task task = new Task("task");
+    tested.putSchedulableTask(task);
+    assertNull(tested.pollLaunchableTask());
+    assertEquals(task, tested.pollSchedulableTask());
+    assertNull(tested.pollSchedulableTask());
+  }
+
+  @Test
+  public void testAwaitElement() throws Exception {
+    EnactmentQueues tested = new EnactmentQueues();
+    ExecutorService executor = Executors.newCachedThreadPool();
+    Future<Task> future = executor.submit(() -> {
+      Task result = tested.pollFinishedTask();
+      while (result == null) {
+        tested.awaitElement();
+        result = tested.pollFinishedTask();
+      }
+      return result;
+    });
+    Thread.sleep(50);
+    assertFalse(future.isDone());
+    Task task = new Task("task");
+    tested.putFinishedTask(task);
+    assertEquals(task, future.get());
+    executor.shutdown();
+  }
 }
@@ -0,0 +1,205 @@
+package at.uibk.dps.ee.control.management;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import com.google.gson.JsonObject;
+import at.uibk.dps.ee.control.agents.AgentEnactment;
+import at.uibk.dps.ee.control.agents.AgentExtraction;
+import at.uibk.dps.ee.control.agents.AgentFactoryEnactment;
+import at.uibk.dps.ee.control.agents.AgentFactoryExtraction;
+import at.uibk.dps.ee.control.agents.AgentFactoryScheduling;
+import at.uibk.dps.ee.control.agents.AgentFactoryTransform;
+import at.uibk.dps.ee.control.agents.AgentFactoryTransmission;
+import at.uibk.dps.ee.control.agents.AgentScheduling;
+import at.uibk.dps.ee.control.agents.AgentTransform;
+import at.uibk.dps.ee.control.agents.AgentTransmission;
+import at.uibk.dps.ee.control.command.Control;
+import at.uibk.dps.ee.control.graph.GraphAccess;
+import at.uibk.dps.ee.control.graph.GraphAccess.EdgeTupleAppl;
+import at.uibk.dps.ee.control.management.ExecutorProvider.Stage;
+import at.uibk.dps.ee.core.EnactmentState;
+import at.uibk.dps.ee.core.exception.StopException;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+
+public class EnactmentReactorTest {
+
+  protected EnactmentQueues queues;
+  protected GraphAccess graphAccess;
+  protected ExecutorService execMock;
+  protected AgentFactoryEnactment enactmentFactory;
+  protected AgentFactoryExtraction extractionFactory;
+  protected AgentFactoryTransmission transmissionFactory;
+  protected AgentFactoryScheduling schedulingFactory;
+  protected AgentFactoryTransform transformFactory;
+  protected DataHandler handlerMock;
+  protected EmergencyManager emerMan;
+  protected Task leaf;
+
+  @Before
+  public void setUp() {
+    queues = new EnactmentQueues();
+    graphAccess = mock(GraphAccess.class);
+    leaf = new Task("leaf");
+    when(graphAccess.getLeafDataNodes()).thenReturn(Set.of(leaf));
+    execMock = mock(ExecutorService.class);
+    enactmentFactory = mock(AgentFactoryEnactment.class);
+    extractionFactory = mock(AgentFactoryExtraction.class);
+    transmissionFactory = mock(AgentFactoryTransmission.class);
+    schedulingFactory = mock(AgentFactoryScheduling.class);
+    transformFactory = mock(AgentFactoryTransform.class);
+    handlerMock = mock(DataHandler.class);
+    emerMan = mock(EmergencyManager.class);
+  }
+
+  protected EnactmentReactor getTested() {
+    ExecutorProvider providerMock = mock(ExecutorProvider.class);
+    when(providerMock.getExecutorService(Stage.Enactment)).thenReturn(execMock);
+    return new EnactmentReactor(queues, graphAccess, providerMock, enactmentFactory,
+        extractionFactory, transmissionFactory, schedulingFactory, transformFactory,
+        handlerMock, emerMan, mock(Control.class));
+  }
+
+  @Test
+  public void testEmptyQueues() {
+    EnactmentReactor tested = getTested();
+    assertFalse(tested.processNextEvent());
+    verify(emerMan).registerMain(tested);
+  }
+
+  @Test
+  public void testLaunchableFirst() {
+    EnactmentReactor tested = getTested();
+    Task schedulable = new Task("schedulable");
+    Task launchable = new Task("launchable");
+    AgentEnactment enactmentAgent = mock(AgentEnactment.class);
+    AgentScheduling schedulingAgent = mock(AgentScheduling.class);
+    when(enactmentFactory.createEnactmentAgent(launchable, tested.listeners))
+        .thenReturn(enactmentAgent);
+    when(schedulingFactory.createSchedulingAgent(schedulable, tested.listeners))
+        .thenReturn(schedulingAgent);
+    queues.putSchedulableTask(schedulable);
+    queues.putLaunchableTask(launchable);
+
+    assertTrue(tested.processNextEvent());
+    verify(execMock).submit(enactmentAgent);
+    assertTrue(tested.processNextEvent());
+    // the scheduling is done within the loop
+    verify(schedulingAgent).call();
+    assertFalse(tested.processNextEvent());
+  }
+
+  @Test
+  public void testFinishedAndTransform() {
+    EnactmentReactor tested = getTested();
+    Task finished = new Task("finished");
+    Task data = new Task("data");
+    EdgeTupleAppl tuple = new EdgeTupleAppl(finished, data, new Dependency("dep"));
+    when(graphAccess.getOutEdges(finished)).thenReturn(Set.of(tuple));
+    AgentExtraction extractionAgent = mock(AgentExtraction.class);
+    when(extractionFactory.createExtractionAgent(tuple, tested.listeners))
+        .thenReturn(extractionAgent);
+    Task toTransform = new Task("transform");
+    AgentTransform transformAgent = mock(AgentTransform.class);
+    when(transformFactory.createTransformAgent(toTransform, tested.listeners))
+        .thenReturn(transformAgent);
+    queues.putFinishedTask(finished);
+    queues.putTransformTask(toTransform);
+
+    assertTrue(tested.processNextEvent());
+    verify(extractionAgent).call();
+    assertTrue(tested.processNextEvent());
+    verify(transformAgent).call();
+  }
+
+  @Test
+  public void testAvailableData() {
+    EnactmentReactor tested = getTested();
+    Task data = new Task("data");
+    Task function = new Task("function");
+    EdgeTupleAppl tuple = new EdgeTupleAppl(data, function, new Dependency("dep"));
+    when(graphAccess.getOutEdges(data)).thenReturn(Set.of(tuple));
+    AgentTransmission transmissionAgent = mock(AgentTransmission.class);
+    when(transmissionFactory.createTransmissionAgent(tuple, tested.listeners))
+        .thenReturn(transmissionAgent);
+    queues.putAvailableData(data);
+    assertTrue(tested.processNextEvent());
+    verify(transmissionAgent).call();
+    assertFalse(tested.wokenUp);
+    queues.putAvailableData(leaf);
+    assertTrue(tested.processNextEvent());
+    verify(handlerMock).publishResult(leaf);
+    assertTrue(tested.wokenUp);
+  }
+
+  @Test
+  public void testProcessInput() throws Exception {
+    EnactmentReactor tested = getTested();
+    JsonObject input = new JsonObject();
+    JsonObject output = new JsonObject();
+    when(handlerMock.extractResult()).thenReturn(output);
+    Task function = new Task("function");
+    AgentEnactment enactmentAgent = mock(AgentEnactment.class);
+    when(enactmentFactory.createEnactmentAgent(function, tested.listeners))
+        .thenReturn(enactmentAgent);
+    doAnswer(invocation -> {
+      queues.putLaunchableTask(function);
+      return null;
+    }).when(handlerMock).annotateAvailableData(input);
+    ExecutorService producer = Executors.newSingleThreadExecutor();
+    // the "enactment" produces the wf result from another thread
+    when(execMock.submit(enactmentAgent)).thenAnswer(invocation -> producer.submit(() -> {
+      Thread.sleep(50);
+      queues.putAvailableData(leaf);
+      return true;
+    }));
+    try {
+      assertEquals(output, tested.processInput(input));
+      // the wake up call is consumed
+      assertFalse(tested.wokenUp);
+      assertTrue(tested.availableWfResults.isEmpty());
+    } finally {
+      producer.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testStop() throws Exception {
+    EnactmentReactor tested = getTested();
+    ExecutorService stopper = Executors.newSingleThreadExecutor();
+    stopper.submit(() -> {
+      Thread.sleep(50);
+      tested.reactToStateChange(EnactmentState.RUNNING, EnactmentState.STOPPED);
+      return true;
+    });
+    try {
+      tested.processInput(new JsonObject());
+      fail();
+    } catch (StopException stopExc) {
+      assertTrue(tested.enactmentStopped);
+    } finally {
+      stopper.shutdown();
+      stopper.awaitTermination(1, TimeUnit.SECONDS);
+    }
+  }
+
+  @Test
+  public void testPauseAndResume() throws Exception {
+    EnactmentReactor tested = getTested();
+    tested.reactToStateChange(EnactmentState.RUNNING, EnactmentState.PAUSED);
+    assertTrue(tested.paused);
+    tested.reactToStateChange(EnactmentState.PAUSED, EnactmentState.RUNNING);
+    assertFalse(tested.paused);
+    verify(emerMan).registerMain(any(MainAgent.class));
+  }
+}
@@ -0,0 +1,126 @@
+package at.uibk.dps.ee.control.management;
+
+import static org.junit.Assert.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.Test;
+import at.uibk.dps.ee.control.management.ExecutorProvider.Stage;
+
+public class ExecutorProviderStagedTest {
+
+  @Test
+  public void testStageExecutors() {
+    ExecutorProviderStaged tested = new ExecutorProviderStaged(2, 5, 10);
+    assertSame(tested.getExecutorService(), tested.getExecutorService(Stage.Activation));
+    ExecutorService enactment = tested.getExecutorService(Stage.Enactment);
+    ExecutorService transmission = tested.getExecutorService(Stage.Transmission);
+    assertNotSame(enactment, transmission);
+    assertNotSame(transmission, tested.getExecutorService(Stage.Extraction));
+    assertEquals(5, ((ThreadPoolExecutor) enactment).getMaximumPoolSize());
+    assertEquals(2, ((ThreadPoolExecutor) transmission).getMaximumPoolSize());
+    assertEquals(10, ((ThreadPoolExecutor) transmission).getQueue().remainingCapacity());
+    for (Stage stage : Stage.values()) {
+      tested.getExecutorService(stage).shutdownNow();
+    }
+  }
+
+  @Test
+  public void testDefaultBookkeepingThreads() {
+    ExecutorProviderStaged tested = new ExecutorProviderStaged(0, 1, 1);
+    ThreadPoolExecutor scheduling =
+        (ThreadPoolExecutor) tested.getExecutorService(Stage.Scheduling);
+    assertEquals(Runtime.getRuntime().availableProcessors(), scheduling.getMaximumPoolSize());
+    for (Stage stage : Stage.values()) {
+      tested.getExecutorService(stage).shutdownNow();
+    }
+  }
+
+  @Test
+  public void testBackPressure() throws Exception {
+    ExecutorProviderStaged tested = new ExecutorProviderStaged(1, 1, 1);
+    ExecutorService enactment = tested.getExecutorService(Stage.Enactment);
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch submitted = new CountDownLatch(1);
+    Runnable blocking = () -> {
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        fail();
+      }
+    };
+    // occupies the thread and the queue
+    enactment.submit(blocking);
+    enactment.submit(blocking);
+    Thread submitter = new Thread(() -> {
+      enactment.submit(() -> {
+      });
+      submitted.countDown();
+    });
+    submitter.start();
+    // the third submission blocks while the executor is full
+    assertFalse(submitted.await(100, TimeUnit.MILLISECONDS));
+    release.countDown();
+    assertTrue(submitted.await(1, TimeUnit.SECONDS));
+    for (Stage stage : Stage.values()) {
+      tested.getExecutorService(stage).shutdownNow();
+    }
+  }
+
+  @Test
+  public void testShutdownWhileBlocked() throws Exception {
+    ExecutorProviderStaged tested = new ExecutorProviderStaged(1, 1, 1);
+    ExecutorService enactment = tested.getExecutorService(Stage.Enactment);
+    CountDownLatch releaseFirst = new CountDownLatch(1);
+    CountDownLatch releaseSecond = new CountDownLatch(1);
+    CountDownLatch secondStarted = new CountDownLatch(1);
+    AtomicBoolean rejected = new AtomicBoolean();
+    AtomicBoolean run = new AtomicBoolean();
+    // occupies the thread and the queue
+    enactment.submit(() -> {
+      try {
+        releaseFirst.await();
+      } catch (InterruptedException e) {
+        fail();
+      }
+    });
+    enactment.submit(() -> {
+      secondStarted.countDown();
+      try {
+        releaseSecond.await();
+      } catch (InterruptedException e) {
+        fail();
+      }
+    });
+    Thread submitter = new Thread(() -> {
+      try {
+        enactment.submit(() -> run.set(true));
+      } catch (RejectedExecutionException exc) {
+        rejected.set(true);
+      }
+    });
+    submitter.start();
+    Thread.sleep(100);
+    // shut down while the submitter is blocked
+    enactment.shutdown();
+    releaseFirst.countDown();
+    assertTrue(secondStarted.await(1, TimeUnit.SECONDS));
+    submitter.join(1000);
+    releaseSecond.countDown();
+    assertTrue(enactment.awaitTermination(1, TimeUnit.SECONDS));
+    // the task enqueued after the shutdown is rejected instead of being lost
+    assertTrue(rejected.get());
+    assertFalse(run.get());
+    for (Stage stage : Stage.values()) {
+      tested.getExecutorService(stage).shutdownNow();
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidConfiguration() {
+    new ExecutorProviderStaged(1, 0, 1);
+  }
+}
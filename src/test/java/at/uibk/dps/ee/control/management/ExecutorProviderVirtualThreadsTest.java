@@ -0,0 +1,25 @@
+package at.uibk.dps.ee.control.management;
+
+import static org.junit.Assert.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import org.junit.Test;
+
+public class ExecutorProviderVirtualThreadsTest {
+
+  @Test
+  public void testExecutor() throws Exception {
+    ExecutorProviderVirtualThreads tested = new ExecutorProviderVirtualThreads();
+    ExecutorService executor = tested.getExecutorService();
+    assertSame(executor, tested.getExecutorService());
+    boolean virtualSupported = ExecutorProviderVirtualThreads.createVirtualThreadExecutor()
+        .map(exec -> {
+          exec.shutdown();
+          return true;
+        }).orElse(false);
+    assertEquals(virtualSupported, tested.isVirtual());
+    Future<Boolean> future = executor.submit(() -> true);
+    assertTrue(future.get());
+    executor.shutdown();
+  }
+}
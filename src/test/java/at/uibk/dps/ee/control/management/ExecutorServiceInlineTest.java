@@ -0,0 +1,27 @@
+package at.uibk.dps.ee.control.management;
+
+import static org.junit.Assert.*;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import org.junit.Test;
+
+public class ExecutorServiceInlineTest {
+
+  @Test
+  public void testRunInCallerThread() throws Exception {
+    ExecutorServiceInline tested = new ExecutorServiceInline();
+    Thread caller = Thread.currentThread();
+    Future<Boolean> future = tested.submit(() -> Thread.currentThread() == caller);
+    assertTrue(future.isDone());
+    assertTrue(future.get());
+  }
+
+  @Test(expected = RejectedExecutionException.class)
+  public void testShutdown() {
+    ExecutorServiceInline tested = new ExecutorServiceInline();
+    tested.shutdown();
+    assertTrue(tested.isShutdown());
+    tested.execute(() -> {
+    });
+  }
+}
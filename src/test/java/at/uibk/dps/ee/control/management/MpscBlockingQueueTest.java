@@ -0,0 +1,108 @@
+package at.uibk.dps.ee.control.management;
+
+import static org.junit.Assert.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class MpscBlockingQueueTest {
+
+  @Test
+  public void testFifo() {
+    MpscBlockingQueue<Integer> tested = new MpscBlockingQueue<>();
+    assertTrue(tested.isEmpty());
+    assertNull(tested.poll());
+    tested.offer(1);
+    tested.offer(2);
+    tested.offer(3);
+    assertEquals(3, tested.size());
+    assertEquals(Integer.valueOf(1), tested.peek());
+    assertEquals(Integer.valueOf(1), tested.poll());
+    assertEquals(Integer.valueOf(2), tested.poll());
+    assertEquals(Integer.valueOf(3), tested.poll());
+    assertNull(tested.poll());
+    assertTrue(tested.isEmpty());
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void testNullElement() {
+    MpscBlockingQueue<Integer> tested = new MpscBlockingQueue<>();
+    tested.offer(null);
+  }
+
+  @Test
+  public void testDrainTo() {
+    MpscBlockingQueue<Integer> tested = new MpscBlockingQueue<>();
+    for (int i = 0; i < 5; i++) {
+      tested.offer(i);
+    }
+    List<Integer> result = new ArrayList<>();
+    assertEquals(3, tested.drainTo(result, 3));
+    assertEquals(List.of(0, 1, 2), result);
+    assertEquals(2, tested.drainTo(result));
+    assertEquals(List.of(0, 1, 2, 3, 4), result);
+    assertTrue(tested.isEmpty());
+  }
+
+  @Test
+  public void testPollTimeout() throws InterruptedException {
+    MpscBlockingQueue<Integer> tested = new MpscBlockingQueue<>();
+    assertNull(tested.poll(10, TimeUnit.MILLISECONDS));
+    tested.offer(1);
+    assertEquals(Integer.valueOf(1), tested.poll(10, TimeUnit.MILLISECONDS));
+  }
+
+  @Test
+  public void testTakeWaitsForProducer() throws Exception {
+    MpscBlockingQueue<Integer> tested = new MpscBlockingQueue<>();
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<Integer> taken = executor.submit(() -> tested.take());
+      Thread.sleep(20);
+      assertFalse(taken.isDone());
+      tested.put(42);
+      assertEquals(Integer.valueOf(42), taken.get(5, TimeUnit.SECONDS));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testMultipleProducers() throws Exception {
+    MpscBlockingQueue<Integer> tested = new MpscBlockingQueue<>();
+    int producers = 4;
+    int perProducer = 10000;
+    ExecutorService executor = Executors.newFixedThreadPool(producers);
+    try {
+      for (int p = 0; p < producers; p++) {
+        int offset = p * perProducer;
+        executor.submit(() -> {
+          for (int i = 0; i < perProducer; i++) {
+            tested.offer(offset + i);
+          }
+        });
+      }
+      Set<Integer> taken = new HashSet<>();
+      int[] lastPerProducer = new int[producers];
+      Arrays.fill(lastPerProducer, -1);
+      for (int i = 0; i < producers * perProducer; i++) {
+        int element = tested.take();
+        assertTrue(taken.add(element));
+        // the elements of each producer arrive in order
+        int producer = element / perProducer;
+        assertTrue(element > lastPerProducer[producer]);
+        lastPerProducer[producer] = element;
+      }
+      assertTrue(tested.isEmpty());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
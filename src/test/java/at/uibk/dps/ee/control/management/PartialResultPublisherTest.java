@@ -0,0 +1,46 @@
+package at.uibk.dps.ee.control.management;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+public class PartialResultPublisherTest {
+
+  @Test
+  public void testInstanceIds() {
+    PartialResultPublisher tested = new PartialResultPublisher();
+    JsonObject input = new JsonObject();
+    long first = tested.startInstance(input);
+    long second = tested.startInstance(input);
+    // identical inputs, different instances
+    assertNotEquals(first, second);
+  }
+
+  @Test
+  public void testFailingConsumer() {
+    PartialResultPublisher tested = new PartialResultPublisher();
+    PartialResultConsumer failing = mock(PartialResultConsumer.class);
+    doThrow(new IllegalStateException("failed")).when(failing)
+        .consumePartialResult(anyLong(), anyString(), any(JsonElement.class));
+    List<JsonElement> received = new ArrayList<>();
+    tested.addConsumer(failing);
+    tested.addConsumer((instanceId, key, content) -> received.add(content));
+    JsonObject content = new JsonObject();
+    content.addProperty("entry", 42);
+    tested.publish(1L, "key", content);
+    verify(failing).consumePartialResult(1L, "key", content);
+    assertEquals(1, received.size());
+    assertEquals(content, received.get(0));
+    // the consumers get copies
+    assertNotSame(content, received.get(0));
+  }
+}
@@ -0,0 +1,85 @@
+package at.uibk.dps.ee.control.transmission;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import org.junit.Test;
+import com.google.gson.JsonPrimitive;
+import at.uibk.dps.ee.control.graph.ExecutionPlan;
+import at.uibk.dps.ee.control.graph.InstanceStatePlan;
+import at.uibk.dps.ee.enactables.wrapper.FactoryInterface;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependencyControlIf;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlow;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlow.DataFlowType;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionUser;
+import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+
+public class ReadinessTrackerPlanTest {
+
+  @Test
+  public void testDataDependencies() {
+    Task src1 = new Communication("comm1");
+    Task src2 = new Communication("comm2");
+    Task dest = PropertyServiceFunctionUser.createUserTask("task", "addition");
+    EnactmentGraph graph = new EnactmentGraph();
+    Dependency dep1 = PropertyServiceDependency.addDataDependency(src1, dest, "key1", graph);
+    Dependency dep2 = PropertyServiceDependency.addDataDependency(src2, dest, "key2", graph);
+    ExecutionPlan plan = ExecutionPlan.compile(graph, 0);
+    InstanceStatePlan state = new InstanceStatePlan(plan, mock(FactoryInterface.class));
+    ReadinessTrackerPlan tested = new ReadinessTrackerPlan(plan, state);
+    assertFalse(tested.registerTransmission(plan.getEdgeIndex(dep1)));
+    assertTrue(state.isTransmissionDone(dep1));
+    assertTrue(tested.registerTransmission(plan.getEdgeIndex(dep2)));
+  }
+
+  @Test
+  public void testControlIf() {
+    Task data = new Communication("data");
+    Task decision = new Communication("decision");
+    Task dest = PropertyServiceFunctionUser.createUserTask("task", "addition");
+    EnactmentGraph graph = new EnactmentGraph();
+    Dependency dataDep = PropertyServiceDependency.addDataDependency(data, dest, "key", graph);
+    Dependency ifDep =
+        PropertyServiceDependencyControlIf.addIfDependency(decision, dest, "if", true, graph);
+    ExecutionPlan plan = ExecutionPlan.compile(graph, 0);
+
+    // active if edge
+    InstanceStatePlan state = new InstanceStatePlan(plan, mock(FactoryInterface.class));
+    state.setContent(decision, new JsonPrimitive(true));
+    ReadinessTrackerPlan tested = new ReadinessTrackerPlan(plan, state);
+    assertFalse(tested.registerTransmission(plan.getEdgeIndex(ifDep)));
+    assertTrue(tested.registerTransmission(plan.getEdgeIndex(dataDep)));
+
+    // inactive if edge: the node never becomes ready
+    state = new InstanceStatePlan(plan, mock(FactoryInterface.class));
+    state.setContent(decision, new JsonPrimitive(false));
+    tested = new ReadinessTrackerPlan(plan, state);
+    assertFalse(tested.registerTransmission(plan.getEdgeIndex(ifDep)));
+    assertFalse(tested.registerTransmission(plan.getEdgeIndex(dataDep)));
+  }
+
+  @Test
+  public void testMuxer() {
+    Task decision = new Communication("decision");
+    Task trueData = new Communication("trueData");
+    Task falseData = new Communication("falseData");
+    Task muxer =
+        PropertyServiceFunctionDataFlow.createDataFlowFunction("muxer", DataFlowType.Multiplexer);
+    EnactmentGraph graph = new EnactmentGraph();
+    Dependency decDep = PropertyServiceDependency.addDataDependency(decision, muxer, "dec", graph);
+    Dependency trueDep =
+        PropertyServiceDependencyControlIf.addIfDependency(trueData, muxer, "true", true, graph);
+    PropertyServiceDependencyControlIf.addIfDependency(falseData, muxer, "false", false, graph);
+    ExecutionPlan plan = ExecutionPlan.compile(graph, 0);
+    InstanceStatePlan state = new InstanceStatePlan(plan, mock(FactoryInterface.class));
+    state.setContent(decision, new JsonPrimitive(true));
+    ReadinessTrackerPlan tested = new ReadinessTrackerPlan(plan, state);
+    assertFalse(tested.registerTransmission(plan.getEdgeIndex(decDep)));
+    assertTrue(tested.registerTransmission(plan.getEdgeIndex(trueDep)));
+    // reported only once
+    assertFalse(tested.registerTransmission(plan.getEdgeIndex(decDep)));
+  }
+}
@@ -0,0 +1,118 @@
+package at.uibk.dps.ee.control.transmission;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.junit.Test;
+import com.google.gson.JsonPrimitive;
+import at.uibk.dps.ee.control.graph.GraphAccess;
+import at.uibk.dps.ee.control.graph.InstanceStateGraph;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.properties.PropertyServiceData;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependencyControlIf;
+import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+
+public class ReadinessTrackerTest {
+
+  @Test
+  public void testDataDependencies() {
+    Task src1 = new Communication("comm1");
+    Task src2 = new Communication("comm2");
+    Task dest = new Task("task");
+    EnactmentGraph graph = new EnactmentGraph();
+    PropertyServiceDependency.addDataDependency(src1, dest, "key1", graph);
+    PropertyServiceDependency.addDataDependency(src2, dest, "key2", graph);
+    Dependency dep1 = graph.getOutEdges(src1).iterator().next();
+    Dependency dep2 = graph.getOutEdges(src2).iterator().next();
+    ReadinessTracker tested =
+        new ReadinessTracker(new InstanceStateGraph(), mock(GraphAccess.class));
+
+    PropertyServiceDependency.annotateFinishedTransmission(dep1);
+    assertFalse(tested.registerTransmission(dest, dep1, graph));
+    assertTrue(tested.pendingDependencies.containsKey(dest));
+    assertEquals(1, tested.pendingDependencies.get(dest).pendingInputs.get());
+
+    PropertyServiceDependency.annotateFinishedTransmission(dep2);
+    assertTrue(tested.registerTransmission(dest, dep2, graph));
+    assertFalse(tested.pendingDependencies.containsKey(dest));
+  }
+
+  @Test
+  public void testSingleDependency() {
+    Task src = new Communication("comm");
+    Task dest = new Task("task");
+    EnactmentGraph graph = new EnactmentGraph();
+    PropertyServiceDependency.addDataDependency(src, dest, "key", graph);
+    Dependency dep = graph.getOutEdges(src).iterator().next();
+    PropertyServiceDependency.annotateFinishedTransmission(dep);
+    ReadinessTracker tested =
+        new ReadinessTracker(new InstanceStateGraph(), mock(GraphAccess.class));
+    assertTrue(tested.registerTransmission(dest, dep, graph));
+    assertTrue(tested.pendingDependencies.isEmpty());
+  }
+
+  @Test
+  public void testIfDependencies() {
+    Task src = new Communication("comm");
+    Task decActive = new Communication("decActive");
+    Task decInactive = new Communication("decInactive");
+    Task dest = new Task("task");
+    EnactmentGraph graph = new EnactmentGraph();
+    PropertyServiceDependency.addDataDependency(src, dest, "key", graph);
+    PropertyServiceDependencyControlIf.addIfDependency(decActive, dest, "ifKey1", true, graph);
+    PropertyServiceDependencyControlIf.addIfDependency(decInactive, dest, "ifKey2", true, graph);
+    Dependency dataDep = graph.getOutEdges(src).iterator().next();
+    Dependency activeDep = graph.getOutEdges(decActive).iterator().next();
+    Dependency inactiveDep = graph.getOutEdges(decInactive).iterator().next();
+    PropertyServiceData.setContent(decActive, new JsonPrimitive(true));
+    PropertyServiceData.setContent(decInactive, new JsonPrimitive(false));
+    ReadinessTracker tested =
+        new ReadinessTracker(new InstanceStateGraph(), mock(GraphAccess.class));
+
+    PropertyServiceDependency.annotateFinishedTransmission(activeDep);
+    assertFalse(tested.registerTransmission(dest, activeDep, graph));
+    assertEquals(2, tested.pendingDependencies.get(dest).pendingInputs.get());
+    assertEquals(1, tested.pendingDependencies.get(dest).pendingControlIfs.get());
+
+    PropertyServiceDependency.annotateFinishedTransmission(dataDep);
+    assertFalse(tested.registerTransmission(dest, dataDep, graph));
+
+    // all transmitted, but one if edge is not active
+    PropertyServiceDependency.annotateFinishedTransmission(inactiveDep);
+    assertFalse(tested.registerTransmission(dest, inactiveDep, graph));
+    assertEquals(0, tested.pendingDependencies.get(dest).pendingInputs.get());
+    assertEquals(1, tested.pendingDependencies.get(dest).pendingControlIfs.get());
+  }
+
+  @Test
+  public void testTransformedGraph() {
+    Task src1 = new Communication("comm1");
+    Task src2 = new Communication("comm2");
+    Task dest = new Task("task");
+    EnactmentGraph graph = new EnactmentGraph();
+    PropertyServiceDependency.addDataDependency(src1, dest, "key1", graph);
+    PropertyServiceDependency.addDataDependency(src2, dest, "key2", graph);
+    Dependency dep1 = graph.getOutEdges(src1).iterator().next();
+    Dependency dep2 = graph.getOutEdges(src2).iterator().next();
+    GraphAccess graphAccess = mock(GraphAccess.class);
+    when(graphAccess.getStructureVersion()).thenReturn(0L);
+    ReadinessTracker tested = new ReadinessTracker(new InstanceStateGraph(), graphAccess);
+    Task unreached = new Task("unreached");
+    tested.pendingDependencies.put(unreached, new ReadinessTracker.PendingDependencies(1, 0));
+
+    PropertyServiceDependency.annotateFinishedTransmission(dep1);
+    assertFalse(tested.registerTransmission(dest, dep1, graph));
+    // a transformation adds an in edge to the node
+    Task src3 = new Communication("comm3");
+    PropertyServiceDependency.addDataDependency(src3, dest, "key3", graph);
+    when(graphAccess.getStructureVersion()).thenReturn(1L);
+    PropertyServiceDependency.annotateFinishedTransmission(dep2);
+    assertFalse(tested.registerTransmission(dest, dep2, graph));
+    assertEquals(1, tested.pendingDependencies.get(dest).pendingInputs.get());
+    // the counters of the other nodes were dropped
+    assertFalse(tested.pendingDependencies.containsKey(unreached));
+  }
+}
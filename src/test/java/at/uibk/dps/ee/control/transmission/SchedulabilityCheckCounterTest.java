@@ -0,0 +1,25 @@
+package at.uibk.dps.ee.control.transmission;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.junit.Test;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+
+public class SchedulabilityCheckCounterTest {
+
+  @Test
+  public void testIsTargetSchedulable() {
+    ReadinessTracker trackerMock = mock(ReadinessTracker.class);
+    Dependency edge = new Dependency("edge");
+    Task target = new Task("task");
+    EnactmentGraph graph = new EnactmentGraph();
+    when(trackerMock.registerTransmission(target, edge, graph)).thenReturn(true);
+    SchedulabilityCheckCounter tested = new SchedulabilityCheckCounter(trackerMock, edge);
+    assertTrue(tested.isTargetSchedulable(target, graph));
+    verify(trackerMock).registerTransmission(target, edge, graph);
+  }
+}
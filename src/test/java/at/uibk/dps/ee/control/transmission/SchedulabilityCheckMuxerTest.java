@@ -3,6 +3,7 @@ package at.uibk.dps.ee.control.transmission;
 import static org.junit.Assert.*;
 import org.junit.Test;
 import com.google.gson.JsonPrimitive;
+import at.uibk.dps.ee.control.graph.InstanceStateGraph;
 import at.uibk.dps.ee.model.graph.EnactmentGraph;
 import at.uibk.dps.ee.model.properties.PropertyServiceData;
 import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
@@ -27,7 +28,7 @@ public class SchedulabilityCheckMuxerTest {
     PropertyServiceData.setContent(decSrc, new JsonPrimitive(true));
     PropertyServiceDependency.addDataDependency(decSrc, dest, "key", graph);
     Dependency ifDep = graph.getOutEdges(decSrc).iterator().next();
-    SchedulabilityCheckMuxer tested = new SchedulabilityCheckMuxer();
+    SchedulabilityCheckMuxer tested = new SchedulabilityCheckMuxer(new InstanceStateGraph());
     // none are active
     assertFalse(tested.isTargetSchedulable(dest, graph));
     // if is active
@@ -54,7 +55,7 @@ public class SchedulabilityCheckMuxerTest {
     PropertyServiceDependency.addDataDependency(decSrc, dest, "key", graph);
     PropertyServiceDependency.addDataDependency(src2, dest, "key", graph);
     PropertyServiceDependencyControlIf.addIfDependency(src1, dest, "key1", false, graph);
-    SchedulabilityCheckMuxer tested = new SchedulabilityCheckMuxer();
+    SchedulabilityCheckMuxer tested = new SchedulabilityCheckMuxer(new InstanceStateGraph());
     tested.isTargetSchedulable(dest, graph);
   }
   
@@ -69,7 +70,7 @@ public class SchedulabilityCheckMuxerTest {
     PropertyServiceDependency.addDataDependency(decSrc, dest, "key", graph);
     PropertyServiceDependencyControlIf.addIfDependency(src1, dest, "key1", true, graph);
     PropertyServiceDependencyControlIf.addIfDependency(src2, dest, "key2", true, graph);
-    SchedulabilityCheckMuxer tested = new SchedulabilityCheckMuxer();
+    SchedulabilityCheckMuxer tested = new SchedulabilityCheckMuxer(new InstanceStateGraph());
     tested.isTargetSchedulable(dest, graph);
   }
   
@@ -81,7 +82,7 @@ public class SchedulabilityCheckMuxerTest {
     EnactmentGraph graph = new EnactmentGraph();
     PropertyServiceDependencyControlIf.addIfDependency(src1, dest, "key1", false, graph);
     PropertyServiceDependencyControlIf.addIfDependency(src2, dest, "key2", true, graph);
-    SchedulabilityCheckMuxer tested = new SchedulabilityCheckMuxer();
+    SchedulabilityCheckMuxer tested = new SchedulabilityCheckMuxer(new InstanceStateGraph());
     tested.isTargetSchedulable(dest, graph);
   }
 
@@ -0,0 +1,53 @@
+package at.uibk.dps.ee.control.transmission;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.Test;
+import at.uibk.dps.ee.control.graph.DistributionWindow;
+import at.uibk.dps.ee.control.management.EnactmentQueues;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+
+public class SchedulabilityCheckWindowTest {
+
+  @Test
+  public void testIsTargetSchedulable() {
+    Task distribution = new Task("distribution");
+    Task aggregator = new Task("aggregator");
+    Set<Task> aggregators = new HashSet<>();
+    aggregators.add(aggregator);
+    DistributionWindow window = new DistributionWindow(distribution, 2, 1, new HashSet<>(),
+        new HashSet<>(), aggregators);
+    Dependency edge0 = new Dependency("edge0");
+    Dependency edge1 = new Dependency("edge1");
+    window.registerAggregationEdge(edge0, 0);
+    window.registerAggregationEdge(edge1, 1);
+    EnactmentQueues queues = mock(EnactmentQueues.class);
+    EnactmentGraph graph = new EnactmentGraph();
+
+    SchedulabilityCheckWindow tested = new SchedulabilityCheckWindow(window, edge0, queues);
+    assertFalse(tested.isTargetSchedulable(aggregator, graph));
+    verify(queues).putTransformTask(window.getSlideTrigger());
+    assertEquals(Integer.valueOf(0), window.pollCompletedIteration());
+
+    tested = new SchedulabilityCheckWindow(window, edge1, queues);
+    assertTrue(tested.isTargetSchedulable(aggregator, graph));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownEdge() {
+    Task aggregator = new Task("aggregator");
+    Set<Task> aggregators = new HashSet<>();
+    aggregators.add(aggregator);
+    DistributionWindow window = new DistributionWindow(new Task("distribution"), 2, 1,
+        new HashSet<>(), new HashSet<>(), aggregators);
+    EnactmentQueues queues = mock(EnactmentQueues.class);
+    SchedulabilityCheckWindow tested =
+        new SchedulabilityCheckWindow(window, new Dependency("edge"), queues);
+    tested.isTargetSchedulable(aggregator, new EnactmentGraph());
+  }
+}